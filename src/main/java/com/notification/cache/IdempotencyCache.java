@@ -0,0 +1,49 @@
+package com.notification.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.config.IdempotencyProperties;
+import com.notification.model.projection.IdempotentRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Recently used idempotency keys, per user, mapped to the notification first
+ * created with them and the fingerprint of that request. Checked before the
+ * unique index on {@code notifications (user_id, idempotency_key)} so that
+ * client retries rarely hit the DB.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Cache<Key, IdempotentRequest> cache;
+
+    public IdempotencyCache(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+    }
+
+    public Optional<IdempotentRequest> get(Long userId, String idempotencyKey) {
+        return Optional.ofNullable(cache.getIfPresent(new Key(userId, idempotencyKey)));
+    }
+
+    /**
+     * Remembers the key once the surrounding transaction commits, so a rolled
+     * back insert never leaves a key pointing at a notification that does not exist.
+     */
+    public void put(Long userId, String idempotencyKey, IdempotentRequest request) {
+        AfterCommit.run(() -> cache.put(new Key(userId, idempotencyKey), request));
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.notification.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.notification.config.CacheProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.projection.NotificationSummary;
+import com.notification.repository.CacheInvalidationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Write-through status cache for recently created notifications, which get most
+ * of the {@code GET /{id}} polling traffic.
+ * <p>
+ * Every entry expires when its notification reaches the configured age, using
+ * Caffeine's timer wheel. Each dispatcher transition and each bulk rewrite, such
+ * as replayed dead letters, is written to the cache change log with its rows,
+ * so other nodes drop their copy within a coherence poll instead of serving a
+ * stale in-flight status until the entry ages out.
+ */
+@Component
+public class NotificationStatusCache {
+
+    public static final String NAME = "notification-statuses";
+
+    private final CacheInvalidationRepository invalidationRepository;
+    private final boolean coherenceEnabled;
+
+    private final Duration maxAge;
+
+    private final Cache<Long, NotificationSummary> statuses;
+
+    public NotificationStatusCache(CacheProperties cacheProperties,
+                                   CacheInvalidationRepository invalidationRepository,
+                                   MeterRegistry meterRegistry) {
+
+        this.invalidationRepository = invalidationRepository;
+        this.coherenceEnabled = cacheProperties.getCoherence().isEnabled();
+
+        CacheProperties.Spec spec = cacheProperties.getStatuses();
+
+        this.maxAge = spec.getTtl();
+
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfter(new Expiry<Long, NotificationSummary>() {
+                    @Override
+                    public long expireAfterCreate(Long id, NotificationSummary summary, long currentTime) {
+                        return timeToLive(summary).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, NotificationSummary summary,
+                                                  long currentTime, long currentDuration) {
+                        return timeToLive(summary).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, NotificationSummary summary,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, statuses, NAME);
+    }
+
+    public Optional<NotificationSummary> get(Long notificationId) {
+        return Optional.ofNullable(statuses.getIfPresent(notificationId));
+    }
+
+    /**
+     * Write-through from a state transition. The snapshot is taken after commit,
+     * once the flush has stamped {@code updatedAt}.
+     */
+    public void put(Notification notification) {
+        AfterCommit.run(() -> store(NotificationSummary.from(notification)));
+    }
+
+    /**
+     * Write-through from a transition of a row other nodes may have cached. Must
+     * be called inside the writing transaction so the change log commits with
+     * the row.
+     */
+    public void publish(Notification notification) {
+
+        if (coherenceEnabled) {
+            invalidationRepository.record(NAME, notification.getId());
+        }
+
+        put(notification);
+    }
+
+    /**
+     * Caches a snapshot read from the database. An older snapshot never
+     * replaces a newer one already cached.
+     */
+    public void put(NotificationSummary summary) {
+        AfterCommit.run(() -> store(summary));
+    }
+
+    /**
+     * Drops entries whose rows were rewritten in bulk. Must be called inside the
+     * writing transaction so the change log commits with the rows.
+     */
+    public void invalidate(List<Long> notificationIds) {
+
+        if (coherenceEnabled) {
+            invalidationRepository.recordAll(NAME, notificationIds);
+        }
+
+        AfterCommit.run(() -> statuses.invalidateAll(notificationIds));
+    }
+
+    public void evictLocally(Long notificationId) {
+        statuses.invalidate(notificationId);
+    }
+
+    public void evictAllLocally() {
+        statuses.invalidateAll();
+    }
+
+    private void store(NotificationSummary summary) {
+
+        if (summary.id() == null || summary.createdAt() == null || timeToLive(summary).isZero()) {
+            return;
+        }
+
+        statuses.asMap().merge(summary.id(), summary,
+                (current, candidate) -> isNewer(current, candidate) ? current : candidate);
+    }
+
+    private Duration timeToLive(NotificationSummary summary) {
+
+        Duration remaining = maxAge.minus(Duration.between(summary.createdAt(), LocalDateTime.now()));
+
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static boolean isNewer(NotificationSummary current, NotificationSummary candidate) {
+        return current.updatedAt() != null
+                && candidate.updatedAt() != null
+                && current.updatedAt().isAfter(candidate.updatedAt());
+    }
+}
@@ -0,0 +1,89 @@
+package com.notification.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.config.CacheProperties;
+import com.notification.model.routing.RoutingProfile;
+import com.notification.repository.CacheInvalidationRepository;
+import com.notification.repository.RoutingProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Routing profiles keyed by user id, shared by ingestion validation, payload
+ * rendering and channel delivery. Entries expire after a TTL and are evicted by
+ * size; user, endpoint and preference writes invalidate them after commit, and
+ * other nodes pick the change up from the invalidation log.
+ */
+@Component
+public class RoutingProfileCache {
+
+    public static final String NAME = "routing-profiles";
+
+    private final RoutingProfileRepository routingProfileRepository;
+    private final CacheInvalidationRepository invalidationRepository;
+    private final boolean coherenceEnabled;
+
+    private final Cache<Long, RoutingProfile> profiles;
+
+    public RoutingProfileCache(
+            RoutingProfileRepository routingProfileRepository,
+            CacheInvalidationRepository invalidationRepository,
+            CacheProperties cacheProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.routingProfileRepository = routingProfileRepository;
+        this.invalidationRepository = invalidationRepository;
+        this.coherenceEnabled = cacheProperties.getCoherence().isEnabled();
+
+        CacheProperties.Spec spec = cacheProperties.getRoutingProfiles();
+
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, NAME);
+    }
+
+    public Optional<RoutingProfile> get(Long userId) {
+
+        RoutingProfile cached = profiles.getIfPresent(userId);
+
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Unknown users are not cached, so a user created on another node is seen immediately
+        Optional<RoutingProfile> profile = routingProfileRepository.findByUserId(userId);
+
+        profile.ifPresent(value -> profiles.put(userId, value));
+
+        return profile;
+    }
+
+    /**
+     * Drops the profile on this node after commit and, in the same transaction,
+     * logs the change for the other nodes.
+     */
+    public void invalidate(Long userId) {
+
+        if (coherenceEnabled) {
+            invalidationRepository.record(NAME, userId);
+        }
+
+        AfterCommit.run(() -> profiles.invalidate(userId));
+    }
+
+    public void evictLocally(Long userId) {
+        profiles.invalidate(userId);
+    }
+
+    public void evictAllLocally() {
+        profiles.invalidateAll();
+    }
+}
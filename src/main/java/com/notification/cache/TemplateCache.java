@@ -0,0 +1,164 @@
+package com.notification.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.config.CacheProperties;
+import com.notification.config.TemplateProperties;
+import com.notification.model.entity.NotificationTemplateVariant;
+import com.notification.repository.CacheInvalidationRepository;
+import com.notification.repository.NotificationTemplateVariantRepository;
+import com.notification.template.CompiledTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Compiled template variants keyed by template id and requested locale, and the
+ * parameters each template needs across all its variants. Entries expire after a
+ * TTL and are evicted by size; variant writes invalidate them after commit, and
+ * other nodes pick the change up from the invalidation log.
+ */
+@Component
+public class TemplateCache {
+
+    public static final String NAME = "templates";
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateCache.class);
+
+    private final NotificationTemplateVariantRepository variantRepository;
+    private final CacheInvalidationRepository invalidationRepository;
+    private final boolean coherenceEnabled;
+    private final String defaultLocale;
+
+    // (templateId, requested locale) -> compiled variant chosen for that locale
+    private final Cache<TemplateKey, CompiledTemplate> compiledTemplates;
+
+    // templateId -> placeholders of every variant, checked when a notification is created
+    private final Cache<Long, Set<String>> parameterNames;
+
+    public TemplateCache(
+            NotificationTemplateVariantRepository variantRepository,
+            CacheInvalidationRepository invalidationRepository,
+            TemplateProperties templateProperties,
+            CacheProperties cacheProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.variantRepository = variantRepository;
+        this.invalidationRepository = invalidationRepository;
+        this.coherenceEnabled = cacheProperties.getCoherence().isEnabled();
+        this.defaultLocale = normalizeLocale(templateProperties.getDefaultLocale());
+
+        this.compiledTemplates = Caffeine.newBuilder()
+                .maximumSize(templateProperties.getCacheSize())
+                .expireAfterWrite(templateProperties.getCacheTtl())
+                .recordStats()
+                .build();
+
+        this.parameterNames = Caffeine.newBuilder()
+                .maximumSize(templateProperties.getCacheSize())
+                .expireAfterWrite(templateProperties.getCacheTtl())
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, compiledTemplates, NAME);
+    }
+
+    public CompiledTemplate get(Long templateId, String locale) {
+        return compiledTemplates.get(
+                new TemplateKey(templateId, locale),
+                key -> compile(key.templateId(), key.locale())
+        );
+    }
+
+    // Empty when the template does not exist; every template has a default-locale variant
+    public Optional<Set<String>> getParameterNames(Long templateId) {
+        return Optional.ofNullable(parameterNames.get(templateId, id -> {
+            List<NotificationTemplateVariant> variants = variantRepository.findByTemplateId(id);
+
+            if (variants.isEmpty()) {
+                return null;
+            }
+
+            Set<String> names = new LinkedHashSet<>();
+            variants.forEach(variant ->
+                    names.addAll(CompiledTemplate.compile(variant.getLocale(), variant.getBody())
+                            .getParameterNames()));
+            return Set.copyOf(names);
+        }));
+    }
+
+    public String getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    /**
+     * Drops the template on this node after commit and, in the same transaction,
+     * logs the change for the other nodes.
+     */
+    public void invalidate(Long templateId) {
+
+        if (coherenceEnabled) {
+            invalidationRepository.record(NAME, templateId);
+        }
+
+        AfterCommit.run(() -> evictLocally(templateId));
+    }
+
+    // A new variant can change which body other locales fall back to
+    public void evictLocally(Long templateId) {
+        compiledTemplates.asMap().keySet().removeIf(key -> key.templateId().equals(templateId));
+        parameterNames.invalidate(templateId);
+    }
+
+    public void evictAllLocally() {
+        compiledTemplates.invalidateAll();
+        parameterNames.invalidateAll();
+    }
+
+    public static String normalizeLocale(String locale) {
+        return locale.trim().replace('_', '-').toLowerCase(Locale.ROOT);
+    }
+
+    private CompiledTemplate compile(Long templateId, String locale) {
+
+        for (String candidate : candidateLocales(locale)) {
+
+            Optional<NotificationTemplateVariant> variant =
+                    variantRepository.findByTemplateIdAndLocale(templateId, candidate);
+
+            if (variant.isPresent()) {
+                logger.debug("Compiled template templateId={} requestedLocale={} locale={}",
+                        templateId, locale, candidate);
+                return CompiledTemplate.compile(candidate, variant.get().getBody());
+            }
+        }
+
+        throw new IllegalStateException(
+                "No template variant found for templateId=" + templateId + " locale=" + locale);
+    }
+
+    // "pt-br" -> pt-br, pt, default locale
+    private Set<String> candidateLocales(String locale) {
+
+        Set<String> candidates = new LinkedHashSet<>();
+        candidates.add(locale);
+
+        int separator = locale.indexOf('-');
+        if (separator > 0) {
+            candidates.add(locale.substring(0, separator));
+        }
+
+        candidates.add(defaultLocale);
+        return candidates;
+    }
+
+    private record TemplateKey(Long templateId, String locale) {
+    }
+}
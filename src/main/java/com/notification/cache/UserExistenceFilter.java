@@ -0,0 +1,180 @@
+package com.notification.cache;
+
+import com.notification.config.CacheProperties;
+import com.notification.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory set of known user ids, used to answer "does this user exist" without
+ * loading the {@code User} entity.
+ * <p>
+ * Users are never deleted, so a set bit is authoritative. A clear bit only means
+ * "not seen by this node yet" (created elsewhere, or before the initial load
+ * finished) and falls back to the database; ids found there are added.
+ */
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    private final UserRepository userRepository;
+    private final CacheProperties cacheProperties;
+
+    // User ids are dense IDENTITY values, so a plain bitset stays compact
+    private final BitSet knownIds = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Counter fallbackCounter;
+
+    public UserExistenceFilter(
+            UserRepository userRepository,
+            CacheProperties cacheProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.cacheProperties = cacheProperties;
+
+        this.fallbackCounter = Counter.builder("notification.users.filter.fallbacks")
+                .description("User existence checks answered by the database")
+                .register(meterRegistry);
+
+        Gauge.builder("notification.users.filter.size", this, UserExistenceFilter::size)
+                .description("User ids held by the existence filter")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        int batchSize = cacheProperties.getUserLoadBatchSize();
+        long afterId = 0;
+        long loaded = 0;
+
+        while (true) {
+
+            List<Long> ids = userRepository.findIdsAfter(afterId, PageRequest.ofSize(batchSize));
+
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            ids.forEach(this::add);
+            loaded += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        logger.info("User existence filter loaded users={}", loaded);
+    }
+
+    public boolean exists(Long userId) {
+
+        if (userId == null) {
+            return false;
+        }
+
+        if (isKnown(userId)) {
+            return true;
+        }
+
+        fallbackCounter.increment();
+
+        if (userRepository.existsById(userId)) {
+            add(userId);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the subset of {@code userIds} that exist, querying the database
+     * once for the ids this node has not seen.
+     */
+    public Set<Long> findExisting(Collection<Long> userIds) {
+
+        Set<Long> existing = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+
+        for (Long userId : userIds) {
+            if (isKnown(userId)) {
+                existing.add(userId);
+            } else {
+                unknown.add(userId);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+
+            fallbackCounter.increment(unknown.size());
+
+            for (Long userId : userRepository.findExistingIds(unknown)) {
+                add(userId);
+                existing.add(userId);
+            }
+        }
+
+        return existing;
+    }
+
+    /**
+     * Records a newly created user once its transaction commits.
+     */
+    public void register(Long userId) {
+        AfterCommit.run(() -> add(userId));
+    }
+
+    private boolean isKnown(long userId) {
+
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            return knownIds.get((int) userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long userId) {
+
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            knownIds.set((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+
+        lock.readLock().lock();
+        try {
+            return knownIds.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.notification.channel;
 
+import com.notification.cache.RoutingProfileCache;
 import com.notification.exception.BadRequestException;
 import com.notification.model.entity.Notification;
 import com.notification.model.enums.ChannelType;
 import com.notification.provider.EmailProvider;
-import com.notification.repository.UserChannelEndpointRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Service;
 public class EmailNotificationChannel implements NotificationChannel {
 
     private final EmailProvider emailProvider;
-    private final UserChannelEndpointRepository endpointRepository;
+    private final RoutingProfileCache routingProfileCache;
 
     @Override
     public ChannelType getSupportedChannel() {
@@ -21,14 +21,14 @@ public class EmailNotificationChannel implements NotificationChannel {
     }
 
     @Override
-    public void send(Notification notification) {
+    public void send(Notification notification, String payload) {
 
-        String email = endpointRepository
-                .findByUserIdAndChannelType(notification.getUserId(), ChannelType.EMAIL)
-                .orElseThrow(() -> new IllegalStateException("Email endpoint not found for userId=" + notification.getUserId()))
-                .getEndpointValue();
+        String email = routingProfileCache
+                .get(notification.getUserId())
+                .flatMap(profile -> profile.getEndpoint(ChannelType.EMAIL))
+                .orElseThrow(() -> new IllegalStateException("Email endpoint not found for userId=" + notification.getUserId()));
 
-        emailProvider.send(email, notification.getPayload());
+        emailProvider.send(email, payload);
     }
 
     @Override
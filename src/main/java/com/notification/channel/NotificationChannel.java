@@ -7,7 +7,7 @@ public interface NotificationChannel {
 
     ChannelType getSupportedChannel();
 
-    void send(Notification notification);
+    void send(Notification notification, String payload);
 
     void validateEndpoint(String endpointValue);
 }
@@ -1,10 +1,10 @@
 package com.notification.channel;
 
+import com.notification.cache.RoutingProfileCache;
 import com.notification.exception.BadRequestException;
 import com.notification.model.entity.Notification;
 import com.notification.model.enums.ChannelType;
 import com.notification.provider.PushProvider;
-import com.notification.repository.UserChannelEndpointRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Service;
 public class PushNotificationChannel implements NotificationChannel {
 
     private final PushProvider pushProvider;
-    private final UserChannelEndpointRepository endpointRepository;
+    private final RoutingProfileCache routingProfileCache;
 
     @Override
     public ChannelType getSupportedChannel() {
@@ -21,13 +21,13 @@ public class PushNotificationChannel implements NotificationChannel {
     }
 
     @Override
-    public void send(Notification notification) {
-        String deviceToken = endpointRepository
-                .findByUserIdAndChannelType(notification.getUserId(), ChannelType.PUSH)
-                .orElseThrow(() -> new IllegalStateException("Push endpoint not found for userId=" + notification.getUserId()))
-                .getEndpointValue();
+    public void send(Notification notification, String payload) {
+        String deviceToken = routingProfileCache
+                .get(notification.getUserId())
+                .flatMap(profile -> profile.getEndpoint(ChannelType.PUSH))
+                .orElseThrow(() -> new IllegalStateException("Push endpoint not found for userId=" + notification.getUserId()));
 
-        pushProvider.send(deviceToken, notification.getPayload());
+        pushProvider.send(deviceToken, payload);
     }
 
     @Override
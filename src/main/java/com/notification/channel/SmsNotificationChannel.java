@@ -1,10 +1,10 @@
 package com.notification.channel;
 
+import com.notification.cache.RoutingProfileCache;
 import com.notification.exception.BadRequestException;
 import com.notification.model.entity.Notification;
 import com.notification.model.enums.ChannelType;
 import com.notification.provider.SmsProvider;
-import com.notification.repository.UserChannelEndpointRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Service;
 public class SmsNotificationChannel implements NotificationChannel {
 
     private final SmsProvider smsProvider;
-    private final UserChannelEndpointRepository endpointRepository;
+    private final RoutingProfileCache routingProfileCache;
 
     @Override
     public ChannelType getSupportedChannel() {
@@ -21,13 +21,13 @@ public class SmsNotificationChannel implements NotificationChannel {
     }
 
     @Override
-    public void send(Notification notification) {
-        String phoneNumber = endpointRepository
-                .findByUserIdAndChannelType(notification.getUserId(), ChannelType.SMS)
-                .orElseThrow(() -> new IllegalStateException("SMS endpoint not found for userId=" + notification.getUserId()))
-                .getEndpointValue();
+    public void send(Notification notification, String payload) {
+        String phoneNumber = routingProfileCache
+                .get(notification.getUserId())
+                .flatMap(profile -> profile.getEndpoint(ChannelType.SMS))
+                .orElseThrow(() -> new IllegalStateException("SMS endpoint not found for userId=" + notification.getUserId()));
 
-        smsProvider.send(phoneNumber, notification.getPayload());
+        smsProvider.send(phoneNumber, payload);
     }
 
     @Override
@@ -0,0 +1,22 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.archive")
+@Getter
+@Setter
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    // Terminal rows stay in the live table this long, while clients still poll them
+    private Duration archiveAfter = Duration.ofHours(1);
+
+    private int batchSize = 1_000;
+}
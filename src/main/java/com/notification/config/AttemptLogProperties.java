@@ -0,0 +1,20 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.attempts")
+@Getter
+@Setter
+public class AttemptLogProperties {
+
+    // Attempts waiting to be written; beyond this new attempts are dropped, never waited on
+    private int queueCapacity = 100_000;
+
+    private int batchSize = 500;
+
+    private int maxPerQuery = 100;
+}
@@ -0,0 +1,59 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.cache")
+@Getter
+@Setter
+public class CacheProperties {
+
+    private Spec routingProfiles = new Spec(100_000, Duration.ofMinutes(10));
+
+    private int userLoadBatchSize = 10_000;
+
+    // ttl is the maximum notification age kept in the cache
+    private Spec statuses = new Spec(100_000, Duration.ofMinutes(15));
+
+    private Coherence coherence = new Coherence();
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        private long maximumSize;
+
+        private Duration ttl;
+
+        public Spec() {
+        }
+
+        public Spec(long maximumSize, Duration ttl) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Cross-node invalidation through the {@code cache_invalidation_events} table.
+     * Entries changed on another node are dropped within roughly one poll interval.
+     */
+    @Getter
+    @Setter
+    public static class Coherence {
+
+        private boolean enabled = true;
+
+        // How far back each poll re-reads, to cover transactions that commit late
+        private Duration commitGrace = Duration.ofSeconds(5);
+
+        private int batchSize = 1_000;
+
+        private Duration retention = Duration.ofHours(1);
+    }
+}
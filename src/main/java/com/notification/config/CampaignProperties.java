@@ -0,0 +1,21 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.campaigns")
+@Getter
+@Setter
+public class CampaignProperties {
+
+    // Notifications updated per transaction when a campaign is paused, resumed, cancelled or rescheduled
+    private int chunkSize = 1_000;
+
+    // Pause between chunks, to leave room for the dispatcher and other writers
+    private Duration chunkPause = Duration.ofMillis(50);
+}
@@ -0,0 +1,23 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.counters")
+@Getter
+@Setter
+public class CounterProperties {
+
+    private boolean reconcileEnabled = true;
+
+    // Width of the user and campaign id ranges recounted per query
+    private int reconcileRangeSize = 500;
+
+    // Pause between ranges, so a pass never competes with the write path for long
+    private Duration reconcilePause = Duration.ofMillis(50);
+}
@@ -0,0 +1,30 @@
+package com.notification.config;
+
+import com.notification.model.enums.NotificationPriority;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConfigurationProperties(prefix = "notification.expiry")
+@Getter
+@Setter
+public class ExpiryProperties {
+
+    private boolean enabled = true;
+
+    // TTL from scheduledAt when a request sets neither expiresAt nor ttlSeconds; unset means no expiry
+    private Map<NotificationPriority, Duration> defaultTtl = new EnumMap<>(NotificationPriority.class);
+
+    private int batchSize = 1_000;
+
+    public Optional<Duration> getDefaultTtl(NotificationPriority priority) {
+        return Optional.ofNullable(defaultTtl.get(priority));
+    }
+}
@@ -0,0 +1,17 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.fan-out")
+@Getter
+@Setter
+public class FanOutProperties {
+
+    private int chunkSize = 1000;
+
+    private int maxReportedRejections = 1000;
+}
@@ -0,0 +1,19 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+
+    private long cacheSize = 100_000;
+
+    private Duration cacheTtl = Duration.ofHours(1);
+}
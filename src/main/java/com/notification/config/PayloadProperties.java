@@ -0,0 +1,28 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.payload")
+@Getter
+@Setter
+public class PayloadProperties {
+
+    private boolean compressionEnabled = true;
+
+    // Bodies larger than this many UTF-8 bytes are stored gzip compressed
+    private int compressionThresholdBytes = 1024;
+
+    private long hashCacheSize = 100_000;
+
+    // Cached ids skip the refresh of last_stored_at, so this must stay below
+    // notification.retention.orphan-payload-grace; startup fails otherwise
+    private Duration hashCacheTtl = Duration.ofHours(1);
+
+    private long bodyCacheMaxChars = 16 * 1024 * 1024;
+}
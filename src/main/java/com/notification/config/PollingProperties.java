@@ -0,0 +1,72 @@
+package com.notification.config;
+
+import com.notification.model.enums.NotificationPriority;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "notification.polling")
+@Getter
+@Setter
+public class PollingProperties {
+
+    // Most notifications queued or being sent at once, new and retries together
+    private int batchSize = 20;
+
+    // Share of each batch held for a priority while it has due work; unused slots go to the others
+    private Map<NotificationPriority, Double> reservedShare = new EnumMap<>(NotificationPriority.class);
+
+    // Each step waited past the due time adds one to the effective priority weight
+    private Duration agingStep = Duration.ofMinutes(2);
+
+    // Notifications a user gets per round when a priority's slots are shared out round-robin
+    private int senderQuantum = 1;
+
+    // Oldest due rows per priority read to find the senders waiting longest; bounds each poll's scan
+    private int senderWindow = 1_000;
+
+    // Most of one user's notifications queued or sending at once; they run in parallel across channels
+    private int maxInFlightPerUser = 4;
+
+    // Sends run in parallel across (userId, channel) keys and in order within one
+    private int dispatchThreads = 8;
+
+    private int maxQueuedPerKey = 16;
+
+    // How long shutdown waits for queued sends; anything left is still CREATED and polled again
+    private Duration shutdownGrace = Duration.ofSeconds(30);
+
+    // A claim older than this is taken to be from a node that died mid-send; keep it above provider timeouts
+    private Duration processingTimeout = Duration.ofMinutes(5);
+
+    private SenderBacklog senderBacklog = new SenderBacklog();
+
+    // Slots held for a priority in a batch of the given size, at least one while its share is set
+    public int getReservedSlots(NotificationPriority priority, int batchSize) {
+
+        double share = reservedShare.getOrDefault(priority, 0.0);
+
+        if (share <= 0 || batchSize <= 0) {
+            return 0;
+        }
+        return Math.max(1, (int) Math.floor(share * batchSize));
+    }
+
+    /**
+     * Per-user due backlog, published for the largest senders only so the
+     * metric tags stay bounded.
+     */
+    @Getter
+    @Setter
+    public static class SenderBacklog {
+
+        // Zero turns the gauges off
+        private int topSenders = 10;
+    }
+}
@@ -0,0 +1,25 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.replay")
+@Getter
+@Setter
+public class ReplayProperties {
+
+    // Used when a replay request does not set ratePerSecond
+    private int defaultRatePerSecond = 20;
+
+    // Upper bound for any single replay, so a typo cannot flood a recovering provider
+    private int maxRatePerSecond = 200;
+
+    // Replays that may run at once; their rates add up at the provider
+    private int maxActiveReplays = 2;
+
+    // Rows requeued per transaction; batches are spaced to hold the replay's rate
+    private int maxBatchSize = 100;
+}
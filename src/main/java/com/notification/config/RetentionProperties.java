@@ -0,0 +1,42 @@
+package com.notification.config;
+
+import com.notification.model.enums.NotificationStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "notification.retention")
+@Getter
+@Setter
+public class RetentionProperties {
+
+    private boolean enabled = true;
+
+    // Age by created_at after which archived notifications are removed
+    private Map<NotificationStatus, Duration> history = new EnumMap<>(Map.of(
+            NotificationStatus.SENT, Duration.ofDays(90),
+            NotificationStatus.DEAD_LETTER, Duration.ofDays(180),
+            NotificationStatus.CANCELLED, Duration.ofDays(30),
+            NotificationStatus.EXPIRED, Duration.ofDays(30)
+    ));
+
+    // Age by started_at after which delivery attempts are removed
+    private Duration attempts = Duration.ofDays(30);
+
+    // Payloads no notification refers to are removed once no writer was handed them for this long
+    private Duration orphanPayloadGrace = Duration.ofDays(1);
+
+    // Monthly partitions kept created ahead of the current month
+    private int partitionsAhead = 3;
+
+    private int deleteChunkSize = 1_000;
+
+    // Pause between chunked deletes, to leave room for replication and other writers
+    private Duration deleteChunkPause = Duration.ofMillis(100);
+}
@@ -0,0 +1,40 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.stream")
+@Getter
+@Setter
+public class StreamProperties {
+
+    private int maxSubscribers = 10_000;
+
+    // Sent as Retry-After when maxSubscribers streams are already open
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    private int maxIdsPerSubscription = 1_000;
+
+    // Events buffered per subscriber before the overflow policy applies
+    private int bufferSize = 256;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private int senderThreads = 4;
+
+    public enum OverflowPolicy {
+        // Keep the latest events and tell the client how many were skipped
+        DROP_OLDEST,
+        // Keep the buffered events and skip new ones
+        DROP_NEWEST,
+        // Close the stream; the client reconnects and re-reads current status
+        DISCONNECT
+    }
+}
@@ -0,0 +1,22 @@
+package com.notification.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "notification.template")
+@Getter
+@Setter
+public class TemplateProperties {
+
+    private long cacheSize = 10_000;
+
+    // Backstop should an invalidation event be missed
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    private String defaultLocale = "en";
+}
@@ -0,0 +1,69 @@
+package com.notification.controller;
+
+import com.notification.model.dto.request.CreateCampaignRequest;
+import com.notification.model.dto.request.RescheduleCampaignRequest;
+import com.notification.model.dto.response.CampaignResponse;
+import com.notification.service.CampaignService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/campaigns")
+@RequiredArgsConstructor
+public class CampaignController {
+
+    private final CampaignService campaignService;
+
+    @PostMapping
+    public ResponseEntity<CampaignResponse> createCampaign(
+            @Valid @RequestBody CreateCampaignRequest request
+    ) {
+        return ResponseEntity.ok(campaignService.createCampaign(request));
+    }
+
+    @GetMapping("/{campaignId}")
+    public ResponseEntity<CampaignResponse> getCampaign(
+            @PathVariable Long campaignId
+    ) {
+        return ResponseEntity.ok(campaignService.getCampaign(campaignId));
+    }
+
+    // State changes are immediate; notifications are updated in the background
+    @PostMapping("/{campaignId}/pause")
+    public ResponseEntity<CampaignResponse> pauseCampaign(
+            @PathVariable Long campaignId
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(campaignService.pauseCampaign(campaignId));
+    }
+
+    @PostMapping("/{campaignId}/resume")
+    public ResponseEntity<CampaignResponse> resumeCampaign(
+            @PathVariable Long campaignId
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(campaignService.resumeCampaign(campaignId));
+    }
+
+    @PostMapping("/{campaignId}/cancel")
+    public ResponseEntity<CampaignResponse> cancelCampaign(
+            @PathVariable Long campaignId
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(campaignService.cancelCampaign(campaignId));
+    }
+
+    @PostMapping("/{campaignId}/reschedule")
+    public ResponseEntity<CampaignResponse> rescheduleCampaign(
+            @PathVariable Long campaignId,
+            @Valid @RequestBody RescheduleCampaignRequest request
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(campaignService.rescheduleCampaign(campaignId, request));
+    }
+}
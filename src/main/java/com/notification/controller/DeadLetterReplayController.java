@@ -0,0 +1,45 @@
+package com.notification.controller;
+
+import com.notification.model.dto.request.DeadLetterReplayRequest;
+import com.notification.model.dto.response.DeadLetterReplayResponse;
+import com.notification.service.DeadLetterReplayService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/dead-letters/replays")
+@RequiredArgsConstructor
+public class DeadLetterReplayController {
+
+    private final DeadLetterReplayService replayService;
+
+    @PostMapping
+    public ResponseEntity<DeadLetterReplayResponse> startReplay(
+            @Valid @RequestBody DeadLetterReplayRequest request
+    ) {
+        DeadLetterReplayResponse response = replayService.startReplay(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/{replayId}")
+    public ResponseEntity<DeadLetterReplayResponse> getReplay(
+            @PathVariable Long replayId
+    ) {
+        return ResponseEntity.ok(replayService.getReplay(replayId));
+    }
+
+    @PostMapping("/{replayId}/cancel")
+    public ResponseEntity<DeadLetterReplayResponse> cancelReplay(
+            @PathVariable Long replayId
+    ) {
+        return ResponseEntity.ok(replayService.cancelReplay(replayId));
+    }
+}
@@ -1,13 +1,24 @@
 package com.notification.controller;
 
 import com.notification.exception.BadRequestException;
+import com.notification.model.dto.request.BatchStatusRequest;
 import com.notification.model.dto.request.BulkCreateNotificationRequest;
 import com.notification.model.dto.request.CreateNotificationRequest;
+import com.notification.model.dto.request.FanOutNotificationRequest;
+import com.notification.model.dto.request.MultiChannelNotificationRequest;
+import com.notification.model.dto.response.BatchStatusResponse;
 import com.notification.model.dto.response.BulkNotificationResponse;
+import com.notification.model.dto.response.CursorPageResponse;
+import com.notification.model.dto.response.DeliveryAttemptResponse;
+import com.notification.model.dto.response.FanOutNotificationResponse;
+import com.notification.model.dto.response.MultiChannelNotificationResponse;
+import com.notification.model.dto.response.NotificationCountsResponse;
 import com.notification.model.dto.response.NotificationResponse;
 import com.notification.model.dto.response.PagedResponse;
 import com.notification.model.enums.NotificationStatus;
+import com.notification.service.FanOutService;
 import com.notification.service.NotificationService;
+import com.notification.service.NotificationStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -17,14 +28,24 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -34,15 +55,26 @@ public class NotificationController {
     private static final Logger logger =
             LoggerFactory.getLogger(NotificationController.class);
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final NotificationService notificationService;
 
+    private final FanOutService fanOutService;
+
+    private final NotificationStreamService notificationStreamService;
+
     @PostMapping
     public ResponseEntity<NotificationResponse> createNotification(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CreateNotificationRequest request
     ) {
 
         logger.info("Received notification creation request for userId={}", request.getUserId());
 
+        request.setIdempotencyKey(resolveIdempotencyKey(idempotencyKey, request.getIdempotencyKey()));
+
         NotificationResponse response =
                 notificationService.createNotification(request);
 
@@ -61,21 +93,108 @@ public class NotificationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/multi-channel")
+    public ResponseEntity<MultiChannelNotificationResponse> createMultiChannelNotification(
+            @Valid @RequestBody MultiChannelNotificationRequest request
+    ) {
+        logger.info("Received multi-channel notification request for userId={} mode={}",
+                request.getUserId(),
+                request.getMode());
+
+        return ResponseEntity.accepted()
+                .body(notificationService.createMultiChannelNotification(request));
+    }
+
+    @PostMapping("/fan-out")
+    public ResponseEntity<FanOutNotificationResponse> fanOutNotifications(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody FanOutNotificationRequest request
+    ) {
+
+        request.setIdempotencyKey(resolveIdempotencyKey(idempotencyKey, request.getIdempotencyKey()));
+
+        logger.info("Received fan-out request channel={} recipients={}",
+                request.getChannelType(),
+                request.getUserIds() == null ? 0 : request.getUserIds().size());
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(fanOutService.fanOut(request));
+    }
+
+    @PostMapping(value = "/fan-out/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<FanOutNotificationResponse> fanOutNotificationsFromFile(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestPart("request") FanOutNotificationRequest request,
+            @RequestPart("recipients") MultipartFile recipients
+    ) throws IOException {
+
+        request.setIdempotencyKey(resolveIdempotencyKey(idempotencyKey, request.getIdempotencyKey()));
+
+        if (recipients.isEmpty()) {
+            throw new BadRequestException("Recipient file cannot be empty");
+        }
+
+        logger.info("Received fan-out upload channel={} fileSize={}",
+                request.getChannelType(),
+                recipients.getSize());
+
+        try (InputStream recipientStream = recipients.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(fanOutService.fanOut(request, recipientStream));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<NotificationResponse> getNotificationById(
+            @PathVariable Long id,
+            @RequestParam(required = false) Set<String> fields
+    ) {
+        return ResponseEntity.ok(
+                notificationService.getNotificationById(id, fields)
+        );
+    }
+
+    @GetMapping("/{id}/attempts")
+    public ResponseEntity<List<DeliveryAttemptResponse>> getDeliveryAttempts(
             @PathVariable Long id
     ) {
         return ResponseEntity.ok(
-                notificationService.getNotificationById(id)
+                notificationService.getDeliveryAttempts(id)
+        );
+    }
+
+    @PostMapping("/status/batch")
+    public ResponseEntity<BatchStatusResponse> getNotificationStatuses(
+            @Valid @RequestBody BatchStatusRequest request
+    ) {
+        return ResponseEntity.ok(
+                notificationService.getNotificationStatuses(request)
         );
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusChanges(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) List<Long> ids
+    ) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+
+        if ((userId == null) == !hasIds) {
+            throw new BadRequestException("Exactly one of userId or ids is required");
+        }
+
+        return userId != null
+                ? notificationStreamService.subscribeToUser(userId)
+                : notificationStreamService.subscribeToNotifications(ids);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<PagedResponse<NotificationResponse>> getNotificationsByUser(
             @PathVariable Long userId,
             @RequestParam(required = false) NotificationStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Set<String> fields
     ) {
         if (page < 0 || size <= 0) {
             throw new BadRequestException("Invalid page or size parameter");
@@ -91,8 +210,62 @@ public class NotificationController {
                 notificationService.getNotificationsByUser(
                         userId,
                         status,
-                        pageable
+                        pageable,
+                        fields
                 )
         );
     }
+
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<NotificationCountsResponse> getNotificationCounts(
+            @PathVariable Long userId
+    ) {
+        return ResponseEntity.ok(
+                notificationService.getNotificationCounts(userId)
+        );
+    }
+
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPageResponse<NotificationResponse>> getNotificationsByUserCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) NotificationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) Set<String> fields
+    ) {
+        if (size <= 0) {
+            throw new BadRequestException("Invalid size parameter");
+        }
+
+        return ResponseEntity.ok(
+                notificationService.getNotificationsByUserCursor(
+                        userId,
+                        status,
+                        cursor,
+                        size,
+                        includeTotal,
+                        fields
+                )
+        );
+    }
+
+    // The header and the request field may both carry the key, but must then agree
+    private static String resolveIdempotencyKey(String header, String field) {
+
+        if (header == null) {
+            return field;
+        }
+
+        if (header.isBlank() || header.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("Invalid " + IDEMPOTENCY_KEY_HEADER + " header");
+        }
+
+        if (field != null && !field.equals(header)) {
+            throw new BadRequestException(
+                    IDEMPOTENCY_KEY_HEADER + " header does not match request idempotencyKey");
+        }
+
+        return header;
+    }
 }
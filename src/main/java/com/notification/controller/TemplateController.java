@@ -0,0 +1,43 @@
+package com.notification.controller;
+
+import com.notification.model.dto.request.CreateTemplateRequest;
+import com.notification.model.dto.request.UpsertTemplateVariantRequest;
+import com.notification.model.dto.response.TemplateResponse;
+import com.notification.service.TemplateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/templates")
+@RequiredArgsConstructor
+public class TemplateController {
+
+    private final TemplateService templateService;
+
+    @PostMapping
+    public ResponseEntity<TemplateResponse> createTemplate(
+            @Valid @RequestBody CreateTemplateRequest request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(templateService.createTemplate(request));
+    }
+
+    @PutMapping("/{templateId}/variants/{locale}")
+    public ResponseEntity<TemplateResponse> upsertVariant(
+            @PathVariable Long templateId,
+            @PathVariable String locale,
+            @Valid @RequestBody UpsertTemplateVariantRequest request
+    ) {
+        return ResponseEntity.ok(
+                templateService.upsertVariant(templateId, locale, request.getBody())
+        );
+    }
+}
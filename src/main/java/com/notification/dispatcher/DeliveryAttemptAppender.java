@@ -0,0 +1,125 @@
+package com.notification.dispatcher;
+
+import com.notification.config.AttemptLogProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.AttemptOutcome;
+import com.notification.repository.DeliveryAttemptRepository;
+import com.notification.repository.DeliveryAttemptRepository.DeliveryAttempt;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects one {@link DeliveryAttempt} per channel send and writes them in
+ * JDBC batches off the dispatch path. Recording only offers to a bounded
+ * queue; if the database falls behind, attempts are dropped and counted
+ * rather than slowing delivery.
+ */
+@Component
+public class DeliveryAttemptAppender {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryAttemptAppender.class);
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 512;
+
+    private final DeliveryAttemptRepository attemptRepository;
+    private final AttemptLogProperties properties;
+    private final BlockingQueue<DeliveryAttempt> queue;
+
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    public DeliveryAttemptAppender(DeliveryAttemptRepository attemptRepository,
+                                   AttemptLogProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.attemptRepository = attemptRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.droppedCounter = Counter.builder("notification.attempts.dropped")
+                .description("Delivery attempts not logged because the write queue was full")
+                .register(meterRegistry);
+
+        this.failedCounter = Counter.builder("notification.attempts.write.failed")
+                .description("Delivery attempts lost to failed batch writes")
+                .register(meterRegistry);
+
+        Gauge.builder("notification.attempts.queue.size", queue, BlockingQueue::size)
+                .description("Delivery attempts waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void recordSuccess(Notification notification, LocalDateTime startedAt, long startNanos) {
+        append(notification, AttemptOutcome.SUCCESS, startedAt, startNanos, null);
+    }
+
+    public void recordFailure(Notification notification, LocalDateTime startedAt, long startNanos, Exception error) {
+        append(notification, AttemptOutcome.FAILURE, startedAt, startNanos, error);
+    }
+
+    private void append(Notification notification, AttemptOutcome outcome,
+                        LocalDateTime startedAt, long startNanos, Exception error) {
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        DeliveryAttempt attempt = new DeliveryAttempt(
+                notification.getId(),
+                notification.getRetryCount() + 1,
+                notification.getChannelType(),
+                outcome,
+                startedAt,
+                LocalDateTime.now(),
+                durationMs,
+                error == null ? null : error.getClass().getName(),
+                error == null ? null : truncate(error.getMessage())
+        );
+
+        if (!queue.offer(attempt)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.attempts.flush-interval-ms:500}")
+    public void flush() {
+
+        List<DeliveryAttempt> batch = new ArrayList<>(properties.getBatchSize());
+
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+
+            try {
+                attemptRepository.insertAll(batch);
+            } catch (DataAccessException ex) {
+                // The log is best effort; retrying would let a bad batch block every later one
+                failedCounter.increment(batch.size());
+                logger.warn("Failed to write {} delivery attempts", batch.size(), ex);
+            }
+
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+    }
+}
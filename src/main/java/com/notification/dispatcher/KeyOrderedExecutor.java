@@ -0,0 +1,139 @@
+package com.notification.dispatcher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks with the same key one at a time, in submission order, and tasks
+ * with different keys in parallel on a shared executor. Each busy key holds at
+ * most one worker; its queue is bounded, and the key is dropped as soon as the
+ * queue drains, so idle keys cost nothing.
+ * <p>
+ * If the workers refuse a key's drain, which happens once they shut down, the
+ * tasks already queued behind it are handed to {@code onDiscard} so their
+ * callers can release whatever they hold for them.
+ */
+public class KeyOrderedExecutor<K, T extends Runnable> {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedExecutor.class);
+
+    private final Executor workers;
+    private final int maxQueuedPerKey;
+    private final Consumer<T> onDiscard;
+    private final Map<K, Deque<T>> queues = new ConcurrentHashMap<>();
+
+    public KeyOrderedExecutor(Executor workers, int maxQueuedPerKey, Consumer<T> onDiscard) {
+        this.workers = workers;
+        this.maxQueuedPerKey = Math.max(1, maxQueuedPerKey);
+        this.onDiscard = onDiscard;
+    }
+
+    /**
+     * Returns false, without queueing, when the key already has
+     * {@code maxQueuedPerKey} tasks waiting or running, or when the workers
+     * no longer accept work.
+     */
+    public boolean submit(K key, T task) {
+
+        boolean[] accepted = {false};
+        boolean[] start = {false};
+
+        queues.compute(key, (k, queue) -> {
+
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                start[0] = true;
+            }
+
+            // The running task stays at the head until it completes
+            if (queue.size() < maxQueuedPerKey) {
+                queue.add(task);
+                accepted[0] = true;
+            }
+            return queue;
+        });
+
+        if (start[0] && !start(key)) {
+            abandon(key, task);
+            return false;
+        }
+        return accepted[0];
+    }
+
+    public int activeKeys() {
+        return queues.size();
+    }
+
+    private boolean start(K key) {
+        try {
+            workers.execute(() -> drain(key));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    // The refused task goes back to its caller through submit's result; the rest through onDiscard
+    private void abandon(K key, T refused) {
+
+        Deque<T> queue = queues.remove(key);
+
+        if (queue == null) {
+            return;
+        }
+
+        for (T task : queue) {
+            if (task != refused) {
+                onDiscard.accept(task);
+            }
+        }
+    }
+
+    private void drain(K key) {
+
+        T task = queues.get(key).peek();
+
+        while (task != null) {
+
+            boolean finished = false;
+
+            try {
+                task.run();
+                finished = true;
+            } catch (RuntimeException ex) {
+                logger.error("Task for key={} failed", key, ex);
+                finished = true;
+            } finally {
+                T next = advance(key);
+
+                // An Error is on its way out of this worker; the rest of the key moves to another
+                if (!finished && next != null && !start(key)) {
+                    abandon(key, null);
+                }
+                task = finished ? next : null;
+            }
+        }
+    }
+
+    private T advance(K key) {
+
+        AtomicReference<T> next = new AtomicReference<>();
+
+        queues.computeIfPresent(key, (k, queue) -> {
+            queue.poll();
+            next.set(queue.peek());
+            return queue.isEmpty() ? null : queue;
+        });
+
+        return next.get();
+    }
+}
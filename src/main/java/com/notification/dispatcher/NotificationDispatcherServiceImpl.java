@@ -1,17 +1,32 @@
 package com.notification.dispatcher;
 
+import com.notification.cache.NotificationStatusCache;
 import com.notification.channel.NotificationChannel;
 import com.notification.channel.NotificationChannelFactory;
+import com.notification.config.RetryProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.entity.Campaign;
 import com.notification.model.entity.Notification;
+import com.notification.model.enums.CampaignStatus;
+import com.notification.model.enums.ChannelType;
 import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.CampaignRepository;
 import com.notification.repository.NotificationRepository;
+import com.notification.service.PayloadService;
+import com.notification.cache.AfterCommit;
+import com.notification.stats.ExpiryMetrics;
+import com.notification.stats.NotificationStatusCounters;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -21,66 +36,210 @@ public class NotificationDispatcherServiceImpl implements NotificationDispatcher
 
     private final NotificationRepository notificationRepository;
     private final NotificationChannelFactory channelFactory;
-
+    private final PayloadService payloadService;
+    private final RetryProperties retryProperties;
+    private final NotificationStatusCache statusCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationStatusCounters statusCounters;
+    private final DeliveryAttemptAppender attemptAppender;
+    private final ExpiryMetrics expiryMetrics;
+    private final CampaignRepository campaignRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Claims the row in one short transaction, calls the provider outside any
+     * transaction, then records the outcome in a second one. No connection or
+     * row lock is held while the provider answers, and the PROCESSING event
+     * goes out when the claim commits, ahead of the send.
+     */
     @Override
-    @Transactional
-    public void dispatch(Notification notification) {
+    public void dispatch(Notification picked) {
+
+        Notification notification = transactionTemplate.execute(tx -> claim(picked));
+
+        if (notification == null) {
+            return;
+        }
+
+        boolean sent = send(notification);
+
+        transactionTemplate.executeWithoutResult(tx -> settle(notification, sent));
+    }
+
+    /**
+     * Reloads the picked row under a lock and moves it to PROCESSING. The
+     * poller's copy may have waited in a dispatch queue, so a row paused,
+     * cancelled, expired or taken by another node since is skipped, and a row
+     * past its deadline or held by its campaign is settled here without a send.
+     */
+    private Notification claim(Notification picked) {
+
+        Notification notification = notificationRepository.lockById(picked.getId()).orElse(null);
+
+        if (notification == null
+                || (notification.getStatus() != NotificationStatus.CREATED
+                && notification.getStatus() != NotificationStatus.FAILED)) {
+
+            logger.info("Skipping notification id={}; no longer pending or taken by another node",
+                    picked.getId());
+            return null;
+        }
 
         logger.info("Dispatching notification with id={} channel={}",
                 notification.getId(),
                 notification.getChannelType());
 
-        try {
+        if (isExpired(notification, LocalDateTime.now())) {
+            handleExpired(notification);
+            return null;
+        }
+
+        NotificationStatus held = heldStatus(notification);
+
+        if (held != null) {
+            hold(notification, held);
+            return null;
+        }
+
+        NotificationStatus previous = notification.getStatus();
+        notification.setStatus(NotificationStatus.PROCESSING);
+        notificationRepository.save(notification);
+        statusCache.publish(notification);
+        statusCounters.recordTransition(notification, previous);
+        eventPublisher.publishEvent(NotificationStatusChangedEvent.of(notification));
 
-            // Move to PROCESSING
-            notification.setStatus(NotificationStatus.PROCESSING);
-            notificationRepository.save(notification);
+        return notification;
+    }
+
+    /**
+     * PAUSED or CANCELLED when the notification's campaign is. The campaign row
+     * stays share-locked until the claim commits, so a pause, resume or cancel
+     * waits for it. A send already claimed goes ahead, and whatever it leaves
+     * behind (a retry, a recurring reschedule or a fallback) is held by its own
+     * next dispatch.
+     */
+    private NotificationStatus heldStatus(Notification notification) {
+
+        if (notification.getCampaignId() == null) {
+            return null;
+        }
+
+        CampaignStatus campaignStatus = campaignRepository.lockSharedById(notification.getCampaignId())
+                .map(Campaign::getStatus)
+                .orElse(CampaignStatus.ACTIVE);
+
+        return switch (campaignStatus) {
+            case ACTIVE -> null;
+            case PAUSED -> NotificationStatus.PAUSED;
+            case CANCELLED -> NotificationStatus.CANCELLED;
+        };
+    }
 
+    // Same changes as the campaign's own pass: a paused retry resumes at its retry time
+    private void hold(Notification notification, NotificationStatus held) {
+
+        NotificationStatus previous = notification.getStatus();
+
+        if (held == NotificationStatus.PAUSED && notification.getNextRetryAt() != null) {
+            notification.setScheduledAt(notification.getNextRetryAt());
+        }
+        notification.setStatus(held);
+        notification.setNextRetryAt(null);
+
+        logger.info("Notification id={} not sent; campaign id={} is {}",
+                notification.getId(),
+                notification.getCampaignId(),
+                held);
+
+        notificationRepository.save(notification);
+        statusCache.publish(notification);
+        statusCounters.recordTransition(notification, previous);
+        eventPublisher.publishEvent(NotificationStatusChangedEvent.of(notification));
+    }
+
+    private boolean send(Notification notification) {
+
+        try {
             NotificationChannel channel = channelFactory.getChannel(notification.getChannelType());
 
-            channel.send(notification);
+            send(channel, notification, payloadService.resolve(notification));
 
-            handleSuccess(notification);
             logger.info("Notification sent successfully id={} channel={}",
                     notification.getId(),
                     notification.getChannelType());
+            return true;
 
         } catch (Exception ex) {
 
             logger.error("Error sending notification id={}",
                     notification.getId(),
                     ex);
+            return false;
+        }
+    }
+
+    private void send(NotificationChannel channel, Notification notification, String payload) {
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+
+        try {
+            channel.send(notification, payload);
+            attemptAppender.recordSuccess(notification, startedAt, startNanos);
+        } catch (RuntimeException ex) {
+            attemptAppender.recordFailure(notification, startedAt, startNanos, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Records the send's outcome on the row as stored now. A row the stalled
+     * dispatch sweep already handed back to the poller is left alone.
+     */
+    private void settle(Notification claimed, boolean sent) {
 
+        Notification notification = notificationRepository.lockById(claimed.getId()).orElse(null);
+
+        if (notification == null || notification.getStatus() != NotificationStatus.PROCESSING) {
+
+            logger.warn("Not recording {} for notification id={}; it is no longer PROCESSING",
+                    sent ? "success" : "failure",
+                    claimed.getId());
+            return;
+        }
+
+        if (sent) {
+            handleSuccess(notification);
+        } else {
             handleFailure(notification);
         }
     }
 
     private void handleSuccess(Notification notification) {
 
+        NotificationStatus previous = notification.getStatus();
+
         if (notification.getRecurrenceIntervalMinutes() != null) {
 
             logger.info("Recurring notification detected. Rescheduling id={}",
                     notification.getId());
 
-            notification.setStatus(NotificationStatus.CREATED);
-
-            notification.setScheduledAt(
-                    LocalDateTime.now()
-                            .plusMinutes(notification.getRecurrenceIntervalMinutes())
-            );
-
-            notification.setRetryCount(0);
-            notification.setNextRetryAt(null);
+            rescheduleRecurring(notification);
 
         } else {
 
             notification.setStatus(NotificationStatus.SENT);
         }
         notificationRepository.save(notification);
+        statusCache.publish(notification);
+        statusCounters.recordTransition(notification, previous);
+        eventPublisher.publishEvent(NotificationStatusChangedEvent.of(notification));
     }
 
     private void handleFailure(Notification notification) {
 
+        NotificationStatus previous = notification.getStatus();
+
         int nextRetryCount = notification.getRetryCount() + 1;
         notification.setRetryCount(nextRetryCount);
 
@@ -89,6 +248,13 @@ public class NotificationDispatcherServiceImpl implements NotificationDispatcher
                 nextRetryCount,
                 notification.getMaxRetries());
 
+        //exponential backoff
+        // Retry 1 → 1 min
+        // Retry 2 → 2 min
+        // Retry 3 → 4 min
+        long delayMinutes = (long) Math.pow(2, nextRetryCount - 1);
+        LocalDateTime nextRetryAt = LocalDateTime.now().plusMinutes(delayMinutes);
+
         if (nextRetryCount > notification.getMaxRetries()) {
 
             notification.setStatus(NotificationStatus.DEAD_LETTER);
@@ -97,25 +263,128 @@ public class NotificationDispatcherServiceImpl implements NotificationDispatcher
             logger.warn("Notification id={} exhausted retries. Moved to DEAD_LETTER",
                     notification.getId());
 
+            scheduleFallback(notification);
+
+        } else if (isExpired(notification, nextRetryAt) && notification.getRecurrenceIntervalMinutes() == null) {
+
+            // The retry would land after the deadline, so give up now
+            notification.setStatus(NotificationStatus.EXPIRED);
+            notification.setNextRetryAt(null);
+
+            logger.info("Notification id={} would retry after its deadline {}. Marked EXPIRED",
+                    notification.getId(),
+                    notification.getExpiresAt());
+
+            recordExpired(notification, ExpiryMetrics.RETRY);
+
         } else {
 
             logger.info("Updating status id={} from {} to FAILED",
                     notification.getId(),
                     notification.getStatus());
             notification.setStatus(NotificationStatus.FAILED);
-
-            //exponential backoff
-            // Retry 1 → 1 min
-            // Retry 2 → 2 min
-            // Retry 3 → 4 min
-            long delayMinutes = (long) Math.pow(2, nextRetryCount - 1);
-
-            notification.setNextRetryAt(LocalDateTime.now().plusMinutes(delayMinutes));
+            notification.setNextRetryAt(nextRetryAt);
 
             logger.info("Retry scheduled for notification id={} at {}",
                     notification.getId(),
                     notification.getNextRetryAt());
         }
         notificationRepository.save(notification);
+        statusCache.publish(notification);
+        statusCounters.recordTransition(notification, previous);
+        eventPublisher.publishEvent(NotificationStatusChangedEvent.of(notification));
+    }
+
+    /**
+     * A notification found past its deadline is not sent. A recurring one
+     * skips this occurrence and is rescheduled; any other becomes EXPIRED.
+     */
+    private void handleExpired(Notification notification) {
+
+        NotificationStatus previous = notification.getStatus();
+
+        if (notification.getRecurrenceIntervalMinutes() != null) {
+            rescheduleRecurring(notification);
+        } else {
+            notification.setStatus(NotificationStatus.EXPIRED);
+            notification.setNextRetryAt(null);
+        }
+
+        logger.info("Notification id={} passed its deadline {} before dispatch. Now {}",
+                notification.getId(),
+                notification.getExpiresAt(),
+                notification.getStatus());
+
+        notificationRepository.save(notification);
+        statusCache.publish(notification);
+        statusCounters.recordTransition(notification, previous);
+        eventPublisher.publishEvent(NotificationStatusChangedEvent.of(notification));
+
+        recordExpired(notification, ExpiryMetrics.DISPATCH);
+    }
+
+    // The deadline moves with the schedule, so each occurrence keeps the same TTL
+    private void rescheduleRecurring(Notification notification) {
+
+        LocalDateTime previousSchedule = notification.getScheduledAt();
+        LocalDateTime nextSchedule = LocalDateTime.now()
+                .plusMinutes(notification.getRecurrenceIntervalMinutes());
+
+        notification.setStatus(NotificationStatus.CREATED);
+        notification.setScheduledAt(nextSchedule);
+        notification.setRetryCount(0);
+        notification.setNextRetryAt(null);
+
+        if (notification.getExpiresAt() != null && previousSchedule != null) {
+            notification.setExpiresAt(notification.getExpiresAt()
+                    .plus(Duration.between(previousSchedule, nextSchedule)));
+        }
+    }
+
+    private static boolean isExpired(Notification notification, LocalDateTime at) {
+        return notification.getExpiresAt() != null && notification.getExpiresAt().isBefore(at);
+    }
+
+    private void recordExpired(Notification notification, String stage) {
+        ChannelType channelType = notification.getChannelType();
+        AfterCommit.run(() -> expiryMetrics.recordExpired(channelType, stage, 1));
+    }
+
+    private void scheduleFallback(Notification notification) {
+
+        List<ChannelType> fallbackChannels = notification.getFallbackChannels();
+
+        if (fallbackChannels == null || fallbackChannels.isEmpty()) {
+            return;
+        }
+
+        ChannelType nextChannel = fallbackChannels.get(0);
+
+        Notification fallback = new Notification();
+        fallback.setUserId(notification.getUserId());
+        fallback.setChannelType(nextChannel);
+        fallback.setFallbackChannels(new ArrayList<>(fallbackChannels.subList(1, fallbackChannels.size())));
+        fallback.setPayloadId(notification.getPayloadId());
+        fallback.setTemplateId(notification.getTemplateId());
+        fallback.setTemplateParams(notification.getTemplateParams());
+        fallback.setCampaignId(notification.getCampaignId());
+        fallback.setExpiresAt(notification.getExpiresAt());
+        fallback.setContentType(notification.getContentType());
+        fallback.setPriority(notification.getPriority());
+        fallback.setPriorityWeight(notification.getPriorityWeight());
+        fallback.setMaxRetries(retryProperties.getMaxRetries(nextChannel));
+        fallback.setScheduledAt(LocalDateTime.now());
+        fallback.setStatus(NotificationStatus.CREATED);
+
+        notificationRepository.save(fallback);
+        notification.setFallbackNotificationId(fallback.getId());
+        statusCache.put(fallback);
+        statusCounters.recordCreated(fallback);
+        eventPublisher.publishEvent(NotificationStatusChangedEvent.of(fallback));
+
+        logger.info("Fallback scheduled for notification id={} channel={} fallbackId={}",
+                notification.getId(),
+                nextChannel,
+                fallback.getId());
     }
 }
@@ -0,0 +1,31 @@
+package com.notification.event;
+
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published in-process by the dispatcher on every status transition.
+ */
+public record NotificationStatusChangedEvent(
+        Long notificationId,
+        Long userId,
+        ChannelType channelType,
+        NotificationStatus status,
+        Integer retryCount,
+        LocalDateTime occurredAt
+) {
+
+    public static NotificationStatusChangedEvent of(Notification notification) {
+        return new NotificationStatusChangedEvent(
+                notification.getId(),
+                notification.getUserId(),
+                notification.getChannelType(),
+                notification.getStatus(),
+                notification.getRetryCount(),
+                LocalDateTime.now()
+        );
+    }
+}
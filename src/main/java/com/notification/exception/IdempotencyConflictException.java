@@ -0,0 +1,8 @@
+package com.notification.exception;
+
+// A concurrent request with the same idempotency key won the insert
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.notification.exception;
+
+// The idempotency key was first used with a different request
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.notification.exception;
+
+import java.time.Duration;
+
+// A capacity limit was reached; the client should retry after the given delay
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
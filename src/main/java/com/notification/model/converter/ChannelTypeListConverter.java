@@ -0,0 +1,40 @@
+package com.notification.model.converter;
+
+import com.notification.model.enums.ChannelType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores an ordered list of channels as a comma separated column, e.g. {@code SMS,EMAIL}.
+ */
+@Converter
+public class ChannelTypeListConverter implements AttributeConverter<List<ChannelType>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<ChannelType> channels) {
+
+        if (channels == null || channels.isEmpty()) {
+            return null;
+        }
+
+        return channels.stream()
+                .map(ChannelType::name)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<ChannelType> convertToEntityAttribute(String column) {
+
+        if (column == null || column.isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(column.split(","))
+                .map(ChannelType::valueOf)
+                .toList();
+    }
+}
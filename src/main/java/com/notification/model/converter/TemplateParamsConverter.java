@@ -0,0 +1,49 @@
+package com.notification.model.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Map;
+
+/**
+ * Stores template parameters as a compact JSON object, e.g. {@code {"name":"Ana"}}.
+ */
+@Converter
+public class TemplateParamsConverter implements AttributeConverter<Map<String, String>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, String>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, String> parameters) {
+
+        if (parameters == null || parameters.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return MAPPER.writeValueAsString(parameters);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Unable to serialize template parameters", ex);
+        }
+    }
+
+    @Override
+    public Map<String, String> convertToEntityAttribute(String column) {
+
+        if (column == null || column.isBlank()) {
+            return Map.of();
+        }
+
+        try {
+            return MAPPER.readValue(column, TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Unable to read template parameters", ex);
+        }
+    }
+}
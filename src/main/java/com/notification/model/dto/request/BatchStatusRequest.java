@@ -0,0 +1,20 @@
+package com.notification.model.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchStatusRequest {
+
+    @NotEmpty(message = "ids cannot be empty")
+    private List<@NotNull Long> ids;
+
+    // Only return notifications updated at or after this time
+    private LocalDateTime changedSince;
+}
@@ -0,0 +1,13 @@
+package com.notification.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CreateCampaignRequest {
+
+    @NotBlank
+    @Size(max = 255)
+    private String name;
+}
@@ -3,11 +3,12 @@ package com.notification.model.dto.request;
 import com.notification.model.enums.ChannelType;
 import com.notification.model.enums.NotificationPriority;
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 public class CreateNotificationRequest {
@@ -18,9 +19,13 @@ public class CreateNotificationRequest {
     @NotNull
     private ChannelType channelType;
 
-    @NotBlank
+    // Either a literal payload or a template with its parameters
     private String payload;
 
+    private Long templateId;
+
+    private Map<String, String> templateParams;
+
     @NotNull
     private NotificationPriority priority;
 
@@ -28,4 +33,16 @@ public class CreateNotificationRequest {
 
     @Min(value = 1, message = "Recurrence interval must be positive")
     private Long recurrenceIntervalMinutes;
+
+    // Deadline after which the notification is dropped instead of sent; at most one of the two
+    private LocalDateTime expiresAt;
+
+    @Min(value = 1, message = "TTL must be positive")
+    private Long ttlSeconds;
+
+    @Size(max = 128, message = "Idempotency key must be at most 128 characters")
+    private String idempotencyKey;
+
+    // Optional; the campaign must exist and not be cancelled
+    private Long campaignId;
 }
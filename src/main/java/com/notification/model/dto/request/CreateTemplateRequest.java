@@ -0,0 +1,20 @@
+package com.notification.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class CreateTemplateRequest {
+
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+
+    // locale -> body, e.g. "en" -> "Hi {{name}}"
+    @NotEmpty
+    private Map<@NotBlank @Size(max = 10) String, @NotBlank String> variants;
+}
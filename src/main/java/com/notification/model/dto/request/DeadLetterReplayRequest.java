@@ -0,0 +1,28 @@
+package com.notification.model.dto.request;
+
+import com.notification.model.enums.ChannelType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class DeadLetterReplayRequest {
+
+    // Omitted to replay every channel
+    private ChannelType channelType;
+
+    // Window on the time the notification was dead-lettered
+    @NotNull
+    private LocalDateTime failedFrom;
+
+    // Defaults to now; later values are clamped to now
+    private LocalDateTime failedTo;
+
+    // Fully qualified exception class of the last failed attempt
+    private String errorClass;
+
+    @Min(value = 1, message = "Rate must be positive")
+    private Integer ratePerSecond;
+}
@@ -0,0 +1,40 @@
+package com.notification.model.dto.request;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class FanOutNotificationRequest {
+
+    // Explicit recipients; omitted when recipients are uploaded as a file
+    private List<Long> userIds;
+
+    @NotNull
+    private ChannelType channelType;
+
+    @NotBlank
+    private String payload;
+
+    @NotNull
+    private NotificationPriority priority;
+
+    private LocalDateTime scheduledAt;
+
+    @Min(value = 1, message = "Recurrence interval must be positive")
+    private Long recurrenceIntervalMinutes;
+
+    // Optional; the campaign must exist and not be cancelled
+    private Long campaignId;
+
+    // A retried request with the same key resumes the original fan-out instead of starting another
+    @Size(max = 128, message = "Idempotency key must be at most 128 characters")
+    private String idempotencyKey;
+}
@@ -0,0 +1,39 @@
+package com.notification.model.dto.request;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.DeliveryMode;
+import com.notification.model.enums.NotificationPriority;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class MultiChannelNotificationRequest {
+
+    @NotNull
+    private Long userId;
+
+    @NotNull
+    private DeliveryMode mode;
+
+    // Ordered fallback chain, only used in FALLBACK mode. Defaults to PUSH then SMS.
+    private List<ChannelType> channels;
+
+    @NotBlank
+    private String payload;
+
+    @NotNull
+    private NotificationPriority priority;
+
+    private LocalDateTime scheduledAt;
+
+    @Min(value = 1, message = "Recurrence interval must be positive")
+    private Long recurrenceIntervalMinutes;
+
+    // Optional; the campaign must exist and not be cancelled
+    private Long campaignId;
+}
@@ -0,0 +1,14 @@
+package com.notification.model.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RescheduleCampaignRequest {
+
+    // Applied to notifications not yet sent or in retry
+    @NotNull
+    private LocalDateTime scheduledAt;
+}
@@ -0,0 +1,11 @@
+package com.notification.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class UpsertTemplateVariantRequest {
+
+    @NotBlank
+    private String body;
+}
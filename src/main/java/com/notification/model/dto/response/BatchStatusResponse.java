@@ -0,0 +1,22 @@
+package com.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class BatchStatusResponse {
+
+    // Pass back as changedSince on the next poll to receive only deltas
+    private LocalDateTime asOf;
+
+    private List<NotificationResponse> notifications;
+
+    // Only reported for full lookups; with changedSince a missing id may simply be unchanged
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> notFound;
+}
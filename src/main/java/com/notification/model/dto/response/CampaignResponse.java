@@ -0,0 +1,33 @@
+package com.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.notification.model.enums.CampaignAction;
+import com.notification.model.enums.CampaignStatus;
+import com.notification.model.enums.NotificationStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CampaignResponse {
+
+    private Long campaignId;
+
+    private String name;
+
+    private CampaignStatus status;
+
+    private CampaignAction pendingAction; // null once every notification is updated
+
+    private LocalDateTime rescheduleAt;
+
+    private long total;
+
+    private Map<NotificationStatus, Long> counts; // as of the last counter flush
+
+    private LocalDateTime createdAt;
+}
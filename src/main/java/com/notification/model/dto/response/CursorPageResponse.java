@@ -0,0 +1,24 @@
+package com.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    // Opaque; pass back as ?cursor= to read the next page. Null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+
+    // Only computed when requested with includeTotal=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
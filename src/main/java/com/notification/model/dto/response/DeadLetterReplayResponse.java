@@ -0,0 +1,37 @@
+package com.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.ReplayStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeadLetterReplayResponse {
+
+    private Long id;
+
+    private ChannelType channelType;
+
+    private LocalDateTime failedFrom;
+
+    private LocalDateTime failedTo;
+
+    private String errorClass;
+
+    private int ratePerSecond;
+
+    private ReplayStatus status;
+
+    private long totalMatched; // counted when the replay started
+
+    private long requeued;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,31 @@
+package com.notification.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.notification.model.enums.AttemptOutcome;
+import com.notification.model.enums.ChannelType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeliveryAttemptResponse {
+
+    private int attemptNumber;
+
+    private ChannelType channelType;
+
+    private AttemptOutcome outcome;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long durationMs;
+
+    private String errorClass;
+
+    private String errorMessage;
+}
@@ -0,0 +1,20 @@
+package com.notification.model.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class FanOutNotificationResponse {
+
+    private Long jobId;
+    private Long payloadId;
+    // Totals cover every attempt of the job; rejected only lists this attempt's rejections
+    private long totalRequested;
+    private long totalAccepted;
+    private long totalRejected;
+    private List<BulkItemResult> rejected; // capped, see rejectedTruncated
+    private boolean rejectedTruncated;
+}
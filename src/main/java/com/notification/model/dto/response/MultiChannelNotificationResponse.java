@@ -0,0 +1,19 @@
+package com.notification.model.dto.response;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.DeliveryMode;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class MultiChannelNotificationResponse {
+
+    private Long userId;
+    private DeliveryMode mode;
+    private Long payloadId;
+    private List<BulkItemResult> notifications;
+    private List<ChannelType> fallbackChannels; // present only in FALLBACK mode
+}
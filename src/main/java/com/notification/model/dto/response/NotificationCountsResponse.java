@@ -0,0 +1,21 @@
+package com.notification.model.dto.response;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class NotificationCountsResponse {
+
+    private Long userId;
+
+    private long total;
+
+    private Map<NotificationStatus, Long> byStatus;
+
+    private Map<ChannelType, Map<NotificationStatus, Long>> byChannel;
+}
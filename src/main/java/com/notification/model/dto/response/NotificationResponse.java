@@ -1,13 +1,30 @@
 package com.notification.model.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
 import com.notification.model.enums.NotificationStatus;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class NotificationResponse {
 
     private Long notificationId;
     private NotificationStatus status;
-}
\ No newline at end of file
+
+    // Only populated when requested through the fields selector
+    private Long userId;
+    private ChannelType channelType;
+    private NotificationPriority priority;
+    private Integer retryCount;
+    private Integer maxRetries;
+    private LocalDateTime scheduledAt;
+    private LocalDateTime nextRetryAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
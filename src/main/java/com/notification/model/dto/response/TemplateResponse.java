@@ -0,0 +1,15 @@
+package com.notification.model.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class TemplateResponse {
+
+    private Long templateId;
+    private String name;
+    private List<String> locales;
+}
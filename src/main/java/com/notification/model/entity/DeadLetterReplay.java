@@ -0,0 +1,80 @@
+package com.notification.model.entity;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.ReplayStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "dead_letter_replays")
+@Getter
+@Setter
+public class DeadLetterReplay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Null replays every channel
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel_type")
+    private ChannelType channelType;
+
+    @Column(name = "failed_from", nullable = false)
+    private LocalDateTime failedFrom;
+
+    @Column(name = "failed_to", nullable = false)
+    private LocalDateTime failedTo;
+
+    // Matched against the error class of the last delivery attempt
+    @Column(name = "error_class")
+    private String errorClass;
+
+    @Column(name = "rate_per_second", nullable = false)
+    private Integer ratePerSecond;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ReplayStatus status;
+
+    @Column(name = "total_matched", nullable = false)
+    private Long totalMatched;
+
+    @Column(name = "requeued", nullable = false)
+    private Long requeued = 0L;
+
+    @Column(name = "next_batch_at", nullable = false)
+    private LocalDateTime nextBatchAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,9 +1,12 @@
 package com.notification.model.entity;
 
+import com.notification.model.converter.ChannelTypeListConverter;
+import com.notification.model.converter.TemplateParamsConverter;
 import com.notification.model.enums.ChannelType;
 import com.notification.model.enums.NotificationPriority;
 import com.notification.model.enums.NotificationStatus;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -17,6 +20,9 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "notifications")
@@ -28,6 +34,14 @@ public class Notification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Unique per user together with user_id
+    @Column(name = "idempotency_key", updatable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the create request, compared when the idempotency key is used again
+    @Column(name = "request_fingerprint", updatable = false)
+    private String requestFingerprint;
+
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
@@ -35,8 +49,34 @@ public class Notification {
     @Column(name = "channel_type", nullable = false)
     private ChannelType channelType;
 
-    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
-    private String payload;
+    // Channels to try, in order, once this notification is dead-lettered
+    @Convert(converter = ChannelTypeListConverter.class)
+    @Column(name = "fallback_channels")
+    private List<ChannelType> fallbackChannels = new ArrayList<>();
+
+    // Set once dead-lettered and retried on the next fallback channel; replays skip such rows
+    @Column(name = "fallback_notification_id")
+    private Long fallbackNotificationId;
+
+    // Content-addressed body in notification_payloads, null for templated notifications
+    @Column(name = "payload_id")
+    private Long payloadId;
+
+    // Rendered at dispatch in the user's preferred language
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Convert(converter = TemplateParamsConverter.class)
+    @Column(name = "template_params", columnDefinition = "TEXT")
+    private Map<String, String> templateParams;
+
+    // Null for notifications sent outside a campaign
+    @Column(name = "campaign_id", updatable = false)
+    private Long campaignId;
+
+    // Set on rows created by a fan-out; unique per recipient together with user_id
+    @Column(name = "fan_out_job_id", updatable = false)
+    private Long fanOutJobId;
 
     @Column(name = "content_type", nullable = false)
     private String contentType = "text/plain";
@@ -67,6 +107,10 @@ public class Notification {
     @Column(name = "next_retry_at")
     private LocalDateTime nextRetryAt;
 
+    // Past this time the notification is marked EXPIRED instead of sent
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
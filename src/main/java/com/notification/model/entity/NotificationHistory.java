@@ -0,0 +1,72 @@
+package com.notification.model.entity;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
+import com.notification.model.enums.NotificationStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an archived notification. Rows are written by
+ * {@link com.notification.repository.NotificationArchiveRepository}, never
+ * through the entity manager, and only the columns read back are mapped.
+ */
+@Entity
+@Immutable
+@Table(name = "notification_history")
+@Getter
+public class NotificationHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "request_fingerprint")
+    private String requestFingerprint;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel_type")
+    private ChannelType channelType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    private NotificationPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private NotificationStatus status;
+
+    @Column(name = "scheduled_at")
+    private LocalDateTime scheduledAt;
+
+    @Column(name = "retry_count")
+    private Integer retryCount;
+
+    @Column(name = "max_retries")
+    private Integer maxRetries;
+
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,42 @@
+package com.notification.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_payloads")
+@Getter
+@Setter
+public class NotificationPayload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 of the uncompressed UTF-8 body
+    @Column(name = "content_hash", nullable = false, unique = true, updatable = false)
+    private String contentHash;
+
+    @Column(name = "compressed", nullable = false)
+    private boolean compressed;
+
+    @Column(name = "body", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
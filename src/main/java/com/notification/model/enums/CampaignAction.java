@@ -0,0 +1,21 @@
+package com.notification.model.enums;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// Row updates still to be applied to a campaign's notifications
+@Getter
+public enum CampaignAction {
+
+    PAUSE(List.of(NotificationStatus.CREATED, NotificationStatus.FAILED)),
+    RESUME(List.of(NotificationStatus.PAUSED)),
+    CANCEL(List.of(NotificationStatus.CREATED, NotificationStatus.FAILED, NotificationStatus.PAUSED)),
+    RESCHEDULE(List.of(NotificationStatus.CREATED, NotificationStatus.PAUSED));
+
+    private final List<NotificationStatus> affectedStatuses;
+
+    CampaignAction(List<NotificationStatus> affectedStatuses) {
+        this.affectedStatuses = affectedStatuses;
+    }
+}
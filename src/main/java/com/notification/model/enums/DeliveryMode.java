@@ -0,0 +1,6 @@
+package com.notification.model.enums;
+
+public enum DeliveryMode {
+    ALL_ENABLED,
+    FALLBACK
+}
@@ -5,5 +5,13 @@ public enum NotificationStatus {
     PROCESSING,
     SENT,
     FAILED,
-    DEAD_LETTER
-}
\ No newline at end of file
+    DEAD_LETTER,
+    PAUSED,
+    CANCELLED,
+    EXPIRED;
+
+    // Terminal notifications leave the live queue and are eventually archived
+    public boolean isTerminal() {
+        return this == SENT || this == DEAD_LETTER || this == CANCELLED || this == EXPIRED;
+    }
+}
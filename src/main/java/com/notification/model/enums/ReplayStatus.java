@@ -0,0 +1,7 @@
+package com.notification.model.enums;
+
+public enum ReplayStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,14 @@
+package com.notification.model.projection;
+
+import com.notification.model.enums.NotificationStatus;
+
+/**
+ * The notification a user's idempotency key was first used for, with the
+ * fingerprint of that request and the status stored for it.
+ */
+public record IdempotentRequest(
+        Long notificationId,
+        String fingerprint,
+        NotificationStatus status
+) {
+}
@@ -0,0 +1,16 @@
+package com.notification.model.projection;
+
+import com.notification.model.enums.NotificationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status columns only, for high-volume status polling.
+ */
+public record NotificationStatusSnapshot(
+        Long id,
+        NotificationStatus status,
+        Integer retryCount,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,44 @@
+package com.notification.model.projection;
+
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
+import com.notification.model.enums.NotificationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-side view of a notification holding only fixed-width columns. Read
+ * endpoints select this instead of the entity, so template parameters and
+ * other text columns are never fetched just to report status.
+ */
+public record NotificationSummary(
+        Long id,
+        Long userId,
+        ChannelType channelType,
+        NotificationStatus status,
+        NotificationPriority priority,
+        Integer retryCount,
+        Integer maxRetries,
+        LocalDateTime scheduledAt,
+        LocalDateTime nextRetryAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static NotificationSummary from(Notification notification) {
+        return new NotificationSummary(
+                notification.getId(),
+                notification.getUserId(),
+                notification.getChannelType(),
+                notification.getStatus(),
+                notification.getPriority(),
+                notification.getRetryCount(),
+                notification.getMaxRetries(),
+                notification.getScheduledAt(),
+                notification.getNextRetryAt(),
+                notification.getCreatedAt(),
+                notification.getUpdatedAt()
+        );
+    }
+}
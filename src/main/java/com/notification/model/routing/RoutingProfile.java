@@ -0,0 +1,70 @@
+package com.notification.model.routing;
+
+import com.notification.model.enums.ChannelType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Everything needed to route a notification to one user: language, configured
+ * endpoints and the channels the user has switched off. Immutable, so a single
+ * cached instance is shared by validation and delivery.
+ */
+public final class RoutingProfile {
+
+    private final Long userId;
+    private final String preferredLanguage;
+    private final Map<ChannelType, String> endpoints;
+    private final Set<ChannelType> disabledChannels;
+
+    public RoutingProfile(
+            Long userId,
+            String preferredLanguage,
+            Map<ChannelType, String> endpoints,
+            Set<ChannelType> disabledChannels
+    ) {
+        this.userId = userId;
+        this.preferredLanguage = preferredLanguage;
+        this.endpoints = endpoints.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(endpoints));
+        this.disabledChannels = disabledChannels.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(disabledChannels));
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getPreferredLanguage() {
+        return preferredLanguage;
+    }
+
+    public Optional<String> getEndpoint(ChannelType channelType) {
+        return Optional.ofNullable(endpoints.get(channelType));
+    }
+
+    public boolean hasEndpoint(ChannelType channelType) {
+        return endpoints.containsKey(channelType);
+    }
+
+    // No preference row means the channel is enabled
+    public boolean isChannelEnabled(ChannelType channelType) {
+        return !disabledChannels.contains(channelType);
+    }
+
+    /**
+     * Channels with an endpoint that the user has not disabled, in declaration order.
+     */
+    public List<ChannelType> getEnabledChannels() {
+        return endpoints.keySet().stream()
+                .filter(this::isChannelEnabled)
+                .toList();
+    }
+}
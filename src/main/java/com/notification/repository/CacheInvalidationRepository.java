@@ -0,0 +1,85 @@
+package com.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Change log that lets every node drop cache entries written on another node.
+ * Rows are appended inside the writer's transaction, so an event becomes
+ * visible exactly when the change it describes does.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CacheInvalidationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void record(String cacheName, Long entityId) {
+        jdbcTemplate.update(
+                "INSERT INTO cache_invalidation_events (cache_name, entity_id) VALUES (?, ?)",
+                cacheName,
+                entityId
+        );
+    }
+
+    public void recordAll(String cacheName, List<Long> entityIds) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO cache_invalidation_events (cache_name, entity_id) VALUES (?, ?)",
+                entityIds,
+                entityIds.size(),
+                (ps, entityId) -> {
+                    ps.setString(1, cacheName);
+                    ps.setLong(2, entityId);
+                }
+        );
+    }
+
+    // Database clock, so polling windows do not depend on node clock skew
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(3)", Timestamp.class)
+                .toLocalDateTime();
+    }
+
+    // Keyset on (created_at, id): one multi-row insert gives a whole batch the same timestamp
+    public List<CacheInvalidationEvent> findAfter(LocalDateTime createdAt, long afterId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, cache_name, entity_id, created_at
+                        FROM cache_invalidation_events
+                        WHERE created_at > ? OR (created_at = ? AND id > ?)
+                        ORDER BY created_at, id
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new CacheInvalidationEvent(
+                        rs.getLong("id"),
+                        rs.getString("cache_name"),
+                        rs.getLong("entity_id"),
+                        rs.getTimestamp("created_at").toLocalDateTime()
+                ),
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt),
+                afterId,
+                limit
+        );
+    }
+
+    public int deleteCreatedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM cache_invalidation_events WHERE created_at < ? LIMIT ?",
+                Timestamp.valueOf(cutoff),
+                limit
+        );
+    }
+
+    public record CacheInvalidationEvent(
+            long id,
+            String cacheName,
+            long entityId,
+            LocalDateTime createdAt
+    ) {
+    }
+}
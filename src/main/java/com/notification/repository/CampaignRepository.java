@@ -0,0 +1,37 @@
+package com.notification.repository;
+
+import com.notification.model.entity.Campaign;
+import com.notification.model.enums.CampaignAction;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+
+    /**
+     * Shared lock for inserting into or dispatching from a campaign. A pause or
+     * cancel waits for in-flight inserts and sends to commit, so its chunked
+     * update sees their rows, and those that start after it see the new status.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select c from Campaign c where c.id = :id")
+    Optional<Campaign> lockSharedById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Campaign c where c.id = :id")
+    Optional<Campaign> lockById(@Param("id") Long id);
+
+    @Query("select c.id from Campaign c where c.pendingAction is not null order by c.id")
+    List<Long> findIdsWithPendingAction();
+
+    // Conditional, so an action requested while this one ran stays pending
+    @Modifying
+    @Query("update Campaign c set c.pendingAction = null where c.id = :id and c.pendingAction = :action")
+    int clearPendingAction(@Param("id") Long id, @Param("action") CampaignAction action);
+}
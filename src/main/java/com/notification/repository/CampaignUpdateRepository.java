@@ -0,0 +1,100 @@
+package com.notification.repository;
+
+import com.notification.model.enums.CampaignAction;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a campaign action to its notifications one chunk at a time. Each
+ * chunk is locked by primary key through {@code idx_notification_campaign_status}
+ * and updated by id, so locks are held only for the length of one short
+ * transaction. The lock and update calls must share a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CampaignUpdateRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<CampaignRow> lockChunk(Long campaignId, CampaignAction action,
+                                       LocalDateTime rescheduleAt, int limit) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("campaignId", campaignId)
+                .addValue("statuses", action.getAffectedStatuses().stream().map(Enum::name).toList())
+                .addValue("limit", limit);
+
+        String sql = """
+                SELECT id, user_id, channel_type, status, retry_count FROM notifications
+                WHERE campaign_id = :campaignId AND status IN (:statuses)
+                """;
+
+        // Rows already moved carry the new time; skipping them lets the chunks make progress
+        if (action == CampaignAction.RESCHEDULE) {
+            sql += " AND scheduled_at <> :rescheduleAt";
+            params.addValue("rescheduleAt", Timestamp.valueOf(rescheduleAt));
+        }
+
+        return jdbcTemplate.query(sql + " ORDER BY id LIMIT :limit FOR UPDATE", params,
+                (rs, rowNum) -> new CampaignRow(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        ChannelType.valueOf(rs.getString("channel_type")),
+                        NotificationStatus.valueOf(rs.getString("status")),
+                        rs.getInt("retry_count")
+                ));
+    }
+
+    // Retries keep their count; the retry time becomes the time they are due again
+    public int pause(List<Long> ids) {
+        return jdbcTemplate.update("""
+                        UPDATE notifications
+                        SET status = 'PAUSED',
+                            scheduled_at = COALESCE(next_retry_at, scheduled_at),
+                            next_retry_at = NULL, updated_at = NOW()
+                        WHERE id IN (:ids)
+                        """,
+                Map.of("ids", ids)
+        );
+    }
+
+    public int resume(List<Long> ids) {
+        return jdbcTemplate.update(
+                "UPDATE notifications SET status = 'CREATED', updated_at = NOW() WHERE id IN (:ids)",
+                Map.of("ids", ids)
+        );
+    }
+
+    public int cancel(List<Long> ids) {
+        return jdbcTemplate.update(
+                "UPDATE notifications SET status = 'CANCELLED', next_retry_at = NULL, updated_at = NOW() "
+                        + "WHERE id IN (:ids)",
+                Map.of("ids", ids)
+        );
+    }
+
+    public int reschedule(List<Long> ids, LocalDateTime scheduledAt) {
+        return jdbcTemplate.update(
+                "UPDATE notifications SET scheduled_at = :scheduledAt, updated_at = NOW() WHERE id IN (:ids)",
+                Map.of("ids", ids, "scheduledAt", Timestamp.valueOf(scheduledAt))
+        );
+    }
+
+    public record CampaignRow(
+            Long id,
+            Long userId,
+            ChannelType channelType,
+            NotificationStatus status,
+            int retryCount
+    ) {
+    }
+}
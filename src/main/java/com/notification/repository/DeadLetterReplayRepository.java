@@ -0,0 +1,40 @@
+package com.notification.repository;
+
+import com.notification.model.entity.DeadLetterReplay;
+import com.notification.model.enums.ReplayStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface DeadLetterReplayRepository extends JpaRepository<DeadLetterReplay, Long> {
+
+    @Query("select r.id from DeadLetterReplay r where r.status = :status order by r.id")
+    List<Long> findIdsByStatus(@Param("status") ReplayStatus status);
+
+    long countByStatus(ReplayStatus status);
+
+    // Lock timeout -2 is SKIP LOCKED: a replay being advanced on another node is left alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select r from DeadLetterReplay r where r.id = :id")
+    Optional<DeadLetterReplay> lockById(@Param("id") Long id);
+
+    // Touches only the status, so a batch committing concurrently keeps its progress
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update DeadLetterReplay r
+            set r.status = com.notification.model.enums.ReplayStatus.CANCELLED,
+                r.finishedAt = :now, r.updatedAt = :now
+            where r.id = :id and r.status = com.notification.model.enums.ReplayStatus.RUNNING
+            """)
+    int cancelRunning(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
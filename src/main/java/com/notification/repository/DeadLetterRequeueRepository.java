@@ -0,0 +1,159 @@
+package com.notification.repository;
+
+import com.notification.model.entity.DeadLetterReplay;
+import com.notification.model.enums.ChannelType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds DEAD_LETTER notifications matching a replay and puts them back in the
+ * queue as CREATED with a fresh retry budget. Dead letters still in the live
+ * table are updated in place; archived ones are moved back from
+ * {@code notification_history} under their original id. Dead letters that
+ * already spawned a fallback-channel notification are never replayed. The lock
+ * and requeue calls must share a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeadLetterRequeueRepository {
+
+    private static final RowMapper<DeadLetter> DEAD_LETTER_MAPPER = (rs, rowNum) -> new DeadLetter(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            ChannelType.valueOf(rs.getString("channel_type")),
+            rs.getObject("campaign_id", Long.class)
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public long countMatching(DeadLetterReplay replay) {
+
+        MapSqlParameterSource params = filterParams(replay);
+
+        Long live = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications n WHERE " + filter(replay), params, Long.class);
+        Long archived = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_history n WHERE " + filter(replay), params, Long.class);
+
+        return (live == null ? 0 : live) + (archived == null ? 0 : archived);
+    }
+
+    // SKIP LOCKED keeps a replay clear of the archiver and of rows another node is requeueing
+    public List<DeadLetter> lockLive(DeadLetterReplay replay, int limit) {
+        return jdbcTemplate.query(
+                "SELECT n.id, n.user_id, n.channel_type, n.campaign_id FROM notifications n WHERE " + filter(replay)
+                        + " ORDER BY n.updated_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+                filterParams(replay).addValue("limit", limit),
+                DEAD_LETTER_MAPPER
+        );
+    }
+
+    public List<DeadLetter> lockArchived(DeadLetterReplay replay, int limit) {
+        return jdbcTemplate.query(
+                "SELECT n.id, n.user_id, n.channel_type, n.campaign_id FROM notification_history n WHERE " + filter(replay)
+                        + " ORDER BY n.updated_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+                filterParams(replay).addValue("limit", limit),
+                DEAD_LETTER_MAPPER
+        );
+    }
+
+    public int requeueLive(List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update("""
+                        UPDATE notifications
+                        SET status = 'CREATED', retry_count = 0, next_retry_at = NULL,
+                            scheduled_at = NOW(), updated_at = NOW()
+                        WHERE id IN (:ids) AND status = 'DEAD_LETTER'
+                        """,
+                Map.of("ids", ids)
+        );
+    }
+
+    public int restoreArchived(List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int restored = jdbcTemplate.update(
+                "INSERT INTO notifications (" + NotificationArchiveRepository.COLUMNS + """
+                        ) SELECT
+                            id, idempotency_key, request_fingerprint, user_id, channel_type, fallback_channels,
+                            payload_id, template_id, template_params, campaign_id, fan_out_job_id, content_type,
+                            priority, priority_weight, 'CREATED', NOW(),
+                            recurrence_interval_minutes, 0, max_retries,
+                            NULL, expires_at, fallback_notification_id, created_at, NOW()
+                        FROM notification_history
+                        WHERE id IN (:ids) AND status = 'DEAD_LETTER'
+                        """,
+                Map.of("ids", ids)
+        );
+
+        jdbcTemplate.update(
+                "DELETE FROM notification_history WHERE id IN (:ids) AND status = 'DEAD_LETTER'",
+                Map.of("ids", ids)
+        );
+
+        return restored;
+    }
+
+    private static String filter(DeadLetterReplay replay) {
+
+        // A dead letter already retried on a fallback channel has reached the user another way
+        StringBuilder where = new StringBuilder("""
+                n.status = 'DEAD_LETTER'
+                AND n.fallback_notification_id IS NULL
+                AND n.updated_at >= :failedFrom AND n.updated_at < :failedTo
+                """);
+
+        if (replay.getChannelType() != null) {
+            where.append(" AND n.channel_type = :channelType");
+        }
+
+        if (replay.getErrorClass() != null) {
+            where.append("""
+                     AND (SELECT a.error_class FROM delivery_attempts a
+                          WHERE a.notification_id = n.id
+                          ORDER BY a.id DESC LIMIT 1) = :errorClass
+                    """);
+        }
+
+        return where.toString();
+    }
+
+    private static MapSqlParameterSource filterParams(DeadLetterReplay replay) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("failedFrom", Timestamp.valueOf(replay.getFailedFrom()))
+                .addValue("failedTo", Timestamp.valueOf(replay.getFailedTo()));
+
+        if (replay.getChannelType() != null) {
+            params.addValue("channelType", replay.getChannelType().name());
+        }
+
+        if (replay.getErrorClass() != null) {
+            params.addValue("errorClass", replay.getErrorClass());
+        }
+
+        return params;
+    }
+
+    public record DeadLetter(
+            Long id,
+            Long userId,
+            ChannelType channelType,
+            Long campaignId
+    ) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.notification.repository;
+
+import com.notification.model.enums.AttemptOutcome;
+import com.notification.model.enums.ChannelType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Append-only log of channel sends. Rows are only ever inserted in batches
+ * and removed by retention.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeliveryAttemptRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<DeliveryAttempt> attempts) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO delivery_attempts (
+                            notification_id, attempt_number, channel_type, outcome,
+                            started_at, finished_at, duration_ms, error_class, error_message
+                        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                attempts,
+                attempts.size(),
+                (ps, attempt) -> {
+                    ps.setLong(1, attempt.notificationId());
+                    ps.setInt(2, attempt.attemptNumber());
+                    ps.setString(3, attempt.channelType().name());
+                    ps.setString(4, attempt.outcome().name());
+                    ps.setTimestamp(5, Timestamp.valueOf(attempt.startedAt()));
+                    ps.setTimestamp(6, Timestamp.valueOf(attempt.finishedAt()));
+                    ps.setLong(7, attempt.durationMs());
+                    ps.setString(8, attempt.errorClass());
+                    ps.setString(9, attempt.errorMessage());
+                }
+        );
+    }
+
+    // Newest first
+    public List<DeliveryAttempt> findByNotificationId(Long notificationId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT notification_id, attempt_number, channel_type, outcome,
+                               started_at, finished_at, duration_ms, error_class, error_message
+                        FROM delivery_attempts
+                        WHERE notification_id = ?
+                        ORDER BY id DESC
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> new DeliveryAttempt(
+                        rs.getLong("notification_id"),
+                        rs.getInt("attempt_number"),
+                        ChannelType.valueOf(rs.getString("channel_type")),
+                        AttemptOutcome.valueOf(rs.getString("outcome")),
+                        rs.getTimestamp("started_at").toLocalDateTime(),
+                        rs.getTimestamp("finished_at").toLocalDateTime(),
+                        rs.getLong("duration_ms"),
+                        rs.getString("error_class"),
+                        rs.getString("error_message")
+                ),
+                notificationId,
+                limit
+        );
+    }
+
+    public int deleteStartedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM delivery_attempts WHERE started_at < ? LIMIT ?",
+                Timestamp.valueOf(cutoff),
+                limit
+        );
+    }
+
+    public record DeliveryAttempt(
+            Long notificationId,
+            int attemptNumber,
+            ChannelType channelType,
+            AttemptOutcome outcome,
+            LocalDateTime startedAt,
+            LocalDateTime finishedAt,
+            long durationMs,
+            String errorClass,
+            String errorMessage
+    ) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.notification.repository;
+
+import com.notification.model.enums.FanOutJobStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Progress of fan-out requests. Every call must run in the caller's
+ * transaction; chunks lock the job row so concurrent attempts of the same
+ * request take turns and never expand a chunk twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FanOutJobRepository {
+
+    private static final String SELECT = """
+            SELECT id, request_fingerprint, chunk_size, status,
+                   recipients_read, total_accepted, total_rejected
+            FROM fan_out_jobs
+            """;
+
+    private static final RowMapper<FanOutJob> ROW_MAPPER = (rs, rowNum) -> new FanOutJob(
+            rs.getLong("id"),
+            rs.getString("request_fingerprint"),
+            rs.getInt("chunk_size"),
+            FanOutJobStatus.valueOf(rs.getString("status")),
+            rs.getLong("recipients_read"),
+            rs.getLong("total_accepted"),
+            rs.getLong("total_rejected")
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Returns the job already started under the key, if any, so a retried request resumes it
+    public FanOutJob start(String idempotencyKey, String requestFingerprint, int chunkSize) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("idempotencyKey", idempotencyKey)
+                .addValue("fingerprint", requestFingerprint)
+                .addValue("chunkSize", chunkSize)
+                .addValue("status", FanOutJobStatus.RUNNING.name());
+
+        if (idempotencyKey == null) {
+
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+
+            jdbcTemplate.update("""
+                            INSERT INTO fan_out_jobs (request_fingerprint, chunk_size, status)
+                            VALUES (:fingerprint, :chunkSize, :status)
+                            """,
+                    params,
+                    keyHolder);
+
+            return new FanOutJob(Objects.requireNonNull(keyHolder.getKey()).longValue(),
+                    requestFingerprint, chunkSize, FanOutJobStatus.RUNNING, 0, 0, 0);
+        }
+
+        jdbcTemplate.update("""
+                        INSERT INTO fan_out_jobs (idempotency_key, request_fingerprint, chunk_size, status)
+                        VALUES (:idempotencyKey, :fingerprint, :chunkSize, :status)
+                        ON DUPLICATE KEY UPDATE idempotency_key = idempotency_key
+                        """,
+                params);
+
+        // A locking read sees a row another request inserted after this transaction's snapshot
+        return jdbcTemplate.queryForObject(SELECT + "WHERE idempotency_key = :idempotencyKey FOR SHARE",
+                params, ROW_MAPPER);
+    }
+
+    public FanOutJob lockById(Long id) {
+        return jdbcTemplate.queryForObject(SELECT + "WHERE id = :id FOR UPDATE", Map.of("id", id), ROW_MAPPER);
+    }
+
+    public void recordChunk(Long id, long recipientsRead, long accepted, long rejected) {
+        jdbcTemplate.update("""
+                        UPDATE fan_out_jobs
+                        SET recipients_read = :recipientsRead,
+                            total_accepted = total_accepted + :accepted,
+                            total_rejected = total_rejected + :rejected,
+                            updated_at = CURRENT_TIMESTAMP
+                        WHERE id = :id
+                        """,
+                Map.of("id", id, "recipientsRead", recipientsRead, "accepted", accepted, "rejected", rejected));
+    }
+
+    public void complete(Long id) {
+        jdbcTemplate.update("""
+                        UPDATE fan_out_jobs
+                        SET status = :status, updated_at = CURRENT_TIMESTAMP
+                        WHERE id = :id
+                        """,
+                Map.of("id", id, "status", FanOutJobStatus.COMPLETED.name()));
+    }
+
+    public record FanOutJob(
+            Long id,
+            String requestFingerprint,
+            int chunkSize,
+            FanOutJobStatus status,
+            long recipientsRead,
+            long totalAccepted,
+            long totalRejected
+    ) {
+    }
+}
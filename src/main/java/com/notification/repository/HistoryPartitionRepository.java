@@ -0,0 +1,145 @@
+package com.notification.repository;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Partition maintenance for {@code notification_history}, which is range
+ * partitioned by month on {@code UNIX_TIMESTAMP(created_at)}. Monthly
+ * partitions are named {@code pYYYYMM}; {@code p_max} catches everything later.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HistoryPartitionRepository {
+
+    public static final String FUTURE_PARTITION = "p_max";
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // Monthly partitions in ascending order, without p_max
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList("""
+                        SELECT PARTITION_NAME
+                        FROM information_schema.PARTITIONS
+                        WHERE TABLE_SCHEMA = DATABASE()
+                          AND TABLE_NAME = 'notification_history'
+                          AND PARTITION_NAME <> ?
+                        ORDER BY PARTITION_ORDINAL_POSITION
+                        """,
+                        String.class,
+                        FUTURE_PARTITION)
+                .stream()
+                .map(name -> YearMonth.parse(name, NAME_FORMAT))
+                .toList();
+    }
+
+    // Splits p_max; cheap while p_max is empty, which holds once partitions exist ahead of time
+    public void addMonthlyPartitions(List<YearMonth> months) {
+
+        String partitions = months.stream()
+                .map(month -> "PARTITION " + month.format(NAME_FORMAT)
+                        + " VALUES LESS THAN (UNIX_TIMESTAMP('" + month.plusMonths(1).atDay(1) + " 00:00:00'))")
+                .collect(Collectors.joining(",\n"));
+
+        jdbcTemplate.execute("ALTER TABLE notification_history REORGANIZE PARTITION " + FUTURE_PARTITION
+                + " INTO (" + partitions + ",\nPARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    public void dropMonthlyPartitions(List<YearMonth> months) {
+        jdbcTemplate.execute("ALTER TABLE notification_history DROP PARTITION " + partitionNames(months));
+    }
+
+    // Rows per status counter key, read before the partitions are dropped
+    public List<RemovedCount> countByPartitions(List<YearMonth> months) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, channel_type, campaign_id, status, COUNT(*) AS removed
+                        FROM notification_history PARTITION (%s)
+                        GROUP BY user_id, channel_type, campaign_id, status
+                        """.formatted(partitionNames(months)),
+                (rs, rowNum) -> new RemovedCount(
+                        rs.getLong("user_id"),
+                        ChannelType.valueOf(rs.getString("channel_type")),
+                        rs.getObject("campaign_id", Long.class),
+                        NotificationStatus.valueOf(rs.getString("status")),
+                        rs.getLong("removed")
+                )
+        );
+    }
+
+    // Locks and deletes one chunk in the caller's transaction, reporting what was removed per counter key
+    public List<RemovedCount> deleteCreatedBefore(NotificationStatus status, LocalDateTime cutoff, int limit) {
+
+        List<RemovedRow> rows = jdbcTemplate.query("""
+                        SELECT id, user_id, channel_type, campaign_id
+                        FROM notification_history
+                        WHERE status = ? AND created_at < ?
+                        ORDER BY created_at
+                        LIMIT ?
+                        FOR UPDATE
+                        """,
+                (rs, rowNum) -> new RemovedRow(
+                        rs.getLong("id"),
+                        new CounterKey(
+                                rs.getLong("user_id"),
+                                ChannelType.valueOf(rs.getString("channel_type")),
+                                rs.getObject("campaign_id", Long.class)
+                        )
+                ),
+                status.name(),
+                Timestamp.valueOf(cutoff),
+                limit
+        );
+
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        namedJdbcTemplate.update(
+                "DELETE FROM notification_history WHERE id IN (:ids) AND status = :status",
+                Map.of("ids", rows.stream().map(RemovedRow::id).toList(), "status", status.name())
+        );
+
+        return rows.stream()
+                .map(RemovedRow::key)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet().stream()
+                .map(entry -> new RemovedCount(entry.getKey().userId(), entry.getKey().channelType(),
+                        entry.getKey().campaignId(), status, entry.getValue()))
+                .toList();
+    }
+
+    private static String partitionNames(List<YearMonth> months) {
+        return months.stream().map(month -> month.format(NAME_FORMAT)).collect(Collectors.joining(", "));
+    }
+
+    public record RemovedCount(
+            Long userId,
+            ChannelType channelType,
+            Long campaignId,
+            NotificationStatus status,
+            long count
+    ) {
+    }
+
+    private record CounterKey(Long userId, ChannelType channelType, Long campaignId) {
+    }
+
+    private record RemovedRow(Long id, CounterKey key) {
+    }
+}
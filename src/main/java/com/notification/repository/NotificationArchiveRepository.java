@@ -0,0 +1,64 @@
+package com.notification.repository;
+
+import com.notification.model.enums.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves terminal notifications from the live table into
+ * {@code notification_history}. Must run inside a transaction: the selected
+ * rows stay locked until they are copied and deleted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationArchiveRepository {
+
+    static final String COLUMNS = """
+            id, idempotency_key, request_fingerprint, user_id, channel_type, fallback_channels,
+            payload_id, template_id, template_params, campaign_id, fan_out_job_id, content_type,
+            priority, priority_weight, status, scheduled_at,
+            recurrence_interval_minutes, retry_count, max_retries,
+            next_retry_at, expires_at, fallback_notification_id, created_at, updated_at
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // SKIP LOCKED lets archivers on several nodes take disjoint batches
+    public List<Long> lockArchivable(NotificationStatus status, LocalDateTime updatedBefore, int limit) {
+        return jdbcTemplate.queryForList("""
+                        SELECT id FROM notifications
+                        WHERE status = :status AND updated_at < :updatedBefore
+                        ORDER BY updated_at
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                        """,
+                Map.of(
+                        "status", status.name(),
+                        "updatedBefore", Timestamp.valueOf(updatedBefore),
+                        "limit", limit
+                ),
+                Long.class
+        );
+    }
+
+    public int moveToHistory(List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.update(
+                "INSERT INTO notification_history (" + COLUMNS + ") SELECT " + COLUMNS
+                        + " FROM notifications WHERE id IN (:ids)",
+                Map.of("ids", ids)
+        );
+
+        return jdbcTemplate.update("DELETE FROM notifications WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+}
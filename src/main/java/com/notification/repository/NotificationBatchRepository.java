@@ -0,0 +1,78 @@
+package com.notification.repository;
+
+import com.notification.model.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC batch inserts for large expansions. Hibernate cannot batch
+ * inserts for IDENTITY keys, so fan-out rows bypass the entity manager.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notifications (
+                user_id, channel_type, payload_id, campaign_id, fan_out_job_id, content_type,
+                priority, priority_weight, status, scheduled_at,
+                recurrence_interval_minutes, retry_count, max_retries,
+                expires_at, created_at, updated_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // Recipients a fan-out job already created a notification for, live or archived
+    public List<Long> findFanOutRecipients(Long fanOutJobId, Collection<Long> userIds) {
+        return namedJdbcTemplate.queryForList("""
+                        SELECT user_id FROM notifications
+                        WHERE fan_out_job_id = :jobId AND user_id IN (:userIds)
+                        UNION
+                        SELECT user_id FROM notification_history
+                        WHERE fan_out_job_id = :jobId AND user_id IN (:userIds)
+                        """,
+                Map.of("jobId", fanOutJobId, "userIds", userIds),
+                Long.class);
+    }
+
+    public void insertAll(List<Notification> notifications) {
+
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, notifications.size(), (ps, notification) -> {
+            ps.setLong(1, notification.getUserId());
+            ps.setString(2, notification.getChannelType().name());
+            ps.setObject(3, notification.getPayloadId(), Types.BIGINT);
+            ps.setObject(4, notification.getCampaignId(), Types.BIGINT);
+            ps.setObject(5, notification.getFanOutJobId(), Types.BIGINT);
+            ps.setString(6, notification.getContentType());
+            ps.setString(7, notification.getPriority().name());
+            ps.setInt(8, notification.getPriorityWeight());
+            ps.setString(9, notification.getStatus().name());
+            ps.setTimestamp(10, Timestamp.valueOf(notification.getScheduledAt()));
+            ps.setObject(11, notification.getRecurrenceIntervalMinutes(), Types.BIGINT);
+            ps.setInt(12, notification.getRetryCount());
+            ps.setInt(13, notification.getMaxRetries());
+            ps.setTimestamp(14, notification.getExpiresAt() == null
+                    ? null
+                    : Timestamp.valueOf(notification.getExpiresAt()));
+            ps.setTimestamp(15, now);
+            ps.setTimestamp(16, now);
+        });
+    }
+}
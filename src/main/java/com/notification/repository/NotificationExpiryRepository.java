@@ -0,0 +1,70 @@
+package com.notification.repository;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marks pending notifications past their deadline as EXPIRED. Recurring
+ * notifications are left to the dispatcher, which skips to the next occurrence.
+ * The lock and update calls must share a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationExpiryRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // SKIP LOCKED leaves rows being dispatched, and batches taken by other nodes, alone
+    public List<ExpiredNotification> lockExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, user_id, channel_type, campaign_id, status, retry_count
+                        FROM notifications
+                        WHERE status IN ('CREATED', 'FAILED', 'PAUSED')
+                          AND expires_at < :now
+                          AND recurrence_interval_minutes IS NULL
+                        ORDER BY expires_at
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                        """,
+                Map.of("now", Timestamp.valueOf(now), "limit", limit),
+                (rs, rowNum) -> new ExpiredNotification(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        ChannelType.valueOf(rs.getString("channel_type")),
+                        rs.getObject("campaign_id", Long.class),
+                        NotificationStatus.valueOf(rs.getString("status")),
+                        rs.getInt("retry_count")
+                ));
+    }
+
+    public int markExpired(List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(
+                "UPDATE notifications SET status = 'EXPIRED', next_retry_at = NULL, updated_at = NOW() "
+                        + "WHERE id IN (:ids)",
+                Map.of("ids", ids)
+        );
+    }
+
+    public record ExpiredNotification(
+            Long id,
+            Long userId,
+            ChannelType channelType,
+            Long campaignId,
+            NotificationStatus status,
+            int retryCount
+    ) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.notification.repository;
+
+import com.notification.model.entity.NotificationHistory;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.model.projection.IdempotentRequest;
+import com.notification.model.projection.NotificationStatusSnapshot;
+import com.notification.model.projection.NotificationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Summary reads over archived notifications, mirroring the read side of
+ * {@link NotificationRepository} so callers can merge both tables.
+ */
+public interface NotificationHistoryRepository extends JpaRepository<NotificationHistory, Long> {
+
+    String SUMMARY_SELECT = """
+            select new com.notification.model.projection.NotificationSummary(
+                n.id, n.userId, n.channelType, n.status, n.priority, n.retryCount, n.maxRetries,
+                n.scheduledAt, n.nextRetryAt, n.createdAt, n.updatedAt)
+            from NotificationHistory n
+            """;
+
+    @Query(SUMMARY_SELECT + "where n.id = :id")
+    Optional<NotificationSummary> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "where n.userId = :userId")
+    List<NotificationSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where n.userId = :userId and n.status = :status")
+    List<NotificationSummary> findSummariesByUserIdAndStatus(
+            @Param("userId") Long userId,
+            @Param("status") NotificationStatus status,
+            Pageable pageable
+    );
+
+    @Query("""
+            select new com.notification.model.projection.IdempotentRequest(n.id, n.requestFingerprint, n.status)
+            from NotificationHistory n
+            where n.userId = :userId and n.idempotencyKey = :idempotencyKey
+            """)
+    Optional<IdempotentRequest> findIdempotentRequest(
+            @Param("userId") Long userId,
+            @Param("idempotencyKey") String idempotencyKey
+    );
+
+    @Query(SUMMARY_SELECT + """
+            where n.userId = :userId
+              and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationSummary> findUserPageBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + """
+            where n.userId = :userId and n.status = :status
+              and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationSummary> findUserPageBeforeWithStatus(
+            @Param("userId") Long userId,
+            @Param("status") NotificationStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("""
+            select new com.notification.model.projection.NotificationStatusSnapshot(
+                n.id, n.status, n.retryCount, n.updatedAt)
+            from NotificationHistory n
+            where n.id in :ids
+            """)
+    List<NotificationStatusSnapshot> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.notification.model.projection.NotificationStatusSnapshot(
+                n.id, n.status, n.retryCount, n.updatedAt)
+            from NotificationHistory n
+            where n.id in :ids and n.updatedAt >= :changedSince
+            """)
+    List<NotificationStatusSnapshot> findStatusesByIdInChangedSince(
+            @Param("ids") Collection<Long> ids,
+            @Param("changedSince") LocalDateTime changedSince
+    );
+}
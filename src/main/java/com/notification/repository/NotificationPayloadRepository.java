@@ -0,0 +1,78 @@
+package com.notification.repository;
+
+import com.notification.model.entity.NotificationPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationPayloadRepository extends JpaRepository<NotificationPayload, Long> {
+
+    @Query("select p.id from NotificationPayload p where p.contentHash = :contentHash")
+    Optional<Long> findIdByContentHash(@Param("contentHash") String contentHash);
+
+    // A locking read sees the latest committed row, which a plain snapshot read
+    // under REPEATABLE READ may not when another writer inserted the hash concurrently
+    @Query(value = "SELECT id FROM notification_payloads WHERE content_hash = :contentHash FOR SHARE",
+            nativeQuery = true)
+    Optional<Long> lockIdByContentHash(@Param("contentHash") String contentHash);
+
+    // Zero once retention removed the payload, in which case the caller stores it again
+    @Modifying
+    @Query(value = "UPDATE notification_payloads SET last_stored_at = CURRENT_TIMESTAMP WHERE id = :id",
+            nativeQuery = true)
+    int touch(@Param("id") Long id);
+
+    // Only refreshes last_stored_at on an existing hash, so concurrent writers of the same body never fail
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_payloads (content_hash, compressed, body, created_at)
+            VALUES (:contentHash, :compressed, :body, CURRENT_TIMESTAMP)
+            ON DUPLICATE KEY UPDATE last_stored_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int insertIfAbsent(
+            @Param("contentHash") String contentHash,
+            @Param("compressed") boolean compressed,
+            @Param("body") byte[] body
+    );
+
+    @Query(value = """
+            SELECT p.id
+            FROM notification_payloads p
+            WHERE p.id > :afterId
+              AND p.last_stored_at < :storedBefore
+              AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.payload_id = p.id)
+              AND NOT EXISTS (SELECT 1 FROM notification_history h WHERE h.payload_id = p.id)
+            ORDER BY p.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findOrphanIdsAfter(
+            @Param("afterId") long afterId,
+            @Param("storedBefore") LocalDateTime storedBefore,
+            @Param("limit") int limit
+    );
+
+    // Writers take a lock on the payload row before referring to it, so once these
+    // locks are held no new reference can appear until the delete commits
+    @Query(value = "SELECT id FROM notification_payloads WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rechecks under the locks taken by lockByIdIn, since candidates are found without locking
+    @Modifying
+    @Query(value = """
+            DELETE FROM notification_payloads
+            WHERE id IN (:ids)
+              AND last_stored_at < :storedBefore
+              AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.payload_id = notification_payloads.id)
+              AND NOT EXISTS (SELECT 1 FROM notification_history h WHERE h.payload_id = notification_payloads.id)
+            """, nativeQuery = true)
+    int deleteOrphansByIdIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("storedBefore") LocalDateTime storedBefore
+    );
+}
@@ -2,31 +2,221 @@ package com.notification.repository;
 
 import com.notification.model.entity.Notification;
 import com.notification.model.enums.NotificationStatus;
-import org.springframework.data.domain.Page;
+import com.notification.model.projection.IdempotentRequest;
+import com.notification.model.projection.NotificationStatusSnapshot;
+import com.notification.model.projection.NotificationSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    Page<Notification> findByStatusAndScheduledAtBefore(
-            NotificationStatus status,
-            LocalDateTime time,
-            Pageable pageable
+    // Unique index on (user_id, idempotency_key); a violation means a concurrent retry won the insert
+    String IDEMPOTENCY_KEY_CONSTRAINT = "uk_notification_user_idempotency_key";
+
+    // Lock timeout -2 is SKIP LOCKED: a row another node is dispatching is left alone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select n from Notification n where n.id = :id")
+    Optional<Notification> lockById(@Param("id") Long id);
+
+    /*
+     * Senders of one priority's due rows, picked without aggregating every due
+     * user. The users behind the oldest due rows come from a bounded walk of the
+     * (status, priority_weight, due time) index. One sender's backlog can fill
+     * that window, so the poller adds the next users in id order after a
+     * rotating cursor: that read jumps from user to user on the (status,
+     * priority_weight, user_id, due time) index and stops after a batch worth.
+     * Rows of paused or cancelled campaigns never take a slot in the window;
+     * the rotation leaves them to the per-sender read, which keeps the jump an
+     * index-only read.
+     */
+    @Query(value = """
+            SELECT DISTINCT oldest.user_id FROM (
+                    SELECT h.user_id FROM notifications h
+                    WHERE h.status = 'CREATED' AND h.priority_weight = :weight AND h.scheduled_at < :now
+                      AND NOT EXISTS (SELECT 1 FROM campaigns c
+                                      WHERE c.id = h.campaign_id AND c.status <> 'ACTIVE')
+                    ORDER BY h.scheduled_at, h.id
+                    LIMIT :window
+                ) AS oldest
+            """, nativeQuery = true)
+    List<Long> findReadySendersOldest(
+            @Param("weight") int priorityWeight,
+            @Param("now") LocalDateTime now,
+            @Param("window") int window
+    );
+
+    @Query(value = """
+            SELECT h.user_id FROM notifications h
+            WHERE h.status = 'CREATED' AND h.priority_weight = :weight
+              AND h.user_id > :afterUserId AND h.scheduled_at < :now
+            GROUP BY h.user_id
+            ORDER BY h.user_id
+            LIMIT :senders
+            """, nativeQuery = true)
+    List<Long> findReadySendersAfter(
+            @Param("weight") int priorityWeight,
+            @Param("now") LocalDateTime now,
+            @Param("afterUserId") long afterUserId,
+            @Param("senders") int senders
+    );
+
+    // Oldest due rows of each given user, at most perSender apiece
+    @Query(value = """
+            SELECT due.* FROM users s,
+                LATERAL (
+                    SELECT n.* FROM notifications n
+                    WHERE n.status = 'CREATED' AND n.priority_weight = :weight
+                      AND n.user_id = s.id AND n.scheduled_at < :now
+                      AND NOT EXISTS (SELECT 1 FROM campaigns c
+                                      WHERE c.id = n.campaign_id AND c.status <> 'ACTIVE')
+                    ORDER BY n.scheduled_at, n.id
+                    LIMIT :perSender
+                ) AS due
+            WHERE s.id IN (:userIds)
+            """, nativeQuery = true)
+    List<Notification> findReadyForSenders(
+            @Param("weight") int priorityWeight,
+            @Param("now") LocalDateTime now,
+            @Param("userIds") Collection<Long> userIds,
+            @Param("perSender") int perSender
+    );
+
+    @Query(value = """
+            SELECT DISTINCT oldest.user_id FROM (
+                    SELECT h.user_id FROM notifications h
+                    WHERE h.status = 'FAILED' AND h.priority_weight = :weight AND h.next_retry_at < :now
+                      AND NOT EXISTS (SELECT 1 FROM campaigns c
+                                      WHERE c.id = h.campaign_id AND c.status <> 'ACTIVE')
+                    ORDER BY h.next_retry_at, h.id
+                    LIMIT :window
+                ) AS oldest
+            """, nativeQuery = true)
+    List<Long> findRetrySendersOldest(
+            @Param("weight") int priorityWeight,
+            @Param("now") LocalDateTime now,
+            @Param("window") int window
     );
 
-    Page<Notification> findByStatusAndNextRetryAtBefore(
-            NotificationStatus status,
-            LocalDateTime time,
+    @Query(value = """
+            SELECT h.user_id FROM notifications h
+            WHERE h.status = 'FAILED' AND h.priority_weight = :weight
+              AND h.user_id > :afterUserId AND h.next_retry_at < :now
+            GROUP BY h.user_id
+            ORDER BY h.user_id
+            LIMIT :senders
+            """, nativeQuery = true)
+    List<Long> findRetrySendersAfter(
+            @Param("weight") int priorityWeight,
+            @Param("now") LocalDateTime now,
+            @Param("afterUserId") long afterUserId,
+            @Param("senders") int senders
+    );
+
+    @Query(value = """
+            SELECT due.* FROM users s,
+                LATERAL (
+                    SELECT n.* FROM notifications n
+                    WHERE n.status = 'FAILED' AND n.priority_weight = :weight
+                      AND n.user_id = s.id AND n.next_retry_at < :now
+                      AND NOT EXISTS (SELECT 1 FROM campaigns c
+                                      WHERE c.id = n.campaign_id AND c.status <> 'ACTIVE')
+                    ORDER BY n.next_retry_at, n.id
+                    LIMIT :perSender
+                ) AS due
+            WHERE s.id IN (:userIds)
+            """, nativeQuery = true)
+    List<Notification> findRetriesForSenders(
+            @Param("weight") int priorityWeight,
+            @Param("now") LocalDateTime now,
+            @Param("userIds") Collection<Long> userIds,
+            @Param("perSender") int perSender
+    );
+
+    String SUMMARY_SELECT = """
+            select new com.notification.model.projection.NotificationSummary(
+                n.id, n.userId, n.channelType, n.status, n.priority, n.retryCount, n.maxRetries,
+                n.scheduledAt, n.nextRetryAt, n.createdAt, n.updatedAt)
+            from Notification n
+            """;
+
+    @Query(SUMMARY_SELECT + "where n.id = :id")
+    Optional<NotificationSummary> findSummaryById(@Param("id") Long id);
+
+    // Totals come from the status counters, so these pages run no COUNT query
+    @Query(SUMMARY_SELECT + "where n.userId = :userId")
+    List<NotificationSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where n.userId = :userId and n.status = :status")
+    List<NotificationSummary> findSummariesByUserIdAndStatus(
+            @Param("userId") Long userId,
+            @Param("status") NotificationStatus status,
             Pageable pageable
     );
 
-    Page<Notification> findByUserId(Long userId, Pageable pageable);
+    @Query("""
+            select new com.notification.model.projection.IdempotentRequest(n.id, n.requestFingerprint, n.status)
+            from Notification n
+            where n.userId = :userId and n.idempotencyKey = :idempotencyKey
+            """)
+    Optional<IdempotentRequest> findIdempotentRequest(
+            @Param("userId") Long userId,
+            @Param("idempotencyKey") String idempotencyKey
+    );
 
-    Page<Notification> findByUserIdAndStatus(
-            Long userId,
-            NotificationStatus status,
+    // Keyset pages over idx_notification_user_created; the index carries id as its last column
+    @Query(SUMMARY_SELECT + """
+            where n.userId = :userId
+              and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationSummary> findUserPageBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
             Pageable pageable
     );
+
+    @Query(SUMMARY_SELECT + """
+            where n.userId = :userId and n.status = :status
+              and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id))
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationSummary> findUserPageBeforeWithStatus(
+            @Param("userId") Long userId,
+            @Param("status") NotificationStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("""
+            select new com.notification.model.projection.NotificationStatusSnapshot(
+                n.id, n.status, n.retryCount, n.updatedAt)
+            from Notification n
+            where n.id in :ids
+            """)
+    List<NotificationStatusSnapshot> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.notification.model.projection.NotificationStatusSnapshot(
+                n.id, n.status, n.retryCount, n.updatedAt)
+            from Notification n
+            where n.id in :ids and n.updatedAt >= :changedSince
+            """)
+    List<NotificationStatusSnapshot> findStatusesByIdInChangedSince(
+            @Param("ids") Collection<Long> ids,
+            @Param("changedSince") LocalDateTime changedSince
+    );
 }
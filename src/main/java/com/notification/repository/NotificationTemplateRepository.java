@@ -0,0 +1,9 @@
+package com.notification.repository;
+
+import com.notification.model.entity.NotificationTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, Long> {
+
+    boolean existsByName(String name);
+}
@@ -0,0 +1,14 @@
+package com.notification.repository;
+
+import com.notification.model.entity.NotificationTemplateVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationTemplateVariantRepository extends JpaRepository<NotificationTemplateVariant, Long> {
+
+    Optional<NotificationTemplateVariant> findByTemplateIdAndLocale(Long templateId, String locale);
+
+    List<NotificationTemplateVariant> findByTemplateId(Long templateId);
+}
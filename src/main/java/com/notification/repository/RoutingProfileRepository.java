@@ -0,0 +1,75 @@
+package com.notification.repository;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.routing.RoutingProfile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads a user's row, endpoints and disabled channels in one round trip.
+ * The three relations are stacked with UNION ALL rather than joined, so the
+ * result does not multiply endpoints by preferences.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RoutingProfileRepository {
+
+    private static final String PROFILE_SQL = """
+            SELECT 'U' AS kind, NULL AS channel_type, preferred_language AS value
+            FROM users WHERE id = ?
+            UNION ALL
+            SELECT 'E', channel_type, endpoint_value
+            FROM user_channel_endpoints WHERE user_id = ?
+            UNION ALL
+            SELECT 'D', channel_type, NULL
+            FROM user_preferences WHERE user_id = ? AND enabled = FALSE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<RoutingProfile> findByUserId(Long userId) {
+
+        ProfileRows rows = new ProfileRows();
+
+        jdbcTemplate.query(PROFILE_SQL, rs -> {
+
+            String channelType = rs.getString("channel_type");
+
+            switch (rs.getString("kind")) {
+                case "U" -> {
+                    rows.userFound = true;
+                    rows.preferredLanguage = rs.getString("value");
+                }
+                case "E" -> rows.endpoints.put(ChannelType.valueOf(channelType), rs.getString("value"));
+                case "D" -> rows.disabledChannels.add(ChannelType.valueOf(channelType));
+                default -> throw new IllegalStateException("Unexpected routing row kind");
+            }
+        }, userId, userId, userId);
+
+        if (!rows.userFound) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new RoutingProfile(
+                userId,
+                rows.preferredLanguage,
+                rows.endpoints,
+                rows.disabledChannels
+        ));
+    }
+
+    private static final class ProfileRows {
+
+        private boolean userFound;
+        private String preferredLanguage;
+        private final Map<ChannelType, String> endpoints = new EnumMap<>(ChannelType.class);
+        private final Set<ChannelType> disabledChannels = EnumSet.noneOf(ChannelType.class);
+    }
+}
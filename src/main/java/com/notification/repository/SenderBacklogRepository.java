@@ -0,0 +1,50 @@
+package com.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Due notifications per user, new and retries together, for backlog metrics.
+ * Reads every due row, so it runs on its own slow schedule, never from the poller.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SenderBacklogRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<SenderBacklog> findLargest(LocalDateTime now, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, COUNT(*) AS due, MIN(due_at) AS oldest_due_at
+                        FROM (
+                            SELECT user_id, scheduled_at AS due_at FROM notifications
+                            WHERE status = 'CREATED' AND scheduled_at < :now
+                            UNION ALL
+                            SELECT user_id, next_retry_at FROM notifications
+                            WHERE status = 'FAILED' AND next_retry_at < :now
+                        ) due
+                        GROUP BY user_id
+                        ORDER BY due DESC
+                        LIMIT :limit
+                        """,
+                Map.of("now", Timestamp.valueOf(now), "limit", limit),
+                (rs, rowNum) -> new SenderBacklog(
+                        rs.getLong("user_id"),
+                        rs.getLong("due"),
+                        rs.getTimestamp("oldest_due_at").toLocalDateTime()
+                ));
+    }
+
+    public record SenderBacklog(
+            Long userId,
+            long due,
+            LocalDateTime oldestDueAt
+    ) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.notification.repository;
+
+import com.notification.model.enums.ChannelType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Returns notifications left in PROCESSING by a node that stopped between
+ * claiming and settling a send. The lock and update calls must share a
+ * transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StalledDispatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // SKIP LOCKED leaves rows a dispatcher is settling right now alone
+    public List<StalledNotification> lockStalled(LocalDateTime claimedBefore, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, user_id, channel_type, campaign_id, retry_count
+                        FROM notifications
+                        WHERE status = 'PROCESSING'
+                          AND updated_at < :claimedBefore
+                        ORDER BY updated_at
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                        """,
+                Map.of("claimedBefore", Timestamp.valueOf(claimedBefore), "limit", limit),
+                (rs, rowNum) -> new StalledNotification(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        ChannelType.valueOf(rs.getString("channel_type")),
+                        rs.getObject("campaign_id", Long.class),
+                        rs.getInt("retry_count")
+                ));
+    }
+
+    // Due again at once; the retry count is left alone since the send's outcome is unknown
+    public int markRetryable(List<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(
+                "UPDATE notifications SET status = 'FAILED', next_retry_at = NOW(), updated_at = NOW() "
+                        + "WHERE id IN (:ids)",
+                Map.of("ids", ids)
+        );
+    }
+
+    public record StalledNotification(
+            Long id,
+            Long userId,
+            ChannelType channelType,
+            Long campaignId,
+            int retryCount
+    ) {
+    }
+}
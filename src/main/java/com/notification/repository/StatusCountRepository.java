@@ -0,0 +1,280 @@
+package com.notification.repository;
+
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary tables holding notification counts per user, channel and status, per
+ * campaign and status, plus global totals per status. Rows are adjusted by deltas rather than recounted;
+ * upserts add to the stored count, so every node can flush independently. Recounts only serve the
+ * periodic reconciliation, which repairs deltas lost when a node dies before flushing.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatusCountRepository {
+
+    private static final RowMapper<StatusCount> STATUS_COUNT_MAPPER = (rs, rowNum) -> new StatusCount(
+            rs.getLong("user_id"),
+            ChannelType.valueOf(rs.getString("channel_type")),
+            NotificationStatus.valueOf(rs.getString("status")),
+            rs.getLong("notification_count")
+    );
+
+    private static final RowMapper<CampaignStatusCount> CAMPAIGN_COUNT_MAPPER = (rs, rowNum) -> new CampaignStatusCount(
+            rs.getLong("campaign_id"),
+            NotificationStatus.valueOf(rs.getString("status")),
+            rs.getLong("notification_count")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Callers pass deltas in a stable order so concurrent flushes lock rows in the same order
+    public void applyDeltas(List<StatusCount> deltas) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO notification_status_counts (user_id, channel_type, status, notification_count)
+                        VALUES (?, ?, ?, ?)
+                        ON DUPLICATE KEY UPDATE notification_count = notification_count + VALUES(notification_count)
+                        """,
+                deltas,
+                deltas.size(),
+                (ps, delta) -> {
+                    ps.setLong(1, delta.userId());
+                    ps.setString(2, delta.channelType().name());
+                    ps.setString(3, delta.status().name());
+                    ps.setLong(4, delta.count());
+                }
+        );
+    }
+
+    public void applyTotalDeltas(Map<NotificationStatus, Long> deltas) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO notification_status_totals (status, notification_count)
+                        VALUES (?, ?)
+                        ON DUPLICATE KEY UPDATE notification_count = notification_count + VALUES(notification_count)
+                        """,
+                List.copyOf(deltas.entrySet()),
+                deltas.size(),
+                (ps, delta) -> {
+                    ps.setString(1, delta.getKey().name());
+                    ps.setLong(2, delta.getValue());
+                }
+        );
+    }
+
+    public void applyCampaignDeltas(List<CampaignStatusCount> deltas) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO campaign_status_counts (campaign_id, status, notification_count)
+                        VALUES (?, ?, ?)
+                        ON DUPLICATE KEY UPDATE notification_count = notification_count + VALUES(notification_count)
+                        """,
+                deltas,
+                deltas.size(),
+                (ps, delta) -> {
+                    ps.setLong(1, delta.campaignId());
+                    ps.setString(2, delta.status().name());
+                    ps.setLong(3, delta.count());
+                }
+        );
+    }
+
+    public List<StatusCount> findByUserId(Long userId) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, channel_type, status, notification_count
+                        FROM notification_status_counts
+                        WHERE user_id = ? AND notification_count <> 0
+                        """,
+                STATUS_COUNT_MAPPER,
+                userId
+        );
+    }
+
+    public Map<NotificationStatus, Long> findByCampaignId(Long campaignId) {
+
+        Map<NotificationStatus, Long> counts = new EnumMap<>(NotificationStatus.class);
+
+        jdbcTemplate.query("""
+                        SELECT status, notification_count
+                        FROM campaign_status_counts
+                        WHERE campaign_id = ? AND notification_count <> 0
+                        """,
+                rs -> {
+                    counts.put(NotificationStatus.valueOf(rs.getString("status")),
+                            rs.getLong("notification_count"));
+                },
+                campaignId
+        );
+
+        return counts;
+    }
+
+    // Counts recounted from live and archived rows, for users in [fromUserId, toUserId)
+    public List<StatusCount> recountUsers(long fromUserId, long toUserId) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, channel_type, status, SUM(counted) AS notification_count
+                        FROM (
+                            SELECT user_id, channel_type, status, COUNT(*) AS counted
+                            FROM notifications
+                            WHERE user_id >= ? AND user_id < ?
+                            GROUP BY user_id, channel_type, status
+                            UNION ALL
+                            SELECT user_id, channel_type, status, COUNT(*) AS counted
+                            FROM notification_history
+                            WHERE user_id >= ? AND user_id < ?
+                            GROUP BY user_id, channel_type, status
+                        ) counts
+                        GROUP BY user_id, channel_type, status
+                        """,
+                STATUS_COUNT_MAPPER,
+                fromUserId, toUserId, fromUserId, toUserId
+        );
+    }
+
+    public List<StatusCount> findByUserIdRange(long fromUserId, long toUserId) {
+        return jdbcTemplate.query("""
+                        SELECT user_id, channel_type, status, notification_count
+                        FROM notification_status_counts
+                        WHERE user_id >= ? AND user_id < ?
+                        """,
+                STATUS_COUNT_MAPPER,
+                fromUserId, toUserId
+        );
+    }
+
+    public List<CampaignStatusCount> recountCampaigns(long fromCampaignId, long toCampaignId) {
+        return jdbcTemplate.query("""
+                        SELECT campaign_id, status, SUM(counted) AS notification_count
+                        FROM (
+                            SELECT campaign_id, status, COUNT(*) AS counted
+                            FROM notifications
+                            WHERE campaign_id >= ? AND campaign_id < ?
+                            GROUP BY campaign_id, status
+                            UNION ALL
+                            SELECT campaign_id, status, COUNT(*) AS counted
+                            FROM notification_history
+                            WHERE campaign_id >= ? AND campaign_id < ?
+                            GROUP BY campaign_id, status
+                        ) counts
+                        GROUP BY campaign_id, status
+                        """,
+                CAMPAIGN_COUNT_MAPPER,
+                fromCampaignId, toCampaignId, fromCampaignId, toCampaignId
+        );
+    }
+
+    public List<CampaignStatusCount> findByCampaignIdRange(long fromCampaignId, long toCampaignId) {
+        return jdbcTemplate.query("""
+                        SELECT campaign_id, status, notification_count
+                        FROM campaign_status_counts
+                        WHERE campaign_id >= ? AND campaign_id < ?
+                        """,
+                CAMPAIGN_COUNT_MAPPER,
+                fromCampaignId, toCampaignId
+        );
+    }
+
+    /*
+     * Compare-and-set: replaces the stored count only while it still holds the
+     * value the correction was computed from, so a flush landing in between or
+     * another node applying the same correction wins and this one is skipped.
+     * A missing row counts as zero.
+     */
+    public boolean replaceCount(StatusCount expected, long actual) {
+
+        int updated = jdbcTemplate.update("""
+                        UPDATE notification_status_counts SET notification_count = ?
+                        WHERE user_id = ? AND channel_type = ? AND status = ? AND notification_count = ?
+                        """,
+                actual,
+                expected.userId(),
+                expected.channelType().name(),
+                expected.status().name(),
+                expected.count()
+        );
+
+        if (updated > 0 || expected.count() != 0) {
+            return updated > 0;
+        }
+
+        return jdbcTemplate.update("""
+                        INSERT IGNORE INTO notification_status_counts (user_id, channel_type, status, notification_count)
+                        VALUES (?, ?, ?, ?)
+                        """,
+                expected.userId(),
+                expected.channelType().name(),
+                expected.status().name(),
+                actual
+        ) > 0;
+    }
+
+    public boolean replaceCampaignCount(CampaignStatusCount expected, long actual) {
+
+        int updated = jdbcTemplate.update("""
+                        UPDATE campaign_status_counts SET notification_count = ?
+                        WHERE campaign_id = ? AND status = ? AND notification_count = ?
+                        """,
+                actual,
+                expected.campaignId(),
+                expected.status().name(),
+                expected.count()
+        );
+
+        if (updated > 0 || expected.count() != 0) {
+            return updated > 0;
+        }
+
+        return jdbcTemplate.update("""
+                        INSERT IGNORE INTO campaign_status_counts (campaign_id, status, notification_count)
+                        VALUES (?, ?, ?)
+                        """,
+                expected.campaignId(),
+                expected.status().name(),
+                actual
+        ) > 0;
+    }
+
+    public long findMaxUserId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    public long findMaxCampaignId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM campaigns", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    public Map<NotificationStatus, Long> findTotals() {
+
+        Map<NotificationStatus, Long> totals = new EnumMap<>(NotificationStatus.class);
+
+        jdbcTemplate.query("SELECT status, notification_count FROM notification_status_totals",
+                rs -> {
+                    totals.put(NotificationStatus.valueOf(rs.getString("status")),
+                            rs.getLong("notification_count"));
+                });
+
+        return totals;
+    }
+
+    public record StatusCount(
+            Long userId,
+            ChannelType channelType,
+            NotificationStatus status,
+            long count
+    ) {
+    }
+
+    public record CampaignStatusCount(
+            Long campaignId,
+            NotificationStatus status,
+            long count
+    ) {
+    }
+}
@@ -3,7 +3,11 @@ package com.notification.repository;
 import com.notification.model.entity.UserChannelEndpoint;
 import com.notification.model.enums.ChannelType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserChannelEndpointRepository extends JpaRepository<UserChannelEndpoint, Long> {
@@ -12,4 +16,13 @@ public interface UserChannelEndpointRepository extends JpaRepository<UserChannel
             Long userId,
             ChannelType channelType
     );
+
+    @Query("""
+            select e.userId from UserChannelEndpoint e
+            where e.channelType = :channelType and e.userId in :userIds
+            """)
+    List<Long> findUserIdsWithEndpoint(
+            @Param("channelType") ChannelType channelType,
+            @Param("userIds") Collection<Long> userIds
+    );
 }
@@ -3,7 +3,11 @@ package com.notification.repository;
 import com.notification.model.entity.UserPreference;
 import com.notification.model.enums.ChannelType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserPreferenceRepository extends JpaRepository<UserPreference, Long> {
@@ -12,4 +16,13 @@ public interface UserPreferenceRepository extends JpaRepository<UserPreference,
             Long userId,
             ChannelType channelType
     );
-}
\ No newline at end of file
+
+    @Query("""
+            select p.userId from UserPreference p
+            where p.channelType = :channelType and p.enabled = false and p.userId in :userIds
+            """)
+    List<Long> findUserIdsWithChannelDisabled(
+            @Param("channelType") ChannelType channelType,
+            @Param("userIds") Collection<Long> userIds
+    );
+}
@@ -0,0 +1,168 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.cache.RoutingProfileCache;
+import com.notification.cache.TemplateCache;
+import com.notification.config.CacheProperties;
+import com.notification.repository.CacheInvalidationRepository;
+import com.notification.repository.CacheInvalidationRepository.CacheInvalidationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tails {@code cache_invalidation_events} and applies other nodes' changes to
+ * the local caches.
+ * <p>
+ * Each poll re-reads from the previous poll's database time minus a commit
+ * grace period, so events from transactions that committed late are not missed,
+ * and pages on (created_at, id) until the window is drained.
+ * Re-applying an invalidation is harmless. If polling stalls for longer than the
+ * event retention, the local caches are cleared instead.
+ */
+@Component
+public class CacheInvalidationPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPoller.class);
+
+    private final CacheInvalidationRepository invalidationRepository;
+    private final RoutingProfileCache routingProfileCache;
+    private final NotificationStatusCache statusCache;
+    private final TemplateCache templateCache;
+    private final CacheProperties.Coherence coherence;
+
+    private final Counter appliedCounter;
+    private final Timer lagTimer;
+
+    private LocalDateTime lastPolledAt;
+    private long highestAppliedId;
+    private volatile long lastSuccessfulPollNanos = System.nanoTime();
+
+    public CacheInvalidationPoller(
+            CacheInvalidationRepository invalidationRepository,
+            RoutingProfileCache routingProfileCache,
+            NotificationStatusCache statusCache,
+            TemplateCache templateCache,
+            CacheProperties cacheProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.invalidationRepository = invalidationRepository;
+        this.routingProfileCache = routingProfileCache;
+        this.statusCache = statusCache;
+        this.templateCache = templateCache;
+        this.coherence = cacheProperties.getCoherence();
+
+        this.appliedCounter = Counter.builder("notification.cache.coherence.events.applied")
+                .description("Invalidation events from the change log applied on this node")
+                .register(meterRegistry);
+
+        this.lagTimer = Timer.builder("notification.cache.coherence.lag")
+                .description("Time from a change being logged to this node applying it")
+                .register(meterRegistry);
+
+        Gauge.builder("notification.cache.coherence.poll.age", this,
+                        poller -> (System.nanoTime() - poller.lastSuccessfulPollNanos) / 1e9)
+                .description("Seconds since the last successful invalidation poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.cache.coherence.poll-interval-ms:2000}")
+    public void poll() {
+
+        if (!coherence.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime now = invalidationRepository.currentTimestamp();
+
+        if (lastPolledAt == null || lastPolledAt.isBefore(now.minus(coherence.getRetention()))) {
+            // First poll, or events we needed may already be purged
+            if (lastPolledAt != null) {
+                logger.warn("Invalidation log gap exceeds retention, clearing local caches");
+            }
+            routingProfileCache.evictAllLocally();
+            statusCache.evictAllLocally();
+            templateCache.evictAllLocally();
+            lastPolledAt = now;
+            lastSuccessfulPollNanos = System.nanoTime();
+            return;
+        }
+
+        LocalDateTime createdAt = lastPolledAt.minus(coherence.getCommitGrace());
+        long afterId = 0;
+
+        while (true) {
+
+            List<CacheInvalidationEvent> events =
+                    invalidationRepository.findAfter(createdAt, afterId, coherence.getBatchSize());
+
+            events.forEach(event -> apply(event, now));
+
+            if (events.size() < coherence.getBatchSize()) {
+                break;
+            }
+
+            CacheInvalidationEvent last = events.get(events.size() - 1);
+            createdAt = last.createdAt();
+            afterId = last.id();
+        }
+
+        // Only moved once the window is drained, so a failed poll re-reads all of it
+        lastPolledAt = now;
+        lastSuccessfulPollNanos = System.nanoTime();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.cache.coherence.purge-interval-ms:60000}")
+    public void purge() {
+
+        if (!coherence.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = invalidationRepository.currentTimestamp()
+                .minus(coherence.getRetention());
+
+        int deleted;
+        int total = 0;
+
+        do {
+            deleted = invalidationRepository.deleteCreatedBefore(cutoff, coherence.getBatchSize());
+            total += deleted;
+        } while (deleted == coherence.getBatchSize());
+
+        if (total > 0) {
+            logger.debug("Purged {} cache invalidation events", total);
+        }
+    }
+
+    private void apply(CacheInvalidationEvent event, LocalDateTime now) {
+
+        if (RoutingProfileCache.NAME.equals(event.cacheName())) {
+            routingProfileCache.evictLocally(event.entityId());
+        } else if (NotificationStatusCache.NAME.equals(event.cacheName())) {
+            statusCache.evictLocally(event.entityId());
+        } else if (TemplateCache.NAME.equals(event.cacheName())) {
+            templateCache.evictLocally(event.entityId());
+        } else {
+            logger.debug("Ignoring invalidation for unknown cache={}", event.cacheName());
+            return;
+        }
+
+        // Events in the grace window are seen again on the next poll; count them once
+        if (event.id() > highestAppliedId) {
+            highestAppliedId = event.id();
+            appliedCounter.increment();
+            lagTimer.record(Duration.between(event.createdAt(), now));
+        }
+    }
+}
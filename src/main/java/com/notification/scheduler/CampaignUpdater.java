@@ -0,0 +1,172 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.CampaignProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.entity.Campaign;
+import com.notification.model.enums.CampaignAction;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.CampaignRepository;
+import com.notification.repository.CampaignUpdateRepository;
+import com.notification.repository.CampaignUpdateRepository.CampaignRow;
+import com.notification.stats.NotificationStatusCounters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Applies pending campaign actions to their notifications, one chunk per
+ * transaction with a short pause in between, so that cancelling millions of
+ * rows never holds locks for long. Paused rows leave the CREATED and FAILED
+ * ranges the poller scans, and cancelled rows become terminal and are archived
+ * like any other.
+ * <p>
+ * A campaign whose action changes mid-way is picked up again on the next run
+ * with the new action.
+ */
+@Component
+public class CampaignUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignUpdater.class);
+
+    private final CampaignRepository campaignRepository;
+    private final CampaignUpdateRepository updateRepository;
+    private final NotificationStatusCache statusCache;
+    private final NotificationStatusCounters statusCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CampaignProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter updatedCounter;
+
+    public CampaignUpdater(
+            CampaignRepository campaignRepository,
+            CampaignUpdateRepository updateRepository,
+            NotificationStatusCache statusCache,
+            NotificationStatusCounters statusCounters,
+            ApplicationEventPublisher eventPublisher,
+            CampaignProperties properties,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.campaignRepository = campaignRepository;
+        this.updateRepository = updateRepository;
+        this.statusCache = statusCache;
+        this.statusCounters = statusCounters;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+
+        this.updatedCounter = Counter.builder("notification.campaign.updated")
+                .description("Notifications updated by campaign pause, resume, cancel and reschedule")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.campaigns.update-interval-ms:1000}")
+    public void applyPendingActions() {
+        for (Long campaignId : campaignRepository.findIdsWithPendingAction()) {
+            applyPendingAction(campaignId);
+        }
+    }
+
+    private void applyPendingAction(Long campaignId) {
+
+        Campaign campaign = campaignRepository.findById(campaignId).orElse(null);
+
+        if (campaign == null || campaign.getPendingAction() == null) {
+            return;
+        }
+
+        CampaignAction action = campaign.getPendingAction();
+        int chunkSize = properties.getChunkSize();
+        long total = 0;
+        int updated;
+
+        do {
+            Integer chunk = transactionTemplate.execute(tx -> applyChunk(campaign, action));
+            updated = chunk == null ? 0 : chunk;
+            total += updated;
+
+            if (updated == chunkSize && (!isStillPending(campaignId, action) || !pause())) {
+                logger.info("Campaign id={} {} interrupted after {} notifications", campaignId, action, total);
+                return;
+            }
+
+        } while (updated == chunkSize);
+
+        transactionTemplate.executeWithoutResult(tx -> campaignRepository.clearPendingAction(campaignId, action));
+
+        logger.info("Campaign id={} {} applied to {} notifications", campaignId, action, total);
+    }
+
+    private int applyChunk(Campaign campaign, CampaignAction action) {
+
+        List<CampaignRow> rows = updateRepository.lockChunk(
+                campaign.getId(), action, campaign.getRescheduleAt(), properties.getChunkSize());
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = rows.stream().map(CampaignRow::id).toList();
+
+        switch (action) {
+            case PAUSE -> updateRepository.pause(ids);
+            case RESUME -> updateRepository.resume(ids);
+            case CANCEL -> updateRepository.cancel(ids);
+            case RESCHEDULE -> updateRepository.reschedule(ids, campaign.getRescheduleAt());
+        }
+
+        statusCache.invalidate(ids);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (CampaignRow row : rows) {
+
+            NotificationStatus to = targetStatus(action, row.status());
+
+            if (to != row.status()) {
+                statusCounters.recordTransition(row.userId(), row.channelType(), campaign.getId(), row.status(), to);
+                eventPublisher.publishEvent(new NotificationStatusChangedEvent(
+                        row.id(), row.userId(), row.channelType(), to, row.retryCount(), now));
+            }
+        }
+
+        updatedCounter.increment(rows.size());
+        return rows.size();
+    }
+
+    private static NotificationStatus targetStatus(CampaignAction action, NotificationStatus current) {
+        return switch (action) {
+            case PAUSE -> NotificationStatus.PAUSED;
+            case RESUME -> NotificationStatus.CREATED;
+            case CANCEL -> NotificationStatus.CANCELLED;
+            case RESCHEDULE -> current;
+        };
+    }
+
+    private boolean isStillPending(Long campaignId, CampaignAction action) {
+        return campaignRepository.findById(campaignId)
+                .map(Campaign::getPendingAction)
+                .filter(action::equals)
+                .isPresent();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getChunkPause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
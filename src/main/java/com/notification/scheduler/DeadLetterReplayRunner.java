@@ -0,0 +1,147 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.ReplayProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.entity.DeadLetterReplay;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.model.enums.ReplayStatus;
+import com.notification.repository.DeadLetterReplayRepository;
+import com.notification.repository.DeadLetterRequeueRepository;
+import com.notification.repository.DeadLetterRequeueRepository.DeadLetter;
+import com.notification.stats.NotificationStatusCounters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Advances running dead letter replays one paced batch at a time.
+ * <p>
+ * Each batch requeues at most {@code min(ratePerSecond, maxBatchSize)} rows in
+ * one transaction, live dead letters first and then archived ones, and pushes
+ * the replay's {@code nextBatchAt} out by the time that batch is worth at the
+ * replay's rate. The replay row is locked while a batch runs, so several nodes
+ * can tick without exceeding the rate between them. A replay completes once a
+ * batch finds nothing left to requeue.
+ */
+@Component
+public class DeadLetterReplayRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayRunner.class);
+
+    private final DeadLetterReplayRepository replayRepository;
+    private final DeadLetterRequeueRepository requeueRepository;
+    private final NotificationStatusCache statusCache;
+    private final NotificationStatusCounters statusCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplayProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter requeuedCounter;
+
+    public DeadLetterReplayRunner(
+            DeadLetterReplayRepository replayRepository,
+            DeadLetterRequeueRepository requeueRepository,
+            NotificationStatusCache statusCache,
+            NotificationStatusCounters statusCounters,
+            ApplicationEventPublisher eventPublisher,
+            ReplayProperties properties,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.replayRepository = replayRepository;
+        this.requeueRepository = requeueRepository;
+        this.statusCache = statusCache;
+        this.statusCounters = statusCounters;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+
+        this.requeuedCounter = Counter.builder("notification.replay.requeued")
+                .description("Dead letters put back in the queue by replays")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.replay.tick-interval-ms:200}")
+    public void tick() {
+
+        for (Long replayId : replayRepository.findIdsByStatus(ReplayStatus.RUNNING)) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> advance(replayId));
+            } catch (RuntimeException ex) {
+                // The batch rolled back; the replay stays RUNNING and is retried next tick
+                logger.warn("Dead letter replay id={} batch failed", replayId, ex);
+            }
+        }
+    }
+
+    private void advance(Long replayId) {
+
+        DeadLetterReplay replay = replayRepository.lockById(replayId).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (replay == null
+                || replay.getStatus() != ReplayStatus.RUNNING
+                || replay.getNextBatchAt().isAfter(now)) {
+            return;
+        }
+
+        int batchSize = Math.min(replay.getRatePerSecond(), properties.getMaxBatchSize());
+
+        List<DeadLetter> requeued = new ArrayList<>(requeueRepository.lockLive(replay, batchSize));
+        requeueRepository.requeueLive(ids(requeued));
+
+        if (requeued.size() < batchSize) {
+            List<DeadLetter> archived = requeueRepository.lockArchived(replay, batchSize - requeued.size());
+            requeueRepository.restoreArchived(ids(archived));
+            requeued.addAll(archived);
+        }
+
+        if (requeued.isEmpty()) {
+            replay.setStatus(ReplayStatus.COMPLETED);
+            replay.setFinishedAt(now);
+            replayRepository.save(replay);
+
+            logger.info("Dead letter replay id={} completed, requeued {} of {}",
+                    replay.getId(),
+                    replay.getRequeued(),
+                    replay.getTotalMatched());
+            return;
+        }
+
+        statusCache.invalidate(ids(requeued));
+
+        for (DeadLetter row : requeued) {
+            statusCounters.recordTransition(
+                    row.userId(), row.channelType(), row.campaignId(),
+                    NotificationStatus.DEAD_LETTER, NotificationStatus.CREATED);
+            eventPublisher.publishEvent(new NotificationStatusChangedEvent(
+                    row.id(), row.userId(), row.channelType(), NotificationStatus.CREATED, 0, now));
+        }
+
+        replay.setRequeued(replay.getRequeued() + requeued.size());
+        replay.setNextBatchAt(now.plusNanos(requeued.size() * 1_000_000_000L / replay.getRatePerSecond()));
+        replayRepository.save(replay);
+
+        requeuedCounter.increment(requeued.size());
+
+        logger.debug("Dead letter replay id={} requeued {} ({} of {})",
+                replay.getId(),
+                requeued.size(),
+                replay.getRequeued(),
+                replay.getTotalMatched());
+    }
+
+    private static List<Long> ids(List<DeadLetter> rows) {
+        return rows.stream().map(DeadLetter::id).toList();
+    }
+}
@@ -0,0 +1,274 @@
+package com.notification.scheduler;
+
+import com.notification.config.RetentionProperties;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.DeliveryAttemptRepository;
+import com.notification.repository.HistoryPartitionRepository;
+import com.notification.repository.HistoryPartitionRepository.RemovedCount;
+import com.notification.repository.NotificationPayloadRepository;
+import com.notification.stats.NotificationStatusCounters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps {@code notification_history} bounded.
+ * <p>
+ * Monthly partitions are created ahead of time, and a partition is dropped
+ * once every row in it is past the longest configured retention, which costs
+ * a metadata change rather than a delete. Statuses kept for less time are
+ * removed with small chunked deletes, pausing between chunks. Whatever is
+ * removed is subtracted from the status counters, and payloads no longer
+ * referenced by any notification are removed last.
+ */
+@Component
+public class HistoryRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryRetentionJob.class);
+
+    private final HistoryPartitionRepository partitionRepository;
+    private final DeliveryAttemptRepository attemptRepository;
+    private final NotificationPayloadRepository payloadRepository;
+    private final NotificationStatusCounters statusCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final RetentionProperties properties;
+
+    private final Counter partitionsDropped;
+    private final Counter rowsDeleted;
+
+    public HistoryRetentionJob(
+            HistoryPartitionRepository partitionRepository,
+            DeliveryAttemptRepository attemptRepository,
+            NotificationPayloadRepository payloadRepository,
+            NotificationStatusCounters statusCounters,
+            TransactionTemplate transactionTemplate,
+            RetentionProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.partitionRepository = partitionRepository;
+        this.attemptRepository = attemptRepository;
+        this.payloadRepository = payloadRepository;
+        this.statusCounters = statusCounters;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+
+        this.partitionsDropped = Counter.builder("notification.retention.partitions.dropped")
+                .description("Monthly history partitions dropped by retention")
+                .register(meterRegistry);
+
+        this.rowsDeleted = Counter.builder("notification.retention.rows.deleted")
+                .description("History, delivery attempt and payload rows removed by chunked retention deletes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.retention.interval-ms:3600000}")
+    public void run() {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            List<YearMonth> partitions = ensurePartitions(YearMonth.from(now));
+            dropExpiredPartitions(partitions, now);
+        } catch (DataAccessException ex) {
+            // Usually another node changed the partitions first; the next run starts from the new layout
+            logger.warn("History partition maintenance failed", ex);
+        }
+
+        purgeShorterRetentions(now);
+        purgeAttempts(now);
+        purgeOrphanPayloads(now);
+    }
+
+    private List<YearMonth> ensurePartitions(YearMonth current) {
+
+        List<YearMonth> partitions = new ArrayList<>(partitionRepository.findMonthlyPartitions());
+
+        YearMonth last = partitions.isEmpty()
+                ? current.minusMonths(1)
+                : partitions.get(partitions.size() - 1);
+
+        List<YearMonth> missing = new ArrayList<>();
+
+        for (YearMonth month = last.plusMonths(1);
+             !month.isAfter(current.plusMonths(properties.getPartitionsAhead()));
+             month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+
+        if (!missing.isEmpty()) {
+            partitionRepository.addMonthlyPartitions(missing);
+            partitions.addAll(missing);
+            logger.info("Added history partitions {}", missing);
+        }
+
+        return partitions;
+    }
+
+    private void dropExpiredPartitions(List<YearMonth> partitions, LocalDateTime now) {
+
+        Duration longest = longestRetention();
+
+        if (longest == null) {
+            return;
+        }
+
+        LocalDateTime cutoff = now.minus(longest);
+
+        // A partition only holds rows created before the start of the following month
+        List<YearMonth> expired = partitions.stream()
+                .filter(month -> !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff))
+                .toList();
+
+        if (!expired.isEmpty()) {
+            // Expired partitions only hold terminal rows, so the counts stay valid across the drop
+            List<RemovedCount> removed = partitionRepository.countByPartitions(expired);
+
+            partitionRepository.dropMonthlyPartitions(expired);
+            partitionsDropped.increment(expired.size());
+            removed.forEach(this::recordRemoved);
+            logger.info("Dropped history partitions {} older than {}", expired, cutoff);
+        }
+    }
+
+    private void purgeShorterRetentions(LocalDateTime now) {
+
+        Duration longest = longestRetention();
+
+        for (Map.Entry<NotificationStatus, Duration> entry : properties.getHistory().entrySet()) {
+
+            // The longest retention is enforced by dropping partitions
+            if (longest != null && entry.getValue().compareTo(longest) >= 0) {
+                continue;
+            }
+
+            LocalDateTime cutoff = now.minus(entry.getValue());
+
+            // The counters only see the deltas once the chunk commits
+            long total = deleteInChunks(() -> transactionTemplate.execute(status -> {
+                List<RemovedCount> removed = partitionRepository.deleteCreatedBefore(
+                        entry.getKey(), cutoff, properties.getDeleteChunkSize());
+                removed.forEach(this::recordRemoved);
+                return removed.stream().mapToInt(count -> Math.toIntExact(count.count())).sum();
+            }));
+
+            if (total > 0) {
+                logger.info("Deleted {} {} history rows older than {}", total, entry.getKey(), cutoff);
+            }
+        }
+    }
+
+    private void purgeAttempts(LocalDateTime now) {
+
+        LocalDateTime cutoff = now.minus(properties.getAttempts());
+
+        long total = deleteInChunks(() ->
+                attemptRepository.deleteStartedBefore(cutoff, properties.getDeleteChunkSize()));
+
+        if (total > 0) {
+            logger.info("Deleted {} delivery attempts older than {}", total, cutoff);
+        }
+    }
+
+    private void purgeOrphanPayloads(LocalDateTime now) {
+
+        LocalDateTime cutoff = now.minus(properties.getOrphanPayloadGrace());
+
+        long afterId = 0;
+        long total = 0;
+        List<Long> candidates;
+
+        do {
+            candidates = payloadRepository.findOrphanIdsAfter(afterId, cutoff, properties.getDeleteChunkSize());
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            afterId = candidates.get(candidates.size() - 1);
+
+            List<Long> chunk = candidates;
+            int deleted = transactionTemplate.execute(status -> {
+                payloadRepository.lockByIdIn(chunk);
+                return payloadRepository.deleteOrphansByIdIn(chunk, cutoff);
+            });
+
+            total += deleted;
+            rowsDeleted.increment(deleted);
+        } while (candidates.size() == properties.getDeleteChunkSize() && pause());
+
+        if (total > 0) {
+            logger.info("Deleted {} unreferenced payloads not stored since {}", total, cutoff);
+        }
+    }
+
+    private void recordRemoved(RemovedCount removed) {
+        statusCounters.recordRemoved(removed.userId(), removed.channelType(), removed.campaignId(),
+                removed.status(), removed.count());
+    }
+
+    private long deleteInChunks(IntSupplier deleteChunk) {
+
+        int deleted;
+        long total = 0;
+
+        do {
+            deleted = deleteChunk.getAsInt();
+            total += deleted;
+            rowsDeleted.increment(deleted);
+        } while (deleted == properties.getDeleteChunkSize() && pause());
+
+        return total;
+    }
+
+    // Null while some terminal status has no retention, since its rows must never be dropped
+    private Duration longestRetention() {
+
+        Duration longest = Duration.ZERO;
+
+        for (NotificationStatus status : NotificationStatus.values()) {
+
+            if (!status.isTerminal()) {
+                continue;
+            }
+
+            Duration retention = properties.getHistory().get(status);
+
+            if (retention == null) {
+                return null;
+            }
+
+            if (retention.compareTo(longest) > 0) {
+                longest = retention;
+            }
+        }
+
+        return longest;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getDeleteChunkPause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.notification.scheduler;
+
+import com.notification.config.ArchiveProperties;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.NotificationArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves SENT and DEAD_LETTER notifications into {@code notification_history}
+ * once they have been terminal for {@code notification.archive.archive-after},
+ * one batch per transaction. The live table then holds only the backlog, so
+ * poll queries and their indexes stay small regardless of all-time volume.
+ */
+@Component
+public class NotificationArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationArchiver.class);
+
+    private final NotificationArchiveRepository archiveRepository;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter archivedCounter;
+
+    public NotificationArchiver(
+            NotificationArchiveRepository archiveRepository,
+            ArchiveProperties properties,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.archiveRepository = archiveRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+
+        this.archivedCounter = Counter.builder("notification.archive.moved")
+                .description("Terminal notifications moved to the history table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.archive.interval-ms:60000}")
+    public void archive() {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getArchiveAfter());
+        int total = 0;
+
+        for (NotificationStatus status : NotificationStatus.values()) {
+
+            if (!status.isTerminal()) {
+                continue;
+            }
+
+            int moved;
+
+            do {
+                Integer batch = transactionTemplate.execute(tx -> {
+                    List<Long> ids = archiveRepository.lockArchivable(status, cutoff, properties.getBatchSize());
+                    return archiveRepository.moveToHistory(ids);
+                });
+
+                moved = batch == null ? 0 : batch;
+                total += moved;
+
+            } while (moved == properties.getBatchSize());
+        }
+
+        if (total > 0) {
+            archivedCounter.increment(total);
+            logger.info("Archived {} terminal notifications older than {}", total, cutoff);
+        }
+    }
+}
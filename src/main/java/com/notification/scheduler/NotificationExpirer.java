@@ -0,0 +1,113 @@
+package com.notification.scheduler;
+
+import com.notification.cache.AfterCommit;
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.ExpiryProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.NotificationExpiryRepository;
+import com.notification.repository.NotificationExpiryRepository.ExpiredNotification;
+import com.notification.stats.ExpiryMetrics;
+import com.notification.stats.NotificationStatusCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marks CREATED, FAILED and PAUSED notifications past their {@code expiresAt}
+ * as EXPIRED, one batch per transaction. Expired rows then leave the poll
+ * ranges before the poller ever loads them; the dispatcher's own deadline
+ * check covers rows that expire between sweeps.
+ */
+@Component
+public class NotificationExpirer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationExpirer.class);
+
+    private final NotificationExpiryRepository expiryRepository;
+    private final NotificationStatusCache statusCache;
+    private final NotificationStatusCounters statusCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpiryMetrics expiryMetrics;
+    private final ExpiryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public NotificationExpirer(
+            NotificationExpiryRepository expiryRepository,
+            NotificationStatusCache statusCache,
+            NotificationStatusCounters statusCounters,
+            ApplicationEventPublisher eventPublisher,
+            ExpiryMetrics expiryMetrics,
+            ExpiryProperties properties,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.expiryRepository = expiryRepository;
+        this.statusCache = statusCache;
+        this.statusCounters = statusCounters;
+        this.eventPublisher = eventPublisher;
+        this.expiryMetrics = expiryMetrics;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.expiry.interval-ms:10000}")
+    public void expireOverdue() {
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int expired;
+
+        do {
+            Integer batch = transactionTemplate.execute(tx -> expireBatch(now));
+            expired = batch == null ? 0 : batch;
+            total += expired;
+
+        } while (expired == properties.getBatchSize());
+
+        if (total > 0) {
+            logger.info("Expired {} notifications past their deadline", total);
+        }
+    }
+
+    private int expireBatch(LocalDateTime now) {
+
+        List<ExpiredNotification> rows = expiryRepository.lockExpired(now, properties.getBatchSize());
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = rows.stream().map(ExpiredNotification::id).toList();
+
+        expiryRepository.markExpired(ids);
+        statusCache.invalidate(ids);
+
+        Map<ChannelType, Long> perChannel = new EnumMap<>(ChannelType.class);
+
+        for (ExpiredNotification row : rows) {
+            statusCounters.recordTransition(row.userId(), row.channelType(), row.campaignId(),
+                    row.status(), NotificationStatus.EXPIRED);
+            eventPublisher.publishEvent(new NotificationStatusChangedEvent(
+                    row.id(), row.userId(), row.channelType(), NotificationStatus.EXPIRED, row.retryCount(), now));
+            perChannel.merge(row.channelType(), 1L, Long::sum);
+        }
+
+        AfterCommit.run(() -> perChannel.forEach((channelType, count) ->
+                expiryMetrics.recordExpired(channelType, ExpiryMetrics.SWEEP, count)));
+
+        return rows.size();
+    }
+}
@@ -1,84 +1,284 @@
 package com.notification.scheduler;
 
+import com.notification.config.PollingProperties;
+import com.notification.dispatcher.KeyOrderedExecutor;
 import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
 import com.notification.model.enums.NotificationStatus;
 import com.notification.repository.NotificationRepository;
 import com.notification.dispatcher.NotificationDispatcherService;
+import com.notification.stats.QueueWaitMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
+/**
+ * Each poll reads the due new and retry notifications of every priority,
+ * oldest first, and lets {@link PriorityBatchSelector} choose the batch, so
+ * retries compete for the same slots as new work of their priority and
+ * users take turns within it.
+ * <p>
+ * Sends run on a {@link KeyOrderedExecutor} keyed by user and channel: one
+ * user's messages on a channel go out in the order they were picked, while
+ * different keys are sent in parallel. Rows stay CREATED or FAILED until their
+ * send starts, so picked rows are tracked here and left out of later polls.
+ */
 @Component
 public class NotificationPoller {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationPoller.class);
 
-    private final int batchSize;
     private final NotificationRepository notificationRepository;
     private final NotificationDispatcherService dispatcherService;
+    private final PollingProperties properties;
+    private final QueueWaitMetrics waitMetrics;
+    private final PriorityBatchSelector selector;
+    private final Executor workers;
+    private final KeyOrderedExecutor<DispatchKey, DispatchTask> dispatchExecutor;
 
+    // Notification id to user id, from being picked until its dispatch returns
+    private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+    // Last user id taken in id order per priority, so every due sender gets a turn
+    private final Map<NotificationPriority, Long> readyCursors = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Long> retryCursors = new EnumMap<>(NotificationPriority.class);
+
+    private final Counter rejectedCounter;
+
+    @Autowired
     public NotificationPoller(
             NotificationRepository notificationRepository,
             NotificationDispatcherService dispatcherService,
-            @Value("${notification.polling.batch-size}") int batchSize
+            PollingProperties properties,
+            QueueWaitMetrics waitMetrics,
+            MeterRegistry meterRegistry
+    ) {
+        this(notificationRepository, dispatcherService, properties, waitMetrics,
+                meterRegistry, Executors.newFixedThreadPool(properties.getDispatchThreads(),
+                        new CustomizableThreadFactory("dispatch-")));
+    }
+
+    NotificationPoller(
+            NotificationRepository notificationRepository,
+            NotificationDispatcherService dispatcherService,
+            PollingProperties properties,
+            QueueWaitMetrics waitMetrics,
+            MeterRegistry meterRegistry,
+            Executor workers
     ) {
         this.notificationRepository = notificationRepository;
         this.dispatcherService = dispatcherService;
-        this.batchSize = batchSize;
+        this.properties = properties;
+        this.waitMetrics = waitMetrics;
+        this.selector = new PriorityBatchSelector(properties);
+        this.workers = workers;
+        this.dispatchExecutor = new KeyOrderedExecutor<>(workers, properties.getMaxQueuedPerKey(),
+                task -> inFlight.remove(task.notification.getId()));
+
+        this.rejectedCounter = Counter.builder("notification.dispatch.rejected")
+                .description("Picked notifications not queued because their key's queue was full")
+                .register(meterRegistry);
+
+        Gauge.builder("notification.dispatch.in.flight", inFlight, Map::size)
+                .description("Notifications queued or being sent")
+                .register(meterRegistry);
+
+        Gauge.builder("notification.dispatch.keys", dispatchExecutor, KeyOrderedExecutor::activeKeys)
+                .description("User and channel pairs with sends queued or running")
+                .register(meterRegistry);
     }
 
-    @Scheduled(fixedDelayString = "${notification.polling.delay-ms}")
+    @Scheduled(fixedDelayString = "${notification.polling.delay-ms:3000}")
     public void pollNotifications() {
 
+        int capacity = properties.getBatchSize() - inFlight.size();
+
+        if (capacity <= 0) {
+            logger.debug("Dispatch at capacity with {} notifications in flight", inFlight.size());
+            return;
+        }
+
         LocalDateTime now = LocalDateTime.now();
+        Set<Long> picked = Set.copyOf(inFlight.keySet());
 
-        Pageable pageable = PageRequest.of(
-                0,
-                batchSize,
-                Sort.by(
-                        Sort.Order.desc("priorityWeight"),
-                        Sort.Order.asc("createdAt")
-                )
-        );
-
-        List<Notification> readyNotifications =
-                notificationRepository
-                        .findByStatusAndScheduledAtBefore(
-                                NotificationStatus.CREATED,
-                                now,
-                                pageable
-                        )
-                        .getContent();
-
-        List<Notification> retryNotifications =
-                notificationRepository
-                        .findByStatusAndNextRetryAtBefore(
-                                NotificationStatus.FAILED,
-                                now,
-                                pageable
-                        )
-                        .getContent();
-
-        int total = readyNotifications.size() + retryNotifications.size();
-
-        if (total == 0) {
+        Map<NotificationPriority, List<Notification>> duePerPriority = new EnumMap<>(NotificationPriority.class);
+
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            duePerPriority.put(priority, findDue(priority, now));
+        }
+
+        duePerPriority.replaceAll((priority, due) -> due.stream()
+                .filter(notification -> !picked.contains(notification.getId()))
+                .toList());
+
+        duePerPriority.forEach((priority, due) -> waitMetrics.recordOldestWait(priority,
+                due.isEmpty() ? Duration.ZERO : waitedSince(due.get(0), now)));
+
+        Map<Long, Integer> inFlightPerUser = new HashMap<>();
+        inFlight.values().forEach(userId -> inFlightPerUser.merge(userId, 1, Integer::sum));
+
+        List<Notification> batch = selector.select(duePerPriority, now, capacity, inFlightPerUser);
+
+        if (batch.isEmpty()) {
             return;
         }
 
-        logger.info("Processing {} notifications (new={}, retry={})",
-                total,
-                readyNotifications.size(),
-                retryNotifications.size());
+        Map<NotificationPriority, Long> byPriority = batch.stream()
+                .collect(Collectors.groupingBy(Notification::getPriority,
+                        () -> new EnumMap<>(NotificationPriority.class), Collectors.counting()));
+
+        logger.info("Processing {} notifications {}", batch.size(), byPriority);
+
+        Set<DispatchKey> fullKeys = new HashSet<>();
+
+        for (Notification notification : batch) {
+
+            DispatchKey key = new DispatchKey(notification.getUserId(), notification.getChannelType());
+
+            // Later rows of a full key wait too, so they cannot overtake the rejected one
+            if (fullKeys.contains(key) || !submit(key, notification)) {
+                fullKeys.add(key);
+                rejectedCounter.increment();
+                continue;
+            }
+            waitMetrics.recordPicked(notification.getPriority(), waitedSince(notification, now));
+        }
+    }
+
+    private boolean submit(DispatchKey key, Notification notification) {
+
+        Long id = notification.getId();
+        inFlight.put(id, notification.getUserId());
+
+        boolean queued = dispatchExecutor.submit(key, new DispatchTask(notification));
+
+        if (!queued) {
+            inFlight.remove(id);
+        }
+        return queued;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+
+        if (workers instanceof ExecutorService service) {
+            service.shutdown();
+
+            if (!service.awaitTermination(properties.getShutdownGrace().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Stopped with {} notifications in flight; they will be polled again", inFlight.size());
+                service.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Due new and retry rows of one priority, oldest first. Each read covers the
+     * senders of the oldest due rows plus a batch worth of users taken in turn,
+     * and no more rows per user than one batch may take.
+     */
+    private List<Notification> findDue(NotificationPriority priority, LocalDateTime now) {
+
+        int weight = priority.getWeight();
+        int senders = properties.getBatchSize();
+        int window = properties.getSenderWindow();
+        int perSender = properties.getMaxInFlightPerUser() > 0
+                ? Math.min(properties.getMaxInFlightPerUser(), senders)
+                : senders;
 
-        readyNotifications.forEach(dispatcherService::dispatch);
-        retryNotifications.forEach(dispatcherService::dispatch);
+        Set<Long> readySenders = new LinkedHashSet<>(
+                notificationRepository.findReadySendersOldest(weight, now, window));
+        readySenders.addAll(nextSenders(readyCursors, priority, senders,
+                (after, count) -> notificationRepository.findReadySendersAfter(weight, now, after, count)));
+
+        Set<Long> retrySenders = new LinkedHashSet<>(
+                notificationRepository.findRetrySendersOldest(weight, now, window));
+        retrySenders.addAll(nextSenders(retryCursors, priority, senders,
+                (after, count) -> notificationRepository.findRetrySendersAfter(weight, now, after, count)));
+
+        List<Notification> due = new ArrayList<>();
+
+        if (!readySenders.isEmpty()) {
+            due.addAll(notificationRepository.findReadyForSenders(weight, now, readySenders, perSender));
+        }
+
+        if (!retrySenders.isEmpty()) {
+            due.addAll(notificationRepository.findRetriesForSenders(weight, now, retrySenders, perSender));
+        }
+
+        due.sort(Comparator.comparing(PriorityBatchSelector::dueAt)
+                .thenComparing(Notification::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return due;
+    }
+
+    // The next count due senders after the priority's cursor, wrapping past the highest user id
+    private static List<Long> nextSenders(
+            Map<NotificationPriority, Long> cursors,
+            NotificationPriority priority,
+            int count,
+            BiFunction<Long, Integer, List<Long>> findAfter
+    ) {
+        long after = cursors.getOrDefault(priority, 0L);
+        List<Long> next = new ArrayList<>(findAfter.apply(after, count));
+
+        if (next.size() < count && after > 0) {
+            findAfter.apply(0L, count - next.size()).stream()
+                    .filter(userId -> userId <= after)
+                    .forEach(next::add);
+        }
+
+        cursors.put(priority, next.size() < count ? 0L : next.get(next.size() - 1));
+        return next;
+    }
+
+    private static Duration waitedSince(Notification notification, LocalDateTime now) {
+        return Duration.between(PriorityBatchSelector.dueAt(notification), now);
+    }
+
+    private record DispatchKey(Long userId, ChannelType channelType) {
+    }
+
+    private final class DispatchTask implements Runnable {
+
+        private final Notification notification;
+
+        private DispatchTask(Notification notification) {
+            this.notification = notification;
+        }
+
+        @Override
+        public void run() {
+            try {
+                dispatcherService.dispatch(notification);
+            } finally {
+                inFlight.remove(notification.getId());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.notification.scheduler;
+
+import com.notification.config.PollingProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.NotificationPriority;
+import com.notification.model.enums.NotificationStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds one dispatch batch from each priority's due notifications, which
+ * arrive oldest first. Within a priority, users take turns, so a bulk sender
+ * gets one user's share of the slots, and no user goes past
+ * {@code maxInFlightPerUser} counting the sends it already has in flight.
+ * <p>
+ * Every priority with due work gets its reserved share of the batch. The rest
+ * goes to whichever priority's next notification has the highest effective
+ * weight: its base weight plus one per aging step waited. LOW work therefore
+ * always makes progress, and once it has waited long enough it outranks fresh
+ * HIGH work.
+ */
+class PriorityBatchSelector {
+
+    private final PollingProperties properties;
+
+    PriorityBatchSelector(PollingProperties properties) {
+        this.properties = properties;
+    }
+
+    List<Notification> select(Map<NotificationPriority, List<Notification>> duePerPriority,
+                              LocalDateTime now,
+                              int batchSize,
+                              Map<Long, Integer> inFlightPerUser) {
+
+        List<Notification> batch = new ArrayList<>(batchSize);
+        Map<Long, Integer> perUser = new HashMap<>(inFlightPerUser);
+        Map<NotificationPriority, Deque<Notification>> byPriority = new EnumMap<>(NotificationPriority.class);
+
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            byPriority.put(priority, new ArrayDeque<>(
+                    takeTurns(duePerPriority.getOrDefault(priority, List.of()))));
+        }
+
+        // Reservations scale with this batch, which shrinks while sends are in flight.
+        // The priority with the highest effective weight reserves first, so once LOW
+        // has aged past HIGH a small batch no longer goes to HIGH every time.
+        List<NotificationPriority> reservationOrder = byPriority.entrySet().stream()
+                .filter(entry -> peekAllowed(entry.getValue(), perUser) != null)
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<NotificationPriority, Deque<Notification>> entry) ->
+                                -effectiveWeight(entry.getValue().peek(), now)))
+                .map(Map.Entry::getKey)
+                .toList();
+
+        for (NotificationPriority priority : reservationOrder) {
+
+            Deque<Notification> queue = byPriority.get(priority);
+            int reserved = properties.getReservedSlots(priority, batchSize);
+
+            while (reserved-- > 0 && batch.size() < batchSize && peekAllowed(queue, perUser) != null) {
+                take(queue, batch, perUser);
+            }
+        }
+
+        while (batch.size() < batchSize) {
+
+            Deque<Notification> next = null;
+
+            for (Deque<Notification> queue : byPriority.values()) {
+                Notification head = peekAllowed(queue, perUser);
+                if (head != null && (next == null || ranksBefore(head, next.peek(), now))) {
+                    next = queue;
+                }
+            }
+
+            if (next == null) {
+                break;
+            }
+            take(next, batch, perUser);
+        }
+
+        // Stable, so each priority keeps its turn order
+        batch.sort(Comparator.comparingInt(Notification::getPriorityWeight).reversed());
+        return batch;
+    }
+
+    /**
+     * Round-robin over users, in order of their oldest due notification, with
+     * {@code senderQuantum} notifications per user per round.
+     */
+    private List<Notification> takeTurns(List<Notification> due) {
+
+        Map<Long, Deque<Notification>> perUser = new LinkedHashMap<>();
+
+        for (Notification notification : due) {
+            perUser.computeIfAbsent(notification.getUserId(), userId -> new ArrayDeque<>()).add(notification);
+        }
+
+        int quantum = Math.max(1, properties.getSenderQuantum());
+        List<Notification> ordered = new ArrayList<>(due.size());
+
+        while (!perUser.isEmpty()) {
+
+            Iterator<Deque<Notification>> users = perUser.values().iterator();
+
+            while (users.hasNext()) {
+
+                Deque<Notification> pending = users.next();
+
+                for (int i = 0; i < quantum && !pending.isEmpty(); i++) {
+                    ordered.add(pending.poll());
+                }
+                if (pending.isEmpty()) {
+                    users.remove();
+                }
+            }
+        }
+        return ordered;
+    }
+
+    // Drops notifications of users already at their cap; they wait for a later poll
+    private Notification peekAllowed(Deque<Notification> queue, Map<Long, Integer> perUser) {
+
+        int cap = properties.getMaxInFlightPerUser();
+
+        while (cap > 0 && !queue.isEmpty()
+                && perUser.getOrDefault(queue.peek().getUserId(), 0) >= cap) {
+            queue.poll();
+        }
+        return queue.peek();
+    }
+
+    private static void take(Deque<Notification> queue, List<Notification> batch, Map<Long, Integer> perUser) {
+        Notification notification = queue.poll();
+        batch.add(notification);
+        perUser.merge(notification.getUserId(), 1, Integer::sum);
+    }
+
+    private boolean ranksBefore(Notification candidate, Notification current, LocalDateTime now) {
+
+        int byWeight = Double.compare(effectiveWeight(candidate, now), effectiveWeight(current, now));
+
+        return byWeight > 0 || (byWeight == 0 && dueAt(candidate).isBefore(dueAt(current)));
+    }
+
+    double effectiveWeight(Notification notification, LocalDateTime now) {
+
+        Duration agingStep = properties.getAgingStep();
+        Duration waited = Duration.between(dueAt(notification), now);
+
+        if (agingStep == null || agingStep.toMillis() <= 0 || waited.toMillis() <= 0) {
+            return notification.getPriorityWeight();
+        }
+        return notification.getPriorityWeight() + (double) waited.toMillis() / agingStep.toMillis();
+    }
+
+    // Retries become due at nextRetryAt, everything else at scheduledAt
+    static LocalDateTime dueAt(Notification notification) {
+        return notification.getStatus() == NotificationStatus.FAILED
+                ? notification.getNextRetryAt()
+                : notification.getScheduledAt();
+    }
+}
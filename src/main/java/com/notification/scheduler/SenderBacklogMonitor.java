@@ -0,0 +1,79 @@
+package com.notification.scheduler;
+
+import com.notification.config.PollingProperties;
+import com.notification.repository.SenderBacklogRepository;
+import com.notification.repository.SenderBacklogRepository.SenderBacklog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes the due backlog of the largest senders, tagged by user. Only the
+ * top senders are kept, and users that drop out of the top lose their gauges,
+ * so the number of series stays bounded.
+ */
+@Component
+public class SenderBacklogMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SenderBacklogMonitor.class);
+
+    private final SenderBacklogRepository backlogRepository;
+    private final PollingProperties.SenderBacklog properties;
+    private final MultiGauge dueGauge;
+    private final MultiGauge oldestWaitGauge;
+
+    public SenderBacklogMonitor(
+            SenderBacklogRepository backlogRepository,
+            PollingProperties pollingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.backlogRepository = backlogRepository;
+        this.properties = pollingProperties.getSenderBacklog();
+
+        this.dueGauge = MultiGauge.builder("notification.sender.backlog")
+                .description("Due notifications, new and retries, of the largest senders")
+                .register(meterRegistry);
+
+        this.oldestWaitGauge = MultiGauge.builder("notification.sender.oldest.wait")
+                .description("Seconds the oldest due notification of each of the largest senders has waited")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.polling.sender-backlog.interval-ms:30000}")
+    public void refresh() {
+
+        if (properties.getTopSenders() <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SenderBacklog> largest = backlogRepository.findLargest(now, properties.getTopSenders());
+
+        dueGauge.register(largest.stream()
+                .<MultiGauge.Row<?>>map(sender -> MultiGauge.Row.of(tags(sender), sender.due()))
+                .toList(), true);
+
+        oldestWaitGauge.register(largest.stream()
+                .<MultiGauge.Row<?>>map(sender -> MultiGauge.Row.of(tags(sender),
+                        Math.max(0, Duration.between(sender.oldestDueAt(), now).toMillis()) / 1e3))
+                .toList(), true);
+
+        if (!largest.isEmpty()) {
+            logger.debug("Largest sender backlog userId={} due={}",
+                    largest.get(0).userId(), largest.get(0).due());
+        }
+    }
+
+    private static Tags tags(SenderBacklog sender) {
+        return Tags.of("userId", String.valueOf(sender.userId()));
+    }
+}
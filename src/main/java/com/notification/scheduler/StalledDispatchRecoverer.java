@@ -0,0 +1,99 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.PollingProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.StalledDispatchRepository;
+import com.notification.repository.StalledDispatchRepository.StalledNotification;
+import com.notification.stats.NotificationStatusCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hands notifications stuck in PROCESSING back to the poller as FAILED and due
+ * at once. The dispatcher commits the claim before calling the provider, so a
+ * node that dies mid-send leaves its rows claimed; after
+ * {@code processing-timeout} they are sent again, which is the same
+ * at-least-once delivery a crash before commit gave.
+ */
+@Component
+public class StalledDispatchRecoverer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StalledDispatchRecoverer.class);
+
+    private final StalledDispatchRepository stalledRepository;
+    private final NotificationStatusCache statusCache;
+    private final NotificationStatusCounters statusCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PollingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public StalledDispatchRecoverer(
+            StalledDispatchRepository stalledRepository,
+            NotificationStatusCache statusCache,
+            NotificationStatusCounters statusCounters,
+            ApplicationEventPublisher eventPublisher,
+            PollingProperties properties,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.stalledRepository = stalledRepository;
+        this.statusCache = statusCache;
+        this.statusCounters = statusCounters;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.polling.stalled-sweep-interval-ms:60000}")
+    public void recoverStalled() {
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimedBefore = now.minus(properties.getProcessingTimeout());
+        int total = 0;
+        int recovered;
+
+        do {
+            Integer batch = transactionTemplate.execute(tx -> recoverBatch(claimedBefore, now));
+            recovered = batch == null ? 0 : batch;
+            total += recovered;
+
+        } while (recovered == properties.getBatchSize());
+
+        if (total > 0) {
+            logger.warn("Returned {} notifications stuck in PROCESSING for over {} to retry",
+                    total,
+                    properties.getProcessingTimeout());
+        }
+    }
+
+    private int recoverBatch(LocalDateTime claimedBefore, LocalDateTime now) {
+
+        List<StalledNotification> rows = stalledRepository.lockStalled(claimedBefore, properties.getBatchSize());
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = rows.stream().map(StalledNotification::id).toList();
+
+        stalledRepository.markRetryable(ids);
+        statusCache.invalidate(ids);
+
+        for (StalledNotification row : rows) {
+            statusCounters.recordTransition(row.userId(), row.channelType(), row.campaignId(),
+                    NotificationStatus.PROCESSING, NotificationStatus.FAILED);
+            eventPublisher.publishEvent(new NotificationStatusChangedEvent(
+                    row.id(), row.userId(), row.channelType(), NotificationStatus.FAILED, row.retryCount(), now));
+        }
+
+        return rows.size();
+    }
+}
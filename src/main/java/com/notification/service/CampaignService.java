@@ -0,0 +1,27 @@
+package com.notification.service;
+
+import com.notification.model.dto.request.CreateCampaignRequest;
+import com.notification.model.dto.request.RescheduleCampaignRequest;
+import com.notification.model.dto.response.CampaignResponse;
+import com.notification.model.enums.NotificationStatus;
+
+public interface CampaignService {
+
+    CampaignResponse createCampaign(CreateCampaignRequest request);
+
+    CampaignResponse getCampaign(Long campaignId);
+
+    CampaignResponse pauseCampaign(Long campaignId);
+
+    CampaignResponse resumeCampaign(Long campaignId);
+
+    CampaignResponse cancelCampaign(Long campaignId);
+
+    CampaignResponse rescheduleCampaign(Long campaignId, RescheduleCampaignRequest request);
+
+    /**
+     * Status for a notification being added to the campaign, CREATED or
+     * PAUSED. Must be called in the inserting transaction.
+     */
+    NotificationStatus initialStatus(Long campaignId);
+}
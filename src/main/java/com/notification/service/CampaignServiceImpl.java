@@ -0,0 +1,182 @@
+package com.notification.service;
+
+import com.notification.exception.BadRequestException;
+import com.notification.exception.ResourceNotFoundException;
+import com.notification.model.dto.request.CreateCampaignRequest;
+import com.notification.model.dto.request.RescheduleCampaignRequest;
+import com.notification.model.dto.response.CampaignResponse;
+import com.notification.model.entity.Campaign;
+import com.notification.model.enums.CampaignAction;
+import com.notification.model.enums.CampaignStatus;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.CampaignRepository;
+import com.notification.stats.NotificationStatusCounters;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Campaign state changes take effect at once for the poller, which skips
+ * notifications of campaigns that are not ACTIVE. The notifications themselves
+ * are then updated in chunks by {@link com.notification.scheduler.CampaignUpdater}.
+ * <p>
+ * Pause, resume and cancel can replace one another while pending, since each
+ * one's chunks converge on the latest state. A reschedule must finish first,
+ * except for cancel, which always applies.
+ */
+@Service
+@RequiredArgsConstructor
+public class CampaignServiceImpl implements CampaignService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignServiceImpl.class);
+
+    private final CampaignRepository campaignRepository;
+    private final NotificationStatusCounters statusCounters;
+
+    @Override
+    @Transactional
+    public CampaignResponse createCampaign(CreateCampaignRequest request) {
+
+        Campaign campaign = new Campaign();
+        campaign.setName(request.getName());
+        campaignRepository.save(campaign);
+
+        logger.info("Campaign created id={} name={}", campaign.getId(), campaign.getName());
+
+        return mapToResponse(campaign, Map.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CampaignResponse getCampaign(Long campaignId) {
+
+        Campaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new ResourceNotFoundException("Campaign not found"));
+
+        return mapToResponse(campaign, statusCounters.findByCampaignId(campaignId));
+    }
+
+    @Override
+    @Transactional
+    public CampaignResponse pauseCampaign(Long campaignId) {
+
+        Campaign campaign = lockForUpdate(campaignId);
+        requireStatus(campaign, CampaignStatus.ACTIVE);
+        requireNoPendingReschedule(campaign);
+
+        return apply(campaign, CampaignStatus.PAUSED, CampaignAction.PAUSE);
+    }
+
+    @Override
+    @Transactional
+    public CampaignResponse resumeCampaign(Long campaignId) {
+
+        Campaign campaign = lockForUpdate(campaignId);
+        requireStatus(campaign, CampaignStatus.PAUSED);
+        requireNoPendingReschedule(campaign);
+
+        return apply(campaign, CampaignStatus.ACTIVE, CampaignAction.RESUME);
+    }
+
+    @Override
+    @Transactional
+    public CampaignResponse cancelCampaign(Long campaignId) {
+
+        Campaign campaign = lockForUpdate(campaignId);
+
+        if (campaign.getStatus() == CampaignStatus.CANCELLED) {
+            throw new BadRequestException("Campaign is already CANCELLED");
+        }
+
+        return apply(campaign, CampaignStatus.CANCELLED, CampaignAction.CANCEL);
+    }
+
+    @Override
+    @Transactional
+    public CampaignResponse rescheduleCampaign(Long campaignId, RescheduleCampaignRequest request) {
+
+        Campaign campaign = lockForUpdate(campaignId);
+
+        if (campaign.getStatus() == CampaignStatus.CANCELLED) {
+            throw new BadRequestException("Campaign is CANCELLED");
+        }
+
+        if (campaign.getPendingAction() != null) {
+            throw new BadRequestException(
+                    "Campaign " + campaign.getPendingAction() + " is still being applied");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scheduledAt = request.getScheduledAt().isBefore(now)
+                ? now
+                : request.getScheduledAt();
+
+        campaign.setRescheduleAt(scheduledAt);
+
+        return apply(campaign, campaign.getStatus(), CampaignAction.RESCHEDULE);
+    }
+
+    @Override
+    public NotificationStatus initialStatus(Long campaignId) {
+
+        Campaign campaign = campaignRepository.lockSharedById(campaignId)
+                .orElseThrow(() -> new BadRequestException("Campaign not found"));
+
+        return switch (campaign.getStatus()) {
+            case ACTIVE -> NotificationStatus.CREATED;
+            case PAUSED -> NotificationStatus.PAUSED;
+            case CANCELLED -> throw new BadRequestException("Campaign is CANCELLED");
+        };
+    }
+
+    private Campaign lockForUpdate(Long campaignId) {
+        return campaignRepository.lockById(campaignId)
+                .orElseThrow(() -> new ResourceNotFoundException("Campaign not found"));
+    }
+
+    private void requireStatus(Campaign campaign, CampaignStatus expected) {
+        if (campaign.getStatus() != expected) {
+            throw new BadRequestException("Campaign is " + campaign.getStatus());
+        }
+    }
+
+    private void requireNoPendingReschedule(Campaign campaign) {
+        if (campaign.getPendingAction() == CampaignAction.RESCHEDULE) {
+            throw new BadRequestException("Campaign RESCHEDULE is still being applied");
+        }
+    }
+
+    private CampaignResponse apply(Campaign campaign, CampaignStatus status, CampaignAction action) {
+
+        campaign.setStatus(status);
+        campaign.setPendingAction(action);
+        campaignRepository.save(campaign);
+
+        logger.info("Campaign id={} status={} pendingAction={}",
+                campaign.getId(),
+                status,
+                action);
+
+        return mapToResponse(campaign, statusCounters.findByCampaignId(campaign.getId()));
+    }
+
+    private CampaignResponse mapToResponse(Campaign campaign, Map<NotificationStatus, Long> counts) {
+        return CampaignResponse.builder()
+                .campaignId(campaign.getId())
+                .name(campaign.getName())
+                .status(campaign.getStatus())
+                .pendingAction(campaign.getPendingAction())
+                .rescheduleAt(campaign.getPendingAction() == CampaignAction.RESCHEDULE
+                        ? campaign.getRescheduleAt()
+                        : null)
+                .total(counts.values().stream().mapToLong(Long::longValue).sum())
+                .counts(counts)
+                .createdAt(campaign.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.notification.service;
+
+import com.notification.model.dto.request.DeadLetterReplayRequest;
+import com.notification.model.dto.response.DeadLetterReplayResponse;
+
+public interface DeadLetterReplayService {
+
+    DeadLetterReplayResponse startReplay(DeadLetterReplayRequest request);
+
+    DeadLetterReplayResponse getReplay(Long replayId);
+
+    DeadLetterReplayResponse cancelReplay(Long replayId);
+}
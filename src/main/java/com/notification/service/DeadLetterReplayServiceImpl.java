@@ -0,0 +1,141 @@
+package com.notification.service;
+
+import com.notification.config.ReplayProperties;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.ResourceNotFoundException;
+import com.notification.model.dto.request.DeadLetterReplayRequest;
+import com.notification.model.dto.response.DeadLetterReplayResponse;
+import com.notification.model.entity.DeadLetterReplay;
+import com.notification.model.enums.ReplayStatus;
+import com.notification.repository.DeadLetterReplayRepository;
+import com.notification.repository.DeadLetterRequeueRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records replay requests. The requeueing itself is paced by
+ * {@link com.notification.scheduler.DeadLetterReplayRunner}.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeadLetterReplayServiceImpl implements DeadLetterReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayServiceImpl.class);
+
+    private final DeadLetterReplayRepository replayRepository;
+    private final DeadLetterRequeueRepository requeueRepository;
+    private final ReplayProperties properties;
+
+    @Override
+    @Transactional
+    public DeadLetterReplayResponse startReplay(DeadLetterReplayRequest request) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        // Rows dead-lettered after the replay starts are a new incident, not this one
+        LocalDateTime failedTo = request.getFailedTo() == null || request.getFailedTo().isAfter(now)
+                ? now
+                : request.getFailedTo();
+
+        if (!request.getFailedFrom().isBefore(failedTo)) {
+            throw new BadRequestException("failedFrom must be before failedTo");
+        }
+
+        int rate = request.getRatePerSecond() == null
+                ? properties.getDefaultRatePerSecond()
+                : request.getRatePerSecond();
+
+        if (rate > properties.getMaxRatePerSecond()) {
+            throw new BadRequestException(
+                    "ratePerSecond cannot exceed " + properties.getMaxRatePerSecond());
+        }
+
+        if (replayRepository.countByStatus(ReplayStatus.RUNNING) >= properties.getMaxActiveReplays()) {
+            throw new BadRequestException(
+                    "At most " + properties.getMaxActiveReplays() + " replays can run at once");
+        }
+
+        DeadLetterReplay replay = new DeadLetterReplay();
+        replay.setChannelType(request.getChannelType());
+        replay.setFailedFrom(request.getFailedFrom());
+        replay.setFailedTo(failedTo);
+        replay.setErrorClass(request.getErrorClass() == null || request.getErrorClass().isBlank()
+                ? null
+                : request.getErrorClass().trim());
+        replay.setRatePerSecond(rate);
+        replay.setNextBatchAt(now);
+
+        long matched = requeueRepository.countMatching(replay);
+        replay.setTotalMatched(matched);
+
+        if (matched == 0) {
+            replay.setStatus(ReplayStatus.COMPLETED);
+            replay.setFinishedAt(now);
+        } else {
+            replay.setStatus(ReplayStatus.RUNNING);
+        }
+
+        replayRepository.save(replay);
+
+        logger.info("Dead letter replay id={} started channel={} window=[{}, {}) errorClass={} rate={}/s matched={}",
+                replay.getId(),
+                replay.getChannelType(),
+                replay.getFailedFrom(),
+                replay.getFailedTo(),
+                replay.getErrorClass(),
+                rate,
+                matched);
+
+        return mapToResponse(replay);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeadLetterReplayResponse getReplay(Long replayId) {
+        return mapToResponse(findReplay(replayId));
+    }
+
+    @Override
+    @Transactional
+    public DeadLetterReplayResponse cancelReplay(Long replayId) {
+
+        if (replayRepository.cancelRunning(replayId, LocalDateTime.now()) == 0) {
+            throw new BadRequestException("Replay is already " + findReplay(replayId).getStatus());
+        }
+
+        DeadLetterReplay replay = findReplay(replayId);
+
+        logger.info("Dead letter replay id={} cancelled after requeueing {} of {}",
+                replayId,
+                replay.getRequeued(),
+                replay.getTotalMatched());
+
+        return mapToResponse(replay);
+    }
+
+    private DeadLetterReplay findReplay(Long replayId) {
+        return replayRepository.findById(replayId)
+                .orElseThrow(() -> new ResourceNotFoundException("Replay not found"));
+    }
+
+    private DeadLetterReplayResponse mapToResponse(DeadLetterReplay replay) {
+        return DeadLetterReplayResponse.builder()
+                .id(replay.getId())
+                .channelType(replay.getChannelType())
+                .failedFrom(replay.getFailedFrom())
+                .failedTo(replay.getFailedTo())
+                .errorClass(replay.getErrorClass())
+                .ratePerSecond(replay.getRatePerSecond())
+                .status(replay.getStatus())
+                .totalMatched(replay.getTotalMatched())
+                .requeued(replay.getRequeued())
+                .createdAt(replay.getCreatedAt())
+                .finishedAt(replay.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.notification.service;
+
+import com.notification.model.dto.request.FanOutNotificationRequest;
+import com.notification.model.dto.response.FanOutNotificationResponse;
+
+import java.io.InputStream;
+
+public interface FanOutService {
+
+    FanOutNotificationResponse fanOut(FanOutNotificationRequest request);
+
+    FanOutNotificationResponse fanOut(FanOutNotificationRequest request, InputStream recipientFile);
+}
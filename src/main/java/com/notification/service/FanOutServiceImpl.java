@@ -0,0 +1,372 @@
+package com.notification.service;
+
+import com.notification.cache.UserExistenceFilter;
+import com.notification.config.FanOutProperties;
+import com.notification.config.ExpiryProperties;
+import com.notification.config.RetryProperties;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.IdempotencyKeyReusedException;
+import com.notification.model.dto.request.FanOutNotificationRequest;
+import com.notification.model.dto.response.BulkItemResult;
+import com.notification.model.dto.response.FanOutNotificationResponse;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.FanOutJobStatus;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.FanOutJobRepository;
+import com.notification.repository.FanOutJobRepository.FanOutJob;
+import com.notification.repository.NotificationBatchRepository;
+import com.notification.repository.UserChannelEndpointRepository;
+import com.notification.repository.UserPreferenceRepository;
+import com.notification.stats.NotificationStatusCounters;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * Expands one payload to many recipients on the server. Recipients are read
+ * lazily and processed in fixed-size chunks, each validated with set-based
+ * queries and inserted with one JDBC batch in its own transaction.
+ * <p>
+ * Every request runs as a fan-out job whose progress commits with each chunk.
+ * A retry with the same idempotency key resumes after the last committed
+ * chunk, or replays the totals once the job completed.
+ */
+@Service
+@RequiredArgsConstructor
+public class FanOutServiceImpl implements FanOutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FanOutServiceImpl.class);
+
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserChannelEndpointRepository endpointRepository;
+    private final UserPreferenceRepository preferenceRepository;
+    private final NotificationBatchRepository notificationBatchRepository;
+    private final FanOutJobRepository fanOutJobRepository;
+    private final PayloadService payloadService;
+    private final RetryProperties retryProperties;
+    private final ExpiryProperties expiryProperties;
+    private final FanOutProperties fanOutProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationStatusCounters statusCounters;
+    private final CampaignService campaignService;
+
+    @Override
+    public FanOutNotificationResponse fanOut(FanOutNotificationRequest request) {
+
+        if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+            throw new BadRequestException("userIds cannot be empty");
+        }
+
+        return expand(request, request.getUserIds().iterator());
+    }
+
+    @Override
+    public FanOutNotificationResponse fanOut(FanOutNotificationRequest request, InputStream recipientFile) {
+
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            throw new BadRequestException("Provide either userIds or a recipient file, not both");
+        }
+
+        Scanner scanner = new Scanner(recipientFile, StandardCharsets.UTF_8)
+                .useDelimiter("[\\s,]+");
+
+        return expand(request, new RecipientFileIterator(scanner));
+    }
+
+    private FanOutNotificationResponse expand(
+            FanOutNotificationRequest request,
+            Iterator<Long> recipients
+    ) {
+
+        Long payloadId = payloadService.store(request.getPayload());
+        String fingerprint = RequestFingerprint.of(request);
+
+        FanOutJob job = transactionTemplate.execute(status -> fanOutJobRepository.start(
+                request.getIdempotencyKey(), fingerprint, fanOutProperties.getChunkSize()));
+
+        if (!job.requestFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(
+                    "Idempotency key was already used with a different fan-out request");
+        }
+
+        FanOutProgress progress = new FanOutProgress(
+                request.getChannelType(),
+                fanOutProperties.getMaxReportedRejections()
+        );
+
+        if (job.status() == FanOutJobStatus.COMPLETED) {
+            logger.info("Replaying completed fan-out jobId={}", job.id());
+            return buildResponse(job, payloadId, progress);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scheduledAt = request.getScheduledAt();
+        if (scheduledAt == null || scheduledAt.isBefore(now)) {
+            scheduledAt = now;
+        }
+
+        // Recipients of chunks an earlier attempt committed are skipped; chunk boundaries stay the same
+        long read = 0;
+
+        while (read < job.recipientsRead() && recipients.hasNext()) {
+            recipients.next();
+            read++;
+        }
+
+        logger.info("Starting fan-out jobId={} payloadId={} channel={} chunkSize={} resumeAfter={}",
+                job.id(),
+                payloadId,
+                request.getChannelType(),
+                job.chunkSize(),
+                read);
+
+        RecipientChunk chunk = new RecipientChunk(read, job.chunkSize());
+
+        while (recipients.hasNext()) {
+
+            chunk.add(recipients.next());
+            read++;
+
+            if (chunk.size() == job.chunkSize()) {
+                processChunk(request, job.id(), payloadId, scheduledAt, chunk, progress);
+                chunk = new RecipientChunk(read, job.chunkSize());
+            }
+        }
+
+        if (chunk.size() > 0) {
+            processChunk(request, job.id(), payloadId, scheduledAt, chunk, progress);
+        }
+
+        FanOutJob completed = transactionTemplate.execute(status -> {
+            fanOutJobRepository.complete(job.id());
+            return fanOutJobRepository.lockById(job.id());
+        });
+
+        logger.info("Fan-out completed jobId={} payloadId={} requested={} accepted={} rejected={}",
+                job.id(),
+                payloadId,
+                completed.recipientsRead(),
+                completed.totalAccepted(),
+                completed.totalRejected());
+
+        return buildResponse(completed, payloadId, progress);
+    }
+
+    private FanOutNotificationResponse buildResponse(FanOutJob job, Long payloadId, FanOutProgress progress) {
+        return FanOutNotificationResponse.builder()
+                .jobId(job.id())
+                .payloadId(payloadId)
+                .totalRequested(job.recipientsRead())
+                .totalAccepted(job.totalAccepted())
+                .totalRejected(job.totalRejected())
+                .rejected(progress.rejected)
+                .rejectedTruncated(job.totalRejected() > progress.rejected.size())
+                .build();
+    }
+
+    private void processChunk(
+            FanOutNotificationRequest request,
+            Long jobId,
+            Long payloadId,
+            LocalDateTime scheduledAt,
+            RecipientChunk chunk,
+            FanOutProgress progress
+    ) {
+
+        ChannelType channelType = request.getChannelType();
+        List<Long> userIds = chunk.userIds;
+
+        List<Rejection> rejections = transactionTemplate.execute(status -> {
+
+            // Concurrent attempts of the same request take turns on the job row
+            if (fanOutJobRepository.lockById(jobId).recipientsRead() != chunk.start) {
+                return null;
+            }
+
+            List<Rejection> rejected = new ArrayList<>(chunk.rejections);
+            List<Notification> notifications = new ArrayList<>(userIds.size());
+
+            if (!userIds.isEmpty()) {
+
+                NotificationStatus initialStatus = request.getCampaignId() == null
+                        ? NotificationStatus.CREATED
+                        : campaignService.initialStatus(request.getCampaignId());
+
+                // Earlier chunks of the job, so a recipient listed twice anywhere in the request gets one row
+                Set<Long> seen = new HashSet<>(
+                        notificationBatchRepository.findFanOutRecipients(jobId, userIds));
+                Set<Long> existingUsers = userExistenceFilter.findExisting(userIds);
+                Set<Long> configuredUsers = new HashSet<>(
+                        endpointRepository.findUserIdsWithEndpoint(channelType, userIds));
+                Set<Long> disabledUsers = new HashSet<>(
+                        preferenceRepository.findUserIdsWithChannelDisabled(channelType, userIds));
+
+                for (Long userId : userIds) {
+
+                    if (!seen.add(userId)) {
+                        rejected.add(new Rejection(userId, "Duplicate user id"));
+                    } else if (!existingUsers.contains(userId)) {
+                        rejected.add(new Rejection(userId, "User not found"));
+                    } else if (!configuredUsers.contains(userId)) {
+                        rejected.add(new Rejection(userId, "Channel endpoint not configured for user"));
+                    } else if (disabledUsers.contains(userId)) {
+                        rejected.add(new Rejection(userId, "Channel disabled for user"));
+                    } else {
+                        notifications.add(buildNotification(
+                                request, jobId, userId, payloadId, scheduledAt, initialStatus));
+                    }
+                }
+
+                notificationBatchRepository.insertAll(notifications);
+                notifications.forEach(statusCounters::recordCreated);
+            }
+
+            fanOutJobRepository.recordChunk(jobId, chunk.start + chunk.size(),
+                    notifications.size(), rejected.size());
+
+            return rejected;
+        });
+
+        if (rejections == null) {
+            logger.debug("Fan-out chunk already committed by another attempt jobId={} start={}",
+                    jobId,
+                    chunk.start);
+            return;
+        }
+
+        rejections.forEach(rejection -> progress.reject(rejection.userId(), rejection.error()));
+
+        logger.debug("Fan-out chunk processed jobId={} size={} rejected={}",
+                jobId,
+                chunk.size(),
+                rejections.size());
+    }
+
+    private Notification buildNotification(
+            FanOutNotificationRequest request,
+            Long jobId,
+            Long userId,
+            Long payloadId,
+            LocalDateTime scheduledAt,
+            NotificationStatus status
+    ) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setChannelType(request.getChannelType());
+        notification.setPayloadId(payloadId);
+        notification.setPriority(request.getPriority());
+        notification.setPriorityWeight(request.getPriority().getWeight());
+        notification.setMaxRetries(
+                retryProperties.getMaxRetries(request.getChannelType())
+        );
+        notification.setRecurrenceIntervalMinutes(
+                request.getRecurrenceIntervalMinutes()
+        );
+        notification.setScheduledAt(scheduledAt);
+        notification.setExpiresAt(expiryProperties.getDefaultTtl(request.getPriority())
+                .map(scheduledAt::plus)
+                .orElse(null));
+        notification.setCampaignId(request.getCampaignId());
+        notification.setFanOutJobId(jobId);
+        notification.setStatus(status);
+        return notification;
+    }
+
+    private static final class FanOutProgress {
+
+        private final ChannelType channelType;
+        private final int maxReported;
+        private final List<BulkItemResult> rejected = new ArrayList<>();
+
+        private FanOutProgress(ChannelType channelType, int maxReported) {
+            this.channelType = channelType;
+            this.maxReported = maxReported;
+        }
+
+        private void reject(Long userId, String error) {
+            if (rejected.size() < maxReported) {
+                rejected.add(BulkItemResult.builder()
+                        .userId(userId)
+                        .channelType(channelType)
+                        .error(error)
+                        .build());
+            }
+        }
+    }
+
+    // Recipients read from position start on; unparseable ids count towards the chunk but are rejected
+    private static final class RecipientChunk {
+
+        private final long start;
+        private final List<Long> userIds;
+        private final List<Rejection> rejections = new ArrayList<>();
+
+        private RecipientChunk(long start, int capacity) {
+            this.start = start;
+            this.userIds = new ArrayList<>(capacity);
+        }
+
+        private void add(Long userId) {
+            if (userId == null) {
+                rejections.add(new Rejection(null, "Invalid user id"));
+            } else {
+                userIds.add(userId);
+            }
+        }
+
+        private int size() {
+            return userIds.size() + rejections.size();
+        }
+    }
+
+    private record Rejection(Long userId, String error) {
+    }
+
+    /**
+     * Streams user ids from an uploaded file separated by whitespace, commas or
+     * new lines. Tokens that are not numeric are returned as {@code null}.
+     */
+    private static final class RecipientFileIterator implements Iterator<Long> {
+
+        private final Scanner scanner;
+
+        private RecipientFileIterator(Scanner scanner) {
+            this.scanner = scanner;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return scanner.hasNext();
+        }
+
+        @Override
+        public Long next() {
+
+            if (!scanner.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            String token = scanner.next();
+
+            try {
+                return Long.parseLong(token);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+}
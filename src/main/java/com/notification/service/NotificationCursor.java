@@ -0,0 +1,48 @@
+package com.notification.service;
+
+import com.notification.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a user's history ordered by {@code (created_at DESC, id DESC)}.
+ * Encoded as URL-safe base64 so clients treat it as opaque.
+ */
+record NotificationCursor(LocalDateTime createdAt, Long id) {
+
+    // Sorts after every stored row, so the first page uses the same keyset query
+    static final NotificationCursor START =
+            new NotificationCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    static NotificationCursor decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            return new NotificationCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+
+        String raw = createdAt.toString() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
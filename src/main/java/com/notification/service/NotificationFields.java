@@ -0,0 +1,58 @@
+package com.notification.service;
+
+import com.notification.exception.BadRequestException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Optional response fields a client can ask for with {@code ?fields=}.
+ * {@code notificationId} and {@code status} are always returned.
+ */
+final class NotificationFields {
+
+    static final String USER_ID = "userId";
+    static final String CHANNEL_TYPE = "channelType";
+    static final String PRIORITY = "priority";
+    static final String RETRY_COUNT = "retryCount";
+    static final String MAX_RETRIES = "maxRetries";
+    static final String SCHEDULED_AT = "scheduledAt";
+    static final String NEXT_RETRY_AT = "nextRetryAt";
+    static final String CREATED_AT = "createdAt";
+    static final String UPDATED_AT = "updatedAt";
+
+    private static final Set<String> SUPPORTED = Set.of(
+            USER_ID, CHANNEL_TYPE, PRIORITY, RETRY_COUNT, MAX_RETRIES,
+            SCHEDULED_AT, NEXT_RETRY_AT, CREATED_AT, UPDATED_AT
+    );
+
+    private NotificationFields() {
+    }
+
+    static Set<String> parse(Collection<String> requested) {
+
+        Set<String> fields = new LinkedHashSet<>();
+
+        if (requested == null) {
+            return fields;
+        }
+
+        for (String field : requested) {
+
+            String name = field.trim();
+
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            if (!SUPPORTED.contains(name)) {
+                throw new BadRequestException("Unknown field: " + name);
+            }
+
+            fields.add(name);
+        }
+
+        return fields;
+    }
+}
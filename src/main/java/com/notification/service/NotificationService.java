@@ -1,7 +1,14 @@
 package com.notification.service;
 
+import com.notification.model.dto.request.BatchStatusRequest;
 import com.notification.model.dto.request.CreateNotificationRequest;
+import com.notification.model.dto.request.MultiChannelNotificationRequest;
+import com.notification.model.dto.response.BatchStatusResponse;
 import com.notification.model.dto.response.BulkNotificationResponse;
+import com.notification.model.dto.response.CursorPageResponse;
+import com.notification.model.dto.response.DeliveryAttemptResponse;
+import com.notification.model.dto.response.MultiChannelNotificationResponse;
+import com.notification.model.dto.response.NotificationCountsResponse;
 import com.notification.model.dto.response.NotificationResponse;
 import com.notification.model.dto.response.PagedResponse;
 import com.notification.model.enums.NotificationStatus;
@@ -9,6 +16,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Set;
 
 public interface NotificationService {
 
@@ -16,7 +24,29 @@ public interface NotificationService {
 
     BulkNotificationResponse createBulkNotifications(List<CreateNotificationRequest> requests);
 
-    NotificationResponse getNotificationById(Long id);
+    MultiChannelNotificationResponse createMultiChannelNotification(MultiChannelNotificationRequest request);
 
-    PagedResponse<NotificationResponse> getNotificationsByUser(Long userId, NotificationStatus status, Pageable pageable);
+    NotificationResponse getNotificationById(Long id, Set<String> fields);
+
+    BatchStatusResponse getNotificationStatuses(BatchStatusRequest request);
+
+    List<DeliveryAttemptResponse> getDeliveryAttempts(Long id);
+
+    NotificationCountsResponse getNotificationCounts(Long userId);
+
+    PagedResponse<NotificationResponse> getNotificationsByUser(
+            Long userId,
+            NotificationStatus status,
+            Pageable pageable,
+            Set<String> fields
+    );
+
+    CursorPageResponse<NotificationResponse> getNotificationsByUserCursor(
+            Long userId,
+            NotificationStatus status,
+            String cursor,
+            int size,
+            boolean includeTotal,
+            Set<String> fields
+    );
 }
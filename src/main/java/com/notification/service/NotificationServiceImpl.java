@@ -1,31 +1,64 @@
 package com.notification.service;
 
+import com.notification.cache.IdempotencyCache;
+import com.notification.cache.NotificationStatusCache;
+import com.notification.cache.RoutingProfileCache;
+import com.notification.cache.UserExistenceFilter;
+import com.notification.config.ExpiryProperties;
 import com.notification.config.RetryProperties;
 import com.notification.exception.BadRequestException;
+import com.notification.exception.IdempotencyConflictException;
+import com.notification.exception.IdempotencyKeyReusedException;
 import com.notification.exception.ResourceNotFoundException;
+import com.notification.model.dto.request.BatchStatusRequest;
 import com.notification.model.dto.request.CreateNotificationRequest;
+import com.notification.model.dto.request.MultiChannelNotificationRequest;
 import com.notification.model.dto.response.BulkItemResult;
+import com.notification.model.dto.response.BatchStatusResponse;
 import com.notification.model.dto.response.BulkNotificationResponse;
+import com.notification.model.dto.response.CursorPageResponse;
+import com.notification.model.dto.response.DeliveryAttemptResponse;
+import com.notification.model.dto.response.MultiChannelNotificationResponse;
+import com.notification.model.dto.response.NotificationCountsResponse;
 import com.notification.model.dto.response.NotificationResponse;
 import com.notification.model.dto.response.PagedResponse;
 import com.notification.model.entity.Notification;
 import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.DeliveryMode;
+import com.notification.model.enums.NotificationPriority;
 import com.notification.model.enums.NotificationStatus;
+import com.notification.model.projection.IdempotentRequest;
+import com.notification.model.projection.NotificationStatusSnapshot;
+import com.notification.model.projection.NotificationSummary;
+import com.notification.model.routing.RoutingProfile;
+import com.notification.repository.DeliveryAttemptRepository;
+import com.notification.repository.NotificationHistoryRepository;
 import com.notification.repository.NotificationRepository;
-import com.notification.repository.UserChannelEndpointRepository;
-import com.notification.repository.UserRepository;
+import com.notification.repository.StatusCountRepository.StatusCount;
+import com.notification.stats.NotificationStatusCounters;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -34,16 +67,50 @@ public class NotificationServiceImpl implements NotificationService {
     private static final Logger logger =
             LoggerFactory.getLogger(NotificationServiceImpl.class);
 
+    private static final Comparator<NotificationSummary> NEWEST_FIRST = Comparator
+            .comparing(NotificationSummary::createdAt)
+            .thenComparing(NotificationSummary::id)
+            .reversed();
+
+    private static final List<ChannelType> DEFAULT_FALLBACK_CHAIN =
+            List.of(ChannelType.PUSH, ChannelType.SMS);
+
     private final NotificationRepository notificationRepository;
+    private final NotificationHistoryRepository historyRepository;
+    private final DeliveryAttemptRepository attemptRepository;
     private final UserPreferenceService userPreferenceService;
-    private final UserRepository userRepository;
-    private final UserChannelEndpointRepository endpointRepository;
+    private final UserExistenceFilter userExistenceFilter;
+    private final RoutingProfileCache routingProfileCache;
     private final RetryProperties retryProperties;
+    private final ExpiryProperties expiryProperties;
+    private final IdempotencyCache idempotencyCache;
+    private final PayloadService payloadService;
+    private final TemplateService templateService;
+    private final NotificationStatusCache statusCache;
+    private final NotificationStatusCounters statusCounters;
+    private final CampaignService campaignService;
 
 
     @Value("${notification.bulk.max-size}")
     private int maxBulkSize;
 
+    @Value("${notification.attempts.max-per-query:100}")
+    private int maxAttemptsPerQuery;
+
+    @Value("${notification.status.max-batch-size:1000}")
+    private int maxStatusBatchSize;
+
+    // updated_at is stamped before commit, so asOf trails the clock by this much
+    @Value("${notification.status.commit-grace:5s}")
+    private Duration statusCommitGrace = Duration.ofSeconds(5);
+
+    @Value("${notification.pagination.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    // Offset pages re-read offset + size rows from both tables; deeper reads use the cursor API
+    @Value("${notification.pagination.max-offset:10000}")
+    private int maxPageOffset = 10_000;
+
     @Override
     @Transactional
     public NotificationResponse createNotification(CreateNotificationRequest request) {
@@ -52,43 +119,172 @@ public class NotificationServiceImpl implements NotificationService {
                 request.getUserId(),
                 request.getChannelType());
 
-        // 1. Validate preference
+        // 1. Replay a previously accepted request with the same idempotency key
+        String idempotencyKey = request.getIdempotencyKey();
+
+        if (idempotencyKey != null) {
+
+            Optional<NotificationResponse> replay = findReplay(request);
+
+            if (replay.isPresent()) {
+                logger.info("Replaying notification for idempotencyKey={} notificationId={}",
+                        idempotencyKey,
+                        replay.get().getNotificationId());
+                return replay.get();
+            }
+        }
+
+        // 2. Validate content and preference
+        validateContent(request);
         validateUserAndChannel(request.getUserId(), request.getChannelType());
 
-        // 2. Create entity
+        // 3. Create entity
         Notification notification = buildNotificationEntity(request);
 
-        // 3. Persist
-        Notification saved = notificationRepository.save(notification);
+        // 4. Persist
+        Notification saved = insertOrConflict(() -> notificationRepository.save(notification));
+        statusCache.put(saved);
+        statusCounters.recordCreated(saved);
 
         logger.info("Notification created successfully. notificationId={}", saved.getId());
 
-        return mapToResponse(saved);
+        NotificationResponse response = mapToResponse(saved);
+
+        if (idempotencyKey != null) {
+            rememberIdempotencyKey(saved);
+        }
+
+        return response;
+    }
+
+    // A concurrent retry that won the insert on the (user_id, idempotency_key) index
+    private static <T> T insertOrConflict(Supplier<T> insert) {
+        try {
+            return insert.get();
+        } catch (DataIntegrityViolationException ex) {
+            String cause = ex.getMostSpecificCause().getMessage();
+
+            if (cause != null && cause.contains(NotificationRepository.IDEMPOTENCY_KEY_CONSTRAINT)) {
+                throw new IdempotencyConflictException(
+                        "A request with this idempotency key is already being processed");
+            }
+            throw ex;
+        }
+    }
+
+    // A replay answers with the original notification and its latest known status
+    private Optional<NotificationResponse> findReplay(CreateNotificationRequest request) {
+
+        Long userId = request.getUserId();
+        String idempotencyKey = request.getIdempotencyKey();
+
+        Optional<IdempotentRequest> original = idempotencyCache.get(userId, idempotencyKey)
+                .or(() -> notificationRepository.findIdempotentRequest(userId, idempotencyKey)
+                        .or(() -> historyRepository.findIdempotentRequest(userId, idempotencyKey))
+                        .map(found -> {
+                            idempotencyCache.put(userId, idempotencyKey, found);
+                            return found;
+                        }));
+
+        return original.map(found -> {
+
+            // Rows created before fingerprints were stored match any request
+            if (found.fingerprint() != null && !found.fingerprint().equals(RequestFingerprint.of(request))) {
+                throw new IdempotencyKeyReusedException(
+                        "Idempotency key was already used with a different request");
+            }
+
+            NotificationStatus status = statusCache.get(found.notificationId())
+                    .map(NotificationSummary::status)
+                    .orElse(found.status());
+
+            return NotificationResponse.builder()
+                    .notificationId(found.notificationId())
+                    .status(status)
+                    .build();
+        });
+    }
+
+    private void rememberIdempotencyKey(Notification saved) {
+        idempotencyCache.put(saved.getUserId(), saved.getIdempotencyKey(), new IdempotentRequest(
+                saved.getId(), saved.getRequestFingerprint(), saved.getStatus()));
     }
 
     private Notification buildNotificationEntity(CreateNotificationRequest request) {
+        Notification notification = buildNotificationEntity(
+                request.getUserId(),
+                request.getChannelType(),
+                request.getPriority(),
+                request.getScheduledAt(),
+                request.getRecurrenceIntervalMinutes()
+        );
+        notification.setIdempotencyKey(request.getIdempotencyKey());
+        if (request.getIdempotencyKey() != null) {
+            notification.setRequestFingerprint(RequestFingerprint.of(request));
+        }
+        if (request.getTemplateId() == null) {
+            notification.setPayloadId(payloadService.store(request.getPayload()));
+        }
+        notification.setTemplateId(request.getTemplateId());
+        notification.setTemplateParams(request.getTemplateParams());
+        assignCampaign(notification, request.getCampaignId());
+        assignExpiry(notification, request);
+        return notification;
+    }
+
+    private Notification buildNotificationEntity(
+            Long userId,
+            ChannelType channelType,
+            NotificationPriority priority,
+            LocalDateTime scheduledAt,
+            Long recurrenceIntervalMinutes
+    ) {
         Notification notification = new Notification();
-        notification.setUserId(request.getUserId());
-        notification.setChannelType(request.getChannelType());
-        notification.setPayload(request.getPayload());
-        notification.setPriority(request.getPriority());
-        notification.setPriorityWeight(request.getPriority().getWeight());
+        notification.setUserId(userId);
+        notification.setChannelType(channelType);
+        notification.setPriority(priority);
+        notification.setPriorityWeight(priority.getWeight());
         notification.setMaxRetries(
-                retryProperties.getMaxRetries(request.getChannelType())
-        );
-        notification.setRecurrenceIntervalMinutes(
-                request.getRecurrenceIntervalMinutes()
+                retryProperties.getMaxRetries(channelType)
         );
+        notification.setRecurrenceIntervalMinutes(recurrenceIntervalMinutes);
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime scheduledTime = request.getScheduledAt();
+        LocalDateTime scheduledTime = scheduledAt;
         if (scheduledTime == null || scheduledTime.isBefore(now)) {
             scheduledTime = now;
         }
         notification.setScheduledAt(scheduledTime);
+        notification.setExpiresAt(expiryProperties.getDefaultTtl(priority)
+                .map(scheduledTime::plus)
+                .orElse(null));
         notification.setStatus(NotificationStatus.CREATED);
         return notification;
     }
 
+    // An explicit deadline replaces the priority default
+    private void assignExpiry(Notification notification, CreateNotificationRequest request) {
+
+        if (request.getExpiresAt() != null && request.getTtlSeconds() != null) {
+            throw new BadRequestException("Provide either expiresAt or ttlSeconds, not both");
+        }
+
+        if (request.getTtlSeconds() != null) {
+            notification.setExpiresAt(notification.getScheduledAt().plusSeconds(request.getTtlSeconds()));
+        } else if (request.getExpiresAt() != null) {
+            if (!request.getExpiresAt().isAfter(notification.getScheduledAt())) {
+                throw new BadRequestException("expiresAt must be after scheduledAt");
+            }
+            notification.setExpiresAt(request.getExpiresAt());
+        }
+    }
+
+    private void assignCampaign(Notification notification, Long campaignId) {
+        if (campaignId != null) {
+            notification.setCampaignId(campaignId);
+            notification.setStatus(campaignService.initialStatus(campaignId));
+        }
+    }
+
     private NotificationResponse mapToResponse(Notification notification) {
         return NotificationResponse.builder()
                 .notificationId(notification.getId())
@@ -96,6 +292,30 @@ public class NotificationServiceImpl implements NotificationService {
                 .build();
     }
 
+    private NotificationResponse mapToResponse(NotificationSummary summary, Set<String> fields) {
+
+        NotificationResponse.NotificationResponseBuilder response = NotificationResponse.builder()
+                .notificationId(summary.id())
+                .status(summary.status());
+
+        for (String field : fields) {
+            switch (field) {
+                case NotificationFields.USER_ID -> response.userId(summary.userId());
+                case NotificationFields.CHANNEL_TYPE -> response.channelType(summary.channelType());
+                case NotificationFields.PRIORITY -> response.priority(summary.priority());
+                case NotificationFields.RETRY_COUNT -> response.retryCount(summary.retryCount());
+                case NotificationFields.MAX_RETRIES -> response.maxRetries(summary.maxRetries());
+                case NotificationFields.SCHEDULED_AT -> response.scheduledAt(summary.scheduledAt());
+                case NotificationFields.NEXT_RETRY_AT -> response.nextRetryAt(summary.nextRetryAt());
+                case NotificationFields.CREATED_AT -> response.createdAt(summary.createdAt());
+                case NotificationFields.UPDATED_AT -> response.updatedAt(summary.updatedAt());
+                default -> throw new IllegalStateException("Unmapped field: " + field);
+            }
+        }
+
+        return response.build();
+    }
+
     @Override
     @Transactional
     public BulkNotificationResponse createBulkNotifications(
@@ -115,12 +335,37 @@ public class NotificationServiceImpl implements NotificationService {
         logger.info("Processing bulk notification request size={}", requests.size());
 
         List<Notification> validNotifications = new ArrayList<>();
+        List<BulkItemResult> replayedResults = new ArrayList<>();
         List<BulkItemResult> rejectedResults = new ArrayList<>();
+        Set<String> batchIdempotencyKeys = new HashSet<>();
 
         // Validation phase
         for (CreateNotificationRequest request : requests) {
 
             try {
+                String idempotencyKey = request.getIdempotencyKey();
+
+                if (idempotencyKey != null) {
+
+                    Optional<NotificationResponse> replay = findReplay(request);
+
+                    if (replay.isPresent()) {
+                        replayedResults.add(
+                                BulkItemResult.builder()
+                                        .userId(request.getUserId())
+                                        .channelType(request.getChannelType())
+                                        .notificationId(replay.get().getNotificationId())
+                                        .build()
+                        );
+                        continue;
+                    }
+
+                    if (!batchIdempotencyKeys.add(request.getUserId() + "/" + idempotencyKey)) {
+                        throw new BadRequestException("Duplicate idempotency key in bulk request");
+                    }
+                }
+
+                validateContent(request);
                 validateUserAndChannel(
                         request.getUserId(),
                         request.getChannelType()
@@ -143,17 +388,28 @@ public class NotificationServiceImpl implements NotificationService {
 
         // Persist all valid notifications in one batch
         List<Notification> savedNotifications = validNotifications.isEmpty()
-                ? List.of() : notificationRepository.saveAll(validNotifications);
+                ? List.of() : insertOrConflict(() -> notificationRepository.saveAll(validNotifications));
+
+        savedNotifications.forEach(saved -> {
+            statusCache.put(saved);
+            statusCounters.recordCreated(saved);
+        });
+
+        savedNotifications.stream()
+                .filter(saved -> saved.getIdempotencyKey() != null)
+                .forEach(this::rememberIdempotencyKey);
 
-        // Build accepted results from saved entities
-        List<BulkItemResult> acceptedResults = savedNotifications.stream()
+        // Build accepted results from replayed and saved entities
+        List<BulkItemResult> acceptedResults = new ArrayList<>(replayedResults);
+
+        savedNotifications.stream()
                 .map(saved -> BulkItemResult.builder()
                         .userId(saved.getUserId())
                         .channelType(saved.getChannelType())
                         .notificationId(saved.getId())
                         .build()
                 )
-                .toList();
+                .forEach(acceptedResults::add);
 
         logger.info("Bulk ingestion completed accepted={} rejected={}",
                 acceptedResults.size(), rejectedResults.size());
@@ -167,15 +423,193 @@ public class NotificationServiceImpl implements NotificationService {
                 .build();
     }
 
+    @Override
+    @Transactional
+    public MultiChannelNotificationResponse createMultiChannelNotification(
+            MultiChannelNotificationRequest request
+    ) {
+
+        Long userId = request.getUserId();
+
+        logger.info("Creating multi-channel notification for userId={}, mode={}",
+                userId,
+                request.getMode());
+
+        List<ChannelType> enabledChannels = routingProfileCache.get(userId)
+                .map(RoutingProfile::getEnabledChannels)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("User not found"));
+
+        List<ChannelType> targetChannels;
+        List<ChannelType> fallbackChannels = List.of();
+
+        if (request.getMode() == DeliveryMode.FALLBACK) {
+
+            List<ChannelType> chain = request.getChannels() == null || request.getChannels().isEmpty()
+                    ? DEFAULT_FALLBACK_CHAIN
+                    : request.getChannels();
+
+            List<ChannelType> enabledChain = chain.stream()
+                    .distinct()
+                    .filter(enabledChannels::contains)
+                    .toList();
+
+            targetChannels = enabledChain.isEmpty() ? List.of() : enabledChain.subList(0, 1);
+            fallbackChannels = enabledChain.isEmpty() ? List.of() : enabledChain.subList(1, enabledChain.size());
+
+        } else {
+
+            targetChannels = enabledChannels.stream().sorted().toList();
+        }
+
+        if (targetChannels.isEmpty()) {
+            throw new BadRequestException("No enabled channel configured for user");
+        }
+
+        // All channel rows share one stored payload
+        Long payloadId = payloadService.store(request.getPayload());
+
+        List<Notification> notifications = new ArrayList<>();
+
+        for (ChannelType channelType : targetChannels) {
+
+            Notification notification = buildNotificationEntity(
+                    userId,
+                    channelType,
+                    request.getPriority(),
+                    request.getScheduledAt(),
+                    request.getRecurrenceIntervalMinutes()
+            );
+            notification.setPayloadId(payloadId);
+            notification.setFallbackChannels(new ArrayList<>(fallbackChannels));
+            assignCampaign(notification, request.getCampaignId());
+            notifications.add(notification);
+        }
+
+        List<Notification> savedNotifications = notificationRepository.saveAll(notifications);
+        savedNotifications.forEach(saved -> {
+            statusCache.put(saved);
+            statusCounters.recordCreated(saved);
+        });
+
+        List<BulkItemResult> results = savedNotifications.stream()
+                .map(saved -> BulkItemResult.builder()
+                        .userId(saved.getUserId())
+                        .channelType(saved.getChannelType())
+                        .notificationId(saved.getId())
+                        .build())
+                .toList();
+
+        logger.info("Multi-channel notification created userId={} channels={} fallback={}",
+                userId,
+                targetChannels,
+                fallbackChannels);
+
+        return MultiChannelNotificationResponse.builder()
+                .userId(userId)
+                .mode(request.getMode())
+                .payloadId(payloadId)
+                .notifications(results)
+                .fallbackChannels(request.getMode() == DeliveryMode.FALLBACK ? fallbackChannels : null)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public NotificationResponse getNotificationById(Long id) {
+    public NotificationResponse getNotificationById(Long id, Set<String> fields) {
+
+        Set<String> selected = NotificationFields.parse(fields);
+
+        Optional<NotificationSummary> cached = statusCache.get(id);
 
-        Notification notification = notificationRepository.findById(id)
+        if (cached.isPresent()) {
+            return mapToResponse(cached.get(), selected);
+        }
+
+        NotificationSummary notification = notificationRepository.findSummaryById(id)
+                .or(() -> historyRepository.findSummaryById(id))
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Notification not found"));
 
-        return mapToResponse(notification);
+        statusCache.put(notification);
+
+        return mapToResponse(notification, selected);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchStatusResponse getNotificationStatuses(BatchStatusRequest request) {
+
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+
+        if (ids.size() > maxStatusBatchSize) {
+            throw new BadRequestException(
+                    "Status request exceeds maximum allowed size of " + maxStatusBatchSize
+            );
+        }
+
+        // Taken before the query and moved back past transactions still committing,
+        // so a change racing with this poll is returned again by the next one
+        LocalDateTime asOf = LocalDateTime.now().minus(statusCommitGrace);
+
+        List<NotificationStatusSnapshot> snapshots = new ArrayList<>(request.getChangedSince() != null
+                ? notificationRepository.findStatusesByIdInChangedSince(ids, request.getChangedSince())
+                : notificationRepository.findStatusesByIdIn(ids));
+
+        // Both reads share the transaction snapshot, so a row being archived is seen exactly once
+        Set<Long> live = new HashSet<>();
+        snapshots.forEach(snapshot -> live.add(snapshot.id()));
+        List<Long> remaining = ids.stream().filter(id -> !live.contains(id)).toList();
+
+        if (!remaining.isEmpty()) {
+            snapshots.addAll(request.getChangedSince() != null
+                    ? historyRepository.findStatusesByIdInChangedSince(remaining, request.getChangedSince())
+                    : historyRepository.findStatusesByIdIn(remaining));
+        }
+
+        List<NotificationResponse> notifications = snapshots.stream()
+                .map(snapshot -> NotificationResponse.builder()
+                        .notificationId(snapshot.id())
+                        .status(snapshot.status())
+                        .retryCount(snapshot.retryCount())
+                        .updatedAt(snapshot.updatedAt())
+                        .build())
+                .toList();
+
+        List<Long> notFound = null;
+
+        if (request.getChangedSince() == null) {
+            Set<Long> found = new HashSet<>();
+            snapshots.forEach(snapshot -> found.add(snapshot.id()));
+            notFound = ids.stream().filter(id -> !found.contains(id)).toList();
+        }
+
+        return BatchStatusResponse.builder()
+                .asOf(asOf)
+                .notifications(notifications)
+                .notFound(notFound)
+                .build();
+    }
+
+    @Override
+    public List<DeliveryAttemptResponse> getDeliveryAttempts(Long id) {
+
+        if (!notificationRepository.existsById(id) && !historyRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+
+        return attemptRepository.findByNotificationId(id, maxAttemptsPerQuery).stream()
+                .map(attempt -> DeliveryAttemptResponse.builder()
+                        .attemptNumber(attempt.attemptNumber())
+                        .channelType(attempt.channelType())
+                        .outcome(attempt.outcome())
+                        .startedAt(attempt.startedAt())
+                        .finishedAt(attempt.finishedAt())
+                        .durationMs(attempt.durationMs())
+                        .errorClass(attempt.errorClass())
+                        .errorMessage(attempt.errorMessage())
+                        .build())
+                .toList();
     }
 
     @Override
@@ -183,46 +617,186 @@ public class NotificationServiceImpl implements NotificationService {
     public PagedResponse<NotificationResponse> getNotificationsByUser(
             Long userId,
             NotificationStatus status,
-            Pageable pageable
+            Pageable pageable,
+            Set<String> fields
     ) {
+        Set<String> selected = NotificationFields.parse(fields);
+
+        if (pageable.getPageSize() > maxPageSize) {
+            throw new BadRequestException("Page size exceeds maximum allowed size of " + maxPageSize);
+        }
+
+        if (pageable.getOffset() + pageable.getPageSize() > maxPageOffset) {
+            throw new BadRequestException("Page offset exceeds " + maxPageOffset
+                    + " rows; use /api/v1/notifications/user/" + userId + "/cursor to read further back");
+        }
+
         // Validate user exists
-        userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("User not found"));
+        if (!userExistenceFilter.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        Page<Notification> pageResult;
+        // Each table supplies its newest offset + size rows; the page is cut from the merge
+        Pageable head = PageRequest.of(0, (int) (pageable.getOffset() + pageable.getPageSize()),
+                pageable.getSort());
 
-        if (status != null) {
-            pageResult = notificationRepository
-                    .findByUserIdAndStatus(userId, status, pageable);
-        } else {
-            pageResult = notificationRepository
-                    .findByUserId(userId, pageable);
+        List<NotificationSummary> live = status != null
+                ? notificationRepository.findSummariesByUserIdAndStatus(userId, status, head)
+                : notificationRepository.findSummariesByUserId(userId, head);
+
+        List<NotificationSummary> archived = List.of();
+
+        if (status == null) {
+            archived = historyRepository.findSummariesByUserId(userId, head);
+        } else if (status.isTerminal()) {
+            archived = historyRepository.findSummariesByUserIdAndStatus(userId, status, head);
         }
 
-        List<NotificationResponse> content =
-                pageResult.map(this::mapToResponse).getContent();
+        List<NotificationSummary> rows = newestFirst(live, archived)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+
+        long seen = pageable.getOffset() + rows.size();
+
+        // A short page gives the exact total; otherwise the counters may lag by one flush
+        long totalElements = rows.size() < pageable.getPageSize() && (!rows.isEmpty() || pageable.getOffset() == 0)
+                ? seen
+                : Math.max(seen, statusCounters.count(userId, status));
+
+        int totalPages = (int) ((totalElements + pageable.getPageSize() - 1) / pageable.getPageSize());
 
         return PagedResponse.<NotificationResponse>builder()
-                .content(content)
-                .page(pageResult.getNumber())
-                .size(pageResult.getSize())
-                .totalElements(pageResult.getTotalElements())
-                .totalPages(pageResult.getTotalPages())
-                .first(pageResult.isFirst())
-                .last(pageResult.isLast())
+                .content(rows.stream().map(summary -> mapToResponse(summary, selected)).toList())
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(pageable.getPageNumber() == 0)
+                .last(pageable.getPageNumber() + 1 >= totalPages)
                 .build();
     }
 
+    @Override
+    public NotificationCountsResponse getNotificationCounts(Long userId) {
+
+        if (!userExistenceFilter.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        Map<NotificationStatus, Long> byStatus = new EnumMap<>(NotificationStatus.class);
+        Map<ChannelType, Map<NotificationStatus, Long>> byChannel = new EnumMap<>(ChannelType.class);
+        long total = 0;
+
+        for (StatusCount row : statusCounters.findByUserId(userId)) {
+            byStatus.merge(row.status(), row.count(), Long::sum);
+            byChannel.computeIfAbsent(row.channelType(), channel -> new EnumMap<>(NotificationStatus.class))
+                    .put(row.status(), row.count());
+            total += row.count();
+        }
+
+        return NotificationCountsResponse.builder()
+                .userId(userId)
+                .total(total)
+                .byStatus(byStatus)
+                .byChannel(byChannel)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<NotificationResponse> getNotificationsByUserCursor(
+            Long userId,
+            NotificationStatus status,
+            String cursor,
+            int size,
+            boolean includeTotal,
+            Set<String> fields
+    ) {
+        NotificationCursor position = NotificationCursor.decode(cursor);
+        Set<String> selected = NotificationFields.parse(fields);
+
+        if (size > maxPageSize) {
+            throw new BadRequestException("Page size exceeds maximum allowed size of " + maxPageSize);
+        }
+
+        if (!userExistenceFilter.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        // One extra row tells whether another page exists, without a COUNT
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<NotificationSummary> live = status != null
+                ? notificationRepository.findUserPageBeforeWithStatus(
+                        userId, status, position.createdAt(), position.id(), limit)
+                : notificationRepository.findUserPageBefore(
+                        userId, position.createdAt(), position.id(), limit);
+
+        List<NotificationSummary> archived = List.of();
+
+        if (status == null) {
+            archived = historyRepository.findUserPageBefore(
+                    userId, position.createdAt(), position.id(), limit);
+        } else if (status.isTerminal()) {
+            archived = historyRepository.findUserPageBeforeWithStatus(
+                    userId, status, position.createdAt(), position.id(), limit);
+        }
+
+        List<NotificationSummary> rows = newestFirst(live, archived).limit(size + 1).toList();
+
+        boolean hasMore = rows.size() > size;
+        List<NotificationSummary> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationSummary last = page.get(page.size() - 1);
+            nextCursor = new NotificationCursor(last.createdAt(), last.id()).encode();
+        }
+
+        Long totalElements = includeTotal ? statusCounters.count(userId, status) : null;
+
+        return CursorPageResponse.<NotificationResponse>builder()
+                .content(page.stream().map(summary -> mapToResponse(summary, selected)).toList())
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    // Live and archived rows are disjoint; history never holds a non-terminal status
+    private static Stream<NotificationSummary> newestFirst(
+            List<NotificationSummary> live,
+            List<NotificationSummary> archived
+    ) {
+        return Stream.concat(live.stream(), archived.stream())
+                .sorted(NEWEST_FIRST);
+    }
+
+    private void validateContent(CreateNotificationRequest request) {
+
+        boolean hasPayload = request.getPayload() != null && !request.getPayload().isBlank();
+        boolean hasTemplate = request.getTemplateId() != null;
+
+        if (hasPayload == hasTemplate) {
+            throw new BadRequestException("Exactly one of payload or templateId must be provided");
+        }
+
+        if (hasTemplate) {
+            templateService.validateParameters(request.getTemplateId(), request.getTemplateParams());
+        }
+    }
+
     private void validateUserAndChannel(Long userId, ChannelType channelType) {
 
-        userRepository.findById(userId)
+        RoutingProfile profile = routingProfileCache.get(userId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("User not found"));
 
-        endpointRepository.findByUserIdAndChannelType(userId, channelType)
-                .orElseThrow(() ->
-                        new BadRequestException("Channel endpoint not configured for user"));
+        if (!profile.hasEndpoint(channelType)) {
+            throw new BadRequestException("Channel endpoint not configured for user");
+        }
 
         userPreferenceService.validateChannelEnabled(userId, channelType);
     }
@@ -0,0 +1,12 @@
+package com.notification.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+public interface NotificationStreamService {
+
+    SseEmitter subscribeToUser(Long userId);
+
+    SseEmitter subscribeToNotifications(Collection<Long> notificationIds);
+}
@@ -0,0 +1,268 @@
+package com.notification.service;
+
+import com.notification.cache.UserExistenceFilter;
+import com.notification.config.StreamProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.ResourceNotFoundException;
+import com.notification.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes status transitions to Server-Sent Event subscribers.
+ * <p>
+ * Events are received after the dispatcher's transaction commits and are only
+ * offered to each matching subscriber's bounded buffer on that thread. A small
+ * sender pool writes buffers to clients; when a buffer is full the configured
+ * {@link StreamProperties.OverflowPolicy} decides what is lost.
+ */
+@Service
+public class NotificationStreamServiceImpl implements NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamServiceImpl.class);
+
+    private final UserExistenceFilter userExistenceFilter;
+    private final StreamProperties properties;
+    private final ExecutorService sender;
+
+    private final Map<Long, Set<StatusSubscriber>> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<StatusSubscriber>> byNotification = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    private final Counter droppedEvents;
+    private final Counter slowConsumerDisconnects;
+
+    @Autowired
+    public NotificationStreamServiceImpl(UserExistenceFilter userExistenceFilter,
+                                         StreamProperties properties,
+                                         MeterRegistry meterRegistry) {
+        this(userExistenceFilter, properties, meterRegistry,
+                Executors.newFixedThreadPool(properties.getSenderThreads(),
+                        new CustomizableThreadFactory("status-stream-")));
+    }
+
+    NotificationStreamServiceImpl(UserExistenceFilter userExistenceFilter,
+                                  StreamProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  ExecutorService sender) {
+        this.userExistenceFilter = userExistenceFilter;
+        this.properties = properties;
+        this.sender = sender;
+
+        this.droppedEvents = meterRegistry.counter("notification.stream.events.dropped");
+        this.slowConsumerDisconnects = meterRegistry.counter("notification.stream.disconnects.slow");
+        meterRegistry.gauge("notification.stream.subscribers", subscribers);
+    }
+
+    @Override
+    public SseEmitter subscribeToUser(Long userId) {
+
+        if (!userExistenceFilter.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        return subscribe(newEmitter(), userId, Set.of());
+    }
+
+    @Override
+    public SseEmitter subscribeToNotifications(Collection<Long> notificationIds) {
+
+        Set<Long> ids = Set.copyOf(notificationIds);
+
+        if (ids.isEmpty()) {
+            throw new BadRequestException("ids cannot be empty");
+        }
+
+        if (ids.size() > properties.getMaxIdsPerSubscription()) {
+            throw new BadRequestException(
+                    "Subscription exceeds maximum of " + properties.getMaxIdsPerSubscription() + " ids");
+        }
+
+        return subscribe(newEmitter(), null, ids);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long userId, Set<Long> notificationIds) {
+
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open status streams", properties.getRetryAfter());
+        }
+
+        StatusSubscriber subscriber =
+                new StatusSubscriber(emitter, userId, notificationIds, properties.getBufferSize());
+
+        if (userId != null) {
+            add(byUser, userId, subscriber);
+        }
+        notificationIds.forEach(id -> add(byNotification, id, subscriber));
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(ex -> unregister(subscriber));
+
+        logger.debug("Status stream opened userId={} notificationIds={}", userId, notificationIds.size());
+
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(NotificationStatusChangedEvent event) {
+        offer(byUser.get(event.userId()), event);
+        offer(byNotification.get(event.notificationId()), event);
+    }
+
+    private void offer(Set<StatusSubscriber> targets, NotificationStatusChangedEvent event) {
+
+        if (targets == null) {
+            return;
+        }
+
+        for (StatusSubscriber subscriber : targets) {
+
+            if (!subscriber.buffer.offer(event)) {
+
+                switch (properties.getOverflowPolicy()) {
+                    case DROP_OLDEST -> {
+                        do {
+                            if (subscriber.buffer.poll() != null) {
+                                markDropped(subscriber);
+                            }
+                        } while (!subscriber.buffer.offer(event));
+                    }
+                    case DROP_NEWEST -> markDropped(subscriber);
+                    case DISCONNECT -> {
+                        slowConsumerDisconnects.increment();
+                        logger.warn("Closing slow status stream userId={} buffered={}",
+                                subscriber.userId, subscriber.buffer.size());
+                        close(subscriber);
+                        continue;
+                    }
+                }
+            }
+
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void markDropped(StatusSubscriber subscriber) {
+        subscriber.dropped.incrementAndGet();
+        droppedEvents.increment();
+    }
+
+    private void scheduleDrain(StatusSubscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(StatusSubscriber subscriber) {
+
+        try {
+            NotificationStatusChangedEvent event;
+
+            while (!subscriber.closed.get() && (event = subscriber.buffer.poll()) != null) {
+                sendDroppedNotice(subscriber);
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.notificationId()))
+                        .name("status")
+                        .data(event));
+            }
+
+            sendDroppedNotice(subscriber);
+
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away; the container completes the emitter
+            logger.debug("Status stream write failed userId={}", subscriber.userId, ex);
+            unregister(subscriber);
+            return;
+
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // An event may have arrived after the last poll but before draining was reset
+        if (!subscriber.buffer.isEmpty() && !subscriber.closed.get()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void sendDroppedNotice(StatusSubscriber subscriber) throws IOException {
+
+        int dropped = subscriber.dropped.getAndSet(0);
+
+        if (dropped > 0) {
+            subscriber.emitter.send(SseEmitter.event()
+                    .name("dropped")
+                    .data(Map.of("count", dropped)));
+        }
+    }
+
+    private void close(StatusSubscriber subscriber) {
+        if (unregister(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private boolean unregister(StatusSubscriber subscriber) {
+
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+
+        if (subscriber.userId != null) {
+            remove(byUser, subscriber.userId, subscriber);
+        }
+        subscriber.notificationIds.forEach(id -> remove(byNotification, id, subscriber));
+
+        subscriber.buffer.clear();
+        subscribers.decrementAndGet();
+
+        return true;
+    }
+
+    private static void add(Map<Long, Set<StatusSubscriber>> index, Long key, StatusSubscriber subscriber) {
+        index.compute(key, (id, set) -> {
+            Set<StatusSubscriber> targets = set == null ? ConcurrentHashMap.newKeySet() : set;
+            targets.add(subscriber);
+            return targets;
+        });
+    }
+
+    private static void remove(Map<Long, Set<StatusSubscriber>> index, Long key, StatusSubscriber subscriber) {
+        index.computeIfPresent(key, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private SseEmitter newEmitter() {
+        return new SseEmitter(properties.getTimeout().toMillis());
+    }
+
+    @PreDestroy
+    void shutdown() {
+
+        sender.shutdownNow();
+
+        byUser.values().forEach(set -> set.forEach(this::close));
+        byNotification.values().forEach(set -> set.forEach(this::close));
+    }
+}
@@ -0,0 +1,10 @@
+package com.notification.service;
+
+import com.notification.model.entity.Notification;
+
+public interface PayloadService {
+
+    Long store(String body);
+
+    String resolve(Notification notification);
+}
@@ -0,0 +1,186 @@
+package com.notification.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.notification.cache.AfterCommit;
+import com.notification.cache.RoutingProfileCache;
+import com.notification.config.PayloadProperties;
+import com.notification.config.RetentionProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.entity.NotificationPayload;
+import com.notification.model.routing.RoutingProfile;
+import com.notification.repository.NotificationPayloadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed payload store. Bodies are keyed by their SHA-256 hash, so
+ * the same text written by thousands of notifications is stored once.
+ */
+@Service
+public class PayloadServiceImpl implements PayloadService {
+
+    private final NotificationPayloadRepository payloadRepository;
+    private final TemplateService templateService;
+    private final RoutingProfileCache routingProfileCache;
+    private final PayloadProperties payloadProperties;
+
+    private final Cache<String, Long> payloadIdsByHash;
+    private final Cache<Long, String> bodiesById;
+
+    public PayloadServiceImpl(
+            NotificationPayloadRepository payloadRepository,
+            TemplateService templateService,
+            RoutingProfileCache routingProfileCache,
+            PayloadProperties payloadProperties,
+            RetentionProperties retentionProperties,
+            MeterRegistry meterRegistry
+    ) {
+        // A cached id is handed out without refreshing last_stored_at, so it must expire before the purge may run
+        if (payloadProperties.getHashCacheTtl().compareTo(retentionProperties.getOrphanPayloadGrace()) >= 0) {
+            throw new IllegalStateException("notification.payload.hash-cache-ttl ("
+                    + payloadProperties.getHashCacheTtl()
+                    + ") must be shorter than notification.retention.orphan-payload-grace ("
+                    + retentionProperties.getOrphanPayloadGrace() + ")");
+        }
+
+
+        this.payloadRepository = payloadRepository;
+        this.templateService = templateService;
+        this.routingProfileCache = routingProfileCache;
+        this.payloadProperties = payloadProperties;
+
+        this.payloadIdsByHash = Caffeine.newBuilder()
+                .maximumSize(payloadProperties.getHashCacheSize())
+                .expireAfterWrite(payloadProperties.getHashCacheTtl())
+                .recordStats()
+                .build();
+
+        this.bodiesById = Caffeine.newBuilder()
+                .maximumWeight(payloadProperties.getBodyCacheMaxChars())
+                .weigher((Long id, String body) -> body.length())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, payloadIdsByHash, "payload-hashes");
+        CaffeineCacheMetrics.monitor(meterRegistry, bodiesById, "payload-bodies");
+    }
+
+    @Override
+    @Transactional
+    public Long store(String body) {
+
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        String contentHash = sha256(raw);
+
+        Long cachedId = payloadIdsByHash.getIfPresent(contentHash);
+
+        if (cachedId != null) {
+            return cachedId;
+        }
+
+        // Refreshing last_stored_at keeps retention from removing a payload a caller is about to refer to
+        Optional<Long> existingId = payloadRepository.findIdByContentHash(contentHash)
+                .filter(id -> payloadRepository.touch(id) > 0);
+
+        Long payloadId;
+
+        if (existingId.isPresent()) {
+            payloadId = existingId.get();
+        } else {
+            boolean compress = payloadProperties.isCompressionEnabled()
+                    && raw.length > payloadProperties.getCompressionThresholdBytes();
+
+            payloadRepository.insertIfAbsent(contentHash, compress, compress ? gzip(raw) : raw);
+
+            payloadId = payloadRepository.lockIdByContentHash(contentHash)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Payload not stored for contentHash=" + contentHash));
+        }
+
+        AfterCommit.run(() -> payloadIdsByHash.put(contentHash, payloadId));
+
+        return payloadId;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String resolve(Notification notification) {
+
+        if (notification.getTemplateId() != null) {
+
+            String preferredLanguage = routingProfileCache.get(notification.getUserId())
+                    .map(RoutingProfile::getPreferredLanguage)
+                    .orElse(null);
+
+            return templateService.render(
+                    notification.getTemplateId(),
+                    preferredLanguage,
+                    notification.getTemplateParams()
+            );
+        }
+
+        if (notification.getPayloadId() == null) {
+            throw new IllegalStateException(
+                    "No payload for notificationId=" + notification.getId());
+        }
+
+        // Payload rows are immutable, so cached bodies never go stale
+        return bodiesById.get(notification.getPayloadId(), payloadId ->
+                payloadRepository.findById(payloadId)
+                        .map(this::decode)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Payload not found for notificationId=" + notification.getId())));
+    }
+
+    private String decode(NotificationPayload payload) {
+
+        byte[] raw = payload.isCompressed() ? gunzip(payload.getBody()) : payload.getBody();
+
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(byte[] raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(raw);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to compress payload", ex);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to decompress payload", ex);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.notification.service;
+
+import com.notification.model.dto.request.CreateNotificationRequest;
+import com.notification.model.dto.request.FanOutNotificationRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 over every field of a request except its idempotency key, so a
+ * retry matches the request it repeats and any other request does not.
+ */
+final class RequestFingerprint {
+
+    private RequestFingerprint() {
+    }
+
+    static String of(CreateNotificationRequest request) {
+
+        StringBuilder canonical = new StringBuilder();
+
+        append(canonical, request.getUserId());
+        append(canonical, request.getChannelType());
+        append(canonical, request.getPayload());
+        append(canonical, request.getTemplateId());
+        append(canonical, request.getPriority());
+        append(canonical, request.getScheduledAt());
+        append(canonical, request.getRecurrenceIntervalMinutes());
+        append(canonical, request.getExpiresAt());
+        append(canonical, request.getTtlSeconds());
+        append(canonical, request.getCampaignId());
+
+        if (request.getTemplateParams() != null) {
+            for (Map.Entry<String, String> param : new TreeMap<>(request.getTemplateParams()).entrySet()) {
+                append(canonical, param.getKey());
+                append(canonical, param.getValue());
+            }
+        }
+
+        return sha256(canonical);
+    }
+
+    // Uploaded recipient files are streamed, so only an explicit userIds list is covered
+    static String of(FanOutNotificationRequest request) {
+
+        StringBuilder canonical = new StringBuilder();
+
+        append(canonical, request.getChannelType());
+        append(canonical, request.getPayload());
+        append(canonical, request.getPriority());
+        append(canonical, request.getScheduledAt());
+        append(canonical, request.getRecurrenceIntervalMinutes());
+        append(canonical, request.getCampaignId());
+
+        if (request.getUserIds() != null) {
+            request.getUserIds().forEach(userId -> append(canonical, userId));
+        }
+
+        return sha256(canonical);
+    }
+
+    // Length prefixed, so no field value can shift into the next one
+    private static void append(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append('-');
+        } else {
+            String text = value.toString();
+            canonical.append(text.length()).append(':').append(text);
+        }
+    }
+
+    private static String sha256(StringBuilder canonical) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
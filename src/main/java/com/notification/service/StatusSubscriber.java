@@ -0,0 +1,34 @@
+package com.notification.service;
+
+import com.notification.event.NotificationStatusChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One open status stream: either every notification of a user, or a fixed set
+ * of notification ids. Events wait in a bounded buffer until a sender thread
+ * writes them, so a slow client never blocks the dispatcher.
+ */
+final class StatusSubscriber {
+
+    final SseEmitter emitter;
+    final Long userId;
+    final Set<Long> notificationIds;
+
+    final BlockingQueue<NotificationStatusChangedEvent> buffer;
+    final AtomicBoolean draining = new AtomicBoolean();
+    final AtomicInteger dropped = new AtomicInteger();
+    final AtomicBoolean closed = new AtomicBoolean();
+
+    StatusSubscriber(SseEmitter emitter, Long userId, Set<Long> notificationIds, int bufferSize) {
+        this.emitter = emitter;
+        this.userId = userId;
+        this.notificationIds = notificationIds;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+}
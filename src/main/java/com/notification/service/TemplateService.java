@@ -0,0 +1,17 @@
+package com.notification.service;
+
+import com.notification.model.dto.request.CreateTemplateRequest;
+import com.notification.model.dto.response.TemplateResponse;
+
+import java.util.Map;
+
+public interface TemplateService {
+
+    TemplateResponse createTemplate(CreateTemplateRequest request);
+
+    TemplateResponse upsertVariant(Long templateId, String locale, String body);
+
+    void validateParameters(Long templateId, Map<String, String> parameters);
+
+    String render(Long templateId, String preferredLanguage, Map<String, String> parameters);
+}
@@ -0,0 +1,158 @@
+package com.notification.service;
+
+import com.notification.cache.TemplateCache;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.ResourceNotFoundException;
+import com.notification.model.dto.request.CreateTemplateRequest;
+import com.notification.model.dto.response.TemplateResponse;
+import com.notification.model.entity.NotificationTemplate;
+import com.notification.model.entity.NotificationTemplateVariant;
+import com.notification.repository.NotificationTemplateRepository;
+import com.notification.repository.NotificationTemplateVariantRepository;
+import com.notification.template.CompiledTemplate;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+public class TemplateServiceImpl implements TemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateServiceImpl.class);
+
+    private final NotificationTemplateRepository templateRepository;
+    private final NotificationTemplateVariantRepository variantRepository;
+    private final TemplateCache templateCache;
+
+    @Override
+    @Transactional
+    public TemplateResponse createTemplate(CreateTemplateRequest request) {
+
+        logger.info("Registering template name={} locales={}",
+                request.getName(),
+                request.getVariants().keySet());
+
+        if (templateRepository.existsByName(request.getName())) {
+            throw new BadRequestException("Template already exists: " + request.getName());
+        }
+
+        // Every other locale falls back to this variant, so rendering can never find none
+        boolean hasDefaultLocale = request.getVariants().keySet().stream()
+                .map(TemplateCache::normalizeLocale)
+                .anyMatch(templateCache.getDefaultLocale()::equals);
+
+        if (!hasDefaultLocale) {
+            throw new BadRequestException(
+                    "Template needs a variant for the default locale " + templateCache.getDefaultLocale());
+        }
+
+        NotificationTemplate template = new NotificationTemplate();
+        template.setName(request.getName());
+
+        NotificationTemplate saved = templateRepository.save(template);
+
+        List<NotificationTemplateVariant> variants = request.getVariants().entrySet().stream()
+                .map(entry -> {
+                    NotificationTemplateVariant variant = new NotificationTemplateVariant();
+                    variant.setTemplateId(saved.getId());
+                    variant.setLocale(TemplateCache.normalizeLocale(entry.getKey()));
+                    variant.setBody(entry.getValue());
+                    return variant;
+                })
+                .toList();
+
+        variantRepository.saveAll(variants);
+
+        logger.info("Template registered templateId={}", saved.getId());
+
+        return TemplateResponse.builder()
+                .templateId(saved.getId())
+                .name(saved.getName())
+                .locales(variants.stream().map(NotificationTemplateVariant::getLocale).toList())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public TemplateResponse upsertVariant(Long templateId, String locale, String body) {
+
+        NotificationTemplate template = templateRepository.findById(templateId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Template not found"));
+
+        String normalizedLocale = TemplateCache.normalizeLocale(locale);
+
+        // Queued notifications were validated against the existing parameters, so an edit may not add any
+        Set<String> known = templateCache.getParameterNames(templateId).orElse(Set.of());
+        Set<String> added = new TreeSet<>(CompiledTemplate.compile(normalizedLocale, body).getParameterNames());
+        added.removeAll(known);
+
+        if (!added.isEmpty()) {
+            throw new BadRequestException(
+                    "Variant uses parameters the template does not have: " + String.join(", ", added));
+        }
+
+        NotificationTemplateVariant variant = variantRepository
+                .findByTemplateIdAndLocale(templateId, normalizedLocale)
+                .orElseGet(() -> {
+                    NotificationTemplateVariant created = new NotificationTemplateVariant();
+                    created.setTemplateId(templateId);
+                    created.setLocale(normalizedLocale);
+                    return created;
+                });
+
+        variant.setBody(body);
+        variantRepository.save(variant);
+
+        templateCache.invalidate(templateId);
+
+        logger.info("Template variant saved templateId={} locale={}", templateId, normalizedLocale);
+
+        return TemplateResponse.builder()
+                .templateId(template.getId())
+                .name(template.getName())
+                .locales(variantRepository.findByTemplateId(templateId).stream()
+                        .map(NotificationTemplateVariant::getLocale)
+                        .toList())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void validateParameters(Long templateId, Map<String, String> parameters) {
+
+        // Checked against every variant, since the locale is only chosen at dispatch
+        Set<String> missing = new TreeSet<>(templateCache.getParameterNames(templateId)
+                .orElseThrow(() -> new ResourceNotFoundException("Template not found")));
+
+        if (parameters != null) {
+            parameters.forEach((name, value) -> {
+                if (value != null) {
+                    missing.remove(name);
+                }
+            });
+        }
+
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("Missing template parameters: " + String.join(", ", missing));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String render(Long templateId, String preferredLanguage, Map<String, String> parameters) {
+
+        String locale = preferredLanguage == null
+                ? templateCache.getDefaultLocale()
+                : TemplateCache.normalizeLocale(preferredLanguage);
+
+        return templateCache.get(templateId, locale).render(parameters);
+    }
+}
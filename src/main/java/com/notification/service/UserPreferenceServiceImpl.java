@@ -1,7 +1,7 @@
 package com.notification.service;
 
+import com.notification.cache.RoutingProfileCache;
 import com.notification.model.enums.ChannelType;
-import com.notification.repository.UserPreferenceRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -9,14 +9,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserPreferenceServiceImpl implements UserPreferenceService {
 
-    private final UserPreferenceRepository preferenceRepository;
+    private final RoutingProfileCache routingProfileCache;
 
     @Override
     public void validateChannelEnabled(Long userId, ChannelType channelType) {
 
-        preferenceRepository.findByUserIdAndChannelType(userId, channelType)
-                .ifPresent(pref -> {
-                    if (!Boolean.TRUE.equals(pref.getEnabled())) {
+        routingProfileCache.get(userId)
+                .ifPresent(profile -> {
+                    if (!profile.isChannelEnabled(channelType)) {
                         throw new IllegalStateException(
                                 "Channel disabled for user"
                         );
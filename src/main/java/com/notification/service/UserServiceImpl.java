@@ -1,5 +1,7 @@
 package com.notification.service;
 
+import com.notification.cache.RoutingProfileCache;
+import com.notification.cache.UserExistenceFilter;
 import com.notification.channel.NotificationChannel;
 import com.notification.channel.NotificationChannelFactory;
 import com.notification.exception.ResourceNotFoundException;
@@ -36,6 +38,10 @@ public class UserServiceImpl implements UserService {
 
     private final NotificationChannelFactory channelFactory;
 
+    private final RoutingProfileCache routingProfileCache;
+
+    private final UserExistenceFilter userExistenceFilter;
+
     @Override
     public UserResponse createUser(CreateUserRequest request) {
         logger.info("Creating user with preferredLanguage={}",
@@ -46,6 +52,8 @@ public class UserServiceImpl implements UserService {
 
         User saved = userRepository.save(user);
 
+        userExistenceFilter.register(saved.getId());
+
         logger.info("User created successfully. userId={}", saved.getId());
 
         return UserResponse.builder()
@@ -66,9 +74,9 @@ public class UserServiceImpl implements UserService {
                 request.getChannelType());
 
         // Validate user exists
-        userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("User not found"));
+        if (!userExistenceFilter.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
         NotificationChannel channel = channelFactory.getChannel(request.getChannelType());
 
@@ -103,6 +111,8 @@ public class UserServiceImpl implements UserService {
 
         UserChannelEndpoint saved = endpointRepository.save(endpoint);
 
+        routingProfileCache.invalidate(userId);
+
         logger.info("Channel endpoint {} successfully. userId={}, channel={}",
                 isUpdate ? "updated" : "created",
                 userId,
@@ -125,9 +135,9 @@ public class UserServiceImpl implements UserService {
                 userId, channelType, enabled);
 
         // Validate user exists
-        userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("User not found"));
+        if (!userExistenceFilter.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
 
         Optional<UserPreference> existing = preferenceRepository.findByUserIdAndChannelType(userId, channelType);
 
@@ -150,6 +160,8 @@ public class UserServiceImpl implements UserService {
 
         preferenceRepository.save(preference);
 
+        routingProfileCache.invalidate(userId);
+
         logger.info("Preference updated successfully userId={}, channel={}",
                 userId, channelType);
     }
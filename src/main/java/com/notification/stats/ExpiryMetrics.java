@@ -0,0 +1,33 @@
+package com.notification.stats;
+
+import com.notification.model.enums.ChannelType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts notifications shed because their deadline passed, by channel and by
+ * where they were caught: at dispatch, instead of a retry, or by the expiry sweep.
+ */
+@Component
+public class ExpiryMetrics {
+
+    public static final String DISPATCH = "dispatch";
+    public static final String RETRY = "retry";
+    public static final String SWEEP = "sweep";
+
+    private final MeterRegistry meterRegistry;
+
+    public ExpiryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordExpired(ChannelType channelType, String stage, long count) {
+        Counter.builder("notification.expired")
+                .description("Notifications marked EXPIRED instead of being sent")
+                .tag("channel", channelType.name())
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .increment(count);
+    }
+}
@@ -0,0 +1,229 @@
+package com.notification.stats;
+
+import com.notification.cache.AfterCommit;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.StatusCountRepository;
+import com.notification.repository.StatusCountRepository.CampaignStatusCount;
+import com.notification.repository.StatusCountRepository.StatusCount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notification counts per user, channel and status, and per campaign and status,
+ * maintained incrementally.
+ * <p>
+ * Each committed state transition adds -1/+1 to in-memory deltas, which are
+ * flushed to the summary tables as additive upserts. Reads therefore lag by at
+ * most one flush interval and never scan {@code notifications}. The global
+ * totals read back after each flush feed the queue depth gauges.
+ */
+@Component
+public class NotificationStatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStatusCounters.class);
+
+    private static final Comparator<StatusCount> FLUSH_ORDER = Comparator
+            .comparing(StatusCount::userId)
+            .thenComparing(StatusCount::channelType)
+            .thenComparing(StatusCount::status);
+
+    private static final Comparator<CampaignStatusCount> CAMPAIGN_FLUSH_ORDER = Comparator
+            .comparing(CampaignStatusCount::campaignId)
+            .thenComparing(CampaignStatusCount::status);
+
+    private final StatusCountRepository statusCountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<CountKey, Long> pending = new ConcurrentHashMap<>();
+    private final Map<CampaignKey, Long> campaignPending = new ConcurrentHashMap<>();
+    private final Map<NotificationStatus, AtomicLong> totals = new EnumMap<>(NotificationStatus.class);
+
+    public NotificationStatusCounters(StatusCountRepository statusCountRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry) {
+        this.statusCountRepository = statusCountRepository;
+        this.transactionTemplate = transactionTemplate;
+
+        for (NotificationStatus status : NotificationStatus.values()) {
+            AtomicLong total = new AtomicLong();
+            totals.put(status, total);
+            Gauge.builder("notification.queue.depth", total, AtomicLong::get)
+                    .description("Notifications in each status across all nodes, as of the last flush")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void recordCreated(Notification notification) {
+        record(notification, null, notification.getStatus());
+    }
+
+    public void recordTransition(Notification notification, NotificationStatus from) {
+        record(notification, from, notification.getStatus());
+    }
+
+    // For bulk transitions applied in SQL, where no entity is loaded
+    public void recordTransition(Long userId, ChannelType channelType, Long campaignId,
+                                 NotificationStatus from, NotificationStatus to) {
+        record(userId, channelType, campaignId, from, to);
+    }
+
+    // For rows deleted outright, such as archived notifications removed by retention
+    public void recordRemoved(Long userId, ChannelType channelType, Long campaignId,
+                              NotificationStatus status, long count) {
+        AfterCommit.run(() -> {
+            add(new CountKey(userId, channelType, status), -count);
+            if (campaignId != null) {
+                addCampaign(new CampaignKey(campaignId, status), -count);
+            }
+        });
+    }
+
+    private void record(Notification notification, NotificationStatus from, NotificationStatus to) {
+        record(notification.getUserId(), notification.getChannelType(), notification.getCampaignId(), from, to);
+    }
+
+    private void record(Long userId, ChannelType channelType, Long campaignId,
+                        NotificationStatus from, NotificationStatus to) {
+
+        if (from == to) {
+            return;
+        }
+
+        AfterCommit.run(() -> {
+            if (from != null) {
+                add(new CountKey(userId, channelType, from), -1);
+            }
+            add(new CountKey(userId, channelType, to), 1);
+
+            if (campaignId != null) {
+                if (from != null) {
+                    addCampaign(new CampaignKey(campaignId, from), -1);
+                }
+                addCampaign(new CampaignKey(campaignId, to), 1);
+            }
+        });
+    }
+
+    public List<StatusCount> findByUserId(Long userId) {
+        return statusCountRepository.findByUserId(userId);
+    }
+
+    public Map<NotificationStatus, Long> findByCampaignId(Long campaignId) {
+        return statusCountRepository.findByCampaignId(campaignId);
+    }
+
+    public long count(Long userId, NotificationStatus status) {
+        return statusCountRepository.findByUserId(userId).stream()
+                .filter(row -> status == null || row.status() == status)
+                .mapToLong(StatusCount::count)
+                .sum();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.counters.flush-interval-ms:1000}")
+    public void flush() {
+
+        List<StatusCount> deltas = drain();
+        List<CampaignStatusCount> campaignDeltas = drainCampaigns();
+
+        if (!deltas.isEmpty() || !campaignDeltas.isEmpty()) {
+
+            Map<NotificationStatus, Long> totalDeltas = new EnumMap<>(NotificationStatus.class);
+            deltas.forEach(delta -> totalDeltas.merge(delta.status(), delta.count(), Long::sum));
+            totalDeltas.values().removeIf(delta -> delta == 0);
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!deltas.isEmpty()) {
+                        statusCountRepository.applyDeltas(deltas);
+                    }
+                    if (!campaignDeltas.isEmpty()) {
+                        statusCountRepository.applyCampaignDeltas(campaignDeltas);
+                    }
+                    if (!totalDeltas.isEmpty()) {
+                        statusCountRepository.applyTotalDeltas(totalDeltas);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                // Put the deltas back so the next flush retries them
+                deltas.forEach(delta ->
+                        add(new CountKey(delta.userId(), delta.channelType(), delta.status()), delta.count()));
+                campaignDeltas.forEach(delta ->
+                        addCampaign(new CampaignKey(delta.campaignId(), delta.status()), delta.count()));
+                logger.warn("Status count flush failed, {} deltas kept for retry",
+                        deltas.size() + campaignDeltas.size(), ex);
+                return;
+            }
+
+            logger.debug("Flushed {} status count deltas", deltas.size() + campaignDeltas.size());
+        }
+
+        statusCountRepository.findTotals()
+                .forEach((status, total) -> totals.get(status).set(total));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private List<StatusCount> drain() {
+
+        List<StatusCount> deltas = new ArrayList<>();
+
+        for (CountKey key : pending.keySet()) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                deltas.add(new StatusCount(key.userId(), key.channelType(), key.status(), delta));
+            }
+        }
+
+        deltas.sort(FLUSH_ORDER);
+        return deltas;
+    }
+
+    private List<CampaignStatusCount> drainCampaigns() {
+
+        List<CampaignStatusCount> deltas = new ArrayList<>();
+
+        for (CampaignKey key : campaignPending.keySet()) {
+            Long delta = campaignPending.remove(key);
+            if (delta != null && delta != 0) {
+                deltas.add(new CampaignStatusCount(key.campaignId(), key.status(), delta));
+            }
+        }
+
+        deltas.sort(CAMPAIGN_FLUSH_ORDER);
+        return deltas;
+    }
+
+    private void add(CountKey key, long delta) {
+        pending.merge(key, delta, Long::sum);
+    }
+
+    private void addCampaign(CampaignKey key, long delta) {
+        campaignPending.merge(key, delta, Long::sum);
+    }
+
+    private record CountKey(Long userId, ChannelType channelType, NotificationStatus status) {
+    }
+
+    private record CampaignKey(Long campaignId, NotificationStatus status) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.notification.stats;
+
+import com.notification.config.CounterProperties;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.StatusCountRepository;
+import com.notification.repository.StatusCountRepository.CampaignStatusCount;
+import com.notification.repository.StatusCountRepository.StatusCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Repairs the status counters from a recount of {@code notifications} and
+ * {@code notification_history}. Deltas still held in memory by a node that
+ * dies are lost, and nothing else would ever notice.
+ * <p>
+ * Stored counts and recounts are read in one snapshot per id range. A key is
+ * only corrected once two passes in a row see the same stored count and the
+ * same recount: every node flushed many times in between, so a difference
+ * that survived is not a delta still waiting in memory. The correction is a
+ * compare-and-set against the stored count, so every node may run it.
+ */
+@Component
+public class NotificationStatusReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStatusReconciler.class);
+
+    private final StatusCountRepository statusCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterProperties properties;
+
+    private final Counter corrections;
+
+    // Keys that differed in the previous pass, with what was seen then
+    private Map<UserKey, Observation> userDrift = new HashMap<>();
+    private Map<CampaignKey, Observation> campaignDrift = new HashMap<>();
+
+    public NotificationStatusReconciler(StatusCountRepository statusCountRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        CounterProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this.statusCountRepository = statusCountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+
+        this.corrections = Counter.builder("notification.counters.corrections")
+                .description("Status counter rows replaced by reconciliation after lost deltas")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.counters.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${notification.counters.reconcile-interval-ms:3600000}"
+    )
+    public void reconcile() {
+
+        if (!properties.isReconcileEnabled()) {
+            return;
+        }
+
+        int rangeSize = properties.getReconcileRangeSize();
+
+        Map<UserKey, Observation> nextUserDrift = new HashMap<>();
+        long maxUserId = statusCountRepository.findMaxUserId();
+
+        for (long from = 0; from <= maxUserId; from += rangeSize) {
+            reconcileUsers(from, from + rangeSize, nextUserDrift);
+            if (!pause()) {
+                return;
+            }
+        }
+
+        Map<CampaignKey, Observation> nextCampaignDrift = new HashMap<>();
+        long maxCampaignId = statusCountRepository.findMaxCampaignId();
+
+        for (long from = 0; from <= maxCampaignId; from += rangeSize) {
+            reconcileCampaigns(from, from + rangeSize, nextCampaignDrift);
+            if (!pause()) {
+                return;
+            }
+        }
+
+        userDrift = nextUserDrift;
+        campaignDrift = nextCampaignDrift;
+
+        logger.debug("Status count reconciliation pass done, {} user and {} campaign keys drifting",
+                userDrift.size(),
+                campaignDrift.size());
+    }
+
+    private void reconcileUsers(long from, long to, Map<UserKey, Observation> nextDrift) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Map<UserKey, Long> stored = byKey(statusCountRepository.findByUserIdRange(from, to),
+                    UserKey::of, StatusCount::count);
+            Map<UserKey, Long> actual = byKey(statusCountRepository.recountUsers(from, to),
+                    UserKey::of, StatusCount::count);
+
+            Map<NotificationStatus, Long> totalDeltas = new EnumMap<>(NotificationStatus.class);
+
+            for (UserKey key : union(stored, actual)) {
+
+                Observation seen = Observation.of(key, stored, actual);
+
+                if (seen.inSync()) {
+                    continue;
+                }
+
+                if (!seen.equals(userDrift.get(key))) {
+                    nextDrift.put(key, seen);
+                    continue;
+                }
+
+                StatusCount expected = new StatusCount(key.userId(), key.channelType(), key.status(), seen.stored());
+
+                if (statusCountRepository.replaceCount(expected, seen.actual())) {
+                    totalDeltas.merge(key.status(), seen.actual() - seen.stored(), Long::sum);
+                    corrections.increment();
+                    logger.warn("Corrected status count userId={} channel={} status={} from {} to {}",
+                            key.userId(), key.channelType(), key.status(), seen.stored(), seen.actual());
+                }
+            }
+
+            totalDeltas.values().removeIf(delta -> delta == 0);
+
+            if (!totalDeltas.isEmpty()) {
+                statusCountRepository.applyTotalDeltas(totalDeltas);
+            }
+        });
+    }
+
+    private void reconcileCampaigns(long from, long to, Map<CampaignKey, Observation> nextDrift) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Map<CampaignKey, Long> stored = byKey(statusCountRepository.findByCampaignIdRange(from, to),
+                    CampaignKey::of, CampaignStatusCount::count);
+            Map<CampaignKey, Long> actual = byKey(statusCountRepository.recountCampaigns(from, to),
+                    CampaignKey::of, CampaignStatusCount::count);
+
+            for (CampaignKey key : union(stored, actual)) {
+
+                Observation seen = Observation.of(key, stored, actual);
+
+                if (seen.inSync()) {
+                    continue;
+                }
+
+                if (!seen.equals(campaignDrift.get(key))) {
+                    nextDrift.put(key, seen);
+                    continue;
+                }
+
+                CampaignStatusCount expected = new CampaignStatusCount(key.campaignId(), key.status(), seen.stored());
+
+                if (statusCountRepository.replaceCampaignCount(expected, seen.actual())) {
+                    corrections.increment();
+                    logger.warn("Corrected campaign count campaignId={} status={} from {} to {}",
+                            key.campaignId(), key.status(), seen.stored(), seen.actual());
+                }
+            }
+        });
+    }
+
+    private static <T, K> Map<K, Long> byKey(List<T> rows, Function<T, K> key, Function<T, Long> count) {
+        Map<K, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put(key.apply(row), count.apply(row)));
+        return counts;
+    }
+
+    private static <K> Set<K> union(Map<K, Long> stored, Map<K, Long> actual) {
+        Set<K> keys = new HashSet<>(stored.keySet());
+        keys.addAll(actual.keySet());
+        return keys;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getReconcilePause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record UserKey(Long userId, ChannelType channelType, NotificationStatus status) {
+
+        private static UserKey of(StatusCount count) {
+            return new UserKey(count.userId(), count.channelType(), count.status());
+        }
+    }
+
+    private record CampaignKey(Long campaignId, NotificationStatus status) {
+
+        private static CampaignKey of(CampaignStatusCount count) {
+            return new CampaignKey(count.campaignId(), count.status());
+        }
+    }
+
+    private record Observation(long stored, long actual) {
+
+        private static <K> Observation of(K key, Map<K, Long> stored, Map<K, Long> actual) {
+            return new Observation(stored.getOrDefault(key, 0L), actual.getOrDefault(key, 0L));
+        }
+
+        private boolean inSync() {
+            return stored == actual;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.notification.stats;
+
+import com.notification.model.enums.NotificationPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time notifications wait between becoming due and being picked for dispatch,
+ * per priority. The oldest-wait gauge shows a class falling behind before its
+ * rows are picked at all.
+ */
+@Component
+public class QueueWaitMetrics {
+
+    private final Map<NotificationPriority, Timer> waitTimers = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, AtomicLong> oldestWaitMillis = new EnumMap<>(NotificationPriority.class);
+
+    public QueueWaitMetrics(MeterRegistry meterRegistry) {
+
+        for (NotificationPriority priority : NotificationPriority.values()) {
+
+            waitTimers.put(priority, Timer.builder("notification.queue.wait")
+                    .description("Time from a notification being due to being picked for dispatch")
+                    .tag("priority", priority.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+
+            AtomicLong oldest = new AtomicLong();
+            oldestWaitMillis.put(priority, oldest);
+
+            Gauge.builder("notification.queue.oldest.wait", oldest, value -> value.get() / 1e3)
+                    .description("Seconds the oldest due notification had waited at the last poll")
+                    .tag("priority", priority.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public void recordPicked(NotificationPriority priority, Duration wait) {
+        waitTimers.get(priority).record(wait.isNegative() ? Duration.ZERO : wait);
+    }
+
+    public void recordOldestWait(NotificationPriority priority, Duration wait) {
+        oldestWaitMillis.get(priority).set(Math.max(0, wait.toMillis()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.notification.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A template body parsed once into literal and placeholder segments, so
+ * rendering is a single pass over precomputed parts.
+ * <p>
+ * Placeholders use the {@code {{name}}} syntax. Unclosed braces are kept as literal text.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String locale;
+    private final List<String> literals;
+    private final List<String> placeholders;
+    private final Set<String> parameterNames;
+    private final int literalLength;
+
+    private CompiledTemplate(String locale, List<String> literals, List<String> placeholders) {
+        this.locale = locale;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.parameterNames = Collections.unmodifiableSet(new LinkedHashSet<>(placeholders));
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static CompiledTemplate compile(String locale, String body) {
+
+        // literals always has one more entry than placeholders
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int position = 0;
+
+        while (true) {
+
+            int open = body.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : body.indexOf(CLOSE, open + OPEN.length());
+
+            if (open < 0 || close < 0) {
+                literals.add(body.substring(position));
+                break;
+            }
+
+            literals.add(body.substring(position, open));
+            placeholders.add(body.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+
+        return new CompiledTemplate(locale, List.copyOf(literals), List.copyOf(placeholders));
+    }
+
+    public String render(Map<String, String> parameters) {
+
+        StringBuilder rendered = new StringBuilder(literalLength + placeholders.size() * 16);
+
+        for (int i = 0; i < placeholders.size(); i++) {
+
+            String name = placeholders.get(i);
+            String value = parameters == null ? null : parameters.get(name);
+
+            if (value == null) {
+                throw new IllegalStateException("Missing template parameter: " + name);
+            }
+
+            rendered.append(literals.get(i)).append(value);
+        }
+
+        return rendered.append(literals.get(placeholders.size())).toString();
+    }
+
+    public String getLocale() {
+        return locale;
+    }
+
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+}
@@ -0,0 +1,7 @@
+CREATE TABLE cache_invalidation_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    cache_name VARCHAR(64) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_cache_invalidation_created_at (created_at)
+);
@@ -0,0 +1,22 @@
+CREATE TABLE notification_status_counts (
+    user_id BIGINT NOT NULL,
+    channel_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    notification_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, channel_type, status)
+);
+
+CREATE TABLE notification_status_totals (
+    status VARCHAR(20) PRIMARY KEY,
+    notification_count BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO notification_status_counts (user_id, channel_type, status, notification_count)
+SELECT user_id, channel_type, status, COUNT(*)
+FROM notifications
+GROUP BY user_id, channel_type, status;
+
+INSERT INTO notification_status_totals (status, notification_count)
+SELECT status, COUNT(*)
+FROM notifications
+GROUP BY status;
@@ -0,0 +1,40 @@
+-- Append-only home for SENT and DEAD_LETTER notifications, moved out of the
+-- live queue in batches so that notifications only holds the backlog.
+CREATE TABLE notification_history (
+    id BIGINT NOT NULL PRIMARY KEY,
+    idempotency_key VARCHAR(128) NULL,
+    request_fingerprint CHAR(64) NULL,
+    user_id BIGINT NOT NULL,
+    channel_type VARCHAR(20) NOT NULL,
+    fallback_channels VARCHAR(64) NULL,
+    payload_id BIGINT NULL,
+    template_id BIGINT NULL,
+    template_params TEXT NULL,
+    content_type VARCHAR(50) NOT NULL,
+    priority VARCHAR(10) NOT NULL,
+    priority_weight INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    scheduled_at TIMESTAMP NULL,
+    recurrence_interval_minutes BIGINT NULL,
+    retry_count INT NOT NULL,
+    max_retries INT NOT NULL,
+    next_retry_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+
+CREATE INDEX idx_history_user_created
+ON notification_history (user_id, created_at);
+
+CREATE INDEX idx_history_user_status_created
+ON notification_history (user_id, status, created_at);
+
+CREATE INDEX idx_history_user_idempotency_key
+ON notification_history (user_id, idempotency_key);
+
+
+-- Lets the archiver find terminal rows without sorting the whole status range
+CREATE INDEX idx_notification_status_updated
+ON notifications (status, updated_at);
@@ -0,0 +1,18 @@
+-- Partition history by month of created_at so retention can drop whole
+-- partitions instead of deleting rows. MySQL requires the partitioning column
+-- in every unique key, hence the wider primary key.
+--
+-- Starts with a single catch-all partition; HistoryRetentionJob splits monthly
+-- partitions off it ahead of time. The first split takes all existing rows.
+ALTER TABLE notification_history
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+-- Chunked deletes for statuses kept shorter than the partition retention
+CREATE INDEX idx_history_status_created
+ON notification_history (status, created_at);
+
+ALTER TABLE notification_history
+    PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+        PARTITION p_max VALUES LESS THAN MAXVALUE
+    );
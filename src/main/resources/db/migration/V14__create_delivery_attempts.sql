@@ -0,0 +1,21 @@
+-- One row per channel send. No foreign key: notifications move to history
+-- while their attempts stay put.
+CREATE TABLE delivery_attempts (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    notification_id BIGINT NOT NULL,
+    attempt_number INT NOT NULL,
+    channel_type VARCHAR(20) NOT NULL,
+    outcome VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP(3) NOT NULL,
+    finished_at TIMESTAMP(3) NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    error_class VARCHAR(255) NULL,
+    error_message VARCHAR(512) NULL
+);
+
+
+CREATE INDEX idx_delivery_attempt_notification
+ON delivery_attempts (notification_id, id);
+
+CREATE INDEX idx_delivery_attempt_started
+ON delivery_attempts (started_at);
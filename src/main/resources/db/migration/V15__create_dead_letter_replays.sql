@@ -0,0 +1,27 @@
+-- Admin-started requeues of DEAD_LETTER notifications. The row carries the
+-- filter, the pacing state and the progress, so any node can advance a replay
+-- and its progress survives restarts.
+CREATE TABLE dead_letter_replays (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    channel_type VARCHAR(20) NULL,
+    failed_from TIMESTAMP NOT NULL,
+    failed_to TIMESTAMP NOT NULL,
+    error_class VARCHAR(255) NULL,
+    rate_per_second INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_matched BIGINT NOT NULL,
+    requeued BIGINT NOT NULL DEFAULT 0,
+    next_batch_at TIMESTAMP(3) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NULL
+);
+
+
+CREATE INDEX idx_replay_status
+ON dead_letter_replays (status);
+
+
+-- Archived dead letters are selected by the time they failed
+CREATE INDEX idx_history_status_updated
+ON notification_history (status, updated_at);
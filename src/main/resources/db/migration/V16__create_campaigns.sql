@@ -0,0 +1,37 @@
+-- Groups notifications so a whole campaign can be paused, resumed, cancelled
+-- or rescheduled. pending_action marks a campaign whose rows are still being
+-- moved to its new state in chunks.
+CREATE TABLE campaigns (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    pending_action VARCHAR(20) NULL,
+    reschedule_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+
+CREATE INDEX idx_campaign_pending_action
+ON campaigns (pending_action);
+
+
+ALTER TABLE notifications
+ADD COLUMN campaign_id BIGINT NULL;
+
+-- Campaign updates walk one campaign's rows in a given status
+CREATE INDEX idx_notification_campaign_status
+ON notifications (campaign_id, status, id);
+
+
+ALTER TABLE notification_history
+ADD COLUMN campaign_id BIGINT NULL;
+
+
+-- Progress per campaign, maintained by deltas like notification_status_counts
+CREATE TABLE campaign_status_counts (
+    campaign_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    notification_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (campaign_id, status)
+);
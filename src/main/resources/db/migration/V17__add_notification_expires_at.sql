@@ -0,0 +1,11 @@
+-- Deadline after which a notification is no longer worth sending
+ALTER TABLE notifications
+ADD COLUMN expires_at TIMESTAMP NULL;
+
+-- Lets the expiry job find overdue rows without scanning the backlog
+CREATE INDEX idx_notification_status_expires
+ON notifications (status, expires_at);
+
+
+ALTER TABLE notification_history
+ADD COLUMN expires_at TIMESTAMP NULL;
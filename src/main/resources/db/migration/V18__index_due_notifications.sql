@@ -0,0 +1,15 @@
+-- The poller picks senders from each priority's oldest due rows, then reads those senders' due rows
+DROP INDEX idx_notification_ready ON notifications;
+DROP INDEX idx_notification_retry ON notifications;
+
+CREATE INDEX idx_notification_ready
+ON notifications (status, priority_weight, user_id, scheduled_at);
+
+CREATE INDEX idx_notification_retry
+ON notifications (status, priority_weight, user_id, next_retry_at);
+
+CREATE INDEX idx_notification_ready_due
+ON notifications (status, priority_weight, scheduled_at);
+
+CREATE INDEX idx_notification_retry_due
+ON notifications (status, priority_weight, next_retry_at);
@@ -0,0 +1,7 @@
+-- The notification created on the next channel once this one was dead-lettered
+ALTER TABLE notifications
+ADD COLUMN fallback_notification_id BIGINT NULL;
+
+
+ALTER TABLE notification_history
+ADD COLUMN fallback_notification_id BIGINT NULL;
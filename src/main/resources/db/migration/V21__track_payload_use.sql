@@ -0,0 +1,9 @@
+-- Refreshed whenever a writer is handed the payload id, so retention only
+-- removes payloads that nothing refers to and nothing is about to refer to.
+ALTER TABLE notification_payloads
+ADD COLUMN last_stored_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+
+-- Lets orphan payload cleanup check archived references without a scan
+CREATE INDEX idx_history_payload
+ON notification_history (payload_id);
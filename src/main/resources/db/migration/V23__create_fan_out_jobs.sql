@@ -0,0 +1,31 @@
+-- One row per fan-out request. Each chunk commits its notifications together
+-- with the job's progress, so a retried request resumes after the last
+-- committed chunk instead of expanding its recipients again.
+CREATE TABLE fan_out_jobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    idempotency_key VARCHAR(128) NULL,
+    request_fingerprint CHAR(64) NOT NULL,
+    chunk_size INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    recipients_read BIGINT NOT NULL DEFAULT 0,
+    total_accepted BIGINT NOT NULL DEFAULT 0,
+    total_rejected BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_fan_out_job_idempotency_key UNIQUE (idempotency_key)
+);
+
+
+-- At most one notification per recipient of a job, whichever chunk lists it again
+ALTER TABLE notifications
+ADD COLUMN fan_out_job_id BIGINT NULL;
+
+CREATE UNIQUE INDEX uk_notification_fan_out_recipient
+ON notifications (fan_out_job_id, user_id);
+
+
+ALTER TABLE notification_history
+ADD COLUMN fan_out_job_id BIGINT NULL;
+
+CREATE INDEX idx_history_fan_out_recipient
+ON notification_history (fan_out_job_id, user_id);
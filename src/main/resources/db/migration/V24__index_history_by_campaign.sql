@@ -0,0 +1,3 @@
+-- Lets the counter reconciliation recount one range of campaigns in history
+CREATE INDEX idx_history_campaign_status
+ON notification_history (campaign_id, status);
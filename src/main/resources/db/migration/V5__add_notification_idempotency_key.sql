@@ -0,0 +1,10 @@
+-- Idempotency keys are unique per user rather than globally, and each row keeps
+-- a hash of the request it was created from so a reused key with a different
+-- request can be told apart from a retry.
+ALTER TABLE notifications
+    ADD COLUMN idempotency_key VARCHAR(128) NULL AFTER id,
+    ADD COLUMN request_fingerprint CHAR(64) NULL AFTER idempotency_key;
+
+
+CREATE UNIQUE INDEX uk_notification_user_idempotency_key
+ON notifications (user_id, idempotency_key);
@@ -0,0 +1,11 @@
+CREATE TABLE notification_payloads (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+
+ALTER TABLE notifications
+    MODIFY payload TEXT NULL,
+    ADD COLUMN payload_id BIGINT NULL AFTER payload,
+    ADD CONSTRAINT fk_notification_payload FOREIGN KEY (payload_id) REFERENCES notification_payloads(id);
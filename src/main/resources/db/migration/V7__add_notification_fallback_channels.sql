@@ -0,0 +1,2 @@
+ALTER TABLE notifications
+    ADD COLUMN fallback_channels VARCHAR(64) NULL AFTER channel_type;
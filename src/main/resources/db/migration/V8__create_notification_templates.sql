@@ -0,0 +1,25 @@
+CREATE TABLE notification_templates (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT uk_template_name UNIQUE (name)
+);
+
+
+CREATE TABLE notification_template_variants (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    template_id BIGINT NOT NULL,
+    locale VARCHAR(10) NOT NULL,
+    body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_variant_template FOREIGN KEY (template_id) REFERENCES notification_templates(id) ON DELETE CASCADE,
+    CONSTRAINT uk_template_locale UNIQUE (template_id, locale)
+);
+
+
+ALTER TABLE notifications
+    ADD COLUMN template_id BIGINT NULL AFTER payload_id,
+    ADD COLUMN template_params TEXT NULL AFTER template_id,
+    ADD CONSTRAINT fk_notification_template FOREIGN KEY (template_id) REFERENCES notification_templates(id);
@@ -0,0 +1,49 @@
+-- Payload bodies are keyed by the SHA-256 of their uncompressed UTF-8 text
+-- and may be stored gzip compressed above a configurable size.
+ALTER TABLE notification_payloads
+    ADD COLUMN content_hash CHAR(64) NULL AFTER id,
+    ADD COLUMN compressed BOOLEAN NOT NULL DEFAULT FALSE AFTER content_hash,
+    MODIFY body MEDIUMBLOB NOT NULL;
+
+UPDATE notification_payloads
+SET content_hash = SHA2(body, 256);
+
+
+-- Collapse shared payload rows that carry the same body
+CREATE TEMPORARY TABLE payload_keep AS
+SELECT content_hash, MIN(id) AS keep_id
+FROM notification_payloads
+GROUP BY content_hash;
+
+UPDATE notifications n
+JOIN notification_payloads p ON p.id = n.payload_id
+JOIN payload_keep k ON k.content_hash = p.content_hash
+SET n.payload_id = k.keep_id
+WHERE n.payload_id <> k.keep_id;
+
+DELETE p
+FROM notification_payloads p
+JOIN payload_keep k ON k.content_hash = p.content_hash
+WHERE p.id <> k.keep_id;
+
+DROP TEMPORARY TABLE payload_keep;
+
+ALTER TABLE notification_payloads
+    MODIFY content_hash CHAR(64) NOT NULL,
+    ADD CONSTRAINT uk_payload_content_hash UNIQUE (content_hash);
+
+
+-- Move inline payloads into the store and drop the wide column
+INSERT IGNORE INTO notification_payloads (content_hash, compressed, body, created_at)
+SELECT SHA2(payload, 256), FALSE, ANY_VALUE(payload), MIN(created_at)
+FROM notifications
+WHERE payload IS NOT NULL
+GROUP BY SHA2(payload, 256);
+
+UPDATE notifications n
+JOIN notification_payloads p ON p.content_hash = SHA2(n.payload, 256)
+SET n.payload_id = p.id
+WHERE n.payload IS NOT NULL;
+
+ALTER TABLE notifications
+    DROP COLUMN payload;
@@ -0,0 +1,83 @@
+package com.notification.cache;
+
+import com.notification.config.CacheProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.model.projection.NotificationSummary;
+import com.notification.repository.CacheInvalidationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class NotificationStatusCacheTest {
+
+    private CacheInvalidationRepository invalidationRepository;
+    private NotificationStatusCache statusCache;
+
+    @BeforeEach
+    void setup() {
+        invalidationRepository = mock(CacheInvalidationRepository.class);
+        statusCache = new NotificationStatusCache(
+                new CacheProperties(), invalidationRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldLogPublishedTransitionAndKeepInFlightStatus() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Notification notification = new Notification();
+        notification.setId(1L);
+        notification.setUserId(1L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(NotificationStatus.PROCESSING);
+        notification.setPriority(NotificationPriority.HIGH);
+        notification.setMaxRetries(3);
+        notification.setCreatedAt(now);
+        notification.setUpdatedAt(now);
+
+        statusCache.publish(notification);
+
+        verify(invalidationRepository).record(NotificationStatusCache.NAME, 1L);
+        assertThat(statusCache.get(1L))
+                .map(NotificationSummary::status)
+                .contains(NotificationStatus.PROCESSING);
+    }
+
+    @Test
+    void shouldKeepNewerStatusWhenOlderSnapshotArrives() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        statusCache.put(summary(1L, NotificationStatus.SENT, now, now));
+        statusCache.put(summary(1L, NotificationStatus.CREATED, now, now.minusSeconds(1)));
+
+        assertThat(statusCache.get(1L))
+                .map(NotificationSummary::status)
+                .contains(NotificationStatus.SENT);
+    }
+
+    @Test
+    void shouldNotCacheNotificationsOlderThanMaxAge() {
+
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(1);
+
+        statusCache.put(summary(1L, NotificationStatus.SENT, createdAt, createdAt));
+
+        assertThat(statusCache.get(1L)).isEmpty();
+    }
+
+    private NotificationSummary summary(Long id, NotificationStatus status,
+                                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new NotificationSummary(id, 1L, ChannelType.EMAIL, status, NotificationPriority.HIGH,
+                0, 3, createdAt, null, createdAt, updatedAt);
+    }
+}
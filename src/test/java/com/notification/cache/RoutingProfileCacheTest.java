@@ -0,0 +1,85 @@
+package com.notification.cache;
+
+import com.notification.config.CacheProperties;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.routing.RoutingProfile;
+import com.notification.repository.CacheInvalidationRepository;
+import com.notification.repository.RoutingProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingProfileCacheTest {
+
+    @Mock
+    private RoutingProfileRepository routingProfileRepository;
+
+    @Mock
+    private CacheInvalidationRepository invalidationRepository;
+
+    private RoutingProfileCache routingProfileCache;
+
+    @BeforeEach
+    void setup() {
+        routingProfileCache = new RoutingProfileCache(
+                routingProfileRepository, invalidationRepository, new CacheProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+
+        when(routingProfileRepository.findByUserId(1L))
+                .thenReturn(Optional.of(profile(Map.of(ChannelType.EMAIL, "a@example.com"), Set.of())));
+
+        routingProfileCache.get(1L);
+        Optional<RoutingProfile> profile = routingProfileCache.get(1L);
+
+        assertThat(profile).isPresent();
+        assertThat(profile.get().getEndpoint(ChannelType.EMAIL)).contains("a@example.com");
+
+        verify(routingProfileRepository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+
+        when(routingProfileRepository.findByUserId(1L))
+                .thenReturn(Optional.of(profile(Map.of(ChannelType.SMS, "111"), Set.of())))
+                .thenReturn(Optional.of(profile(Map.of(ChannelType.SMS, "111"), Set.of(ChannelType.SMS))));
+
+        assertThat(routingProfileCache.get(1L).get().getEnabledChannels()).containsExactly(ChannelType.SMS);
+
+        routingProfileCache.invalidate(1L);
+
+        assertThat(routingProfileCache.get(1L).get().getEnabledChannels()).isEmpty();
+        verify(invalidationRepository).record(RoutingProfileCache.NAME, 1L);
+    }
+
+    @Test
+    void shouldNotCacheUnknownUser() {
+
+        when(routingProfileRepository.findByUserId(2L)).thenReturn(Optional.empty());
+
+        assertThat(routingProfileCache.get(2L)).isEmpty();
+        assertThat(routingProfileCache.get(2L)).isEmpty();
+
+        verify(routingProfileRepository, times(2)).findByUserId(2L);
+    }
+
+    private RoutingProfile profile(Map<ChannelType, String> endpoints, Set<ChannelType> disabled) {
+        return new RoutingProfile(1L, "en", endpoints, disabled);
+    }
+}
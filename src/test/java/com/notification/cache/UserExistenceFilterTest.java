@@ -0,0 +1,77 @@
+package com.notification.cache;
+
+import com.notification.config.CacheProperties;
+import com.notification.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserExistenceFilter userExistenceFilter;
+
+    @BeforeEach
+    void setup() {
+        CacheProperties properties = new CacheProperties();
+        properties.setUserLoadBatchSize(2);
+
+        userExistenceFilter = new UserExistenceFilter(userRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldAnswerLoadedUsersWithoutQuerying() {
+
+        when(userRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(5L));
+        when(userRepository.findIdsAfter(eq(5L), any(Pageable.class))).thenReturn(List.of());
+
+        userExistenceFilter.load();
+
+        assertThat(userExistenceFilter.exists(1L)).isTrue();
+        assertThat(userExistenceFilter.exists(5L)).isTrue();
+
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void shouldFallBackToDatabaseAndRememberFoundUsers() {
+
+        when(userRepository.existsById(7L)).thenReturn(true);
+        when(userRepository.existsById(8L)).thenReturn(false);
+
+        assertThat(userExistenceFilter.exists(7L)).isTrue();
+        assertThat(userExistenceFilter.exists(7L)).isTrue();
+        assertThat(userExistenceFilter.exists(8L)).isFalse();
+
+        verify(userRepository, times(1)).existsById(7L);
+    }
+
+    @Test
+    void shouldQueryOnlyUnknownIdsInBatch() {
+
+        userExistenceFilter.register(1L);
+
+        when(userRepository.findExistingIds(List.of(2L, 3L))).thenReturn(List.of(3L));
+
+        assertThat(userExistenceFilter.findExisting(List.of(1L, 2L, 3L)))
+                .containsExactlyInAnyOrder(1L, 3L);
+    }
+}
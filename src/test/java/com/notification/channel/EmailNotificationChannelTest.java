@@ -1,18 +1,20 @@
 package com.notification.channel;
 
+import com.notification.cache.RoutingProfileCache;
 import com.notification.exception.BadRequestException;
 import com.notification.model.entity.Notification;
-import com.notification.model.entity.UserChannelEndpoint;
 import com.notification.model.enums.ChannelType;
+import com.notification.model.routing.RoutingProfile;
 import com.notification.provider.EmailProvider;
-import com.notification.repository.UserChannelEndpointRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -24,7 +26,7 @@ import static org.mockito.Mockito.when;
 public class EmailNotificationChannelTest {
 
     @Mock
-    private UserChannelEndpointRepository endpointRepository;
+    private RoutingProfileCache routingProfileCache;
 
     @Mock
     private EmailProvider emailProvider;
@@ -44,15 +46,11 @@ public class EmailNotificationChannelTest {
         Notification notification = new Notification();
         notification.setUserId(1L);
         notification.setChannelType(ChannelType.EMAIL);
-        notification.setPayload("test");
 
-        UserChannelEndpoint endpoint = new UserChannelEndpoint();
-        endpoint.setEndpointValue("test@example.com");
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(new RoutingProfile(1L, "en", Map.of(ChannelType.EMAIL, "test@example.com"), Set.of())));
 
-        when(endpointRepository.findByUserIdAndChannelType(1L, ChannelType.EMAIL))
-                .thenReturn(Optional.of(endpoint));
-
-        emailChannel.send(notification);
+        emailChannel.send(notification, "test");
 
         verify(emailProvider).send("test@example.com", "test");
     }
@@ -65,11 +63,11 @@ public class EmailNotificationChannelTest {
         notification.setUserId(1L);
         notification.setChannelType(ChannelType.EMAIL);
 
-        when(endpointRepository.findByUserIdAndChannelType(any(), any()))
+        when(routingProfileCache.get(any()))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
-                emailChannel.send(notification))
+                emailChannel.send(notification, "test"))
                 .isInstanceOf(IllegalStateException.class);
     }
 
@@ -1,18 +1,20 @@
 package com.notification.channel;
 
+import com.notification.cache.RoutingProfileCache;
 import com.notification.exception.BadRequestException;
 import com.notification.model.entity.Notification;
-import com.notification.model.entity.UserChannelEndpoint;
 import com.notification.model.enums.ChannelType;
+import com.notification.model.routing.RoutingProfile;
 import com.notification.provider.SmsProvider;
-import com.notification.repository.UserChannelEndpointRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -24,7 +26,7 @@ import static org.mockito.Mockito.when;
 class SmsNotificationChannelTest {
 
     @Mock
-    private UserChannelEndpointRepository endpointRepository;
+    private RoutingProfileCache routingProfileCache;
 
     @Mock
     private SmsProvider smsProvider;
@@ -45,15 +47,11 @@ class SmsNotificationChannelTest {
         Notification notification = new Notification();
         notification.setUserId(1L);
         notification.setChannelType(ChannelType.SMS);
-        notification.setPayload("test");
 
-        UserChannelEndpoint endpoint = new UserChannelEndpoint();
-        endpoint.setEndpointValue("9876543210");
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(new RoutingProfile(1L, "en", Map.of(ChannelType.SMS, "9876543210"), Set.of())));
 
-        when(endpointRepository.findByUserIdAndChannelType(1L, ChannelType.SMS))
-                .thenReturn(Optional.of(endpoint));
-
-        smsChannel.send(notification);
+        smsChannel.send(notification, "test");
 
         verify(smsProvider).send("9876543210", "test");
     }
@@ -65,11 +63,11 @@ class SmsNotificationChannelTest {
         notification.setUserId(1L);
         notification.setChannelType(ChannelType.SMS);
 
-        when(endpointRepository.findByUserIdAndChannelType(any(), any()))
+        when(routingProfileCache.get(any()))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
-                smsChannel.send(notification))
+                smsChannel.send(notification, "test"))
                 .isInstanceOf(IllegalStateException.class);
     }
 
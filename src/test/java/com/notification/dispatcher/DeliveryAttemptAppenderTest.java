@@ -0,0 +1,88 @@
+package com.notification.dispatcher;
+
+import com.notification.config.AttemptLogProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.AttemptOutcome;
+import com.notification.model.enums.ChannelType;
+import com.notification.repository.DeliveryAttemptRepository;
+import com.notification.repository.DeliveryAttemptRepository.DeliveryAttempt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryAttemptAppenderTest {
+
+    @Mock
+    private DeliveryAttemptRepository attemptRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DeliveryAttemptAppender appender;
+
+    private Notification notification;
+
+    @BeforeEach
+    void setup() {
+        AttemptLogProperties properties = new AttemptLogProperties();
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(1);
+
+        meterRegistry = new SimpleMeterRegistry();
+        appender = new DeliveryAttemptAppender(attemptRepository, properties, meterRegistry);
+
+        notification = new Notification();
+        notification.setId(5L);
+        notification.setChannelType(ChannelType.PUSH);
+        notification.setRetryCount(1);
+    }
+
+    @Test
+    void shouldWriteQueuedAttemptsInBatches() {
+
+        List<DeliveryAttempt> written = new ArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+                .when(attemptRepository).insertAll(anyList());
+
+        appender.recordSuccess(notification, LocalDateTime.now(), System.nanoTime());
+        appender.recordFailure(notification, LocalDateTime.now(), System.nanoTime(),
+                new IllegalStateException("provider down"));
+
+        appender.flush();
+
+        assertThat(written).extracting(DeliveryAttempt::outcome)
+                .containsExactly(AttemptOutcome.SUCCESS, AttemptOutcome.FAILURE);
+        assertThat(written.get(1).attemptNumber()).isEqualTo(2);
+        assertThat(written.get(1).errorClass()).isEqualTo(IllegalStateException.class.getName());
+    }
+
+    @Test
+    void shouldDropAttemptsWhenQueueIsFull() {
+
+        for (int i = 0; i < 3; i++) {
+            appender.recordSuccess(notification, LocalDateTime.now(), System.nanoTime());
+        }
+
+        assertThat(meterRegistry.get("notification.attempts.dropped").counter().count()).isEqualTo(1.0);
+
+        appender.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeliveryAttempt>> batches = ArgumentCaptor.forClass(List.class);
+        verify(attemptRepository, times(2)).insertAll(batches.capture());
+    }
+}
@@ -0,0 +1,137 @@
+package com.notification.dispatcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyOrderedExecutorTest {
+
+    @Test
+    void shouldRunEachKeyInSubmissionOrderAcrossThreads() throws InterruptedException {
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        KeyOrderedExecutor<String, Runnable> executor = new KeyOrderedExecutor<>(workers, 1_000, task -> {
+        });
+
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(400);
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                int sequence = i;
+                executor.submit("first", () -> {
+                    first.add(sequence);
+                    done.countDown();
+                });
+                executor.submit("second", () -> {
+                    second.add(sequence);
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        List<Integer> expected = IntStream.range(0, 200).boxed().toList();
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldRejectWhenKeyQueueIsFullAndDropIdleKeys() {
+
+        List<Runnable> pending = new ArrayList<>();
+        KeyOrderedExecutor<String, Runnable> executor = new KeyOrderedExecutor<>(pending::add, 2, task -> {
+        });
+
+        List<String> ran = new ArrayList<>();
+
+        assertThat(executor.submit("user", () -> ran.add("a"))).isTrue();
+        assertThat(executor.submit("user", () -> ran.add("b"))).isTrue();
+        assertThat(executor.submit("user", () -> ran.add("c"))).isFalse();
+        assertThat(executor.submit("other", () -> ran.add("d"))).isTrue();
+        assertThat(executor.activeKeys()).isEqualTo(2);
+
+        pending.forEach(Runnable::run);
+
+        assertThat(ran).containsExactly("a", "b", "d");
+        assertThat(executor.activeKeys()).isZero();
+    }
+
+    @Test
+    void shouldKeepDrainingAfterTaskFails() {
+
+        KeyOrderedExecutor<String, Runnable> executor = new KeyOrderedExecutor<>(Runnable::run, 10, task -> {
+        });
+        List<String> ran = new ArrayList<>();
+
+        executor.submit("user", () -> {
+            executor.submit("user", () -> ran.add("after"));
+            throw new IllegalStateException("send failed");
+        });
+
+        assertThat(ran).containsExactly("after");
+        assertThat(executor.activeKeys()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldHandBackTasksQueuedBehindRefusedDrain() {
+
+        List<Runnable> discarded = new ArrayList<>();
+        Runnable queuedBehind = () -> {
+        };
+
+        KeyOrderedExecutor<String, Runnable>[] holder = new KeyOrderedExecutor[1];
+
+        // Another caller queues on the key before the workers refuse the drain
+        Executor refusing = drain -> {
+            assertThat(holder[0].submit("user", queuedBehind)).isTrue();
+            throw new RejectedExecutionException("shut down");
+        };
+        holder[0] = new KeyOrderedExecutor<>(refusing, 10, discarded::add);
+
+        assertThat(holder[0].submit("user", () -> {
+        })).isFalse();
+
+        assertThat(discarded).containsExactly(queuedBehind);
+        assertThat(holder[0].activeKeys()).isZero();
+    }
+
+    @Test
+    void shouldMoveRestOfKeyToNewWorkerWhenTaskThrowsError() {
+
+        List<Runnable> pending = new ArrayList<>();
+        KeyOrderedExecutor<String, Runnable> executor = new KeyOrderedExecutor<>(pending::add, 10, task -> {
+        });
+        List<String> ran = new ArrayList<>();
+
+        executor.submit("user", () -> {
+            throw new AssertionError("worker dies");
+        });
+        executor.submit("user", () -> ran.add("next"));
+
+        assertThatThrownBy(() -> pending.get(0).run()).isInstanceOf(AssertionError.class);
+        assertThat(pending).hasSize(2);
+
+        pending.get(1).run();
+
+        assertThat(ran).containsExactly("next");
+        assertThat(executor.activeKeys()).isZero();
+    }
+}
@@ -0,0 +1,170 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.cache.RoutingProfileCache;
+import com.notification.cache.TemplateCache;
+import com.notification.config.CacheProperties;
+import com.notification.repository.CacheInvalidationRepository;
+import com.notification.repository.CacheInvalidationRepository.CacheInvalidationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationPollerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private CacheInvalidationRepository invalidationRepository;
+
+    @Mock
+    private RoutingProfileCache routingProfileCache;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private TemplateCache templateCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CacheInvalidationPoller poller;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        poller = new CacheInvalidationPoller(
+                invalidationRepository, routingProfileCache, statusCache, templateCache, new CacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void shouldEvictProfilesChangedOnOtherNodes() {
+
+        when(invalidationRepository.currentTimestamp())
+                .thenReturn(T0, T0.plusSeconds(2), T0.plusSeconds(4));
+
+        CacheInvalidationEvent event = new CacheInvalidationEvent(
+                7L, RoutingProfileCache.NAME, 42L, T0.plusSeconds(1));
+
+        when(invalidationRepository.findAfter(any(), anyLong(), anyInt()))
+                .thenReturn(List.of(event));
+
+        poller.poll();
+        poller.poll();
+        poller.poll();
+
+        // Re-read inside the commit grace window, but counted once
+        verify(routingProfileCache, times(2)).evictLocally(42L);
+        verify(invalidationRepository).findAfter(T0.minusSeconds(5), 0L, 1_000);
+        assertThat(meterRegistry.get("notification.cache.coherence.events.applied").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("notification.cache.coherence.lag").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldClearLocalCachesWhenGapExceedsRetention() {
+
+        when(invalidationRepository.currentTimestamp())
+                .thenReturn(T0, T0.plusHours(2));
+
+        poller.poll();
+        poller.poll();
+
+        verify(routingProfileCache, times(2)).evictAllLocally();
+        verify(statusCache, times(2)).evictAllLocally();
+        verify(templateCache, times(2)).evictAllLocally();
+    }
+
+    @Test
+    void shouldEvictStatusesRequeuedOnOtherNodes() {
+
+        when(invalidationRepository.currentTimestamp())
+                .thenReturn(T0, T0.plusSeconds(2));
+
+        when(invalidationRepository.findAfter(any(), anyLong(), anyInt()))
+                .thenReturn(List.of(new CacheInvalidationEvent(
+                        8L, NotificationStatusCache.NAME, 99L, T0.plusSeconds(1))));
+
+        poller.poll();
+        poller.poll();
+
+        verify(statusCache).evictLocally(99L);
+        verify(routingProfileCache, never()).evictLocally(any());
+    }
+
+    @Test
+    void shouldEvictTemplatesChangedOnOtherNodes() {
+
+        when(invalidationRepository.currentTimestamp())
+                .thenReturn(T0, T0.plusSeconds(2));
+
+        when(invalidationRepository.findAfter(any(), anyLong(), anyInt()))
+                .thenReturn(List.of(new CacheInvalidationEvent(
+                        9L, TemplateCache.NAME, 3L, T0.plusSeconds(1))));
+
+        poller.poll();
+        poller.poll();
+
+        verify(templateCache).evictLocally(3L);
+        verify(statusCache, never()).evictLocally(any());
+    }
+
+    @Test
+    void shouldDrainMoreThanABatchOfEventsSharingOneTimestamp() {
+
+        CacheProperties properties = new CacheProperties();
+        properties.getCoherence().setBatchSize(2);
+        poller = new CacheInvalidationPoller(
+                invalidationRepository, routingProfileCache, statusCache, templateCache, properties, meterRegistry);
+
+        when(invalidationRepository.currentTimestamp())
+                .thenReturn(T0, T0.plusSeconds(2), T0.plusSeconds(4));
+
+        // One multi-row insert: a full batch of status events, then a profile change, all at one instant
+        LocalDateTime at = T0.plusSeconds(1);
+        List<CacheInvalidationEvent> window = new ArrayList<>(List.of(
+                new CacheInvalidationEvent(10L, NotificationStatusCache.NAME, 1L, at),
+                new CacheInvalidationEvent(11L, NotificationStatusCache.NAME, 2L, at),
+                new CacheInvalidationEvent(12L, RoutingProfileCache.NAME, 42L, at)));
+
+        when(invalidationRepository.findAfter(any(), anyLong(), eq(2))).thenAnswer(invocation -> {
+            LocalDateTime createdAt = invocation.getArgument(0);
+            long afterId = invocation.getArgument(1);
+            return window.stream()
+                    .filter(event -> event.createdAt().isAfter(createdAt)
+                            || (event.createdAt().equals(createdAt) && event.id() > afterId))
+                    .limit(2)
+                    .toList();
+        });
+
+        poller.poll();
+        poller.poll();
+
+        verify(invalidationRepository).findAfter(at, 11L, 2);
+        verify(routingProfileCache).evictLocally(42L);
+
+        // The next poll starts from the drained window again, minus the grace
+        poller.poll();
+
+        verify(invalidationRepository).findAfter(T0.plusSeconds(2).minusSeconds(5), 0L, 2);
+    }
+}
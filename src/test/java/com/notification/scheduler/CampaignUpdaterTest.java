@@ -0,0 +1,164 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.CampaignProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.entity.Campaign;
+import com.notification.model.enums.CampaignAction;
+import com.notification.model.enums.CampaignStatus;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.CampaignRepository;
+import com.notification.repository.CampaignUpdateRepository;
+import com.notification.repository.CampaignUpdateRepository.CampaignRow;
+import com.notification.stats.NotificationStatusCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CampaignUpdaterTest {
+
+    @Mock
+    private CampaignRepository campaignRepository;
+
+    @Mock
+    private CampaignUpdateRepository updateRepository;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CampaignUpdater updater;
+
+    private Campaign campaign;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        CampaignProperties properties = new CampaignProperties();
+        properties.setChunkSize(2);
+        properties.setChunkPause(Duration.ZERO);
+
+        meterRegistry = new SimpleMeterRegistry();
+        updater = new CampaignUpdater(campaignRepository, updateRepository, statusCache, statusCounters,
+                eventPublisher, properties, transactionTemplate, meterRegistry);
+
+        campaign = new Campaign();
+        campaign.setId(4L);
+
+        when(campaignRepository.findIdsWithPendingAction()).thenReturn(List.of(4L));
+        when(campaignRepository.findById(4L)).thenReturn(Optional.of(campaign));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation ->
+                        ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void shouldCancelInChunksUntilDrainedAndClearAction() {
+        runVoidTransactionsInline();
+
+        campaign.setStatus(CampaignStatus.CANCELLED);
+        campaign.setPendingAction(CampaignAction.CANCEL);
+
+        when(updateRepository.lockChunk(4L, CampaignAction.CANCEL, null, 2))
+                .thenReturn(
+                        List.of(row(1L, NotificationStatus.CREATED), row(2L, NotificationStatus.PAUSED)),
+                        List.of(row(3L, NotificationStatus.FAILED)));
+
+        updater.applyPendingActions();
+
+        verify(updateRepository).cancel(List.of(1L, 2L));
+        verify(updateRepository).cancel(List.of(3L));
+        verify(statusCache).invalidate(List.of(1L, 2L));
+        verify(statusCounters).recordTransition(
+                9L, ChannelType.SMS, 4L, NotificationStatus.PAUSED, NotificationStatus.CANCELLED);
+        verify(eventPublisher, times(3)).publishEvent(any(NotificationStatusChangedEvent.class));
+        verify(campaignRepository).clearPendingAction(4L, CampaignAction.CANCEL);
+        assertThat(meterRegistry.get("notification.campaign.updated").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldRescheduleWithoutChangingStatus() {
+        runVoidTransactionsInline();
+
+        LocalDateTime rescheduleAt = LocalDateTime.now().plusDays(1);
+        campaign.setStatus(CampaignStatus.ACTIVE);
+        campaign.setPendingAction(CampaignAction.RESCHEDULE);
+        campaign.setRescheduleAt(rescheduleAt);
+
+        when(updateRepository.lockChunk(4L, CampaignAction.RESCHEDULE, rescheduleAt, 2))
+                .thenReturn(List.of(row(1L, NotificationStatus.CREATED)));
+
+        updater.applyPendingActions();
+
+        verify(updateRepository).reschedule(List.of(1L), rescheduleAt);
+        verify(statusCache).invalidate(List.of(1L));
+        verify(statusCounters, never()).recordTransition(any(), any(), any(), any(), any());
+        verify(campaignRepository).clearPendingAction(4L, CampaignAction.RESCHEDULE);
+    }
+
+    @Test
+    void shouldStopWhenActionChangesMidway() {
+
+        campaign.setStatus(CampaignStatus.PAUSED);
+        campaign.setPendingAction(CampaignAction.PAUSE);
+
+        Campaign resumed = new Campaign();
+        resumed.setPendingAction(CampaignAction.RESUME);
+
+        when(campaignRepository.findById(4L)).thenReturn(Optional.of(campaign), Optional.of(resumed));
+        when(updateRepository.lockChunk(eq(4L), eq(CampaignAction.PAUSE), any(), anyInt()))
+                .thenReturn(List.of(row(1L, NotificationStatus.CREATED), row(2L, NotificationStatus.FAILED)));
+
+        updater.applyPendingActions();
+
+        verify(updateRepository, times(1)).pause(List.of(1L, 2L));
+        verify(campaignRepository, never()).clearPendingAction(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runVoidTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private CampaignRow row(Long id, NotificationStatus status) {
+        return new CampaignRow(id, 9L, ChannelType.SMS, status, 0);
+    }
+}
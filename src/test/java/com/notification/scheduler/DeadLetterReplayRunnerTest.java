@@ -0,0 +1,140 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.ReplayProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.entity.DeadLetterReplay;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.model.enums.ReplayStatus;
+import com.notification.repository.DeadLetterReplayRepository;
+import com.notification.repository.DeadLetterRequeueRepository;
+import com.notification.repository.DeadLetterRequeueRepository.DeadLetter;
+import com.notification.stats.NotificationStatusCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterReplayRunnerTest {
+
+    @Mock
+    private DeadLetterReplayRepository replayRepository;
+
+    @Mock
+    private DeadLetterRequeueRepository requeueRepository;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DeadLetterReplayRunner runner;
+
+    private DeadLetterReplay replay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        ReplayProperties properties = new ReplayProperties();
+        properties.setMaxBatchSize(3);
+
+        meterRegistry = new SimpleMeterRegistry();
+        runner = new DeadLetterReplayRunner(replayRepository, requeueRepository, statusCache, statusCounters,
+                eventPublisher, properties, transactionTemplate, meterRegistry);
+
+        replay = new DeadLetterReplay();
+        replay.setId(5L);
+        replay.setStatus(ReplayStatus.RUNNING);
+        replay.setRatePerSecond(10);
+        replay.setTotalMatched(3L);
+        replay.setNextBatchAt(LocalDateTime.now().minusSeconds(1));
+
+        when(replayRepository.findIdsByStatus(ReplayStatus.RUNNING)).thenReturn(List.of(5L));
+        when(replayRepository.lockById(5L)).thenReturn(Optional.of(replay));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void shouldRequeueLiveThenArchivedDeadLettersAndPaceNextBatch() {
+
+        when(requeueRepository.lockLive(replay, 3))
+                .thenReturn(List.of(new DeadLetter(1L, 7L, ChannelType.SMS, null)));
+        when(requeueRepository.lockArchived(replay, 2))
+                .thenReturn(List.of(new DeadLetter(2L, 7L, ChannelType.SMS, null), new DeadLetter(3L, 8L, ChannelType.EMAIL, 4L)));
+
+        LocalDateTime before = LocalDateTime.now();
+
+        runner.tick();
+
+        verify(requeueRepository).requeueLive(List.of(1L));
+        verify(requeueRepository).restoreArchived(List.of(2L, 3L));
+        verify(statusCache).invalidate(List.of(1L, 2L, 3L));
+        verify(statusCounters).recordTransition(
+                8L, ChannelType.EMAIL, 4L, NotificationStatus.DEAD_LETTER, NotificationStatus.CREATED);
+        verify(eventPublisher, times(3)).publishEvent(any(NotificationStatusChangedEvent.class));
+
+        assertThat(replay.getRequeued()).isEqualTo(3L);
+        assertThat(replay.getStatus()).isEqualTo(ReplayStatus.RUNNING);
+        // 3 rows at 10/s hold the next batch back 300ms
+        assertThat(replay.getNextBatchAt()).isAfterOrEqualTo(before.plusNanos(300_000_000L));
+        assertThat(meterRegistry.get("notification.replay.requeued").counter().count()).isEqualTo(3.0);
+        verify(replayRepository).save(replay);
+    }
+
+    @Test
+    void shouldCompleteWhenNothingIsLeftToRequeue() {
+
+        when(requeueRepository.lockLive(replay, 3)).thenReturn(List.of());
+        when(requeueRepository.lockArchived(replay, 3)).thenReturn(List.of());
+
+        runner.tick();
+
+        assertThat(replay.getStatus()).isEqualTo(ReplayStatus.COMPLETED);
+        assertThat(replay.getFinishedAt()).isNotNull();
+        verify(statusCache, never()).invalidate(any());
+    }
+
+    @Test
+    void shouldWaitUntilNextBatchIsDue() {
+
+        replay.setNextBatchAt(LocalDateTime.now().plusSeconds(5));
+
+        runner.tick();
+
+        verify(requeueRepository, never()).lockLive(any(), anyInt());
+        verify(replayRepository, never()).save(any());
+    }
+}
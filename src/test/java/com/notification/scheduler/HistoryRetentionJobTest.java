@@ -0,0 +1,158 @@
+package com.notification.scheduler;
+
+import com.notification.config.RetentionProperties;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.DeliveryAttemptRepository;
+import com.notification.repository.HistoryPartitionRepository;
+import com.notification.repository.HistoryPartitionRepository.RemovedCount;
+import com.notification.repository.NotificationPayloadRepository;
+import com.notification.stats.NotificationStatusCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryRetentionJobTest {
+
+    @Mock
+    private HistoryPartitionRepository partitionRepository;
+
+    @Mock
+    private DeliveryAttemptRepository attemptRepository;
+
+    @Mock
+    private NotificationPayloadRepository payloadRepository;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RetentionProperties properties;
+
+    private HistoryRetentionJob job;
+
+    @BeforeEach
+    void setup() {
+        properties = new RetentionProperties();
+        properties.setPartitionsAhead(1);
+        properties.setDeleteChunkSize(2);
+        properties.setDeleteChunkPause(Duration.ZERO);
+
+        job = new HistoryRetentionJob(partitionRepository, attemptRepository, payloadRepository,
+                statusCounters, transactionTemplate, properties, new SimpleMeterRegistry());
+
+        // Every run purges CANCELLED and EXPIRED, which are kept shorter than the partitions
+        runTransactionsInline();
+    }
+
+    @Test
+    void shouldCreateCurrentAndUpcomingPartitionsOnFirstRun() {
+
+        YearMonth current = YearMonth.now();
+
+        when(partitionRepository.findMonthlyPartitions()).thenReturn(List.of());
+
+        job.run();
+
+        verify(partitionRepository).addMonthlyPartitions(List.of(current, current.plusMonths(1)));
+        verify(partitionRepository, never()).dropMonthlyPartitions(anyList());
+    }
+
+    @Test
+    void shouldDropPartitionsPastLongestRetention() {
+
+        YearMonth current = YearMonth.now();
+        YearMonth expired = current.minusMonths(8);
+        YearMonth kept = current.minusMonths(5);
+
+        when(partitionRepository.findMonthlyPartitions())
+                .thenReturn(List.of(expired, kept, current, current.plusMonths(1)));
+        when(partitionRepository.countByPartitions(List.of(expired)))
+                .thenReturn(List.of(new RemovedCount(1L, ChannelType.EMAIL, 4L, NotificationStatus.SENT, 12)));
+
+        job.run();
+
+        verify(partitionRepository, never()).addMonthlyPartitions(anyList());
+        verify(partitionRepository).dropMonthlyPartitions(List.of(expired));
+        verify(statusCounters).recordRemoved(1L, ChannelType.EMAIL, 4L, NotificationStatus.SENT, 12);
+    }
+
+    @Test
+    void shouldDeleteShorterRetentionStatusInChunks() {
+
+        when(partitionRepository.findMonthlyPartitions())
+                .thenReturn(List.of(YearMonth.now(), YearMonth.now().plusMonths(1)));
+        when(partitionRepository.deleteCreatedBefore(eq(NotificationStatus.SENT), any(), anyInt()))
+                .thenReturn(List.of(removed(1L, 2)), List.of(removed(1L, 1), removed(2L, 1)), List.of(removed(2L, 1)));
+
+        job.run();
+
+        verify(partitionRepository, times(3)).deleteCreatedBefore(eq(NotificationStatus.SENT), any(), eq(2));
+        verify(partitionRepository, never()).deleteCreatedBefore(eq(NotificationStatus.DEAD_LETTER), any(), anyInt());
+        verify(statusCounters).recordRemoved(1L, ChannelType.EMAIL, null, NotificationStatus.SENT, 2);
+        verify(statusCounters, times(2)).recordRemoved(2L, ChannelType.EMAIL, null, NotificationStatus.SENT, 1);
+    }
+
+    @Test
+    void shouldDeleteOrphanPayloadsInChunksUnderLock() {
+
+        when(partitionRepository.findMonthlyPartitions())
+                .thenReturn(List.of(YearMonth.now(), YearMonth.now().plusMonths(1)));
+        when(payloadRepository.findOrphanIdsAfter(eq(0L), any(), eq(2))).thenReturn(List.of(3L, 5L));
+        when(payloadRepository.findOrphanIdsAfter(eq(5L), any(), eq(2))).thenReturn(List.of(8L));
+        when(payloadRepository.deleteOrphansByIdIn(any(), any())).thenReturn(2, 0);
+
+        job.run();
+
+        verify(payloadRepository).lockByIdIn(List.of(3L, 5L));
+        verify(payloadRepository).deleteOrphansByIdIn(eq(List.of(3L, 5L)), any());
+        verify(payloadRepository).lockByIdIn(List.of(8L));
+        verify(payloadRepository, never()).findOrphanIdsAfter(eq(8L), any(), anyInt());
+    }
+
+    @Test
+    void shouldNeverDropPartitionsWhenAStatusIsKeptForever() {
+
+        properties.getHistory().remove(NotificationStatus.DEAD_LETTER);
+
+        YearMonth current = YearMonth.now();
+
+        when(partitionRepository.findMonthlyPartitions())
+                .thenReturn(List.of(current.minusMonths(24), current, current.plusMonths(1)));
+
+        job.run();
+
+        verify(partitionRepository, never()).dropMonthlyPartitions(anyList());
+    }
+
+    private void runTransactionsInline() {
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+    }
+
+    private static RemovedCount removed(Long userId, long count) {
+        return new RemovedCount(userId, ChannelType.EMAIL, null, NotificationStatus.SENT, count);
+    }
+}
@@ -0,0 +1,81 @@
+package com.notification.scheduler;
+
+import com.notification.config.ArchiveProperties;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.NotificationArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationArchiverTest {
+
+    @Mock
+    private NotificationArchiveRepository archiveRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ArchiveProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationArchiver archiver;
+
+    @BeforeEach
+    void setup() {
+        properties = new ArchiveProperties();
+        properties.setBatchSize(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        archiver = new NotificationArchiver(archiveRepository, properties, transactionTemplate, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMoveTerminalRowsInBatchesUntilDrained() {
+
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation ->
+                        ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        when(archiveRepository.lockArchivable(eq(NotificationStatus.SENT), any(), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(archiveRepository.lockArchivable(eq(NotificationStatus.DEAD_LETTER), any(), eq(2)))
+                .thenReturn(List.of());
+        when(archiveRepository.moveToHistory(anyList()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        archiver.archive();
+
+        verify(archiveRepository, never()).lockArchivable(eq(NotificationStatus.FAILED), any(), anyInt());
+        assertThat(meterRegistry.get("notification.archive.moved").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+
+        properties.setEnabled(false);
+
+        archiver.archive();
+
+        verifyNoInteractions(archiveRepository, transactionTemplate);
+    }
+}
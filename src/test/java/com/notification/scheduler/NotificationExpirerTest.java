@@ -0,0 +1,103 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.ExpiryProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.NotificationExpiryRepository;
+import com.notification.repository.NotificationExpiryRepository.ExpiredNotification;
+import com.notification.stats.ExpiryMetrics;
+import com.notification.stats.NotificationStatusCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationExpirerTest {
+
+    @Mock
+    private NotificationExpiryRepository expiryRepository;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ExpiryMetrics expiryMetrics;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ExpiryProperties properties;
+
+    private NotificationExpirer expirer;
+
+    @BeforeEach
+    void setup() {
+        properties = new ExpiryProperties();
+        properties.setBatchSize(2);
+
+        expirer = new NotificationExpirer(expiryRepository, statusCache, statusCounters, eventPublisher,
+                expiryMetrics, properties, transactionTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldExpireOverdueRowsInBatchesAndCountPerChannel() {
+
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation ->
+                        ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        when(expiryRepository.lockExpired(any(), eq(2)))
+                .thenReturn(
+                        List.of(row(1L, ChannelType.SMS, NotificationStatus.CREATED),
+                                row(2L, ChannelType.SMS, NotificationStatus.FAILED)),
+                        List.of(row(3L, ChannelType.EMAIL, NotificationStatus.PAUSED)));
+
+        expirer.expireOverdue();
+
+        verify(expiryRepository).markExpired(List.of(1L, 2L));
+        verify(expiryRepository).markExpired(List.of(3L));
+        verify(statusCache).invalidate(List.of(3L));
+        verify(statusCounters).recordTransition(
+                7L, ChannelType.SMS, null, NotificationStatus.FAILED, NotificationStatus.EXPIRED);
+        verify(eventPublisher, times(3)).publishEvent(any(NotificationStatusChangedEvent.class));
+        verify(expiryMetrics).recordExpired(ChannelType.SMS, ExpiryMetrics.SWEEP, 2L);
+        verify(expiryMetrics).recordExpired(ChannelType.EMAIL, ExpiryMetrics.SWEEP, 1L);
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+
+        properties.setEnabled(false);
+
+        expirer.expireOverdue();
+
+        verifyNoInteractions(expiryRepository, transactionTemplate);
+    }
+
+    private ExpiredNotification row(Long id, ChannelType channelType, NotificationStatus status) {
+        return new ExpiredNotification(id, 7L, channelType, null, status, 0);
+    }
+}
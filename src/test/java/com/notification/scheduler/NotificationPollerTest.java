@@ -1,21 +1,38 @@
 package com.notification.scheduler;
 
+import com.notification.config.PollingProperties;
 import com.notification.dispatcher.NotificationDispatcherService;
 import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationPriority;
 import com.notification.model.enums.NotificationStatus;
 import com.notification.repository.NotificationRepository;
+import com.notification.stats.QueueWaitMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,45 +45,270 @@ class NotificationPollerTest {
     @Mock
     private NotificationDispatcherService dispatcher;
 
+    private PollingProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private NotificationPoller poller;
 
+    private long nextUserId = 1;
+
+    private static long nextId = 1;
+
     @BeforeEach
     void setup() {
-        poller = new NotificationPoller(repository, dispatcher, 10);
+        properties = new PollingProperties();
+        properties.setBatchSize(10);
+        properties.setAgingStep(Duration.ofMinutes(2));
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        poller = new NotificationPoller(repository, dispatcher, properties,
+                new QueueWaitMetrics(meterRegistry), meterRegistry, Runnable::run);
     }
 
     @Test
     void shouldDispatchReadyNotifications() {
 
-        Notification notification = new Notification();
-        notification.setStatus(NotificationStatus.CREATED);
-
-        when(repository.findByStatusAndScheduledAtBefore(
-                any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(notification)));
+        Notification notification = ready(NotificationPriority.MEDIUM, 1);
 
-        when(repository.findByStatusAndNextRetryAtBefore(
-                any(), any(), any()))
-                .thenReturn(Page.empty());
+        stubDue(List.of(notification), List.of());
 
         poller.pollNotifications();
 
         verify(dispatcher).dispatch(notification);
+        assertThat(meterRegistry.get("notification.queue.wait").tag("priority", "MEDIUM").timer().count())
+                .isEqualTo(1);
     }
 
     @Test
-    void shouldReturnEarlyWhenNoNotificationsFound() {
+    void shouldReserveSlotsForLowPriorityUnderHighLoad() {
+
+        properties.setBatchSize(4);
+        properties.setReservedShare(Map.of(NotificationPriority.HIGH, 0.5, NotificationPriority.LOW, 0.25));
+
+        List<Notification> high = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            high.add(ready(NotificationPriority.HIGH, 0));
+        }
+        Notification low = ready(NotificationPriority.LOW, 0);
+
+        List<Notification> due = new ArrayList<>(high);
+        due.add(low);
+        stubDue(due, List.of());
 
-        when(repository.findByStatusAndScheduledAtBefore(
-                any(), any(), any()))
-                .thenReturn(Page.empty());
+        poller.pollNotifications();
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(dispatcher, times(4)).dispatch(captor.capture());
+
+        assertThat(captor.getAllValues()).contains(low);
+        assertThat(captor.getAllValues()).filteredOn(n -> n.getPriority() == NotificationPriority.HIGH).hasSize(3);
+    }
+
+    @Test
+    void shouldLetAgedLowPriorityOutrankFreshHighPriority() {
+
+        properties.setBatchSize(1);
 
-        when(repository.findByStatusAndNextRetryAtBefore(
-                any(), any(), any()))
-                .thenReturn(Page.empty());
+        Notification high = ready(NotificationPriority.HIGH, 0);
+        Notification staleLow = ready(NotificationPriority.LOW, 10);
+
+        stubDue(List.of(high, staleLow), List.of());
+
+        poller.pollNotifications();
+
+        verify(dispatcher).dispatch(staleLow);
+        verify(dispatcher, never()).dispatch(high);
+    }
+
+    @Test
+    void shouldLetRetriesShareTheirPriorityWithNewWork() {
+
+        properties.setBatchSize(2);
+
+        Notification retry = ready(NotificationPriority.HIGH, 3);
+        retry.setStatus(NotificationStatus.FAILED);
+        retry.setNextRetryAt(retry.getScheduledAt());
+
+        Notification fresh = ready(NotificationPriority.HIGH, 0);
+        Notification medium = ready(NotificationPriority.MEDIUM, 0);
+
+        stubDue(List.of(fresh, medium), List.of(retry));
+
+        poller.pollNotifications();
+
+        verify(dispatcher).dispatch(retry);
+        verify(dispatcher).dispatch(fresh);
+        verify(dispatcher, never()).dispatch(medium);
+    }
+
+    @Test
+    void shouldLetSmallSendersTakeTurnsWithBulkSender() {
+
+        properties.setBatchSize(4);
+        properties.setMaxInFlightPerUser(2);
+
+        List<Notification> bulk = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            bulk.add(ready(100L, NotificationPriority.MEDIUM, 10));
+        }
+        Notification first = ready(1L, NotificationPriority.MEDIUM, 0);
+        Notification second = ready(2L, NotificationPriority.MEDIUM, 0);
+
+        List<Notification> due = new ArrayList<>(bulk);
+        due.add(first);
+        due.add(second);
+        stubDue(due, List.of());
+
+        poller.pollNotifications();
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(dispatcher, times(4)).dispatch(captor.capture());
+
+        assertThat(captor.getAllValues()).extracting(Notification::getUserId)
+                .containsExactly(100L, 1L, 2L, 100L);
+    }
+
+    @Test
+    void shouldSkipNotificationsStillInFlight() {
+
+        List<Runnable> pending = new ArrayList<>();
+        useDeferredWorkers(pending);
+
+        Notification notification = ready(NotificationPriority.HIGH, 0);
+
+        stubDue(List.of(notification), List.of());
+
+        poller.pollNotifications();
+        poller.pollNotifications();
+
+        assertThat(pending).hasSize(1);
+        assertThat(meterRegistry.get("notification.dispatch.in.flight").gauge().value()).isEqualTo(1);
+
+        pending.forEach(Runnable::run);
+
+        verify(dispatcher, times(1)).dispatch(notification);
+        assertThat(meterRegistry.get("notification.dispatch.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldSendOneUsersNotificationsOnAChannelInOrder() {
+
+        List<Runnable> pending = new ArrayList<>();
+        useDeferredWorkers(pending);
+
+        Notification confirmed = ready(5L, NotificationPriority.MEDIUM, 2);
+        Notification shipped = ready(5L, NotificationPriority.MEDIUM, 1);
+        Notification other = ready(6L, NotificationPriority.MEDIUM, 1);
+
+        stubDue(List.of(confirmed, shipped, other), List.of());
+
+        poller.pollNotifications();
+
+        // One worker task per key; the second message waits behind the first
+        assertThat(pending).hasSize(2);
+
+        pending.forEach(Runnable::run);
+
+        InOrder inOrder = inOrder(dispatcher);
+        inOrder.verify(dispatcher).dispatch(confirmed);
+        inOrder.verify(dispatcher).dispatch(shipped);
+        verify(dispatcher).dispatch(other);
+    }
+
+    @Test
+    void shouldReturnEarlyWhenNoNotificationsFound() {
+
+        stubDue(List.of(), List.of());
 
         poller.pollNotifications();
 
         verify(dispatcher, never()).dispatch(any());
     }
+
+    @Test
+    void shouldTakeSendersBeyondTheOldestWindowInTurn() {
+
+        properties.setBatchSize(2);
+
+        // The oldest due rows all belong to one bulk sender
+        Notification bulk = ready(1L, NotificationPriority.MEDIUM, 30);
+        Notification small = ready(7L, NotificationPriority.MEDIUM, 1);
+        int weight = NotificationPriority.MEDIUM.getWeight();
+
+        when(repository.findReadySendersOldest(anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> (int) invocation.getArgument(0) == weight ? List.of(1L) : List.of());
+        when(repository.findReadySendersAfter(anyInt(), any(), anyLong(), anyInt())).thenReturn(List.of());
+        when(repository.findReadySendersAfter(eq(weight), any(), eq(0L), eq(2))).thenReturn(List.of(5L, 7L));
+        when(repository.findReadySendersAfter(eq(weight), any(), eq(7L), eq(2))).thenReturn(List.of(9L));
+        when(repository.findReadySendersAfter(eq(weight), any(), eq(0L), eq(1))).thenReturn(List.of(1L));
+        when(repository.findRetrySendersOldest(anyInt(), any(), anyInt())).thenReturn(List.of());
+        when(repository.findRetrySendersAfter(anyInt(), any(), anyLong(), anyInt())).thenReturn(List.of());
+        when(repository.findReadyForSenders(eq(weight), any(), anyCollection(), anyInt()))
+                .thenReturn(List.of(bulk, small));
+
+        poller.pollNotifications();
+        poller.pollNotifications();
+
+        verify(repository).findReadyForSenders(eq(weight), any(), eq(new LinkedHashSet<>(List.of(1L, 5L, 7L))), anyInt());
+        // The second poll continues after user 7 and wraps round to the lowest ids
+        verify(repository).findReadyForSenders(eq(weight), any(), eq(new LinkedHashSet<>(List.of(1L, 9L))), anyInt());
+        verify(dispatcher, times(2)).dispatch(small);
+    }
+
+    // Worker tasks are collected rather than run, to look at the poller mid-dispatch
+    private void useDeferredWorkers(List<Runnable> pending) {
+        meterRegistry = new SimpleMeterRegistry();
+        poller = new NotificationPoller(repository, dispatcher, properties,
+                new QueueWaitMetrics(meterRegistry), meterRegistry, pending::add);
+    }
+
+    private void stubDue(List<Notification> ready, List<Notification> retry) {
+
+        when(repository.findReadySendersOldest(anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> senders(withWeight(ready, invocation.getArgument(0))));
+        when(repository.findReadySendersAfter(anyInt(), any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        when(repository.findRetrySendersOldest(anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> senders(withWeight(retry, invocation.getArgument(0))));
+        when(repository.findRetrySendersAfter(anyInt(), any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        if (!ready.isEmpty()) {
+            when(repository.findReadyForSenders(anyInt(), any(), anyCollection(), anyInt()))
+                    .thenAnswer(invocation -> withWeight(ready, invocation.getArgument(0)));
+        }
+
+        if (!retry.isEmpty()) {
+            when(repository.findRetriesForSenders(anyInt(), any(), anyCollection(), anyInt()))
+                    .thenAnswer(invocation -> withWeight(retry, invocation.getArgument(0)));
+        }
+    }
+
+    private static List<Long> senders(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getUserId).distinct().toList();
+    }
+
+    private static List<Notification> withWeight(List<Notification> notifications, int weight) {
+        return notifications.stream()
+                .filter(notification -> notification.getPriorityWeight() == weight)
+                .toList();
+    }
+
+    private Notification ready(NotificationPriority priority, int minutesOverdue) {
+        return ready(nextUserId++, priority, minutesOverdue);
+    }
+
+    private static Notification ready(Long userId, NotificationPriority priority, int minutesOverdue) {
+
+        Notification notification = new Notification();
+        notification.setId(nextId++);
+        notification.setUserId(userId);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(NotificationStatus.CREATED);
+        notification.setPriority(priority);
+        notification.setPriorityWeight(priority.getWeight());
+        notification.setScheduledAt(LocalDateTime.now().minusMinutes(minutesOverdue));
+        return notification;
+    }
 }
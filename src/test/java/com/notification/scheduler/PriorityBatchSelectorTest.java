@@ -0,0 +1,79 @@
+package com.notification.scheduler;
+
+import com.notification.config.PollingProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.NotificationPriority;
+import com.notification.model.enums.NotificationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityBatchSelectorTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private PollingProperties properties;
+
+    private PriorityBatchSelector selector;
+
+    private long nextUserId = 1;
+
+    @BeforeEach
+    void setup() {
+        properties = new PollingProperties();
+        properties.setBatchSize(40);
+        properties.setAgingStep(Duration.ofMinutes(2));
+        properties.setReservedShare(Map.of(
+                NotificationPriority.HIGH, 0.5,
+                NotificationPriority.MEDIUM, 0.25,
+                NotificationPriority.LOW, 0.15));
+
+        selector = new PriorityBatchSelector(properties);
+    }
+
+    @Test
+    void shouldScaleReservationsToCapacityLeftByInFlightSends() {
+
+        // Capacity 3 is below HIGH's 20 reserved slots at the full batch size
+        List<Notification> batch = selector.select(Map.of(
+                NotificationPriority.HIGH, due(NotificationPriority.HIGH, 10, 0),
+                NotificationPriority.MEDIUM, due(NotificationPriority.MEDIUM, 10, 0),
+                NotificationPriority.LOW, due(NotificationPriority.LOW, 10, 0)), now, 3, Map.of());
+
+        assertThat(batch).extracting(Notification::getPriority).containsExactly(
+                NotificationPriority.HIGH, NotificationPriority.MEDIUM, NotificationPriority.LOW);
+    }
+
+    @Test
+    void shouldGiveSingleSlotToAgedLowPriorityFirst() {
+
+        List<Notification> batch = selector.select(Map.of(
+                NotificationPriority.HIGH, due(NotificationPriority.HIGH, 10, 0),
+                NotificationPriority.LOW, due(NotificationPriority.LOW, 1, 10)), now, 1, Map.of());
+
+        assertThat(batch).extracting(Notification::getPriority).containsExactly(NotificationPriority.LOW);
+    }
+
+    private List<Notification> due(NotificationPriority priority, int count, int minutesOverdue) {
+
+        List<Notification> due = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Notification notification = new Notification();
+            notification.setUserId(nextUserId++);
+            notification.setStatus(NotificationStatus.CREATED);
+            notification.setPriority(priority);
+            notification.setPriorityWeight(priority.getWeight());
+            notification.setScheduledAt(now.minusMinutes(minutesOverdue));
+            due.add(notification);
+        }
+        return due;
+    }
+}
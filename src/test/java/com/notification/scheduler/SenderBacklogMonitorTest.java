@@ -0,0 +1,76 @@
+package com.notification.scheduler;
+
+import com.notification.config.PollingProperties;
+import com.notification.repository.SenderBacklogRepository;
+import com.notification.repository.SenderBacklogRepository.SenderBacklog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SenderBacklogMonitorTest {
+
+    @Mock
+    private SenderBacklogRepository backlogRepository;
+
+    private PollingProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SenderBacklogMonitor monitor;
+
+    @BeforeEach
+    void setup() {
+        properties = new PollingProperties();
+        properties.getSenderBacklog().setTopSenders(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        monitor = new SenderBacklogMonitor(backlogRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldPublishOnlyTheCurrentLargestSenders() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        when(backlogRepository.findLargest(any(), eq(2)))
+                .thenReturn(List.of(
+                        new SenderBacklog(7L, 5_000, now.minusMinutes(10)),
+                        new SenderBacklog(8L, 20, now.minusMinutes(1))))
+                .thenReturn(List.of(new SenderBacklog(8L, 15, now)));
+
+        monitor.refresh();
+
+        assertThat(meterRegistry.get("notification.sender.backlog").tag("userId", "7").gauge().value())
+                .isEqualTo(5_000);
+
+        monitor.refresh();
+
+        assertThat(meterRegistry.find("notification.sender.backlog").tag("userId", "7").gauge()).isNull();
+        assertThat(meterRegistry.get("notification.sender.backlog").tag("userId", "8").gauge().value())
+                .isEqualTo(15);
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+
+        properties.getSenderBacklog().setTopSenders(0);
+
+        monitor.refresh();
+
+        verifyNoInteractions(backlogRepository);
+    }
+}
@@ -0,0 +1,108 @@
+package com.notification.scheduler;
+
+import com.notification.cache.NotificationStatusCache;
+import com.notification.config.PollingProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.StalledDispatchRepository;
+import com.notification.repository.StalledDispatchRepository.StalledNotification;
+import com.notification.stats.NotificationStatusCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StalledDispatchRecovererTest {
+
+    @Mock
+    private StalledDispatchRepository stalledRepository;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PollingProperties properties;
+
+    private StalledDispatchRecoverer recoverer;
+
+    @BeforeEach
+    void setup() {
+        properties = new PollingProperties();
+        properties.setBatchSize(2);
+
+        recoverer = new StalledDispatchRecoverer(stalledRepository, statusCache, statusCounters, eventPublisher,
+                properties, transactionTemplate);
+
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldReturnRowsClaimedBeforeTimeoutToRetryInBatches() {
+
+        when(stalledRepository.lockStalled(any(), eq(2)))
+                .thenReturn(List.of(row(1L), row(2L)), List.of(row(3L)));
+
+        LocalDateTime before = LocalDateTime.now();
+
+        recoverer.recoverStalled();
+
+        ArgumentCaptor<LocalDateTime> claimedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(stalledRepository, times(2)).lockStalled(claimedBefore.capture(), eq(2));
+        assertThat(claimedBefore.getValue()).isBeforeOrEqualTo(before.plusSeconds(1).minus(properties.getProcessingTimeout()));
+
+        verify(stalledRepository).markRetryable(List.of(1L, 2L));
+        verify(stalledRepository).markRetryable(List.of(3L));
+        verify(statusCache).invalidate(List.of(3L));
+        verify(statusCounters, times(3)).recordTransition(
+                7L, ChannelType.PUSH, null, NotificationStatus.PROCESSING, NotificationStatus.FAILED);
+
+        ArgumentCaptor<NotificationStatusChangedEvent> events =
+                ArgumentCaptor.forClass(NotificationStatusChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .extracting(NotificationStatusChangedEvent::status)
+                .containsOnly(NotificationStatus.FAILED);
+    }
+
+    @Test
+    void shouldStopWhenNothingIsStalled() {
+
+        when(stalledRepository.lockStalled(any(), eq(2))).thenReturn(List.of());
+
+        recoverer.recoverStalled();
+
+        verify(stalledRepository, never()).markRetryable(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private StalledNotification row(Long id) {
+        return new StalledNotification(id, 7L, ChannelType.PUSH, null, 0);
+    }
+}
@@ -0,0 +1,297 @@
+package com.notification.service;
+
+import com.notification.cache.UserExistenceFilter;
+import com.notification.config.ExpiryProperties;
+import com.notification.config.FanOutProperties;
+import com.notification.config.RetryProperties;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.IdempotencyKeyReusedException;
+import com.notification.model.dto.request.FanOutNotificationRequest;
+import com.notification.model.dto.response.FanOutNotificationResponse;
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.FanOutJobStatus;
+import com.notification.model.enums.NotificationPriority;
+import com.notification.repository.FanOutJobRepository;
+import com.notification.repository.FanOutJobRepository.FanOutJob;
+import com.notification.repository.NotificationBatchRepository;
+import com.notification.repository.UserChannelEndpointRepository;
+import com.notification.repository.UserPreferenceRepository;
+import com.notification.stats.NotificationStatusCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FanOutServiceImplTest {
+
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+
+    @Mock
+    private UserChannelEndpointRepository endpointRepository;
+
+    @Mock
+    private UserPreferenceRepository preferenceRepository;
+
+    @Mock
+    private NotificationBatchRepository notificationBatchRepository;
+
+    @Mock
+    private FanOutJobRepository fanOutJobRepository;
+
+    @Mock
+    private PayloadService payloadService;
+
+    @Mock
+    private RetryProperties retryProperties;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private CampaignService campaignService;
+
+    private FanOutServiceImpl fanOutService;
+
+    private FanOutNotificationRequest request;
+
+    @BeforeEach
+    void setup() {
+        FanOutProperties properties = new FanOutProperties();
+        properties.setChunkSize(2);
+        properties.setMaxReportedRejections(10);
+
+        fanOutService = new FanOutServiceImpl(
+                userExistenceFilter,
+                endpointRepository,
+                preferenceRepository,
+                notificationBatchRepository,
+                fanOutJobRepository,
+                payloadService,
+                retryProperties,
+                new ExpiryProperties(),
+                properties,
+                transactionTemplate,
+                statusCounters,
+                campaignService
+        );
+
+        request = new FanOutNotificationRequest();
+        request.setChannelType(ChannelType.EMAIL);
+        request.setPayload("Sale starts now");
+        request.setPriority(NotificationPriority.LOW);
+    }
+
+    @Test
+    void shouldExpandRecipientsInChunksSharingOnePayload() {
+        mockTransactions();
+        mockJob(job(FanOutJobStatus.RUNNING, 0, 0, 0));
+
+        request.setUserIds(List.of(1L, 2L, 3L));
+
+        when(payloadService.store("Sale starts now")).thenReturn(9L);
+        when(userExistenceFilter.findExisting(anyCollection()))
+                .thenAnswer(invocation -> Set.copyOf(invocation.<List<Long>>getArgument(0)));
+        when(endpointRepository.findUserIdsWithEndpoint(eq(ChannelType.EMAIL), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<Long>>getArgument(1)));
+        when(preferenceRepository.findUserIdsWithChannelDisabled(eq(ChannelType.EMAIL), anyCollection()))
+                .thenReturn(List.of());
+
+        FanOutNotificationResponse response = fanOutService.fanOut(request);
+
+        assertThat(response.getPayloadId()).isEqualTo(9L);
+        assertThat(response.getTotalRequested()).isEqualTo(3);
+        assertThat(response.getTotalAccepted()).isEqualTo(3);
+        assertThat(response.getTotalRejected()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationBatchRepository, times(2)).insertAll(captor.capture());
+
+        assertThat(captor.getAllValues().get(0)).hasSize(2);
+        assertThat(captor.getAllValues().get(1)).hasSize(1);
+        assertThat(captor.getAllValues().get(0))
+                .allMatch(notification -> notification.getPayloadId().equals(9L));
+    }
+
+    @Test
+    void shouldRejectInvalidRecipientsFromUploadedFile() {
+        mockTransactions();
+        mockJob(job(FanOutJobStatus.RUNNING, 0, 0, 0));
+
+        when(userExistenceFilter.findExisting(anyCollection())).thenReturn(Set.of(1L, 2L));
+        when(endpointRepository.findUserIdsWithEndpoint(eq(ChannelType.EMAIL), anyCollection()))
+                .thenReturn(List.of(1L));
+        when(preferenceRepository.findUserIdsWithChannelDisabled(eq(ChannelType.EMAIL), anyCollection()))
+                .thenReturn(List.of());
+
+        ByteArrayInputStream file = new ByteArrayInputStream(
+                "1,abc\n2\n".getBytes(StandardCharsets.UTF_8));
+
+        FanOutNotificationResponse response = fanOutService.fanOut(request, file);
+
+        assertThat(response.getTotalRequested()).isEqualTo(3);
+        assertThat(response.getTotalAccepted()).isEqualTo(1);
+        assertThat(response.getTotalRejected()).isEqualTo(2);
+        assertThat(response.getRejected())
+                .extracting("error")
+                .containsExactly("Invalid user id", "Channel endpoint not configured for user");
+    }
+
+    @Test
+    void shouldRejectRecipientRepeatedInALaterChunk() {
+        mockTransactions();
+        mockValidRecipients();
+        mockJob(job(FanOutJobStatus.RUNNING, 0, 0, 0));
+
+        request.setUserIds(List.of(1L, 2L, 1L));
+
+        when(notificationBatchRepository.findFanOutRecipients(eq(5L), anyCollection()))
+                .thenReturn(List.of(), List.of(1L));
+
+        FanOutNotificationResponse response = fanOutService.fanOut(request);
+
+        assertThat(response.getTotalAccepted()).isEqualTo(2);
+        assertThat(response.getTotalRejected()).isEqualTo(1);
+        assertThat(response.getRejected()).extracting("error").containsExactly("Duplicate user id");
+    }
+
+    @Test
+    void shouldResumeAfterChunksCommittedByAnEarlierAttempt() {
+        mockTransactions();
+        mockValidRecipients();
+        mockJob(job(FanOutJobStatus.RUNNING, 2, 2, 0));
+
+        request.setIdempotencyKey("launch-7");
+        request.setUserIds(List.of(1L, 2L, 3L));
+
+        FanOutNotificationResponse response = fanOutService.fanOut(request);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationBatchRepository).insertAll(captor.capture());
+
+        assertThat(captor.getValue()).extracting(Notification::getUserId).containsExactly(3L);
+        assertThat(captor.getValue()).allMatch(notification -> notification.getFanOutJobId().equals(5L));
+        assertThat(response.getTotalRequested()).isEqualTo(3);
+        assertThat(response.getTotalAccepted()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReplayCompletedJobWithoutExpandingAgain() {
+        mockTransactions();
+
+        request.setIdempotencyKey("launch-7");
+        request.setUserIds(List.of(1L, 2L, 3L));
+
+        when(fanOutJobRepository.start(eq("launch-7"), anyString(), anyInt()))
+                .thenAnswer(invocation -> new FanOutJob(5L, invocation.getArgument(1), 2,
+                        FanOutJobStatus.COMPLETED, 3, 2, 1));
+
+        FanOutNotificationResponse response = fanOutService.fanOut(request);
+
+        assertThat(response.getJobId()).isEqualTo(5L);
+        assertThat(response.getTotalAccepted()).isEqualTo(2);
+        assertThat(response.getTotalRejected()).isEqualTo(1);
+        assertThat(response.isRejectedTruncated()).isTrue();
+        verify(notificationBatchRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedForDifferentFanOut() {
+        mockTransactions();
+
+        request.setIdempotencyKey("launch-7");
+        request.setUserIds(List.of(1L));
+
+        when(fanOutJobRepository.start(eq("launch-7"), anyString(), anyInt()))
+                .thenReturn(new FanOutJob(5L, "other", 2, FanOutJobStatus.RUNNING, 0, 0, 0));
+
+        assertThatThrownBy(() -> fanOutService.fanOut(request))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+
+        verify(notificationBatchRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void shouldThrowIfNoRecipients() {
+
+        assertThatThrownBy(() -> fanOutService.fanOut(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("userIds cannot be empty");
+
+        verifyNoInteractions(payloadService, notificationBatchRepository);
+    }
+
+    // Keeps the job row in memory the way the chunk transactions update it
+    private void mockJob(FanOutJob initial) {
+
+        AtomicReference<FanOutJob> stored = new AtomicReference<>(initial);
+
+        when(fanOutJobRepository.start(any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            FanOutJob job = stored.get();
+            stored.set(new FanOutJob(job.id(), invocation.getArgument(1), job.chunkSize(), job.status(),
+                    job.recipientsRead(), job.totalAccepted(), job.totalRejected()));
+            return stored.get();
+        });
+        when(fanOutJobRepository.lockById(5L)).thenAnswer(invocation -> stored.get());
+        doAnswer(invocation -> {
+            FanOutJob job = stored.get();
+            stored.set(new FanOutJob(job.id(), job.requestFingerprint(), job.chunkSize(), job.status(),
+                    invocation.getArgument(1),
+                    job.totalAccepted() + invocation.<Long>getArgument(2),
+                    job.totalRejected() + invocation.<Long>getArgument(3)));
+            return null;
+        }).when(fanOutJobRepository).recordChunk(eq(5L), anyLong(), anyLong(), anyLong());
+    }
+
+    private static FanOutJob job(FanOutJobStatus status, long read, long accepted, long rejected) {
+        return new FanOutJob(5L, null, 2, status, read, accepted, rejected);
+    }
+
+    private void mockValidRecipients() {
+        when(userExistenceFilter.findExisting(anyCollection()))
+                .thenAnswer(invocation -> Set.copyOf(invocation.<List<Long>>getArgument(0)));
+        when(endpointRepository.findUserIdsWithEndpoint(eq(ChannelType.EMAIL), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<Long>>getArgument(1)));
+        when(preferenceRepository.findUserIdsWithChannelDisabled(eq(ChannelType.EMAIL), anyCollection()))
+                .thenReturn(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockTransactions() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation ->
+                        ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+}
@@ -1,21 +1,51 @@
 package com.notification.service;
 
+import com.notification.cache.NotificationStatusCache;
 import com.notification.channel.NotificationChannel;
 import com.notification.channel.NotificationChannelFactory;
+import com.notification.config.RetryProperties;
+import com.notification.dispatcher.DeliveryAttemptAppender;
 import com.notification.dispatcher.NotificationDispatcherServiceImpl;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.model.entity.Campaign;
 import com.notification.model.entity.Notification;
+import com.notification.model.enums.CampaignStatus;
 import com.notification.model.enums.ChannelType;
 import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.CampaignRepository;
 import com.notification.repository.NotificationRepository;
+import com.notification.service.PayloadService;
+import com.notification.stats.ExpiryMetrics;
+import com.notification.stats.NotificationStatusCounters;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
@@ -30,6 +60,33 @@ class NotificationDispatcherServiceImplTest {
     @Mock
     private NotificationChannel channel;
 
+    @Mock
+    private PayloadService payloadService;
+
+    @Mock
+    private RetryProperties retryProperties;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private DeliveryAttemptAppender attemptAppender;
+
+    @Mock
+    private ExpiryMetrics expiryMetrics;
+
+    @Mock
+    private CampaignRepository campaignRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private NotificationDispatcherServiceImpl dispatcher;
 
@@ -43,10 +100,60 @@ class NotificationDispatcherServiceImplTest {
 
         when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
 
-        dispatcher.dispatch(notification);
+        dispatchClaimed(notification);
 
         assertThat(notification.getStatus()).isEqualTo(NotificationStatus.SENT);
         verify(notificationRepository, atLeastOnce()).save(notification);
+
+        ArgumentCaptor<NotificationStatusChangedEvent> events =
+                ArgumentCaptor.forClass(NotificationStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+
+        assertThat(events.getAllValues())
+                .extracting(NotificationStatusChangedEvent::status)
+                .containsExactly(NotificationStatus.PROCESSING, NotificationStatus.SENT);
+
+        verify(statusCounters).recordTransition(notification, NotificationStatus.CREATED);
+        verify(statusCounters).recordTransition(notification, NotificationStatus.PROCESSING);
+        verify(attemptAppender).recordSuccess(eq(notification), any(), anyLong());
+    }
+
+    @Test
+    void shouldPublishProcessingInClaimTransactionBeforeSending() {
+
+        Notification notification = new Notification();
+        notification.setId(13L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(NotificationStatus.CREATED);
+
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
+
+        dispatchClaimed(notification);
+
+        InOrder inOrder = inOrder(transactionTemplate, eventPublisher, channel);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(eventPublisher).publishEvent(
+                argThat((NotificationStatusChangedEvent event) -> event.status() == NotificationStatus.PROCESSING));
+        inOrder.verify(channel).send(eq(notification), any());
+        inOrder.verify(transactionTemplate).executeWithoutResult(any());
+        inOrder.verify(eventPublisher).publishEvent(
+                argThat((NotificationStatusChangedEvent event) -> event.status() == NotificationStatus.SENT));
+    }
+
+    @Test
+    void shouldSendResolvedPayload() {
+
+        Notification notification = new Notification();
+        notification.setId(6L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setPayloadId(42L);
+
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
+        when(payloadService.resolve(notification)).thenReturn("shared body");
+
+        dispatchClaimed(notification);
+
+        verify(channel).send(notification, "shared body");
     }
 
     @Test
@@ -59,12 +166,50 @@ class NotificationDispatcherServiceImplTest {
         notification.setMaxRetries(3);
 
         when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
-        doThrow(new RuntimeException()).when(channel).send(notification);
+        doThrow(new RuntimeException()).when(channel).send(eq(notification), any());
 
-        dispatcher.dispatch(notification);
+        dispatchClaimed(notification);
 
         assertThat(notification.getStatus()).isEqualTo(NotificationStatus.FAILED);
         assertThat(notification.getRetryCount()).isEqualTo(1);
+        verify(attemptAppender).recordFailure(eq(notification), any(), anyLong(), any(RuntimeException.class));
+    }
+
+    @Test
+    void shouldExpireInsteadOfSendingPastDeadline() {
+
+        Notification notification = new Notification();
+        notification.setId(6L);
+        notification.setChannelType(ChannelType.SMS);
+        notification.setStatus(NotificationStatus.CREATED);
+        notification.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+
+        dispatchSettledAtClaim(notification);
+
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.EXPIRED);
+        verify(channelFactory, never()).getChannel(any());
+        verify(statusCounters).recordTransition(notification, NotificationStatus.CREATED);
+        verify(expiryMetrics).recordExpired(ChannelType.SMS, ExpiryMetrics.DISPATCH, 1);
+    }
+
+    @Test
+    void shouldExpireWhenRetryWouldMissDeadline() {
+
+        Notification notification = new Notification();
+        notification.setId(7L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(NotificationStatus.CREATED);
+        notification.setMaxRetries(3);
+        notification.setExpiresAt(LocalDateTime.now().plusSeconds(30));
+
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
+        doThrow(new RuntimeException()).when(channel).send(eq(notification), any());
+
+        dispatchClaimed(notification);
+
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.EXPIRED);
+        assertThat(notification.getNextRetryAt()).isNull();
+        verify(expiryMetrics).recordExpired(ChannelType.EMAIL, ExpiryMetrics.RETRY, 1);
     }
 
     @Test
@@ -78,9 +223,9 @@ class NotificationDispatcherServiceImplTest {
         notification.setMaxRetries(3);
 
         when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
-        doThrow(new RuntimeException()).when(channel).send(notification);
+        doThrow(new RuntimeException()).when(channel).send(eq(notification), any());
 
-        dispatcher.dispatch(notification);
+        dispatchClaimed(notification);
 
         assertThat(notification.getStatus()).isEqualTo(NotificationStatus.DEAD_LETTER);
     }
@@ -94,9 +239,9 @@ class NotificationDispatcherServiceImplTest {
         notification.setMaxRetries(5);
 
         when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
-        doThrow(new RuntimeException()).when(channel).send(notification);
+        doThrow(new RuntimeException()).when(channel).send(eq(notification), any());
 
-        dispatcher.dispatch(notification);
+        dispatchClaimed(notification);
 
         assertThat(notification.getNextRetryAt()).isNotNull();
     }
@@ -112,7 +257,7 @@ class NotificationDispatcherServiceImplTest {
 
         when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
 
-        dispatcher.dispatch(notification);
+        dispatchClaimed(notification);
 
         assertThat(notification.getStatus())
                 .isEqualTo(NotificationStatus.CREATED);
@@ -126,4 +271,182 @@ class NotificationDispatcherServiceImplTest {
         verify(notificationRepository, atLeastOnce())
                 .save(notification);
     }
+
+    @Test
+    void shouldScheduleFallbackChannelWhenDeadLettered() {
+
+        Notification notification = new Notification();
+        notification.setId(7L);
+        notification.setUserId(1L);
+        notification.setChannelType(ChannelType.PUSH);
+        notification.setFallbackChannels(List.of(ChannelType.SMS));
+        notification.setPayloadId(42L);
+        notification.setRetryCount(1);
+        notification.setMaxRetries(1);
+
+        when(channelFactory.getChannel(ChannelType.PUSH)).thenReturn(channel);
+        doThrow(new RuntimeException()).when(channel).send(eq(notification), any());
+        when(retryProperties.getMaxRetries(ChannelType.SMS)).thenReturn(2);
+        when(notificationRepository.save(any())).thenAnswer(invocation -> {
+            Notification saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(70L);
+            }
+            return saved;
+        });
+
+        dispatchClaimed(notification);
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository, times(3)).save(captor.capture());
+
+        Notification fallback = captor.getAllValues().stream()
+                .filter(saved -> saved != notification)
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.DEAD_LETTER);
+        assertThat(fallback.getChannelType()).isEqualTo(ChannelType.SMS);
+        assertThat(fallback.getStatus()).isEqualTo(NotificationStatus.CREATED);
+        assertThat(fallback.getPayloadId()).isEqualTo(42L);
+        assertThat(fallback.getMaxRetries()).isEqualTo(2);
+        assertThat(fallback.getFallbackChannels()).isEmpty();
+        assertThat(notification.getFallbackNotificationId()).isEqualTo(70L);
+    }
+
+    @Test
+    void shouldSkipRowChangedWhileQueued() {
+
+        Notification picked = new Notification();
+        picked.setId(8L);
+        picked.setChannelType(ChannelType.EMAIL);
+
+        Notification stored = new Notification();
+        stored.setId(8L);
+        stored.setChannelType(ChannelType.EMAIL);
+        stored.setStatus(NotificationStatus.EXPIRED);
+
+        claimInTransaction();
+        when(notificationRepository.lockById(8L)).thenReturn(Optional.of(stored));
+
+        dispatcher.dispatch(picked);
+
+        verify(channelFactory, never()).getChannel(any());
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(statusCounters, eventPublisher);
+    }
+
+    @Test
+    void shouldSkipRowLockedByAnotherNode() {
+
+        Notification picked = new Notification();
+        picked.setId(9L);
+
+        claimInTransaction();
+        when(notificationRepository.lockById(9L)).thenReturn(Optional.empty());
+
+        dispatcher.dispatch(picked);
+
+        verify(channelFactory, never()).getChannel(any());
+        verifyNoInteractions(statusCounters);
+    }
+
+    @Test
+    void shouldPauseRetryOfPausedCampaignInsteadOfSending() {
+
+        LocalDateTime retryAt = LocalDateTime.now().minusSeconds(5);
+
+        Notification notification = new Notification();
+        notification.setId(10L);
+        notification.setCampaignId(4L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(NotificationStatus.FAILED);
+        notification.setNextRetryAt(retryAt);
+
+        when(campaignRepository.lockSharedById(4L)).thenReturn(Optional.of(campaign(CampaignStatus.PAUSED)));
+
+        dispatchSettledAtClaim(notification);
+
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.PAUSED);
+        assertThat(notification.getScheduledAt()).isEqualTo(retryAt);
+        assertThat(notification.getNextRetryAt()).isNull();
+        verify(channelFactory, never()).getChannel(any());
+        verify(statusCounters).recordTransition(notification, NotificationStatus.FAILED);
+    }
+
+    @Test
+    void shouldCancelNotificationOfCancelledCampaign() {
+
+        Notification notification = new Notification();
+        notification.setId(11L);
+        notification.setCampaignId(4L);
+        notification.setChannelType(ChannelType.EMAIL);
+
+        when(campaignRepository.lockSharedById(4L)).thenReturn(Optional.of(campaign(CampaignStatus.CANCELLED)));
+
+        dispatchSettledAtClaim(notification);
+
+        assertThat(notification.getStatus()).isEqualTo(NotificationStatus.CANCELLED);
+        verify(channelFactory, never()).getChannel(any());
+    }
+
+    private static Campaign campaign(CampaignStatus status) {
+        Campaign campaign = new Campaign();
+        campaign.setId(4L);
+        campaign.setStatus(status);
+        return campaign;
+    }
+
+    @Test
+    void shouldNotRecordOutcomeOfSendRecoveredMeanwhile() {
+
+        Notification notification = new Notification();
+        notification.setId(12L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(NotificationStatus.CREATED);
+
+        Notification recovered = new Notification();
+        recovered.setId(12L);
+        recovered.setChannelType(ChannelType.EMAIL);
+        recovered.setStatus(NotificationStatus.FAILED);
+
+        claimInTransaction();
+        settleInTransaction();
+        when(notificationRepository.lockById(12L))
+                .thenReturn(Optional.of(notification), Optional.of(recovered));
+        when(channelFactory.getChannel(ChannelType.EMAIL)).thenReturn(channel);
+
+        dispatcher.dispatch(notification);
+
+        assertThat(recovered.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        verify(notificationRepository, never()).save(recovered);
+        verify(statusCounters, never()).recordTransition(any(Notification.class), eq(NotificationStatus.PROCESSING));
+    }
+
+    // The locked reload returns the stored row; here the test's instance stands in for it
+    private void dispatchClaimed(Notification notification) {
+        claimInTransaction();
+        settleInTransaction();
+        when(notificationRepository.lockById(notification.getId())).thenReturn(Optional.of(notification));
+        dispatcher.dispatch(notification);
+    }
+
+    // Expired and held rows are settled by the claim, so nothing is sent or recorded after it
+    private void dispatchSettledAtClaim(Notification notification) {
+        claimInTransaction();
+        when(notificationRepository.lockById(notification.getId())).thenReturn(Optional.of(notification));
+        dispatcher.dispatch(notification);
+    }
+
+    private void claimInTransaction() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private void settleInTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
 }
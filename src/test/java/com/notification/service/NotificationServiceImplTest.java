@@ -1,39 +1,60 @@
 package com.notification.service;
 
+import com.notification.cache.IdempotencyCache;
+import com.notification.cache.NotificationStatusCache;
+import com.notification.cache.RoutingProfileCache;
+import com.notification.cache.UserExistenceFilter;
+import com.notification.config.ExpiryProperties;
 import com.notification.config.RetryProperties;
 import com.notification.exception.BadRequestException;
+import com.notification.exception.IdempotencyConflictException;
+import com.notification.exception.IdempotencyKeyReusedException;
 import com.notification.exception.ResourceNotFoundException;
+import com.notification.model.dto.request.BatchStatusRequest;
 import com.notification.model.dto.request.CreateNotificationRequest;
+import com.notification.model.dto.request.MultiChannelNotificationRequest;
 import com.notification.model.dto.response.NotificationResponse;
 import com.notification.model.entity.Notification;
-import com.notification.model.entity.User;
-import com.notification.model.entity.UserChannelEndpoint;
+import com.notification.model.enums.AttemptOutcome;
 import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.DeliveryMode;
 import com.notification.model.enums.NotificationPriority;
 import com.notification.model.enums.NotificationStatus;
+import com.notification.model.projection.IdempotentRequest;
+import com.notification.model.projection.NotificationStatusSnapshot;
+import com.notification.model.projection.NotificationSummary;
+import com.notification.model.routing.RoutingProfile;
+import com.notification.repository.DeliveryAttemptRepository;
+import com.notification.repository.DeliveryAttemptRepository.DeliveryAttempt;
+import com.notification.repository.NotificationHistoryRepository;
 import com.notification.repository.NotificationRepository;
-import com.notification.repository.UserChannelEndpointRepository;
-import com.notification.repository.UserRepository;
+import com.notification.repository.StatusCountRepository.StatusCount;
+import com.notification.stats.NotificationStatusCounters;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,18 +63,45 @@ class NotificationServiceImplTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private NotificationHistoryRepository historyRepository;
+
+    @Mock
+    private DeliveryAttemptRepository attemptRepository;
+
     @Mock
     private UserPreferenceService userPreferenceService;
 
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceFilter userExistenceFilter;
 
     @Mock
-    private UserChannelEndpointRepository endpointRepository;
+    private RoutingProfileCache routingProfileCache;
 
     @Mock
     private RetryProperties retryProperties;
 
+    @Spy
+    private ExpiryProperties expiryProperties = new ExpiryProperties();
+
+    @Mock
+    private IdempotencyCache idempotencyCache;
+
+    @Mock
+    private PayloadService payloadService;
+
+    @Mock
+    private TemplateService templateService;
+
+    @Mock
+    private NotificationStatusCache statusCache;
+
+    @Mock
+    private NotificationStatusCounters statusCounters;
+
+    @Mock
+    private CampaignService campaignService;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -88,6 +136,62 @@ class NotificationServiceImplTest {
                 .validateChannelEnabled(1L, ChannelType.EMAIL);
 
         verify(notificationRepository).save(any(Notification.class));
+        verify(statusCache).put(saved);
+    }
+
+    @Test
+    void shouldCreateNotificationPausedWhenCampaignIsPaused() {
+        mockValidUserAndEndpoint();
+        request.setCampaignId(4L);
+
+        when(campaignService.initialStatus(4L)).thenReturn(NotificationStatus.PAUSED);
+        when(notificationRepository.save(any(Notification.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = notificationService.createNotification(request);
+
+        assertThat(response.getStatus()).isEqualTo(NotificationStatus.PAUSED);
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository).save(captor.capture());
+        assertThat(captor.getValue().getCampaignId()).isEqualTo(4L);
+    }
+
+    @Test
+    void shouldDefaultExpiryFromPriorityAndPreferExplicitTtl() {
+        mockValidUserAndEndpoint();
+        expiryProperties.getDefaultTtl().put(NotificationPriority.HIGH, Duration.ofHours(1));
+
+        when(notificationRepository.save(any(Notification.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        request.setPriority(NotificationPriority.HIGH);
+        notificationService.createNotification(request);
+
+        request.setTtlSeconds(60L);
+        notificationService.createNotification(request);
+
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository, times(2)).save(captor.capture());
+
+        Notification defaulted = captor.getAllValues().get(0);
+        Notification explicit = captor.getAllValues().get(1);
+
+        assertThat(defaulted.getExpiresAt()).isEqualTo(defaulted.getScheduledAt().plusHours(1));
+        assertThat(explicit.getExpiresAt()).isEqualTo(explicit.getScheduledAt().plusSeconds(60));
+    }
+
+    @Test
+    void shouldRejectBothExpiresAtAndTtl() {
+        mockValidUserAndEndpoint();
+        request.setExpiresAt(LocalDateTime.now().plusHours(1));
+        request.setTtlSeconds(60L);
+
+        assertThatThrownBy(() -> notificationService.createNotification(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Provide either expiresAt or ttlSeconds, not both");
+
+        verify(notificationRepository, never()).save(any());
     }
 
     @Test
@@ -229,72 +333,108 @@ class NotificationServiceImplTest {
     @Test
     void shouldThrowIfNotificationNotFound() {
 
-        when(notificationRepository.findById(1L))
+        when(notificationRepository.findSummaryById(1L))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
-                notificationService.getNotificationById(1L))
+                notificationService.getNotificationById(1L, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("Notification not found");
     }
 
     @Test
     void shouldGetNotificationsByUserWithStatusFilter() {
-        Notification notification = new Notification();
-        notification.setId(1L);
-        notification.setStatus(NotificationStatus.SENT);
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(true);
 
-        Page<Notification> page =
-                new PageImpl<>(List.of(notification));
-
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(new User()));
-
-        when(notificationRepository.findByUserIdAndStatus(
+        when(notificationRepository.findSummariesByUserIdAndStatus(
                 eq(1L),
                 eq(NotificationStatus.SENT),
                 any()))
-                .thenReturn(page);
+                .thenReturn(List.of(summary(1L, LocalDateTime.now())));
 
         var result = notificationService.getNotificationsByUser(
                 1L,
                 NotificationStatus.SENT,
-                PageRequest.of(0, 10)
+                PageRequest.of(0, 10),
+                null
         );
 
         assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verifyNoInteractions(statusCounters);
     }
 
     @Test
-    void shouldGetNotificationsByUserWithoutStatusFilter() {
+    void shouldTakePageTotalFromStatusCounters() {
+
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(true);
+
+        when(notificationRepository.findSummariesByUserId(eq(1L), any()))
+                .thenReturn(List.of(summary(2L, LocalDateTime.now()), summary(1L, LocalDateTime.now())));
 
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(new User()));
+        when(statusCounters.count(1L, null))
+                .thenReturn(5L);
 
-        Notification notification = new Notification();
-        notification.setId(1L);
-        notification.setStatus(NotificationStatus.SENT);
+        var result = notificationService.getNotificationsByUser(
+                1L,
+                null,
+                PageRequest.of(0, 2),
+                null
+        );
 
-        Page<Notification> page =
-                new PageImpl<>(List.of(notification));
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+        assertThat(result.isLast()).isFalse();
+    }
 
-        when(notificationRepository.findByUserId(eq(1L), any()))
-                .thenReturn(page);
+    @Test
+    void shouldGetNotificationsByUserWithoutStatusFilter() {
+
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(true);
+
+        when(notificationRepository.findSummariesByUserId(eq(1L), any()))
+                .thenReturn(List.of(summary(1L, LocalDateTime.now())));
 
         var result = notificationService.getNotificationsByUser(
                 1L,
                 null,
-                PageRequest.of(0, 10)
+                PageRequest.of(0, 10),
+                Set.of("channelType")
         );
 
         assertThat(result.getContent()).hasSize(1);
-        verify(notificationRepository).findByUserId(eq(1L), any());
+        assertThat(result.getContent().get(0).getChannelType()).isEqualTo(ChannelType.EMAIL);
+        assertThat(result.getContent().get(0).getUserId()).isNull();
+        verify(notificationRepository).findSummariesByUserId(eq(1L), any());
+    }
+
+    @Test
+    void shouldSummarizeCountsByStatusAndChannel() {
+
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(true);
+
+        when(statusCounters.findByUserId(1L))
+                .thenReturn(List.of(
+                        new StatusCount(1L, ChannelType.EMAIL, NotificationStatus.FAILED, 2),
+                        new StatusCount(1L, ChannelType.SMS, NotificationStatus.FAILED, 1),
+                        new StatusCount(1L, ChannelType.SMS, NotificationStatus.SENT, 4)));
+
+        var counts = notificationService.getNotificationCounts(1L);
+
+        assertThat(counts.getTotal()).isEqualTo(7);
+        assertThat(counts.getByStatus()).containsEntry(NotificationStatus.FAILED, 3L);
+        assertThat(counts.getByChannel().get(ChannelType.SMS)).containsEntry(NotificationStatus.SENT, 4L);
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
     void shouldThrowIfUserNotFoundInValidation() {
 
-        when(userRepository.findById(1L))
+        when(routingProfileCache.get(1L))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
@@ -305,11 +445,8 @@ class NotificationServiceImplTest {
 
     @Test
     void shouldThrowIfEndpointNotConfigured() {
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(new User()));
-
-        when(endpointRepository.findByUserIdAndChannelType(any(), any()))
-                .thenReturn(Optional.empty());
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(profileWithEndpoints()));
 
         assertThatThrownBy(() ->
                 notificationService.createNotification(request))
@@ -320,18 +457,72 @@ class NotificationServiceImplTest {
     @Test
     void shouldReturnNotificationById() {
 
-        Notification notification = new Notification();
-        notification.setId(1L);
-        notification.setStatus(NotificationStatus.SENT);
-
-        when(notificationRepository.findById(1L))
-                .thenReturn(Optional.of(notification));
+        when(notificationRepository.findSummaryById(1L))
+                .thenReturn(Optional.of(summary(1L, LocalDateTime.now())));
 
         NotificationResponse response =
-                notificationService.getNotificationById(1L);
+                notificationService.getNotificationById(1L, null);
 
         assertThat(response.getNotificationId()).isEqualTo(1L);
         assertThat(response.getStatus()).isEqualTo(NotificationStatus.SENT);
+
+        verify(statusCache).put(any(NotificationSummary.class));
+    }
+
+    @Test
+    void shouldFallBackToHistoryForArchivedNotification() {
+
+        when(historyRepository.findSummaryById(1L))
+                .thenReturn(Optional.of(summary(1L, LocalDateTime.now())));
+
+        NotificationResponse response =
+                notificationService.getNotificationById(1L, null);
+
+        assertThat(response.getStatus()).isEqualTo(NotificationStatus.SENT);
+    }
+
+    @Test
+    void shouldListDeliveryAttemptsForArchivedNotification() {
+
+        ReflectionTestUtils.setField(notificationService, "maxAttemptsPerQuery", 10);
+
+        LocalDateTime startedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        when(notificationRepository.existsById(1L)).thenReturn(false);
+        when(historyRepository.existsById(1L)).thenReturn(true);
+        when(attemptRepository.findByNotificationId(1L, 10))
+                .thenReturn(List.of(new DeliveryAttempt(1L, 1, ChannelType.SMS, AttemptOutcome.FAILURE,
+                        startedAt, startedAt.plusSeconds(2), 2000, "java.net.SocketTimeoutException", "timeout")));
+
+        var attempts = notificationService.getDeliveryAttempts(1L);
+
+        assertThat(attempts).hasSize(1);
+        assertThat(attempts.get(0).getOutcome()).isEqualTo(AttemptOutcome.FAILURE);
+        assertThat(attempts.get(0).getErrorClass()).isEqualTo("java.net.SocketTimeoutException");
+    }
+
+    @Test
+    void shouldThrowIfAttemptsRequestedForUnknownNotification() {
+
+        assertThatThrownBy(() -> notificationService.getDeliveryAttempts(1L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Notification not found");
+
+        verifyNoInteractions(attemptRepository);
+    }
+
+    @Test
+    void shouldServeNotificationByIdFromStatusCache() {
+
+        when(statusCache.get(1L))
+                .thenReturn(Optional.of(summary(1L, LocalDateTime.now())));
+
+        NotificationResponse response =
+                notificationService.getNotificationById(1L, null);
+
+        assertThat(response.getStatus()).isEqualTo(NotificationStatus.SENT);
+
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
@@ -342,11 +533,8 @@ class NotificationServiceImplTest {
         CreateNotificationRequest r1 = buildRequest(1L);
         CreateNotificationRequest r2 = buildRequest(2L);
 
-        when(userRepository.findById(any()))
-                .thenReturn(Optional.of(new User()));
-
-        when(endpointRepository.findByUserIdAndChannelType(any(), any()))
-                .thenReturn(Optional.of(new UserChannelEndpoint()));
+        when(routingProfileCache.get(any()))
+                .thenReturn(Optional.of(profileWithEndpoints(ChannelType.EMAIL)));
 
         doThrow(new IllegalStateException("Channel disabled"))
                 .when(userPreferenceService)
@@ -361,22 +549,235 @@ class NotificationServiceImplTest {
         verify(notificationRepository, never()).saveAll(any());
     }
 
+    @Test
+    void shouldReturnCursorForNextPageWithoutCounting() {
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        when(userExistenceFilter.exists(1L)).thenReturn(true);
+        when(notificationRepository.findUserPageBefore(eq(1L), any(), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(
+                        summary(9L, createdAt),
+                        summary(8L, createdAt),
+                        summary(7L, createdAt.minusMinutes(1))));
+
+        var firstPage = notificationService.getNotificationsByUserCursor(1L, null, null, 2, false, null);
+
+        assertThat(firstPage.getContent()).extracting("notificationId").containsExactly(9L, 8L);
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(firstPage.getTotalElements()).isNull();
+        verifyNoInteractions(statusCounters);
+
+        when(notificationRepository.findUserPageBefore(1L, createdAt, 8L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(summary(7L, createdAt.minusMinutes(1))));
+
+        var secondPage = notificationService.getNotificationsByUserCursor(
+                1L, null, firstPage.getNextCursor(), 2, false, null);
+
+        assertThat(secondPage.getContent()).extracting("notificationId").containsExactly(7L);
+        assertThat(secondPage.isHasMore()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldCountOnlyWhenTotalRequested() {
+
+        when(userExistenceFilter.exists(1L)).thenReturn(true);
+        when(notificationRepository.findUserPageBeforeWithStatus(
+                eq(1L), eq(NotificationStatus.SENT), any(), any(), any()))
+                .thenReturn(List.of());
+        when(statusCounters.count(1L, NotificationStatus.SENT))
+                .thenReturn(42L);
+
+        var page = notificationService.getNotificationsByUserCursor(
+                1L, NotificationStatus.SENT, null, 20, true, null);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldReturnStatusesAndMissingIds() {
+
+        ReflectionTestUtils.setField(notificationService, "maxStatusBatchSize", 10);
+
+        BatchStatusRequest statusRequest = new BatchStatusRequest();
+        statusRequest.setIds(List.of(1L, 2L, 1L));
+
+        when(notificationRepository.findStatusesByIdIn(Set.of(1L, 2L)))
+                .thenReturn(List.of(new NotificationStatusSnapshot(
+                        1L, NotificationStatus.SENT, 0, LocalDateTime.now())));
+
+        var response = notificationService.getNotificationStatuses(statusRequest);
+
+        assertThat(response.getNotifications()).extracting("status")
+                .containsExactly(NotificationStatus.SENT);
+        assertThat(response.getNotFound()).containsExactly(2L);
+        verify(historyRepository).findStatusesByIdIn(List.of(2L));
+    }
+
+    @Test
+    void shouldFindArchivedStatusesInHistory() {
+
+        ReflectionTestUtils.setField(notificationService, "maxStatusBatchSize", 10);
+
+        BatchStatusRequest statusRequest = new BatchStatusRequest();
+        statusRequest.setIds(List.of(1L));
+
+        when(historyRepository.findStatusesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new NotificationStatusSnapshot(
+                        1L, NotificationStatus.DEAD_LETTER, 3, LocalDateTime.now())));
+
+        var response = notificationService.getNotificationStatuses(statusRequest);
+
+        assertThat(response.getNotifications()).extracting("status")
+                .containsExactly(NotificationStatus.DEAD_LETTER);
+        assertThat(response.getNotFound()).isEmpty();
+    }
+
+    @Test
+    void shouldMergeLiveAndArchivedRowsIntoOneCursorPage() {
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        when(userExistenceFilter.exists(1L)).thenReturn(true);
+        when(notificationRepository.findUserPageBefore(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(summary(5L, createdAt), summary(2L, createdAt.minusMinutes(3))));
+        when(historyRepository.findUserPageBefore(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(summary(4L, createdAt.minusMinutes(1)), summary(3L, createdAt.minusMinutes(2))));
+
+        var page = notificationService.getNotificationsByUserCursor(1L, null, null, 3, false, null);
+
+        assertThat(page.getContent()).extracting("notificationId").containsExactly(5L, 4L, 3L);
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    @Test
+    void shouldRejectOversizedCursorPage() {
+
+        assertThatThrownBy(() ->
+                notificationService.getNotificationsByUserCursor(1L, null, null, Integer.MAX_VALUE, false, null))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(notificationRepository, historyRepository);
+    }
+
+    @Test
+    void shouldSkipHistoryForLiveStatusFilter() {
+
+        when(userExistenceFilter.exists(1L)).thenReturn(true);
+        when(notificationRepository.findSummariesByUserIdAndStatus(eq(1L), eq(NotificationStatus.FAILED), any()))
+                .thenReturn(List.of());
+
+        notificationService.getNotificationsByUser(1L, NotificationStatus.FAILED, PageRequest.of(0, 10), null);
+
+        verifyNoInteractions(historyRepository);
+    }
+
+    @Test
+    void shouldReturnOnlyChangedStatusesSinceCursor() {
+
+        ReflectionTestUtils.setField(notificationService, "maxStatusBatchSize", 10);
+
+        LocalDateTime since = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        BatchStatusRequest statusRequest = new BatchStatusRequest();
+        statusRequest.setIds(List.of(1L, 2L));
+        statusRequest.setChangedSince(since);
+
+        when(notificationRepository.findStatusesByIdInChangedSince(Set.of(1L, 2L), since))
+                .thenReturn(List.of());
+
+        var response = notificationService.getNotificationStatuses(statusRequest);
+
+        assertThat(response.getNotifications()).isEmpty();
+        assertThat(response.getNotFound()).isNull();
+        assertThat(response.getAsOf()).isBefore(LocalDateTime.now().minusSeconds(4));
+    }
+
+    @Test
+    void shouldRejectOversizedStatusBatch() {
+
+        ReflectionTestUtils.setField(notificationService, "maxStatusBatchSize", 1);
+
+        BatchStatusRequest statusRequest = new BatchStatusRequest();
+        statusRequest.setIds(List.of(1L, 2L));
+
+        assertThatThrownBy(() ->
+                notificationService.getNotificationStatuses(statusRequest))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void shouldRejectUnknownField() {
+
+        assertThatThrownBy(() ->
+                notificationService.getNotificationById(1L, Set.of("payload")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Unknown field: payload");
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+
+        assertThatThrownBy(() ->
+                notificationService.getNotificationsByUserCursor(1L, null, "not-a-cursor", 20, false, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor");
+
+        verifyNoInteractions(notificationRepository);
+    }
+
     @Test
     void shouldThrowIfUserNotFoundWhenFetchingNotifications() {
 
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(false);
 
         assertThatThrownBy(() ->
                 notificationService.getNotificationsByUser(
                         1L,
                         null,
-                        PageRequest.of(0, 10)
+                        PageRequest.of(0, 10),
+                        null
                 ))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("User not found");
     }
 
+    @Test
+    void shouldRejectOffsetPagesBeyondMaxOffset() {
+
+        assertThatThrownBy(() ->
+                notificationService.getNotificationsByUser(
+                        1L,
+                        null,
+                        PageRequest.of(Integer.MAX_VALUE, 100),
+                        null
+                ))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("/cursor");
+
+        verifyNoInteractions(notificationRepository, historyRepository);
+    }
+
+    @Test
+    void shouldRejectOversizedOffsetPage() {
+
+        assertThatThrownBy(() ->
+                notificationService.getNotificationsByUser(
+                        1L,
+                        null,
+                        PageRequest.of(0, 101),
+                        null
+                ))
+                .isInstanceOf(BadRequestException.class);
+    }
+
     @Test
     void shouldResetScheduledAtIfInPast() {
 
@@ -437,6 +838,243 @@ class NotificationServiceImplTest {
                 .hasMessage("Bulk request cannot be empty");
     }
 
+    @Test
+    void shouldReplayCachedRequestWithLatestStatus() {
+
+        request.setIdempotencyKey("order-42");
+
+        when(idempotencyCache.get(1L, "order-42")).thenReturn(Optional.of(
+                new IdempotentRequest(7L, RequestFingerprint.of(request), NotificationStatus.CREATED)));
+        when(statusCache.get(7L)).thenReturn(Optional.of(summary(7L, LocalDateTime.now())));
+
+        NotificationResponse response = notificationService.createNotification(request);
+
+        assertThat(response.getNotificationId()).isEqualTo(7L);
+        assertThat(response.getStatus()).isEqualTo(NotificationStatus.SENT);
+        verifyNoInteractions(notificationRepository, routingProfileCache, userPreferenceService);
+    }
+
+    @Test
+    void shouldReplayStoredStatusFromDatabaseWhenIdempotencyKeyNotCached() {
+
+        request.setIdempotencyKey("order-42");
+
+        IdempotentRequest stored = new IdempotentRequest(7L, RequestFingerprint.of(request), NotificationStatus.PAUSED);
+
+        when(idempotencyCache.get(1L, "order-42")).thenReturn(Optional.empty());
+        when(notificationRepository.findIdempotentRequest(1L, "order-42")).thenReturn(Optional.of(stored));
+
+        NotificationResponse response = notificationService.createNotification(request);
+
+        assertThat(response.getNotificationId()).isEqualTo(7L);
+        assertThat(response.getStatus()).isEqualTo(NotificationStatus.PAUSED);
+        verify(idempotencyCache).put(1L, "order-42", stored);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedWithDifferentRequest() {
+
+        request.setIdempotencyKey("order-42");
+
+        when(idempotencyCache.get(1L, "order-42")).thenReturn(Optional.of(
+                new IdempotentRequest(7L, "another-fingerprint", NotificationStatus.CREATED)));
+
+        assertThatThrownBy(() -> notificationService.createNotification(request))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldStoreIdempotencyKeyForNewNotification() {
+        mockValidUserAndEndpoint();
+
+        request.setIdempotencyKey("order-42");
+
+        when(idempotencyCache.get(1L, "order-42"))
+                .thenReturn(Optional.empty());
+        when(notificationRepository.findIdempotentRequest(1L, "order-42"))
+                .thenReturn(Optional.empty());
+        when(historyRepository.findIdempotentRequest(1L, "order-42"))
+                .thenReturn(Optional.empty());
+
+        String fingerprint = RequestFingerprint.of(request);
+
+        Notification saved = new Notification();
+        saved.setId(11L);
+        saved.setUserId(1L);
+        saved.setIdempotencyKey("order-42");
+        saved.setRequestFingerprint(fingerprint);
+        saved.setStatus(NotificationStatus.CREATED);
+
+        when(notificationRepository.save(any())).thenReturn(saved);
+
+        notificationService.createNotification(request);
+
+        verify(notificationRepository).save(argThat(notification ->
+                "order-42".equals(notification.getIdempotencyKey())
+                        && fingerprint.equals(notification.getRequestFingerprint())
+        ));
+        verify(idempotencyCache).put(1L, "order-42",
+                new IdempotentRequest(11L, fingerprint, NotificationStatus.CREATED));
+    }
+
+    @Test
+    void shouldReportConcurrentInsertWithSameIdempotencyKeyAsConflict() {
+        mockValidUserAndEndpoint();
+
+        request.setIdempotencyKey("order-42");
+
+        when(idempotencyCache.get(1L, "order-42")).thenReturn(Optional.empty());
+        when(notificationRepository.findIdempotentRequest(1L, "order-42")).thenReturn(Optional.empty());
+        when(historyRepository.findIdempotentRequest(1L, "order-42")).thenReturn(Optional.empty());
+        when(notificationRepository.save(any())).thenThrow(new DataIntegrityViolationException(
+                "Duplicate entry '1-order-42' for key '" + NotificationRepository.IDEMPOTENCY_KEY_CONSTRAINT + "'"));
+
+        assertThatThrownBy(() -> notificationService.createNotification(request))
+                .isInstanceOf(IdempotencyConflictException.class);
+    }
+
+    @Test
+    void shouldRejectDuplicateIdempotencyKeysWithinBulk() {
+        mockValidUserAndEndpoint();
+
+        ReflectionTestUtils.setField(notificationService, "maxBulkSize", 10);
+
+        CreateNotificationRequest r1 = buildRequest(1L);
+        r1.setIdempotencyKey("dup");
+        CreateNotificationRequest r2 = buildRequest(2L);
+        r2.setIdempotencyKey("dup");
+
+        r2.setUserId(1L);
+
+        when(idempotencyCache.get(1L, "dup")).thenReturn(Optional.empty());
+        when(notificationRepository.findIdempotentRequest(1L, "dup")).thenReturn(Optional.empty());
+        when(historyRepository.findIdempotentRequest(1L, "dup")).thenReturn(Optional.empty());
+
+        Notification saved = new Notification();
+        saved.setId(300L);
+        saved.setUserId(1L);
+        saved.setChannelType(ChannelType.EMAIL);
+
+        when(notificationRepository.saveAll(argThat((List<Notification> list) -> list.size() == 1)))
+                .thenReturn(List.of(saved));
+
+        var response = notificationService.createBulkNotifications(List.of(r1, r2));
+
+        assertThat(response.getTotalAccepted()).isEqualTo(1);
+        assertThat(response.getTotalRejected()).isEqualTo(1);
+        assertThat(response.getRejected().get(0).getError())
+                .isEqualTo("Duplicate idempotency key in bulk request");
+    }
+
+    @Test
+    void shouldCreateOneRowPerEnabledChannelSharingPayload() {
+
+        MultiChannelNotificationRequest multi = buildMultiChannelRequest(DeliveryMode.ALL_ENABLED);
+
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(profileWithEndpoints(ChannelType.SMS, ChannelType.EMAIL)));
+        when(payloadService.store("Test")).thenReturn(5L);
+        when(notificationRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = notificationService.createMultiChannelNotification(multi);
+
+        assertThat(response.getPayloadId()).isEqualTo(5L);
+        assertThat(response.getNotifications())
+                .extracting("channelType")
+                .containsExactly(ChannelType.EMAIL, ChannelType.SMS);
+
+        verify(notificationRepository).saveAll(argThat((List<Notification> list) ->
+                list.size() == 2 && list.stream().allMatch(n ->
+                        n.getPayloadId().equals(5L))));
+    }
+
+    @Test
+    void shouldCreatePushWithSmsFallback() {
+
+        MultiChannelNotificationRequest multi = buildMultiChannelRequest(DeliveryMode.FALLBACK);
+
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(profileWithEndpoints(ChannelType.EMAIL, ChannelType.PUSH, ChannelType.SMS)));
+        when(payloadService.store("Test")).thenReturn(5L);
+        when(notificationRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = notificationService.createMultiChannelNotification(multi);
+
+        assertThat(response.getNotifications())
+                .extracting("channelType")
+                .containsExactly(ChannelType.PUSH);
+        assertThat(response.getFallbackChannels()).containsExactly(ChannelType.SMS);
+
+        verify(notificationRepository).saveAll(argThat((List<Notification> list) ->
+                list.size() == 1 && list.get(0).getFallbackChannels().equals(List.of(ChannelType.SMS))));
+    }
+
+    @Test
+    void shouldThrowIfNoChannelEnabledForMultiChannel() {
+
+        MultiChannelNotificationRequest multi = buildMultiChannelRequest(DeliveryMode.ALL_ENABLED);
+
+        when(routingProfileCache.get(1L)).thenReturn(Optional.of(profileWithEndpoints()));
+
+        assertThatThrownBy(() ->
+                notificationService.createMultiChannelNotification(multi))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No enabled channel configured for user");
+
+        verifyNoInteractions(payloadService);
+    }
+
+    @Test
+    void shouldCreateTemplatedNotificationWithoutPayload() {
+        mockValidUserAndEndpoint();
+
+        request.setPayload(null);
+        request.setTemplateId(3L);
+        request.setTemplateParams(Map.of("name", "Ana"));
+
+        Notification saved = new Notification();
+        saved.setId(12L);
+        saved.setStatus(NotificationStatus.CREATED);
+
+        when(notificationRepository.save(any())).thenReturn(saved);
+
+        notificationService.createNotification(request);
+
+        verify(templateService).validateParameters(3L, request.getTemplateParams());
+        verify(notificationRepository).save(argThat(notification ->
+                notification.getPayloadId() == null
+                        && notification.getTemplateId().equals(3L)
+                        && "Ana".equals(notification.getTemplateParams().get("name"))
+        ));
+    }
+
+    @Test
+    void shouldThrowIfBothPayloadAndTemplateProvided() {
+
+        request.setTemplateId(3L);
+
+        assertThatThrownBy(() ->
+                notificationService.createNotification(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Exactly one of payload or templateId must be provided");
+
+        verify(notificationRepository, never()).save(any());
+    }
+
+    private MultiChannelNotificationRequest buildMultiChannelRequest(DeliveryMode mode) {
+        MultiChannelNotificationRequest multi = new MultiChannelNotificationRequest();
+        multi.setUserId(1L);
+        multi.setMode(mode);
+        multi.setPayload("Test");
+        multi.setPriority(NotificationPriority.HIGH);
+        return multi;
+    }
+
     private CreateNotificationRequest buildRequest(Long userId) {
         CreateNotificationRequest request = new CreateNotificationRequest();
         request.setUserId(userId);
@@ -455,10 +1093,20 @@ class NotificationServiceImplTest {
     }
 
     private void mockValidUserAndChannelEndpoint() {
-        when(userRepository.findById(any()))
-                .thenReturn(Optional.of(new User()));
+        when(routingProfileCache.get(any()))
+                .thenReturn(Optional.of(profileWithEndpoints(ChannelType.EMAIL)));
+    }
+
+    private RoutingProfile profileWithEndpoints(ChannelType... channels) {
+        Map<ChannelType, String> endpoints = new EnumMap<>(ChannelType.class);
+        for (ChannelType channel : channels) {
+            endpoints.put(channel, "endpoint-" + channel);
+        }
+        return new RoutingProfile(1L, "en", endpoints, Set.of());
+    }
 
-        when(endpointRepository.findByUserIdAndChannelType(any(), any()))
-                .thenReturn(Optional.of(new UserChannelEndpoint()));
+    private NotificationSummary summary(Long id, LocalDateTime createdAt) {
+        return new NotificationSummary(id, 1L, ChannelType.EMAIL, NotificationStatus.SENT,
+                NotificationPriority.HIGH, 0, 3, createdAt, null, createdAt, createdAt);
     }
 }
@@ -0,0 +1,157 @@
+package com.notification.service;
+
+import com.notification.cache.UserExistenceFilter;
+import com.notification.config.StreamProperties;
+import com.notification.event.NotificationStatusChangedEvent;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.ResourceNotFoundException;
+import com.notification.exception.ServiceUnavailableException;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamServiceImplTest {
+
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+
+    @Mock
+    private ExecutorService sender;
+
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    private StreamProperties properties;
+
+    private NotificationStreamServiceImpl streamService;
+
+    @BeforeEach
+    void setup() {
+        properties = new StreamProperties();
+        properties.setBufferSize(2);
+
+        streamService = new NotificationStreamServiceImpl(
+                userExistenceFilter, properties, new SimpleMeterRegistry(), sender);
+    }
+
+    @Test
+    void shouldDeliverOnlyMatchingEvents() throws Exception {
+        runDrainsInline();
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        streamService.subscribe(emitter, null, Set.of(1L));
+
+        streamService.onStatusChanged(event(1L, NotificationStatus.SENT));
+        streamService.onStatusChanged(event(2L, NotificationStatus.SENT));
+
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void shouldRejectStreamsBeyondMaxSubscribersAsUnavailable() {
+        properties.setMaxSubscribers(1);
+
+        streamService.subscribe(mock(SseEmitter.class), null, Set.of(1L));
+
+        assertThatThrownBy(() -> streamService.subscribe(mock(SseEmitter.class), null, Set.of(2L)))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(ex -> assertThat(((ServiceUnavailableException) ex).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void shouldDropOldestEventsWhenBufferIsFull() throws Exception {
+        captureDrains();
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        streamService.subscribe(emitter, 7L, Set.of());
+
+        streamService.onStatusChanged(event(1L, NotificationStatus.PROCESSING));
+        streamService.onStatusChanged(event(2L, NotificationStatus.PROCESSING));
+        streamService.onStatusChanged(event(3L, NotificationStatus.PROCESSING));
+
+        pendingDrains.forEach(Runnable::run);
+
+        // one dropped notice followed by the two newest events
+        verify(emitter, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void shouldDisconnectSlowConsumerWhenConfigured() throws Exception {
+        captureDrains();
+        properties.setOverflowPolicy(StreamProperties.OverflowPolicy.DISCONNECT);
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        streamService.subscribe(emitter, 7L, Set.of());
+
+        streamService.onStatusChanged(event(1L, NotificationStatus.PROCESSING));
+        streamService.onStatusChanged(event(2L, NotificationStatus.PROCESSING));
+        streamService.onStatusChanged(event(3L, NotificationStatus.PROCESSING));
+
+        verify(emitter).complete();
+
+        pendingDrains.forEach(Runnable::run);
+
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void shouldRejectUnknownUser() {
+
+        when(userExistenceFilter.exists(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> streamService.subscribeToUser(9L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("User not found");
+    }
+
+    @Test
+    void shouldRejectTooManyIds() {
+
+        properties.setMaxIdsPerSubscription(1);
+
+        assertThatThrownBy(() -> streamService.subscribeToNotifications(List.of(1L, 2L)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("exceeds maximum");
+    }
+
+    private void runDrainsInline() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(sender).execute(any(Runnable.class));
+    }
+
+    private void captureDrains() {
+        doAnswer(invocation -> pendingDrains.add(invocation.getArgument(0)))
+                .when(sender).execute(any(Runnable.class));
+    }
+
+    private NotificationStatusChangedEvent event(Long notificationId, NotificationStatus status) {
+        return new NotificationStatusChangedEvent(
+                notificationId, 7L, ChannelType.EMAIL, status, 0, LocalDateTime.now());
+    }
+}
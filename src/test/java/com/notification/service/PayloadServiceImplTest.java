@@ -0,0 +1,169 @@
+package com.notification.service;
+
+import com.notification.cache.RoutingProfileCache;
+import com.notification.config.PayloadProperties;
+import com.notification.config.RetentionProperties;
+import com.notification.model.entity.Notification;
+import com.notification.model.entity.NotificationPayload;
+import com.notification.model.routing.RoutingProfile;
+import com.notification.repository.NotificationPayloadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadServiceImplTest {
+
+    @Mock
+    private NotificationPayloadRepository payloadRepository;
+
+    @Mock
+    private TemplateService templateService;
+
+    @Mock
+    private RoutingProfileCache routingProfileCache;
+
+    private PayloadServiceImpl payloadService;
+
+    @BeforeEach
+    void setup() {
+        PayloadProperties properties = new PayloadProperties();
+        properties.setCompressionThresholdBytes(16);
+
+        payloadService = new PayloadServiceImpl(
+                payloadRepository,
+                templateService,
+                routingProfileCache,
+                properties,
+                new RetentionProperties(),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void shouldRefuseHashCacheOutlivingOrphanGrace() {
+        PayloadProperties properties = new PayloadProperties();
+        properties.setHashCacheTtl(Duration.ofDays(2));
+
+        assertThatThrownBy(() -> new PayloadServiceImpl(
+                payloadRepository,
+                templateService,
+                routingProfileCache,
+                properties,
+                new RetentionProperties(),
+                new SimpleMeterRegistry()
+        )).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldReuseExistingPayloadWithSameHash() {
+
+        when(payloadRepository.findIdByContentHash(anyString()))
+                .thenReturn(Optional.of(5L));
+        when(payloadRepository.touch(5L)).thenReturn(1);
+
+        assertThat(payloadService.store("hello")).isEqualTo(5L);
+        assertThat(payloadService.store("hello")).isEqualTo(5L);
+
+        verify(payloadRepository, times(1)).findIdByContentHash(anyString());
+        verify(payloadRepository, never()).insertIfAbsent(anyString(), anyBoolean(), any());
+    }
+
+    @Test
+    void shouldStoreAgainWhenRetentionRemovedTheExistingPayload() {
+
+        when(payloadRepository.findIdByContentHash(anyString())).thenReturn(Optional.of(5L));
+        when(payloadRepository.touch(5L)).thenReturn(0);
+        when(payloadRepository.lockIdByContentHash(anyString())).thenReturn(Optional.of(11L));
+
+        assertThat(payloadService.store("hello")).isEqualTo(11L);
+
+        verify(payloadRepository).insertIfAbsent(anyString(), eq(false), any());
+    }
+
+    @Test
+    void shouldCompressPayloadAboveThreshold() throws Exception {
+
+        String body = "a body that is clearly longer than sixteen bytes";
+
+        when(payloadRepository.findIdByContentHash(anyString())).thenReturn(Optional.empty());
+        when(payloadRepository.lockIdByContentHash(anyString())).thenReturn(Optional.of(8L));
+
+        assertThat(payloadService.store(body)).isEqualTo(8L);
+
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(payloadRepository).insertIfAbsent(anyString(), eq(true), stored.capture());
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(stored.getValue()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void shouldStoreSmallPayloadUncompressed() {
+
+        when(payloadRepository.findIdByContentHash(anyString())).thenReturn(Optional.empty());
+        when(payloadRepository.lockIdByContentHash(anyString())).thenReturn(Optional.of(9L));
+
+        payloadService.store("short");
+
+        verify(payloadRepository).insertIfAbsent(
+                anyString(), eq(false), eq("short".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldServeResolvedPayloadFromCache() {
+
+        NotificationPayload payload = new NotificationPayload();
+        payload.setId(5L);
+        payload.setBody("hello".getBytes(StandardCharsets.UTF_8));
+
+        when(payloadRepository.findById(5L)).thenReturn(Optional.of(payload));
+
+        Notification notification = new Notification();
+        notification.setPayloadId(5L);
+
+        assertThat(payloadService.resolve(notification)).isEqualTo("hello");
+        assertThat(payloadService.resolve(notification)).isEqualTo("hello");
+
+        verify(payloadRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void shouldRenderTemplateInUserLanguage() {
+
+        Notification notification = new Notification();
+        notification.setUserId(1L);
+        notification.setTemplateId(3L);
+        notification.setTemplateParams(Map.of("name", "Ana"));
+
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(new RoutingProfile(1L, "fr", Map.of(), Set.of())));
+        when(templateService.render(3L, "fr", Map.of("name", "Ana"))).thenReturn("Bonjour Ana");
+
+        assertThat(payloadService.resolve(notification)).isEqualTo("Bonjour Ana");
+    }
+}
@@ -0,0 +1,200 @@
+package com.notification.service;
+
+import com.notification.cache.TemplateCache;
+import com.notification.config.CacheProperties;
+import com.notification.config.TemplateProperties;
+import com.notification.exception.BadRequestException;
+import com.notification.exception.ResourceNotFoundException;
+import com.notification.model.dto.request.CreateTemplateRequest;
+import com.notification.model.entity.NotificationTemplate;
+import com.notification.model.entity.NotificationTemplateVariant;
+import com.notification.repository.CacheInvalidationRepository;
+import com.notification.repository.NotificationTemplateRepository;
+import com.notification.repository.NotificationTemplateVariantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TemplateServiceImplTest {
+
+    @Mock
+    private NotificationTemplateRepository templateRepository;
+
+    @Mock
+    private NotificationTemplateVariantRepository variantRepository;
+
+    @Mock
+    private CacheInvalidationRepository invalidationRepository;
+
+    private TemplateServiceImpl templateService;
+
+    @BeforeEach
+    void setup() {
+        TemplateCache templateCache = new TemplateCache(
+                variantRepository,
+                invalidationRepository,
+                new TemplateProperties(),
+                new CacheProperties(),
+                new SimpleMeterRegistry()
+        );
+
+        templateService = new TemplateServiceImpl(templateRepository, variantRepository, templateCache);
+    }
+
+    @Test
+    void shouldRenderPreferredLanguageVariant() {
+
+        when(variantRepository.findByTemplateIdAndLocale(1L, "fr"))
+                .thenReturn(Optional.of(variant("fr", "Bonjour {{ name }}, commande {{order}}")));
+
+        String rendered = templateService.render(1L, "fr", Map.of("name", "Ana", "order", "42"));
+
+        assertThat(rendered).isEqualTo("Bonjour Ana, commande 42");
+    }
+
+    @Test
+    void shouldFallBackToLanguageThenDefaultLocale() {
+
+        when(variantRepository.findByTemplateIdAndLocale(1L, "pt-br")).thenReturn(Optional.empty());
+        when(variantRepository.findByTemplateIdAndLocale(1L, "pt")).thenReturn(Optional.empty());
+        when(variantRepository.findByTemplateIdAndLocale(1L, "en"))
+                .thenReturn(Optional.of(variant("en", "Hi {{name}}")));
+
+        assertThat(templateService.render(1L, "pt_BR", Map.of("name", "Ana")))
+                .isEqualTo("Hi Ana");
+    }
+
+    @Test
+    void shouldCacheCompiledTemplate() {
+
+        when(variantRepository.findByTemplateIdAndLocale(1L, "en"))
+                .thenReturn(Optional.of(variant("en", "Hi {{name}}")));
+
+        templateService.render(1L, "en", Map.of("name", "Ana"));
+        templateService.render(1L, "en", Map.of("name", "Bo"));
+
+        verify(variantRepository, times(1)).findByTemplateIdAndLocale(1L, "en");
+    }
+
+    @Test
+    void shouldThrowIfTemplateParameterMissing() {
+
+        when(variantRepository.findByTemplateIdAndLocale(1L, "en"))
+                .thenReturn(Optional.of(variant("en", "Hi {{name}}")));
+
+        assertThatThrownBy(() -> templateService.render(1L, null, Map.of()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Missing template parameter: name");
+    }
+
+    @Test
+    void shouldRejectDuplicateTemplateName() {
+
+        CreateTemplateRequest request = new CreateTemplateRequest();
+        request.setName("welcome");
+        request.setVariants(Map.of("en", "Hi"));
+
+        when(templateRepository.existsByName("welcome")).thenReturn(true);
+
+        assertThatThrownBy(() -> templateService.createTemplate(request))
+                .isInstanceOf(BadRequestException.class);
+
+        verify(templateRepository, never()).save(any(NotificationTemplate.class));
+    }
+
+    @Test
+    void shouldRejectTemplateWithoutDefaultLocaleVariant() {
+
+        CreateTemplateRequest request = new CreateTemplateRequest();
+        request.setName("welcome");
+        request.setVariants(Map.of("fr", "Bonjour"));
+
+        assertThatThrownBy(() -> templateService.createTemplate(request))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("default locale en");
+
+        verify(templateRepository, never()).save(any(NotificationTemplate.class));
+    }
+
+    @Test
+    void shouldRejectParametersMissingFromAnyVariant() {
+
+        when(variantRepository.findByTemplateId(1L)).thenReturn(List.of(
+                variant("en", "Hi {{name}}"),
+                variant("fr", "Bonjour {{name}} de {{city}}")));
+
+        assertThatThrownBy(() -> templateService.validateParameters(1L, Map.of("name", "Ana")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Missing template parameters: city");
+    }
+
+    @Test
+    void shouldRejectUnknownTemplate() {
+
+        when(variantRepository.findByTemplateId(1L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> templateService.validateParameters(1L, Map.of()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void shouldLogVariantChangesForOtherNodes() {
+
+        NotificationTemplate template = new NotificationTemplate();
+        template.setId(1L);
+        template.setName("welcome");
+
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(template));
+        when(variantRepository.findByTemplateId(1L)).thenReturn(List.of(variant("en", "Hi {{name}}")));
+        when(variantRepository.findByTemplateIdAndLocale(1L, "en"))
+                .thenReturn(Optional.of(variant("en", "Hi {{name}}")))
+                .thenReturn(Optional.of(variant("en", "Hello {{name}}")));
+
+        assertThat(templateService.render(1L, "en", Map.of("name", "Ana"))).isEqualTo("Hi Ana");
+
+        templateService.upsertVariant(1L, "en", "Hello {{name}}");
+
+        verify(invalidationRepository).record(TemplateCache.NAME, 1L);
+        assertThat(templateService.render(1L, "en", Map.of("name", "Ana"))).isEqualTo("Hello Ana");
+    }
+
+    @Test
+    void shouldRejectVariantAddingParameters() {
+
+        NotificationTemplate template = new NotificationTemplate();
+        template.setId(1L);
+
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(template));
+        when(variantRepository.findByTemplateId(1L)).thenReturn(List.of(variant("en", "Hi {{name}}")));
+
+        assertThatThrownBy(() -> templateService.upsertVariant(1L, "fr", "Bonjour {{name}}, {{coupon}}"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Variant uses parameters the template does not have: coupon");
+
+        verify(variantRepository, never()).save(any(NotificationTemplateVariant.class));
+    }
+
+    private NotificationTemplateVariant variant(String locale, String body) {
+        NotificationTemplateVariant variant = new NotificationTemplateVariant();
+        variant.setTemplateId(1L);
+        variant.setLocale(locale);
+        variant.setBody(body);
+        return variant;
+    }
+}
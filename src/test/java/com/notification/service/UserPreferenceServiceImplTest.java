@@ -1,15 +1,17 @@
 package com.notification.service;
 
-import com.notification.model.entity.UserPreference;
+import com.notification.cache.RoutingProfileCache;
 import com.notification.model.enums.ChannelType;
-import com.notification.repository.UserPreferenceRepository;
+import com.notification.model.routing.RoutingProfile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.Mockito.when;
@@ -18,7 +20,7 @@ import static org.mockito.Mockito.when;
 class UserPreferenceServiceImplTest {
 
     @Mock
-    private UserPreferenceRepository preferenceRepository;
+    private RoutingProfileCache routingProfileCache;
 
     @InjectMocks
     private UserPreferenceServiceImpl preferenceService;
@@ -26,11 +28,8 @@ class UserPreferenceServiceImplTest {
     @Test
     void shouldNotThrowIfChannelEnabled() {
 
-        UserPreference preference = new UserPreference();
-        preference.setEnabled(true);
-
-        when(preferenceRepository.findByUserIdAndChannelType(1L, ChannelType.EMAIL))
-                .thenReturn(Optional.of(preference));
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(new RoutingProfile(1L, "en", Map.of(), Set.of())));
 
         preferenceService.validateChannelEnabled(1L, ChannelType.EMAIL);
 
@@ -40,11 +39,8 @@ class UserPreferenceServiceImplTest {
     @Test
     void shouldThrowIfChannelDisabled() {
 
-        UserPreference preference = new UserPreference();
-        preference.setEnabled(false);
-
-        when(preferenceRepository.findByUserIdAndChannelType(1L, ChannelType.EMAIL))
-                .thenReturn(Optional.of(preference));
+        when(routingProfileCache.get(1L))
+                .thenReturn(Optional.of(new RoutingProfile(1L, "en", Map.of(), Set.of(ChannelType.EMAIL))));
 
         assertThatThrownBy(() ->
                 preferenceService.validateChannelEnabled(1L, ChannelType.EMAIL))
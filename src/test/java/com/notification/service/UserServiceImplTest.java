@@ -1,5 +1,7 @@
 package com.notification.service;
 
+import com.notification.cache.RoutingProfileCache;
+import com.notification.cache.UserExistenceFilter;
 import com.notification.channel.NotificationChannel;
 import com.notification.channel.NotificationChannelFactory;
 import com.notification.exception.ResourceNotFoundException;
@@ -50,6 +52,12 @@ class UserServiceImplTest {
     @Mock
     private NotificationChannel channel;
 
+    @Mock
+    private RoutingProfileCache routingProfileCache;
+
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+
     @Test
     void shouldCreateUserSuccessfully() {
 
@@ -67,6 +75,7 @@ class UserServiceImplTest {
 
         assertThat(response.getUserId()).isEqualTo(1L);
         verify(userRepository).save(any(User.class));
+        verify(userExistenceFilter).register(1L);
     }
 
     @Test
@@ -78,11 +87,8 @@ class UserServiceImplTest {
         request.setChannelType(ChannelType.EMAIL);
         request.setEndpointValue("test@example.com");
 
-        User user = new User();
-        user.setId(userId);
-
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceFilter.exists(userId))
+                .thenReturn(true);
 
         when(channelFactory.getChannel(ChannelType.EMAIL))
                 .thenReturn(channel);
@@ -100,8 +106,8 @@ class UserServiceImplTest {
     @Test
     void shouldThrowIfUserNotFound() {
 
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(false);
 
         AddChannelEndpointRequest request = new AddChannelEndpointRequest();
         request.setChannelType(ChannelType.EMAIL);
@@ -121,15 +127,12 @@ class UserServiceImplTest {
         request.setChannelType(ChannelType.EMAIL);
         request.setEndpointValue("new@example.com");
 
-        User user = new User();
-        user.setId(userId);
-
         UserChannelEndpoint existing = new UserChannelEndpoint();
         existing.setUserId(userId);
         existing.setChannelType(ChannelType.EMAIL);
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(user));
+        when(userExistenceFilter.exists(userId))
+                .thenReturn(true);
 
         when(endpointRepository.findByUserIdAndChannelType(userId, ChannelType.EMAIL))
                 .thenReturn(Optional.of(existing));
@@ -146,6 +149,7 @@ class UserServiceImplTest {
                 userService.addChannelEndpoint(userId, request);
 
         assertThat(response.getEndpointValue()).isEqualTo("new@example.com");
+        verify(routingProfileCache).invalidate(userId);
     }
 
     @Test
@@ -153,8 +157,8 @@ class UserServiceImplTest {
 
         Long userId = 1L;
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(new User()));
+        when(userExistenceFilter.exists(userId))
+                .thenReturn(true);
 
         UserPreference existing = new UserPreference();
         existing.setUserId(userId);
@@ -167,6 +171,7 @@ class UserServiceImplTest {
         userService.updateUserPreference(userId, ChannelType.EMAIL, false);
 
         verify(preferenceRepository).save(existing);
+        verify(routingProfileCache).invalidate(userId);
     }
 
     @Test
@@ -174,8 +179,8 @@ class UserServiceImplTest {
 
         Long userId = 1L;
 
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(new User()));
+        when(userExistenceFilter.exists(userId))
+                .thenReturn(true);
 
         when(preferenceRepository.findByUserIdAndChannelType(userId, ChannelType.EMAIL))
                 .thenReturn(Optional.empty());
@@ -188,8 +193,8 @@ class UserServiceImplTest {
     @Test
     void shouldThrowIfUserNotFoundWhenUpdatingPreference() {
 
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        when(userExistenceFilter.exists(1L))
+                .thenReturn(false);
 
         assertThatThrownBy(() ->
                 userService.updateUserPreference(1L, ChannelType.EMAIL, true))
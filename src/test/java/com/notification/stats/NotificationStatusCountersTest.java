@@ -0,0 +1,134 @@
+package com.notification.stats;
+
+import com.notification.model.entity.Notification;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.StatusCountRepository;
+import com.notification.repository.StatusCountRepository.CampaignStatusCount;
+import com.notification.repository.StatusCountRepository.StatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStatusCountersTest {
+
+    @Mock
+    private StatusCountRepository statusCountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationStatusCounters statusCounters;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        statusCounters = new NotificationStatusCounters(statusCountRepository, transactionTemplate, meterRegistry);
+
+        when(statusCountRepository.findTotals()).thenReturn(Map.of(NotificationStatus.SENT, 5L));
+    }
+
+    @Test
+    void shouldFlushNetDeltasAndRefreshGauges() {
+        runTransactionsInline();
+
+        Notification notification = notification(NotificationStatus.CREATED);
+        statusCounters.recordCreated(notification);
+
+        notification.setStatus(NotificationStatus.PROCESSING);
+        statusCounters.recordTransition(notification, NotificationStatus.CREATED);
+
+        notification.setStatus(NotificationStatus.SENT);
+        statusCounters.recordTransition(notification, NotificationStatus.PROCESSING);
+
+        statusCounters.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StatusCount>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(statusCountRepository).applyDeltas(deltas.capture());
+
+        assertThat(deltas.getValue())
+                .containsExactly(new StatusCount(1L, ChannelType.EMAIL, NotificationStatus.SENT, 1));
+
+        assertThat(meterRegistry.get("notification.queue.depth").tag("status", "SENT").gauge().value())
+                .isEqualTo(5.0);
+    }
+
+    @Test
+    void shouldRetryDeltasAfterFailedFlush() {
+
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        statusCounters.recordCreated(notification(NotificationStatus.CREATED));
+        statusCounters.flush();
+
+        runTransactionsInline();
+        statusCounters.flush();
+
+        verify(statusCountRepository, times(1)).applyDeltas(
+                List.of(new StatusCount(1L, ChannelType.EMAIL, NotificationStatus.CREATED, 1)));
+    }
+
+    @Test
+    void shouldSubtractRemovedRows() {
+        runTransactionsInline();
+
+        statusCounters.recordRemoved(1L, ChannelType.EMAIL, 4L, NotificationStatus.SENT, 3);
+        statusCounters.flush();
+
+        verify(statusCountRepository).applyDeltas(
+                List.of(new StatusCount(1L, ChannelType.EMAIL, NotificationStatus.SENT, -3)));
+        verify(statusCountRepository).applyCampaignDeltas(
+                List.of(new CampaignStatusCount(4L, NotificationStatus.SENT, -3)));
+        verify(statusCountRepository).applyTotalDeltas(Map.of(NotificationStatus.SENT, -3L));
+    }
+
+    @Test
+    void shouldSkipWriteWhenNothingChanged() {
+
+        statusCounters.flush();
+
+        verify(statusCountRepository, never()).applyDeltas(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private Notification notification(NotificationStatus status) {
+        Notification notification = new Notification();
+        notification.setUserId(1L);
+        notification.setChannelType(ChannelType.EMAIL);
+        notification.setStatus(status);
+        return notification;
+    }
+}
@@ -0,0 +1,108 @@
+package com.notification.stats;
+
+import com.notification.config.CounterProperties;
+import com.notification.model.enums.ChannelType;
+import com.notification.model.enums.NotificationStatus;
+import com.notification.repository.StatusCountRepository;
+import com.notification.repository.StatusCountRepository.StatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStatusReconcilerTest {
+
+    @Mock
+    private StatusCountRepository statusCountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationStatusReconciler reconciler;
+
+    @BeforeEach
+    void setup() {
+        CounterProperties properties = new CounterProperties();
+        properties.setReconcilePause(Duration.ZERO);
+
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new NotificationStatusReconciler(statusCountRepository, transactionTemplate, properties, meterRegistry);
+
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        when(statusCountRepository.findMaxUserId()).thenReturn(10L);
+        when(statusCountRepository.findMaxCampaignId()).thenReturn(0L);
+    }
+
+    @Test
+    void shouldCorrectDriftOnlyOnceTwoPassesSeeItUnchanged() {
+        when(statusCountRepository.findByUserIdRange(0, 500)).thenReturn(List.of(count(7)));
+        when(statusCountRepository.recountUsers(0, 500)).thenReturn(List.of(count(9)));
+        when(statusCountRepository.replaceCount(count(7), 9)).thenReturn(true);
+
+        reconciler.reconcile();
+
+        verify(statusCountRepository, never()).replaceCount(any(), anyLong());
+
+        reconciler.reconcile();
+
+        verify(statusCountRepository).replaceCount(count(7), 9);
+        verify(statusCountRepository).applyTotalDeltas(Map.of(NotificationStatus.SENT, 2L));
+        assertThat(meterRegistry.get("notification.counters.corrections").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCorrectWhenStoredCountMovedBetweenPasses() {
+        // A delta still waiting to be flushed, landing between the two passes
+        when(statusCountRepository.findByUserIdRange(0, 500))
+                .thenReturn(List.of(count(7)))
+                .thenReturn(List.of(count(8)));
+        when(statusCountRepository.recountUsers(0, 500)).thenReturn(List.of(count(9)));
+
+        reconciler.reconcile();
+        reconciler.reconcile();
+
+        verify(statusCountRepository, never()).replaceCount(any(), anyLong());
+        verify(statusCountRepository, never()).applyTotalDeltas(any());
+    }
+
+    @Test
+    void shouldLeaveTotalsAloneWhenCompareAndSetLoses() {
+        when(statusCountRepository.findByUserIdRange(0, 500)).thenReturn(List.of(count(7)));
+        when(statusCountRepository.recountUsers(0, 500)).thenReturn(List.of(count(9)));
+        when(statusCountRepository.replaceCount(count(7), 9)).thenReturn(false);
+
+        reconciler.reconcile();
+        reconciler.reconcile();
+
+        verify(statusCountRepository, never()).applyTotalDeltas(any());
+        assertThat(meterRegistry.get("notification.counters.corrections").counter().count()).isZero();
+    }
+
+    private StatusCount count(long count) {
+        return new StatusCount(1L, ChannelType.EMAIL, NotificationStatus.SENT, count);
+    }
+}